@@ -0,0 +1,83 @@
+#!/usr/bin/env python3
+"""Compara dos resultados JSON de JMH (mvn test -Pjmh) y marca las regresiones.
+
+Uso:
+    python3 scripts/jmh-compare.py antes.json despues.json [--threshold 10]
+
+Un benchmark empeora si el cambio supera el umbral (en %) y además la
+diferencia es mayor que la suma de los errores de ambas ejecuciones. En modo
+thrpt más es mejor; en avgt, sample y ss menos es mejor. Devuelve código 1 si
+hay alguna regresión, para poder usarlo en CI.
+"""
+
+import argparse
+import json
+import sys
+
+LOWER_IS_BETTER = {"avgt", "sample", "ss"}
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        results = {}
+        for run in json.load(f):
+            params = run.get("params") or {}
+            # Clase.método sin el paquete, más los @Param
+            name = ".".join(run["benchmark"].split(".")[-2:])
+            key = name + "".join(f" {k}={v}" for k, v in sorted(params.items()))
+            metric = run["primaryMetric"]
+            error = metric.get("scoreError")
+            results[key] = {
+                "mode": run["mode"],
+                "score": metric["score"],
+                "error": 0.0 if error in (None, "NaN") or error != error else float(error),
+                "unit": metric["scoreUnit"],
+            }
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compara dos resultados JSON de JMH")
+    parser.add_argument("baseline", help="resultado de referencia (antes del cambio)")
+    parser.add_argument("current", help="resultado nuevo (después del cambio)")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="porcentaje de empeoramiento que cuenta como regresión (por defecto 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+
+    regressions = 0
+    width = max((len(k) for k in current), default=10)
+    print(f"{'Benchmark':<{width}}  {'Antes':>12}  {'Después':>12}  {'Cambio':>8}  Unidad")
+    for key in sorted(current):
+        now = current[key]
+        before = baseline.get(key)
+        if before is None:
+            print(f"{key:<{width}}  {'-':>12}  {now['score']:>12.3f}  {'nuevo':>8}  {now['unit']}")
+            continue
+        if before["score"] == 0:
+            continue
+        change = (now["score"] - before["score"]) / before["score"] * 100
+        # Cambio positivo = peor, sea cual sea el modo
+        worse = change if now["mode"] in LOWER_IS_BETTER else -change
+        significant = abs(now["score"] - before["score"]) > before["error"] + now["error"]
+        flag = ""
+        if worse > args.threshold and significant:
+            flag = "  << REGRESIÓN"
+            regressions += 1
+        elif worse < -args.threshold and significant:
+            flag = "  mejora"
+        print(f"{key:<{width}}  {before['score']:>12.3f}  {now['score']:>12.3f}  {change:>+7.1f}%  {now['unit']}{flag}")
+
+    for key in sorted(set(baseline) - set(current)):
+        print(f"{key:<{width}}  {baseline[key]['score']:>12.3f}  {'-':>12}  {'quitado':>8}  {baseline[key]['unit']}")
+
+    if regressions:
+        print(f"\n{regressions} regresión(es) por encima del {args.threshold:g}%")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
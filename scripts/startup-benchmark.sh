@@ -0,0 +1,125 @@
+#!/usr/bin/env bash
+# Mide el arranque en frío: tiempo desde que se lanza la JVM hasta el primer
+# GET /api/tasks con respuesta 200 (incluye el login) y memoria residente (RSS)
+# en ese momento. Cada ejecución se añade a un histórico CSV para seguir la
+# evolución por build y se compara con la anterior de la misma etiqueta.
+#
+# Uso:
+#   scripts/startup-benchmark.sh [-n ejecuciones] [-l etiqueta] [-- argumentos de la aplicación]
+#
+# Variables de entorno:
+#   JAR           jar a arrancar (por defecto target/unitasks-*.jar)
+#   JAVA_OPTS     opciones de la JVM, p. ej. "-Dspring.aot.enabled=true -XX:SharedArchiveFile=app.jsa"
+#   PORT          puerto HTTP (8080)
+#   HISTORY       histórico CSV (target/startup/history.csv)
+#   BENCH_EMAIL / BENCH_PASSWORD  usuario de la prueba; se registra si no existe
+#
+# Ejemplo con el jar AOT contra un PostgreSQL local:
+#   mvn package -Paot -DskipTests
+#   JAVA_OPTS="-Dspring.aot.enabled=true" scripts/startup-benchmark.sh -n 5 -l aot -- \
+#     --spring.profiles.active=prod --spring.datasource.url=jdbc:postgresql://localhost:5432/unitasks
+
+set -euo pipefail
+
+RUNS=3
+LABEL=default
+while [[ $# -gt 0 ]]; do
+	case "$1" in
+		-n) RUNS="$2"; shift 2 ;;
+		-l) LABEL="$2"; shift 2 ;;
+		--) shift; break ;;
+		*) echo "Argumento no válido: $1" >&2; exit 2 ;;
+	esac
+done
+APP_ARGS=("$@")
+
+JAR="${JAR:-$(ls target/unitasks-*.jar | head -n 1)}"
+PORT="${PORT:-8080}"
+HISTORY="${HISTORY:-target/startup/history.csv}"
+EMAIL="${BENCH_EMAIL:-startup-bench@unitasks.local}"
+PASSWORD="${BENCH_PASSWORD:-password123}"
+BASE="http://localhost:${PORT}"
+TIMEOUT_SECONDS=120
+
+now_ms() { echo $(( $(date +%s%N) / 1000000 )); }
+
+BODY_FILE=$(mktemp)
+
+# Código HTTP de una petición (000 si no hay conexión); el cuerpo queda en $BODY_FILE
+request() {
+	curl -s -o "$BODY_FILE" -w '%{http_code}' "$@" || true
+}
+
+token_from_body() {
+	sed -n 's/.*"token":"\([^"]*\)".*/\1/p' "$BODY_FILE"
+}
+
+run_once() {
+	local start code token=""
+	start=$(now_ms)
+	# shellcheck disable=SC2086
+	java ${JAVA_OPTS:-} -jar "$JAR" --server.port="$PORT" "${APP_ARGS[@]}" >/tmp/startup-bench-app.log 2>&1 &
+	pid=$!
+	trap 'kill "$pid" 2>/dev/null || true' EXIT
+
+	local credentials="{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}"
+	while :; do
+		if ! kill -0 "$pid" 2>/dev/null; then
+			echo "La aplicación terminó durante el arranque; log en /tmp/startup-bench-app.log" >&2
+			exit 1
+		fi
+		if (( $(now_ms) - start > TIMEOUT_SECONDS * 1000 )); then
+			echo "Sin respuesta en ${TIMEOUT_SECONDS}s" >&2
+			kill "$pid"
+			exit 1
+		fi
+		if [[ -z "$token" ]]; then
+			code=$(request -X POST -H 'Content-Type: application/json' -d "$credentials" "$BASE/api/auth/login")
+			if [[ "$code" == 401 ]]; then
+				code=$(request -X POST -H 'Content-Type: application/json' \
+					-d "{\"name\":\"Startup\",\"lastname\":\"Bench\",\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}" \
+					"$BASE/api/auth/register")
+			fi
+			[[ "$code" == 200 ]] && token=$(token_from_body)
+		fi
+		if [[ -n "$token" ]]; then
+			code=$(request -H "Authorization: Bearer $token" "$BASE/api/tasks")
+			[[ "$code" == 200 ]] && break
+		fi
+		sleep 0.05
+	done
+
+	local elapsed rss
+	elapsed=$(( $(now_ms) - start ))
+	rss=$(awk '/VmRSS/ {print int($2 / 1024)}' "/proc/$pid/status")
+	kill "$pid"
+	wait "$pid" 2>/dev/null || true
+	trap - EXIT
+	echo "$elapsed $rss"
+}
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'; }
+
+times=()
+rsss=()
+for ((i = 1; i <= RUNS; i++)); do
+	read -r elapsed rss < <(run_once)
+	echo "Ejecución $i: primer GET /api/tasks en ${elapsed} ms, RSS ${rss} MB"
+	times+=("$elapsed")
+	rsss+=("$rss")
+done
+
+TIME_MS=$(printf '%s\n' "${times[@]}" | median)
+RSS_MB=$(printf '%s\n' "${rsss[@]}" | median)
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || echo desconocido)
+echo "Mediana ($LABEL, $RUNS ejecuciones): ${TIME_MS} ms, ${RSS_MB} MB"
+
+mkdir -p "$(dirname "$HISTORY")"
+[[ -f "$HISTORY" ]] || echo "fecha,commit,etiqueta,ejecuciones,primer_get_ms,rss_mb" >"$HISTORY"
+PREVIOUS=$(awk -F, -v l="$LABEL" 'NR > 1 && $3 == l { line = $0 } END { print line }' "$HISTORY")
+echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$COMMIT,$LABEL,$RUNS,$TIME_MS,$RSS_MB" >>"$HISTORY"
+
+if [[ -n "$PREVIOUS" ]]; then
+	IFS=, read -r _ prev_commit _ _ prev_ms prev_rss <<<"$PREVIOUS"
+	echo "Anterior ($prev_commit): ${prev_ms} ms, ${prev_rss} MB -> cambio $(( TIME_MS - prev_ms )) ms, $(( RSS_MB - prev_rss )) MB"
+fi
@@ -0,0 +1,86 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.josemiguelhyb.unitasks.dto.LeaderboardEntry;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+
+/**
+ * Datos y dependencias compartidos por los benchmarks, sin contexto de Spring.
+ */
+final class BenchmarkFixtures {
+
+	// Mismos valores que application.properties
+	static final String JWT_SECRET = "UniTasksSecretKeyMiguel2024SuperSecureJWTTokenGenerationKeyForAuthenticationSystem";
+	static final long JWT_EXPIRATION = 86_400_000L;
+
+	static final String EMAIL = "bench@unitasks.local";
+
+	private static final TaskStatus[] STATUSES = TaskStatus.values();
+	private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+	private BenchmarkFixtures() {
+	}
+
+	static JwtUtil jwtUtil() {
+		JwtUtil jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+		ReflectionTestUtils.setField(jwtUtil, "expiration", JWT_EXPIRATION);
+		return jwtUtil;
+	}
+
+	static User user(long id) {
+		User user = new User("Nombre" + id, "Apellido" + id, "user" + id + "@unitasks.local",
+				"$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7Fj8VfGZ4DmH9xj8oXdY6yG", true);
+		user.setId(id);
+		return user;
+	}
+
+	static List<Task> tasks(int count) {
+		User owner = user(1);
+		LocalDateTime now = LocalDateTime.of(2025, 12, 19, 10, 30);
+		List<Task> tasks = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Task task = new Task("Tarea " + i, "Descripción de la tarea número " + i, owner);
+			task.setId((long) i);
+			task.setStatus(STATUSES[i % STATUSES.length]);
+			task.setPriority(PRIORITIES[i % PRIORITIES.length]);
+			task.setCreatedAt(now);
+			task.setUpdatedAt(now);
+			task.setDueDate(now.plusDays(i % 30));
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	static List<LeaderboardEntry> leaderboard(int count) {
+		List<LeaderboardEntry> entries = new ArrayList<>(count);
+		for (long i = 0; i < count; i++) {
+			entries.add(new LeaderboardEntry(i, "Nombre" + i, "Apellido" + i, "user" + i + "@unitasks.local",
+					40L, 10L, 10L, i % 20, 0L));
+		}
+		return entries;
+	}
+
+	// UserRepository que solo responde a findByEmail (lo único que usa el filtro JWT)
+	static UserRepository userRepository(User user) {
+		return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+				new Class<?>[] { UserRepository.class }, (proxy, method, args) -> {
+					if (method.getName().equals("findByEmail")) {
+						return user.getEmail().equals(args[0]) ? Optional.of(user) : Optional.empty();
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+}
@@ -0,0 +1,95 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.josemiguelhyb.unitasks.dto.LeaderboardEntry;
+import com.josemiguelhyb.unitasks.model.Task;
+
+/**
+ * JSON frente a CBOR y Smile (Accept application/cbor y
+ * application/x-jackson-smile) con las respuestas más grandes: lista de
+ * tareas de un usuario y tabla de clasificación. Escritura y lectura (lo que
+ * hace el cliente, o el servidor con POST /api/tasks/batch) con el
+ * ObjectMapper configurado como el de Spring Boot (fechas ISO-8601). Los
+ * bytes de cada respuesta se imprimen al preparar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatsBenchmark {
+
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+
+	@Param({ "100", "1000" })
+	public int size;
+
+	private ObjectMapper objectMapper;
+	private List<Task> tasks;
+	private List<LeaderboardEntry> leaderboard;
+	private byte[] tasksBytes;
+	private byte[] leaderboardBytes;
+	private JavaType taskListType;
+	private JavaType leaderboardType;
+
+	@Setup
+	public void setUp() throws Exception {
+		Jackson2ObjectMapperBuilder builder = switch (format) {
+			case "json" -> Jackson2ObjectMapperBuilder.json();
+			case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+			case "smile" -> Jackson2ObjectMapperBuilder.smile();
+			default -> throw new IllegalArgumentException(format);
+		};
+		objectMapper = builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+		tasks = BenchmarkFixtures.tasks(size);
+		leaderboard = BenchmarkFixtures.leaderboard(size);
+		tasksBytes = objectMapper.writeValueAsBytes(tasks);
+		leaderboardBytes = objectMapper.writeValueAsBytes(leaderboard);
+		taskListType = objectMapper.getTypeFactory().constructCollectionType(List.class, Task.class);
+		leaderboardType = objectMapper.getTypeFactory().constructCollectionType(List.class, LeaderboardEntry.class);
+
+		System.out.printf("%n%s, %d elementos: tareas %.1f KB (%.0f bytes cada una), clasificación %.1f KB"
+				+ " (%.0f bytes cada una)%n", format, size, tasksBytes.length / 1e3, (double) tasksBytes.length / size,
+				leaderboardBytes.length / 1e3, (double) leaderboardBytes.length / size);
+	}
+
+	@Benchmark
+	public byte[] writeTasks() throws Exception {
+		return objectMapper.writeValueAsBytes(tasks);
+	}
+
+	@Benchmark
+	public List<Task> readTasks() throws Exception {
+		return objectMapper.readValue(tasksBytes, taskListType);
+	}
+
+	@Benchmark
+	public byte[] writeLeaderboard() throws Exception {
+		return objectMapper.writeValueAsBytes(leaderboard);
+	}
+
+	@Benchmark
+	public List<LeaderboardEntry> readLeaderboard() throws Exception {
+		return objectMapper.readValue(leaderboardBytes, leaderboardType);
+	}
+}
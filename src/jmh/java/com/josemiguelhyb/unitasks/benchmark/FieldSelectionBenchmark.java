@@ -0,0 +1,146 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.josemiguelhyb.unitasks.UnitasksApplication;
+import com.josemiguelhyb.unitasks.dto.FieldSelection;
+import com.josemiguelhyb.unitasks.dto.TaskField;
+import com.josemiguelhyb.unitasks.service.TaskService;
+
+/**
+ * GET /api/tasks con y sin ?fields= sobre H2 en memoria con el perfil test:
+ * un usuario con tasks tareas de descripción larga y etiquetas. full lee las
+ * tareas enteras y las serializa con el ObjectMapper de Spring; selected lee
+ * solo las columnas de fields y serializa solo esos campos, como
+ * FieldSelectionAdvice. Cada uno en una transacción de solo lectura, como la
+ * petición. El tamaño de las dos respuestas se imprime al preparar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldSelectionBenchmark {
+
+	private static final String[] LABELS = { "examen", "grupo", "lab", "lectura", "entrega", "urgente" };
+
+	@Param({ "1000" })
+	public int tasks;
+
+	// Longitud de la descripción de cada tarea
+	@Param({ "500" })
+	public int descriptionLength;
+
+	@Param({ "id,title,status,dueDate", "id,title,labels" })
+	public String fields;
+
+	private ConfigurableApplicationContext context;
+	private TaskService taskService;
+	private TransactionTemplate readOnly;
+	private ObjectMapper objectMapper;
+	private ObjectWriter selectedWriter;
+	private Set<TaskField> selected;
+	private long userId;
+
+	@Setup
+	public void setUp() throws Exception {
+		context = new SpringApplicationBuilder(UnitasksApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.run("--logging.level.root=WARN");
+		taskService = context.getBean(TaskService.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+		readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnly.setReadOnly(true);
+
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		jdbcTemplate.update("INSERT INTO users (name, lastname, email, password, active) VALUES (?, ?, ?, ?, ?)",
+				"Nombre", "Apellido", "fields@unitasks.local",
+				"$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7Fj8VfGZ4DmH9xj8oXdY6yG", true);
+		userId = jdbcTemplate.queryForObject("SELECT id FROM users", Long.class);
+
+		SplittableRandom random = new SplittableRandom(42);
+		Timestamp now = Timestamp.from(Instant.now());
+		String description = "Repasar los apuntes del tema y hacer los ejercicios. ".repeat(descriptionLength / 50 + 1)
+				.substring(0, descriptionLength);
+		List<Object[]> rows = new ArrayList<>(tasks);
+		for (int i = 0; i < tasks; i++) {
+			rows.add(new Object[] { "Tarea " + i, description, "PENDING", "MEDIUM", now, now, now, userId });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tasks (title, description, status, priority, created_at, updated_at,"
+				+ " due_date, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+		List<Object[]> labels = new ArrayList<>();
+		for (Long taskId : jdbcTemplate.queryForList("SELECT id FROM tasks", Long.class)) {
+			for (String label : LABELS) {
+				if (random.nextInt(3) == 0) {
+					labels.add(new Object[] { taskId, label });
+				}
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO task_labels (task_id, label) VALUES (?, ?)", labels);
+
+		Set<String> names = FieldSelection.names(List.of(fields));
+		selected = FieldSelection.parse(TaskField.class, names);
+		selectedWriter = objectMapper.writer(new SimpleFilterProvider()
+				.addFilter(FieldSelection.TASK_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(names))
+				.addFilter(FieldSelection.USER_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+
+		int fullSize = full().length;
+		int selectedSize = selected().length;
+		System.out.printf("%n%d tareas: completa %.1f KB, fields=%s %.1f KB (%.0f %%)%n", tasks, fullSize / 1e3,
+				fields, selectedSize / 1e3, 100.0 * selectedSize / fullSize);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public byte[] full() {
+		return readOnly.execute(status -> write(objectMapper.writer(), taskService.getTasksByUserId(userId)));
+	}
+
+	@Benchmark
+	public byte[] selected() {
+		return readOnly.execute(status -> write(selectedWriter, taskService.getTasksByUserId(userId, selected)));
+	}
+
+	private static byte[] write(ObjectWriter writer, Object value) {
+		try {
+			return writer.writeValueAsBytes(value);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
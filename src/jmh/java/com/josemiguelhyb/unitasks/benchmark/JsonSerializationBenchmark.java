@@ -0,0 +1,62 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.josemiguelhyb.unitasks.dto.LeaderboardEntry;
+import com.josemiguelhyb.unitasks.model.Task;
+
+/**
+ * Serialización JSON de las respuestas más grandes: lista de tareas de un
+ * usuario y tabla de clasificación. El ObjectMapper se configura como el de
+ * Spring Boot (fechas ISO-8601).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int size;
+
+	private ObjectMapper objectMapper;
+	private List<Task> tasks;
+	private List<LeaderboardEntry> leaderboard;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+		tasks = BenchmarkFixtures.tasks(size);
+		leaderboard = BenchmarkFixtures.leaderboard(size);
+	}
+
+	@Benchmark
+	public byte[] taskList() throws Exception {
+		return objectMapper.writeValueAsBytes(tasks);
+	}
+
+	@Benchmark
+	public byte[] leaderboard() throws Exception {
+		return objectMapper.writeValueAsBytes(leaderboard);
+	}
+}
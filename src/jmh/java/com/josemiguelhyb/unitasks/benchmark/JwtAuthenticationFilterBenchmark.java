@@ -0,0 +1,77 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.josemiguelhyb.unitasks.security.JwtAuthenticationFilter;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+/**
+ * JwtAuthenticationFilter de principio a fin con petición y respuesta
+ * simuladas: cabecera, verificación del token, búsqueda del usuario (stub) y
+ * creación del contexto de seguridad.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+	private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+	};
+
+	private JwtAuthenticationFilter filter;
+	private String validHeader;
+	private String invalidHeader;
+
+	@Setup
+	public void setUp() {
+		JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil();
+		filter = new JwtAuthenticationFilter(jwtUtil,
+				BenchmarkFixtures.userRepository(BenchmarkFixtures.user(1)), new SimpleMeterRegistry(), List.of());
+		validHeader = "Bearer " + jwtUtil.generateToken("user1@unitasks.local");
+		// Firma alterada: falla en la verificación
+		String token = jwtUtil.generateToken("user1@unitasks.local");
+		invalidHeader = "Bearer " + token.substring(0, token.length() - 4) + "AAAA";
+	}
+
+	@Benchmark
+	public Object validToken() throws Exception {
+		return authenticate(validHeader);
+	}
+
+	@Benchmark
+	public Object invalidToken() throws Exception {
+		return authenticate(invalidHeader);
+	}
+
+	private Object authenticate(String authorization) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+		request.addHeader("Authorization", authorization);
+		try {
+			filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+			return SecurityContextHolder.getContext().getAuthentication();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+}
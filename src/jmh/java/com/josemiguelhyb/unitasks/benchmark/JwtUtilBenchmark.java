@@ -0,0 +1,53 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+
+/**
+ * Generación, lectura y validación de JWT (se ejecutan en cada petición
+ * autenticada y en cada login).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+	private JwtUtil jwtUtil;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtUtil = BenchmarkFixtures.jwtUtil();
+		token = jwtUtil.generateToken(BenchmarkFixtures.EMAIL);
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtUtil.generateToken(BenchmarkFixtures.EMAIL);
+	}
+
+	@Benchmark
+	public String extractEmail() {
+		return jwtUtil.extractEmail(token);
+	}
+
+	@Benchmark
+	public Boolean validateToken() {
+		return jwtUtil.validateToken(token, BenchmarkFixtures.EMAIL);
+	}
+}
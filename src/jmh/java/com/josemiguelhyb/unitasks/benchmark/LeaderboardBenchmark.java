@@ -0,0 +1,95 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.josemiguelhyb.unitasks.UnitasksApplication;
+import com.josemiguelhyb.unitasks.dto.LeaderboardEntry;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.service.UserService;
+
+/**
+ * UserService.getLeaderboard completo (agregación, orden y mapeo a DTO) sobre
+ * H2 en memoria con el perfil test. El orden se hace en la propia consulta,
+ * así que se mide junto con ella.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+	private static final int TASKS_PER_USER = 10;
+	private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+	@Param({ "100", "1000" })
+	public int users;
+
+	private ConfigurableApplicationContext context;
+	private UserService userService;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(UnitasksApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.run("--logging.level.root=WARN");
+		userService = context.getBean(UserService.class);
+
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		TaskRepository taskRepository = context.getBean(TaskRepository.class);
+		List<User> saved = userRepository.saveAll(usersToSeed());
+		List<Task> tasks = new ArrayList<>(users * TASKS_PER_USER);
+		for (User user : saved) {
+			for (int i = 0; i < TASKS_PER_USER; i++) {
+				Task task = new Task("Tarea " + i, null, user);
+				task.setStatus(STATUSES[(int) ((user.getId() + i) % STATUSES.length)]);
+				task.setPriority(TaskPriority.MEDIUM);
+				tasks.add(task);
+			}
+		}
+		taskRepository.saveAll(tasks);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<LeaderboardEntry> getLeaderboard() {
+		return userService.getLeaderboard();
+	}
+
+	private List<User> usersToSeed() {
+		List<User> seed = new ArrayList<>(users);
+		for (int i = 0; i < users; i++) {
+			seed.add(new User("Nombre" + i, "Apellido" + i, "leaderboard" + i + "@unitasks.local", "$2a$10$hash", true));
+		}
+		return seed;
+	}
+}
@@ -0,0 +1,170 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.josemiguelhyb.unitasks.UnitasksApplication;
+import com.josemiguelhyb.unitasks.index.TaskFilter;
+import com.josemiguelhyb.unitasks.index.TaskFilterIndex;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.service.TaskService;
+
+/**
+ * Filtro de tareas por etiquetas, estado y prioridad sobre H2 en memoria con
+ * el perfil test, con tasksPerUser tareas por usuario intercaladas entre
+ * varios usuarios. Para cada forma de filtro: los ids con los bitmaps del
+ * usuario ya cargados (bitmapIds), los mismos ids con JOINs y subconsultas
+ * sobre task_labels (sqlIds, lo que se hace con unitasks.task-filter.enabled
+ * =false) y la petición completa con la lectura de las tareas (filterTasks).
+ * coldFilter incluye la carga de los bitmaps del usuario, lo que cuesta su
+ * primer filtro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskFilterBenchmark {
+
+	private static final int LIMIT = 50;
+
+	// Etiquetas y la probabilidad de que una tarea tenga cada una
+	private static final String[] LABELS = { "examen", "grupo", "lab", "lectura", "entrega", "urgente", "repaso",
+			"proyecto", "ingles", "mates", "fisica", "tfg" };
+	private static final double[] LABEL_ODDS = { 0.3, 0.2, 0.15, 0.1, 0.1, 0.05, 0.05, 0.05, 0.03, 0.03, 0.02,
+			0.01 };
+
+	@Param({ "10000" })
+	public int tasksPerUser;
+
+	@Param({ "5" })
+	public int users;
+
+	// label: una etiqueta; and: dos etiquetas, estados y prioridad; orNot:
+	// alguna de tres etiquetas sin otra; rare: una etiqueta poco frecuente y
+	// una prioridad
+	@Param({ "label", "and", "orNot", "rare" })
+	public String shape;
+
+	private ConfigurableApplicationContext context;
+	private TaskFilterIndex taskFilterIndex;
+	private TaskRepository taskRepository;
+	private TaskService taskService;
+	private TransactionTemplate readOnly;
+	private long userId;
+	private TaskFilter filter;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(UnitasksApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.run("--logging.level.root=WARN");
+		taskFilterIndex = context.getBean(TaskFilterIndex.class);
+		taskRepository = context.getBean(TaskRepository.class);
+		taskService = context.getBean(TaskService.class);
+		readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnly.setReadOnly(true);
+
+		// Por JDBC en lotes, con las tareas de los usuarios intercaladas como en
+		// una base de datos compartida
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		List<Object[]> users = new ArrayList<>(this.users);
+		for (int u = 0; u < this.users; u++) {
+			users.add(new Object[] { "Nombre" + u, "Apellido" + u, "filter" + u + "@unitasks.local",
+					"$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7Fj8VfGZ4DmH9xj8oXdY6yG", true });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO users (name, lastname, email, password, active) VALUES (?, ?, ?, ?, ?)",
+				users);
+		List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+		userId = userIds.get(0);
+
+		SplittableRandom random = new SplittableRandom(42);
+		TaskStatus[] statuses = TaskStatus.values();
+		TaskPriority[] priorities = TaskPriority.values();
+		Timestamp now = Timestamp.from(Instant.now());
+		List<Object[]> tasks = new ArrayList<>(tasksPerUser * this.users);
+		for (int i = 0; i < tasksPerUser; i++) {
+			for (Long owner : userIds) {
+				tasks.add(new Object[] { "Tarea " + i, statuses[random.nextInt(statuses.length)].name(),
+						priorities[random.nextInt(priorities.length)].name(), now, now, owner });
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tasks (title, status, priority, created_at, updated_at, user_id)"
+				+ " VALUES (?, ?, ?, ?, ?, ?)", tasks);
+		List<Object[]> labels = new ArrayList<>();
+		for (Long taskId : jdbcTemplate.queryForList("SELECT id FROM tasks", Long.class)) {
+			for (int l = 0; l < LABELS.length; l++) {
+				if (random.nextDouble() < LABEL_ODDS[l]) {
+					labels.add(new Object[] { taskId, LABELS[l] });
+				}
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO task_labels (task_id, label) VALUES (?, ?)", labels);
+
+		filter = switch (shape) {
+			case "label" -> new TaskFilter(Set.of("examen"), null, null, null, null);
+			case "and" -> new TaskFilter(Set.of("examen", "grupo"), null, null,
+					Set.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS), Set.of(TaskPriority.HIGH));
+			case "orNot" -> new TaskFilter(null, Set.of("lab", "lectura", "entrega"), Set.of("urgente"), null, null);
+			case "rare" -> new TaskFilter(Set.of("tfg"), null, null, null, Set.of(TaskPriority.HIGH));
+			default -> throw new IllegalArgumentException(shape);
+		};
+		taskFilterIndex.filter(userId, filter, LIMIT);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Long> bitmapIds() {
+		return taskFilterIndex.filter(userId, filter, LIMIT).orElseThrow();
+	}
+
+	@Benchmark
+	public List<Long> sqlIds() {
+		return readOnly.execute(status -> taskRepository.findIdsByFilter(userId, filter, LIMIT));
+	}
+
+	@Benchmark
+	public List<Task> filterTasks() {
+		return taskService.filterTasks(userId, filter, LIMIT);
+	}
+
+	// Sin transacción, userRemoved descarta los bitmaps en el momento
+	@Benchmark
+	public List<Long> coldFilter() {
+		taskFilterIndex.userRemoved(userId);
+		return taskFilterIndex.filter(userId, filter, LIMIT).orElseThrow();
+	}
+}
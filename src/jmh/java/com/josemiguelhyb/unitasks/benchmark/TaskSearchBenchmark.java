@@ -0,0 +1,156 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.josemiguelhyb.unitasks.index.TaskTextIndex;
+
+/**
+ * Búsqueda de texto en las tareas de un usuario sobre su índice invertido,
+ * sin Spring ni base de datos: una palabra frecuente, un prefijo, dos
+ * palabras, una palabra rara y una sin resultados. Para el coste de
+ * mantenerlo: cambiar el texto de una tarea, añadir y quitar una, y construir
+ * el índice entero (lo que cuesta, además de la consulta, la primera búsqueda
+ * del usuario). scanContains es lo que haría LIKE '%x%' recorriendo las tareas
+ * en memoria, como referencia.
+ *
+ * Al preparar cada tamaño imprime la memoria estimada del índice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSearchBenchmark {
+
+	private static final int LIMIT = 20;
+
+	private static final String[] SUBJECTS = { "Álgebra", "Cálculo", "Física", "Química", "Programación",
+			"Bases de datos", "Redes", "Estadística", "Inglés", "Economía", "Historia", "Biología",
+			"Sistemas operativos", "Compiladores", "Machine learning", "Software engineering" };
+	private static final String[] ACTIONS = { "Estudiar", "Repasar", "Entregar", "Preparar", "Terminar",
+			"Leer", "Revisar", "Practicar", "Write", "Review", "Prepare", "Submit" };
+	private static final String[] ITEMS = { "examen", "práctica", "memoria", "ejercicios", "proyecto",
+			"apuntes", "tema", "laboratorio", "exposición", "trabajo en grupo", "lab report", "essay", "quiz" };
+	private static final String[] WORDS = { "antes", "del", "viernes", "con", "el", "grupo", "capítulo",
+			"diapositivas", "profesor", "tutoría", "campus", "virtual", "entrega", "fecha", "límite", "notas",
+			"the", "deadline", "slides", "chapter", "teacher", "online", "matrices", "integrales", "vectores",
+			"sql", "índices", "transacciones", "protocolos", "tcp", "probabilidad", "regresión" };
+
+	@Param({ "1000", "10000" })
+	public int tasks;
+
+	private String[] titles;
+	private String[] descriptions;
+	private String[] folded;
+	private TaskTextIndex index;
+	private long nextId;
+	private boolean flip;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		titles = new String[tasks];
+		descriptions = new String[tasks];
+		folded = new String[tasks];
+		for (int i = 0; i < tasks; i++) {
+			titles[i] = ACTIONS[random.nextInt(ACTIONS.length)] + " " + ITEMS[random.nextInt(ITEMS.length)] + " de "
+					+ SUBJECTS[random.nextInt(SUBJECTS.length)];
+			StringBuilder description = new StringBuilder();
+			int words = 5 + random.nextInt(40);
+			for (int w = 0; w < words && description.length() < 450; w++) {
+				description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			}
+			descriptions[i] = description.toString().trim();
+			folded[i] = fold(titles[i] + " " + descriptions[i]);
+		}
+		index = build();
+		nextId = tasks;
+
+		System.out.printf("%n%d tareas: %d términos, estimado %.1f KB (%.0f bytes por tarea)%n", tasks,
+				index.terms(), index.sizeInBytes() / 1e3, (double) index.sizeInBytes() / tasks);
+	}
+
+	@Benchmark
+	public List<Long> frequentWord() {
+		return index.search("examen", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> prefix() {
+		return index.search("pr", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> twoWords() {
+		return index.search("examen alg", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> rareWords() {
+		return index.search("regresion tutoria estadistica", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> noMatch() {
+		return index.search("zzz", LIMIT);
+	}
+
+	// Cambia el título de una tarea existente (el caso de PUT /api/tasks/{id})
+	@Benchmark
+	public void updateTask() {
+		flip = !flip;
+		index.put(0, flip ? "Repasar examen de Física" : titles[0], descriptions[0]);
+	}
+
+	@Benchmark
+	public void addAndRemoveTask() {
+		long id = nextId++;
+		index.put(id, titles[1], descriptions[1]);
+		index.remove(id);
+	}
+
+	@Benchmark
+	public TaskTextIndex buildIndex() {
+		return build();
+	}
+
+	@Benchmark
+	public int scanContains() {
+		int found = 0;
+		for (String text : folded) {
+			if (text.contains("examen") && text.contains("alg") && ++found == LIMIT) {
+				break;
+			}
+		}
+		return found;
+	}
+
+	private TaskTextIndex build() {
+		TaskTextIndex built = new TaskTextIndex();
+		for (int i = 0; i < tasks; i++) {
+			built.put(i, titles[i], descriptions[i]);
+		}
+		return built;
+	}
+
+	private static String fold(String text) {
+		return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+	}
+}
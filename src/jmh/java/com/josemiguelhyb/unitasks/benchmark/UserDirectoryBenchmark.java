@@ -0,0 +1,107 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.josemiguelhyb.unitasks.UnitasksApplication;
+import com.josemiguelhyb.unitasks.dto.UserPage;
+import com.josemiguelhyb.unitasks.dto.UserSummary;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.service.UserService;
+
+/**
+ * Listado de usuarios sobre H2 en memoria con el perfil test: findAll() con
+ * entidades (lo que hacía GET /api/users), la proyección completa del modo
+ * compatible y una página de la paginación por clave, al principio y al final
+ * del directorio. Para la memoria, ejecutar con el perfilador de GC:
+ * mvn test -Pjmh -Djmh.args="UserDirectory -prof gc" (gc.alloc.rate.norm es
+ * lo asignado por llamada).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDirectoryBenchmark {
+
+	private static final int PAGE_SIZE = 50;
+
+	@Param({ "100000" })
+	public int users;
+
+	private ConfigurableApplicationContext context;
+	private UserService userService;
+	private UserRepository userRepository;
+	private TransactionTemplate readOnly;
+	private long lastPageCursor;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(UnitasksApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.run("--logging.level.root=WARN");
+		userService = context.getBean(UserService.class);
+		userRepository = context.getBean(UserRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnly.setReadOnly(true);
+
+		// Por JDBC en lotes: con saveAll la siembra tardaría más que el benchmark
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		List<Object[]> rows = new ArrayList<>(users);
+		for (int i = 0; i < users; i++) {
+			rows.add(new Object[] { "Nombre" + i, "Apellido" + i, "directory" + i + "@unitasks.local",
+					"$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7Fj8VfGZ4DmH9xj8oXdY6yG", i % 10 != 0 });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO users (name, lastname, email, password, active) VALUES (?, ?, ?, ?, ?)",
+				rows);
+		lastPageCursor = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class) - PAGE_SIZE;
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<User> findAllEntities() {
+		return readOnly.execute(status -> userRepository.findAll());
+	}
+
+	@Benchmark
+	public List<UserSummary> legacyListSummaries() {
+		return userService.getAllUsers();
+	}
+
+	@Benchmark
+	public UserPage firstPage() {
+		return userService.getUserPage(null, PAGE_SIZE, null, null);
+	}
+
+	@Benchmark
+	public UserPage lastPage() {
+		return userService.getUserPage(lastPageCursor, PAGE_SIZE, null, null);
+	}
+}
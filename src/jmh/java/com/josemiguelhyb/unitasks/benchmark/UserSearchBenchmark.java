@@ -0,0 +1,150 @@
+package com.josemiguelhyb.unitasks.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.josemiguelhyb.unitasks.index.UserPrefixIndex;
+
+/**
+ * Búsqueda mientras se escribe sobre el índice de prefijos de usuarios, sin
+ * Spring ni base de datos: una letra (miles de candidatos), un nombre, nombre
+ * y comienzo de apellido, un email y una consulta sin resultados. scanContains
+ * es lo que haría LIKE '%x%' recorriendo todos los usuarios en memoria (sin
+ * contar la base de datos), como referencia.
+ *
+ * Al preparar cada tamaño imprime la memoria estimada por el índice
+ * (sizeInBytes) y la medida en el heap tras construirlo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class UserSearchBenchmark {
+
+	private static final int LIMIT = 10;
+
+	private static final String[] NAMES = { "José", "María", "Antonio", "Carmen", "Manuel", "Ana", "Francisco",
+			"Lucía", "David", "Laura", "Javier", "Marta", "Daniel", "Sara", "Carlos", "Paula", "Miguel", "Elena",
+			"Alejandro", "Cristina", "Pablo", "Isabel", "Jorge", "Raquel", "Sergio", "Nuria", "Álvaro", "Beatriz",
+			"Adrián", "Silvia", "John", "Emily", "Michael", "Sarah", "James", "Olivia" };
+	private static final String[] LASTNAMES = { "García", "Rodríguez", "González", "Fernández", "López",
+			"Martínez", "Sánchez", "Pérez", "Gómez", "Martín", "Jiménez", "Ruiz", "Hernández", "Díaz", "Moreno",
+			"Muñoz", "Álvarez", "Romero", "Alonso", "Gutiérrez", "Navarro", "Torres", "Domínguez", "Vázquez",
+			"Ramos", "Gil", "Ramírez", "Serrano", "Blanco", "Molina", "Smith", "Johnson", "Brown", "Williams" };
+
+	@Param({ "100000", "1000000" })
+	public int users;
+
+	private UserPrefixIndex index;
+	private String[] haystack;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		List<String[]> rows = new ArrayList<>(users);
+		for (int i = 0; i < users; i++) {
+			String name = NAMES[random.nextInt(NAMES.length)];
+			String lastname = LASTNAMES[random.nextInt(LASTNAMES.length)] + " "
+					+ LASTNAMES[random.nextInt(LASTNAMES.length)];
+			String email = name.toLowerCase(Locale.ROOT).charAt(0) + lastname.split(" ")[0].toLowerCase(Locale.ROOT)
+					+ i + "@unitasks.local";
+			rows.add(new String[] { name, lastname, email });
+		}
+
+		long before = usedHeap();
+		index = new UserPrefixIndex();
+		long start = System.nanoTime();
+		UserPrefixIndex.Builder builder = index.startRebuild();
+		for (int i = 0; i < users; i++) {
+			String[] row = rows.get(i);
+			builder.add(i + 1, row[0], row[1], row[2]);
+		}
+		index.finishRebuild(builder);
+		long buildMs = (System.nanoTime() - start) / 1_000_000;
+		long measured = usedHeap() - before;
+
+		System.out.printf("%n%d usuarios: %d términos, construido en %d ms, estimado %.1f MB, medido %.1f MB"
+				+ " (%.0f bytes por usuario)%n", users, index.terms(), buildMs, index.sizeInBytes() / 1e6,
+				measured / 1e6, (double) measured / users);
+
+		haystack = new String[users];
+		for (int i = 0; i < users; i++) {
+			String[] row = rows.get(i);
+			haystack[i] = (row[0] + " " + row[1] + " " + row[2]).toLowerCase(Locale.ROOT);
+		}
+	}
+
+	@Benchmark
+	public List<Long> singleLetter() {
+		return index.search("m", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> firstName() {
+		return index.search("lucia", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> nameAndLastnamePrefix() {
+		return index.search("jose gar", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> rareCombination() {
+		return index.search("olivia muñoz smi", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> emailPrefix() {
+		return index.search("jgarcia12", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> noMatch() {
+		return index.search("zzz", LIMIT);
+	}
+
+	@Benchmark
+	public List<Long> afterChanges() {
+		// Con un delta pendiente (cambios desde la última reconstrucción)
+		index.put(users + 1L, "Lucía", "Gómez Serrano", "lgomez@unitasks.local");
+		return index.search("lucia gom", LIMIT);
+	}
+
+	// Misma consulta que rareCombination: pocas coincidencias, recorre casi todo
+	@Benchmark
+	public int scanContains() {
+		int found = 0;
+		for (String user : haystack) {
+			if (user.contains("olivia") && user.contains("muñoz") && user.contains("smi") && ++found == LIMIT) {
+				break;
+			}
+		}
+		return found;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
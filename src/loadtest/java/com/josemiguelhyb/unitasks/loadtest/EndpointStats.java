@@ -0,0 +1,57 @@
+package com.josemiguelhyb.unitasks.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencias (en nanosegundos) y errores de un escenario. Cada usuario virtual
+ * tiene las suyas y se combinan al final, así que no necesita sincronización.
+ * Se guardan todas las muestras: con los volúmenes de una prueba local caben
+ * de sobra en memoria y los percentiles salen exactos.
+ */
+class EndpointStats {
+
+	private long[] latencies = new long[1024];
+	private int count;
+	private long errors;
+
+	void record(long nanos, boolean ok) {
+		if (!ok) {
+			errors++;
+			return;
+		}
+		if (count == latencies.length) {
+			latencies = Arrays.copyOf(latencies, count * 2);
+		}
+		latencies[count++] = nanos;
+	}
+
+	void merge(EndpointStats other) {
+		if (count + other.count > latencies.length) {
+			latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+		}
+		System.arraycopy(other.latencies, 0, latencies, count, other.count);
+		count += other.count;
+		errors += other.errors;
+	}
+
+	int getCount() {
+		return count;
+	}
+
+	long getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Percentil (0-100) en milisegundos, por el método del rango más cercano.
+	 * Ordena las muestras: se llama solo al generar el informe.
+	 */
+	double percentileMillis(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		Arrays.sort(latencies, 0, count);
+		int rank = (int) Math.ceil(percentile / 100 * count);
+		return latencies[Math.max(0, Math.min(rank, count) - 1)] / 1_000_000.0;
+	}
+}
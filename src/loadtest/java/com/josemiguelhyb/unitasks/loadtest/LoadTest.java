@@ -0,0 +1,283 @@
+package com.josemiguelhyb.unitasks.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.UnitasksApplication;
+import com.josemiguelhyb.unitasks.dataset.DatasetGenerator;
+import com.josemiguelhyb.unitasks.dataset.ZipfDistribution;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+
+/**
+ * Prueba de carga reproducible: usuarios virtuales que hacen login, listan
+ * tareas, crean tareas, cambian estados y consultan el leaderboard durante un
+ * tiempo fijo, con la mezcla de {@link Scenario}.
+ *
+ * Sin --base-url arranca la aplicación en este mismo proceso (puerto
+ * aleatorio, perfil "seed") contra el PostgreSQL de --jdbc-url, que se llena
+ * con {@link DatasetGenerator} si está vacío. Los usuarios virtuales eligen
+ * cuenta con la misma distribución de Zipf que el dataset.
+ *
+ * Se ejecuta con: mvn test -Ploadtest -Dloadtest.args="--duration 60s --baseline ..."
+ */
+public class LoadTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final TaskStatus[] STATUSES = { TaskStatus.PENDING, TaskStatus.IN_PROGRESS, TaskStatus.DONE };
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+	private final String baseUrl;
+	private final String emailPrefix;
+	private final String password;
+	private final ZipfDistribution accounts;
+
+	LoadTest(String baseUrl, String emailPrefix, String password, int datasetUsers, double zipfExponent) {
+		this.baseUrl = baseUrl;
+		this.emailPrefix = emailPrefix;
+		this.password = password;
+		this.accounts = new ZipfDistribution(datasetUsers, zipfExponent);
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parse(args);
+		int concurrency = Integer.parseInt(options.getOrDefault("users", "16"));
+		Duration duration = parseDuration(options.getOrDefault("duration", "30s"));
+		Duration warmup = parseDuration(options.getOrDefault("warmup", "10s"));
+		int datasetUsers = Integer.parseInt(options.getOrDefault("dataset-users", "1000"));
+		int datasetTasks = Integer.parseInt(options.getOrDefault("dataset-tasks", "20000"));
+		double zipfExponent = Double.parseDouble(options.getOrDefault("zipf-exponent", "1.0"));
+		String emailPrefix = options.getOrDefault("email-prefix", "loadtest");
+		String password = options.getOrDefault("password", "password123");
+		long seed = Long.parseLong(options.getOrDefault("random-seed", "42"));
+		Path output = Path.of(options.getOrDefault("output", "target/loadtest/result.json"));
+
+		boolean regression = false;
+		ConfigurableApplicationContext context = null;
+		String baseUrl = options.get("base-url");
+		if (baseUrl == null) {
+			context = startLocalInstance(options, datasetUsers, datasetTasks, zipfExponent, emailPrefix, password, seed);
+			baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+		}
+
+		try {
+			LoadTest test = new LoadTest(baseUrl, emailPrefix, password, datasetUsers, zipfExponent);
+			System.out.printf("Prueba de carga contra %s: %d usuarios virtuales, %ds de calentamiento, %ds de medida%n",
+					baseUrl, concurrency, warmup.toSeconds(), duration.toSeconds());
+			Map<Scenario, EndpointStats> stats = test.run(concurrency, warmup, duration, seed);
+
+			Map<String, Object> config = new LinkedHashMap<>();
+			config.put("baseUrl", baseUrl);
+			config.put("users", concurrency);
+			config.put("durationSeconds", duration.toSeconds());
+			config.put("warmupSeconds", warmup.toSeconds());
+			config.put("datasetUsers", datasetUsers);
+			config.put("datasetTasks", datasetTasks);
+			config.put("zipfExponent", zipfExponent);
+			config.put("randomSeed", seed);
+			LoadTestReport report = new LoadTestReport(config, stats, duration.toNanos() / 1e9);
+			report.print();
+			report.write(output);
+
+			if (options.containsKey("baseline")) {
+				double threshold = Double.parseDouble(options.getOrDefault("threshold", "10"));
+				List<String> regressions = report.compare(Path.of(options.get("baseline")), threshold);
+				if (!regressions.isEmpty()) {
+					System.out.println("\nRegresiones:");
+					regressions.forEach(r -> System.out.println("  " + r));
+					regression = true;
+				}
+			}
+		} finally {
+			if (context != null) {
+				context.close();
+			}
+		}
+		if (regression) {
+			System.exit(1);
+		}
+	}
+
+	private static ConfigurableApplicationContext startLocalInstance(Map<String, String> options, int datasetUsers,
+			int datasetTasks, double zipfExponent, String emailPrefix, String password, long seed) {
+		// El reinicio de devtools relanzaría este main en otro hilo y se tragaría los errores
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		return new SpringApplicationBuilder(UnitasksApplication.class)
+				.profiles("seed")
+				.run("--server.port=0",
+						"--spring.datasource.url="
+								+ options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/unitasks"),
+						"--spring.datasource.username=" + options.getOrDefault("jdbc-user", "postgres"),
+						"--spring.datasource.password=" + options.getOrDefault("jdbc-password", ""),
+						"--spring.jpa.show-sql=false",
+						"--logging.level.com.josemiguelhyb.unitasks=INFO",
+						"--unitasks.seed.users=" + datasetUsers,
+						"--unitasks.seed.tasks=" + datasetTasks,
+						"--unitasks.seed.zipf-exponent=" + zipfExponent,
+						"--unitasks.seed.email-prefix=" + emailPrefix,
+						"--unitasks.seed.password=" + password,
+						"--unitasks.seed.random-seed=" + seed);
+	}
+
+	/**
+	 * Lanza los usuarios virtuales; lo que ocurre durante el calentamiento no
+	 * se mide.
+	 */
+	Map<Scenario, EndpointStats> run(int concurrency, Duration warmup, Duration duration, long seed)
+			throws Exception {
+		long measureFrom = System.nanoTime() + warmup.toNanos();
+		long end = measureFrom + duration.toNanos();
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		List<Future<Map<Scenario, EndpointStats>>> futures = new ArrayList<>();
+		for (int i = 0; i < concurrency; i++) {
+			Random random = new Random(seed + i);
+			futures.add(executor.submit(() -> new VirtualUser(random).run(measureFrom, end)));
+		}
+		Map<Scenario, EndpointStats> total = new EnumMap<>(Scenario.class);
+		for (Scenario scenario : Scenario.values()) {
+			total.put(scenario, new EndpointStats());
+		}
+		for (Future<Map<Scenario, EndpointStats>> future : futures) {
+			future.get().forEach((scenario, stats) -> total.get(scenario).merge(stats));
+		}
+		executor.shutdown();
+		return total;
+	}
+
+	private class VirtualUser {
+
+		private final Random random;
+		private final Map<Scenario, EndpointStats> stats = new EnumMap<>(Scenario.class);
+		private final List<Long> taskIds = new ArrayList<>();
+		private String email;
+		private String token;
+
+		VirtualUser(Random random) {
+			this.random = random;
+			for (Scenario scenario : Scenario.values()) {
+				stats.put(scenario, new EndpointStats());
+			}
+		}
+
+		Map<Scenario, EndpointStats> run(long measureFrom, long end) {
+			while (System.nanoTime() < end) {
+				Scenario scenario = token == null ? Scenario.LOGIN : Scenario.pick(random.nextInt(Integer.MAX_VALUE));
+				long start = System.nanoTime();
+				boolean ok;
+				try {
+					ok = execute(scenario);
+				} catch (Exception e) {
+					ok = false;
+				}
+				if (start >= measureFrom) {
+					stats.get(scenario).record(System.nanoTime() - start, ok);
+				}
+			}
+			return stats;
+		}
+
+		private boolean execute(Scenario scenario) throws Exception {
+			switch (scenario) {
+				case LOGIN:
+					return login();
+				case LIST_TASKS:
+					HttpResponse<String> list = send(authorized("/api/tasks").GET());
+					if (list.statusCode() != 200) {
+						return false;
+					}
+					taskIds.clear();
+					for (JsonNode task : MAPPER.readTree(list.body())) {
+						taskIds.add(task.get("id").asLong());
+					}
+					return true;
+				case CREATE_TASK:
+					String body = "{\"title\":\"Tarea de carga " + random.nextInt(1_000_000)
+							+ "\",\"priority\":\"MEDIUM\"}";
+					HttpResponse<String> created = send(authorized("/api/tasks")
+							.header("Content-Type", "application/json")
+							.POST(HttpRequest.BodyPublishers.ofString(body)));
+					if (created.statusCode() != 201) {
+						return false;
+					}
+					taskIds.add(MAPPER.readTree(created.body()).get("id").asLong());
+					return true;
+				case PATCH_STATUS:
+					if (taskIds.isEmpty()) {
+						return execute(Scenario.LIST_TASKS);
+					}
+					long id = taskIds.get(random.nextInt(taskIds.size()));
+					TaskStatus status = STATUSES[random.nextInt(STATUSES.length)];
+					return send(authorized("/api/tasks/" + id + "/status?status=" + status)
+							.method("PATCH", HttpRequest.BodyPublishers.noBody())).statusCode() == 200;
+				case LEADERBOARD:
+					return send(authorized("/api/users/leaderboard").GET()).statusCode() == 200;
+				default:
+					throw new IllegalStateException("Escenario desconocido: " + scenario);
+			}
+		}
+
+		// Cambia de cuenta en cada login, con el mismo sesgo que el dataset
+		private boolean login() throws Exception {
+			email = DatasetGenerator.email(emailPrefix, accounts.sample(random));
+			String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+			HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(body)));
+			if (response.statusCode() != 200) {
+				token = null;
+				return false;
+			}
+			token = MAPPER.readTree(response.body()).get("token").asText();
+			taskIds.clear();
+			return true;
+		}
+
+		private HttpRequest.Builder authorized(String path) {
+			return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+		}
+
+		private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+			return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+		}
+	}
+
+	// --clave valor
+	private static Map<String, String> parse(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			if (!args[i].startsWith("--") || i + 1 >= args.length) {
+				throw new IllegalArgumentException("Argumento no válido: " + args[i]);
+			}
+			options.put(args[i].substring(2), args[++i]);
+		}
+		return options;
+	}
+
+	private static Duration parseDuration(String value) {
+		if (value.endsWith("ms")) {
+			return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+		}
+		if (value.endsWith("m")) {
+			return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+		}
+		return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+	}
+}
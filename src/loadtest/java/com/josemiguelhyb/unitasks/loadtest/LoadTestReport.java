@@ -0,0 +1,111 @@
+package com.josemiguelhyb.unitasks.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Resultado de una ejecución: rendimiento y percentiles por escenario. Se
+ * imprime como tabla, se guarda en JSON y se puede comparar con el JSON de una
+ * ejecución anterior.
+ */
+class LoadTestReport {
+
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+	private final ObjectNode root = mapper.createObjectNode();
+
+	LoadTestReport(Map<String, Object> config, Map<Scenario, EndpointStats> stats, double seconds) {
+		root.set("config", mapper.valueToTree(config));
+		ObjectNode endpoints = root.putObject("endpoints");
+		for (Map.Entry<Scenario, EndpointStats> entry : stats.entrySet()) {
+			EndpointStats s = entry.getValue();
+			ObjectNode node = endpoints.putObject(entry.getKey().name());
+			node.put("requests", s.getCount());
+			node.put("errors", s.getErrors());
+			node.put("throughput", round(s.getCount() / seconds));
+			for (double p : PERCENTILES) {
+				node.put(key(p), round(s.percentileMillis(p)));
+			}
+			node.put("maxMs", round(s.percentileMillis(100)));
+		}
+	}
+
+	void print() {
+		System.out.printf("%n%-14s %9s %7s %10s %9s %9s %9s %9s %9s%n", "escenario", "peticiones", "errores",
+				"req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		root.get("endpoints").fields().forEachRemaining(e -> {
+			JsonNode n = e.getValue();
+			System.out.printf("%-14s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", e.getKey(),
+					n.get("requests").asLong(), n.get("errors").asLong(), n.get("throughput").asDouble(),
+					n.get("p50Ms").asDouble(), n.get("p90Ms").asDouble(), n.get("p99Ms").asDouble(),
+					n.get("p99_9Ms").asDouble(), n.get("maxMs").asDouble());
+		});
+	}
+
+	void write(Path output) throws IOException {
+		if (output.getParent() != null) {
+			Files.createDirectories(output.getParent());
+		}
+		mapper.writeValue(output.toFile(), root);
+		System.out.println("\nResultados en " + output);
+	}
+
+	/**
+	 * Compara con una ejecución anterior: p99 que sube o rendimiento que baja
+	 * más de threshold por ciento cuenta como regresión.
+	 *
+	 * @return las regresiones encontradas (vacía si no hay)
+	 */
+	List<String> compare(Path baselinePath, double threshold) throws IOException {
+		JsonNode baseline = mapper.readTree(baselinePath.toFile()).get("endpoints");
+		List<String> regressions = new ArrayList<>();
+		System.out.printf("%nComparación con %s (umbral %.0f%%)%n", baselinePath, threshold);
+		System.out.printf("%-14s %12s %12s %9s %12s %12s %9s%n", "escenario", "req/s antes", "req/s ahora", "cambio",
+				"p99 antes", "p99 ahora", "cambio");
+		Map<String, JsonNode> current = new LinkedHashMap<>();
+		root.get("endpoints").fields().forEachRemaining(e -> current.put(e.getKey(), e.getValue()));
+		for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+			JsonNode before = baseline.get(entry.getKey());
+			if (before == null) {
+				continue;
+			}
+			JsonNode now = entry.getValue();
+			double throughputChange = change(before.get("throughput").asDouble(), now.get("throughput").asDouble());
+			double p99Change = change(before.get("p99Ms").asDouble(), now.get("p99Ms").asDouble());
+			System.out.printf("%-14s %12.1f %12.1f %+8.1f%% %12.2f %12.2f %+8.1f%%%n", entry.getKey(),
+					before.get("throughput").asDouble(), now.get("throughput").asDouble(), throughputChange,
+					before.get("p99Ms").asDouble(), now.get("p99Ms").asDouble(), p99Change);
+			if (throughputChange < -threshold) {
+				regressions.add(entry.getKey() + ": rendimiento " + String.format("%+.1f%%", throughputChange));
+			}
+			if (p99Change > threshold) {
+				regressions.add(entry.getKey() + ": p99 " + String.format("%+.1f%%", p99Change));
+			}
+		}
+		return regressions;
+	}
+
+	private static double change(double before, double now) {
+		return before == 0 ? 0 : (now - before) / before * 100;
+	}
+
+	private static String key(double percentile) {
+		return "p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+				: String.valueOf(percentile).replace('.', '_')) + "Ms";
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+}
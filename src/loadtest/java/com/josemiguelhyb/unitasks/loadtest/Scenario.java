@@ -0,0 +1,38 @@
+package com.josemiguelhyb.unitasks.loadtest;
+
+/**
+ * Operaciones de la prueba de carga y su peso en la mezcla: sobre todo
+ * lecturas de la lista de tareas y cambios de estado, como el uso real.
+ */
+enum Scenario {
+	LOGIN(5),
+	LIST_TASKS(40),
+	CREATE_TASK(15),
+	PATCH_STATUS(20),
+	LEADERBOARD(20);
+
+	private final int weight;
+
+	Scenario(int weight) {
+		this.weight = weight;
+	}
+
+	static Scenario pick(int value) {
+		int r = value % totalWeight();
+		for (Scenario scenario : values()) {
+			r -= scenario.weight;
+			if (r < 0) {
+				return scenario;
+			}
+		}
+		return LIST_TASKS;
+	}
+
+	static int totalWeight() {
+		int total = 0;
+		for (Scenario scenario : values()) {
+			total += scenario.weight;
+		}
+		return total;
+	}
+}
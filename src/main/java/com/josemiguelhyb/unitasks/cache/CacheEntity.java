@@ -0,0 +1,30 @@
+package com.josemiguelhyb.unitasks.cache;
+
+/**
+ * Tipos de entrada cacheada que se pueden invalidar entre instancias.
+ * Cada tipo se codifica con una sola letra en los mensajes de NOTIFY.
+ */
+public enum CacheEntity {
+	USER('U'),		// usuario por id
+	USER_EMAIL('E'),	// resolución email -> id (natural id)
+	TASK('T');		// tarea por id
+
+	private final char code;
+
+	CacheEntity(char code) {
+		this.code = code;
+	}
+
+	public char getCode() {
+		return code;
+	}
+
+	public static CacheEntity fromCode(char code) {
+		for (CacheEntity entity : values()) {
+			if (entity.code == code) {
+				return entity;
+			}
+		}
+		throw new IllegalArgumentException("Tipo de invalidación desconocido: " + code);
+	}
+}
@@ -0,0 +1,16 @@
+package com.josemiguelhyb.unitasks.cache;
+
+import java.util.Set;
+
+/**
+ * Caché local que debe invalidarse cuando otra instancia modifica datos.
+ * CacheInvalidationListener llama a todas las implementaciones registradas.
+ */
+public interface CacheInvalidationHandler {
+
+	// Invalida las entradas con esos ids
+	void evict(CacheEntity entity, Set<Long> ids);
+
+	// Invalida todas las entradas de ese tipo (comodín o reconexión)
+	void evictAll(CacheEntity entity);
+}
@@ -0,0 +1,191 @@
+package com.josemiguelhyb.unitasks.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Escucha las invalidaciones publicadas por las demás instancias (LISTEN) en
+ * una conexión dedicada, fuera del pool de Hikari, y las aplica a las cachés
+ * locales.
+ *
+ * Los mensajes que llegan en ráfaga se agrupan durante una ventana corta y se
+ * aplican de una vez. Si la conexión se pierde se vacían todas las cachés al
+ * reconectar, porque los NOTIFY enviados mientras tanto se han perdido.
+ *
+ * Ningún mensaje ni caché puede parar el hilo: un mensaje ilegible vacía
+ * todas las cachés y un handler que falla al invalidar unos ids vacía las
+ * entradas de ese tipo.
+ */
+@Component
+@ConditionalOnProperty(prefix = "unitasks.cache.invalidation", name = "enabled", havingValue = "true")
+public class CacheInvalidationListener implements SmartLifecycle {
+	private static final Logger log = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+	private final DataSourceProperties dataSourceProperties;
+	private final CacheInvalidationPublisher publisher;
+	private final List<CacheInvalidationHandler> handlers;
+	private final String channel;
+	private final Duration coalesceWindow;
+	private final Duration reconnectDelay;
+	private final int maxBatchSize;
+
+	private volatile boolean running;
+	private Thread thread;
+
+	public CacheInvalidationListener(DataSourceProperties dataSourceProperties,
+			CacheInvalidationPublisher publisher,
+			List<CacheInvalidationHandler> handlers,
+			@Value("${unitasks.cache.invalidation.channel:unitasks_cache}") String channel,
+			@Value("${unitasks.cache.invalidation.coalesce-window:50ms}") Duration coalesceWindow,
+			@Value("${unitasks.cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay,
+			@Value("${unitasks.cache.invalidation.max-batch-size:1000}") int maxBatchSize) {
+		this.dataSourceProperties = dataSourceProperties;
+		this.publisher = publisher;
+		this.handlers = handlers;
+		this.channel = channel;
+		this.coalesceWindow = coalesceWindow;
+		this.reconnectDelay = reconnectDelay;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	@Override
+	public void start() {
+		running = true;
+		thread = new Thread(this::listenLoop, "cache-invalidation-listener");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	private void listenLoop() {
+		boolean connectedBefore = false;
+		while (running) {
+			try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+					dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("LISTEN " + channel);
+				}
+				if (connectedBefore) {
+					log.warn("Reconectado al canal {}; vaciando cachés locales", channel);
+					evictEverything();
+				}
+				connectedBefore = true;
+				log.info("Escuchando invalidaciones de caché en el canal {}", channel);
+				consume(connection.unwrap(PGConnection.class));
+			} catch (SQLException | RuntimeException e) {
+				if (running) {
+					log.warn("Conexión de invalidación perdida: {}", e.getMessage());
+					sleepBeforeReconnect();
+				}
+			}
+		}
+	}
+
+	private void consume(PGConnection connection) throws SQLException {
+		InvalidationBatch pending = null;
+		long flushAt = 0;
+		while (running) {
+			int timeout = pending == null ? 1000
+					: (int) Math.max(1, (flushAt - System.nanoTime()) / 1_000_000);
+			PGNotification[] notifications = connection.getNotifications(timeout);
+			if (notifications != null) {
+				for (PGNotification notification : notifications) {
+					InvalidationBatch batch = decode(notification.getParameter());
+					if (batch.getOrigin().equals(publisher.getInstanceId())) {
+						continue; // mensaje propio: las cachés locales ya están al día
+					}
+					if (pending == null) {
+						pending = new InvalidationBatch(batch.getOrigin());
+						flushAt = System.nanoTime() + coalesceWindow.toNanos();
+					}
+					pending.merge(batch);
+				}
+			}
+			if (pending != null && (System.nanoTime() >= flushAt || pending.size() >= maxBatchSize)) {
+				apply(pending);
+				pending = null;
+			}
+		}
+	}
+
+	// Un payload que no se entiende (de otra versión o corrupto) no dice qué
+	// cambió: se invalida todo
+	private static InvalidationBatch decode(String payload) {
+		try {
+			return InvalidationBatch.decode(payload);
+		} catch (RuntimeException e) {
+			log.warn("Invalidación ilegible ({}); se invalidan todas las cachés: {}", e.getMessage(), payload);
+			InvalidationBatch everything = new InvalidationBatch("?");
+			for (CacheEntity entity : CacheEntity.values()) {
+				everything.addAll(entity);
+			}
+			return everything;
+		}
+	}
+
+	void apply(InvalidationBatch batch) {
+		log.debug("Aplicando {} invalidaciones de caché", batch.size());
+		for (CacheInvalidationHandler handler : handlers) {
+			batch.getWildcards().forEach(entity -> evictAll(handler, entity));
+			batch.getIds().forEach((entity, ids) -> {
+				try {
+					handler.evict(entity, ids);
+				} catch (RuntimeException e) {
+					log.warn("{} no pudo invalidar {} {}; se invalidan todas: {}",
+							handler.getClass().getSimpleName(), ids.size(), entity, e.getMessage());
+					evictAll(handler, entity);
+				}
+			});
+		}
+	}
+
+	private void evictEverything() {
+		for (CacheInvalidationHandler handler : handlers) {
+			for (CacheEntity entity : CacheEntity.values()) {
+				evictAll(handler, entity);
+			}
+		}
+	}
+
+	private static void evictAll(CacheInvalidationHandler handler, CacheEntity entity) {
+		try {
+			handler.evictAll(entity);
+		} catch (RuntimeException e) {
+			log.error("{} no pudo invalidar todas las entradas de {}", handler.getClass().getSimpleName(), entity, e);
+		}
+	}
+
+	private void sleepBeforeReconnect() {
+		try {
+			Thread.sleep(reconnectDelay.toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.josemiguelhyb.unitasks.cache;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publica invalidaciones de caché para las demás instancias mediante
+ * {@code pg_notify}. Dentro de una transacción las invalidaciones se acumulan y
+ * se envían en un único NOTIFY justo antes del commit: PostgreSQL solo las
+ * entrega si la transacción confirma.
+ */
+@Component
+public class CacheInvalidationPublisher {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final boolean enabled;
+	private final String channel;
+
+	// Identifica esta instancia para ignorar sus propios mensajes al recibirlos
+	private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+	public CacheInvalidationPublisher(JdbcTemplate jdbcTemplate,
+			@Value("${unitasks.cache.invalidation.enabled:false}") boolean enabled,
+			@Value("${unitasks.cache.invalidation.channel:unitasks_cache}") String channel) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.enabled = enabled;
+		this.channel = channel;
+	}
+
+	public String getInstanceId() {
+		return instanceId;
+	}
+
+	public void userChanged(Long userId) {
+		publish(CacheEntity.USER, userId);
+	}
+
+	// El email de un usuario cambió o desapareció: la resolución email -> id
+	// cacheada en las otras instancias ya no es válida
+	public void userEmailsChanged() {
+		publishAll(CacheEntity.USER_EMAIL);
+	}
+
+	public void taskChanged(Long taskId) {
+		publish(CacheEntity.TASK, taskId);
+	}
+
+	public void allTasksChanged() {
+		publishAll(CacheEntity.TASK);
+	}
+
+	private void publish(CacheEntity entity, Long id) {
+		if (enabled) {
+			InvalidationBatch batch = currentBatch();
+			batch.add(entity, id);
+			sendIfOutsideTransaction(batch);
+		}
+	}
+
+	private void publishAll(CacheEntity entity) {
+		if (enabled) {
+			InvalidationBatch batch = currentBatch();
+			batch.addAll(entity);
+			sendIfOutsideTransaction(batch);
+		}
+	}
+
+	// Lote ligado a la transacción actual; se envía en beforeCommit
+	private InvalidationBatch currentBatch() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return new InvalidationBatch(instanceId);
+		}
+		InvalidationBatch batch = (InvalidationBatch) TransactionSynchronizationManager.getResource(this);
+		if (batch == null) {
+			InvalidationBatch newBatch = new InvalidationBatch(instanceId);
+			TransactionSynchronizationManager.bindResource(this, newBatch);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void beforeCommit(boolean readOnly) {
+					send(newBatch);
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationPublisher.this);
+				}
+			});
+			batch = newBatch;
+		}
+		return batch;
+	}
+
+	// Sin transacción (autocommit) el NOTIFY se envía en el momento
+	private void sendIfOutsideTransaction(InvalidationBatch batch) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			send(batch);
+		}
+	}
+
+	private void send(InvalidationBatch batch) {
+		for (String payload : batch.encode()) {
+			jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.josemiguelhyb.unitasks.cache;
+
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Aplica las invalidaciones remotas a la caché de segundo nivel de Hibernate.
+ */
+@Component
+public class HibernateCacheInvalidationHandler implements CacheInvalidationHandler {
+
+	// Rol de la colección de etiquetas, cacheada aparte de la tarea
+	private static final String TASK_LABELS_ROLE = Task.class.getName() + ".labels";
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	public HibernateCacheInvalidationHandler(EntityManagerFactory entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@Override
+	public void evict(CacheEntity entity, Set<Long> ids) {
+		org.hibernate.Cache cache = hibernateCache();
+		switch (entity) {
+			case USER -> ids.forEach(id -> cache.evictEntityData(User.class, id));
+			case TASK -> ids.forEach(id -> {
+				cache.evictEntityData(Task.class, id);
+				cache.evictCollectionData(TASK_LABELS_ROLE, id);
+			});
+			case USER_EMAIL -> cache.evictNaturalIdData(User.class);
+		}
+	}
+
+	@Override
+	public void evictAll(CacheEntity entity) {
+		org.hibernate.Cache cache = hibernateCache();
+		switch (entity) {
+			case USER -> cache.evictEntityData(User.class);
+			case TASK -> {
+				cache.evictEntityData(Task.class);
+				cache.evictCollectionData(TASK_LABELS_ROLE);
+			}
+			case USER_EMAIL -> cache.evictNaturalIdData(User.class);
+		}
+	}
+
+	private org.hibernate.Cache hibernateCache() {
+		return entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+	}
+}
@@ -0,0 +1,130 @@
+package com.josemiguelhyb.unitasks.cache;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conjunto de invalidaciones agrupadas (por transacción al publicar, por
+ * ventana de tiempo al consumir). Los ids repetidos se fusionan.
+ *
+ * Formato del payload de NOTIFY: {@code origen|U:1,2|T:5|E:*}, donde "*"
+ * invalida todo el tipo.
+ */
+public class InvalidationBatch {
+
+	// PostgreSQL limita el payload de NOTIFY a 8000 bytes
+	static final int MAX_PAYLOAD_LENGTH = 7900;
+
+	private final String origin;
+	private final Map<CacheEntity, Set<Long>> ids = new EnumMap<>(CacheEntity.class);
+	private final Set<CacheEntity> wildcards = EnumSet.noneOf(CacheEntity.class);
+
+	public InvalidationBatch(String origin) {
+		this.origin = origin;
+	}
+
+	public void add(CacheEntity entity, Long id) {
+		if (!wildcards.contains(entity)) {
+			ids.computeIfAbsent(entity, e -> new LinkedHashSet<>()).add(id);
+		}
+	}
+
+	public void addAll(CacheEntity entity) {
+		wildcards.add(entity);
+		ids.remove(entity);
+	}
+
+	public void merge(InvalidationBatch other) {
+		other.wildcards.forEach(this::addAll);
+		other.ids.forEach((entity, entityIds) -> entityIds.forEach(id -> add(entity, id)));
+	}
+
+	public boolean isEmpty() {
+		return ids.isEmpty() && wildcards.isEmpty();
+	}
+
+	public int size() {
+		return wildcards.size() + ids.values().stream().mapToInt(Set::size).sum();
+	}
+
+	public String getOrigin() {
+		return origin;
+	}
+
+	public Map<CacheEntity, Set<Long>> getIds() {
+		return ids;
+	}
+
+	public Set<CacheEntity> getWildcards() {
+		return wildcards;
+	}
+
+	/**
+	 * Codifica el lote en uno o varios payloads que caben en un NOTIFY.
+	 */
+	public List<String> encode() {
+		List<String> payloads = new ArrayList<>();
+		StringBuilder current = new StringBuilder(origin);
+		for (CacheEntity entity : wildcards) {
+			current = append(payloads, current, entity, "*");
+		}
+		for (Map.Entry<CacheEntity, Set<Long>> entry : ids.entrySet()) {
+			for (Long id : entry.getValue()) {
+				current = append(payloads, current, entry.getKey(), id.toString());
+			}
+		}
+		if (current.length() > origin.length()) {
+			payloads.add(current.toString());
+		}
+		return payloads;
+	}
+
+	private StringBuilder append(List<String> payloads, StringBuilder current, CacheEntity entity, String value) {
+		if (current.length() + value.length() + 3 > MAX_PAYLOAD_LENGTH) {
+			payloads.add(current.toString());
+			current = new StringBuilder(origin);
+		}
+		// Si el último segmento es del mismo tipo se añade el id con coma: U:1,2
+		int lastSegment = current.lastIndexOf("|");
+		if (lastSegment >= 0 && current.charAt(lastSegment + 1) == entity.getCode()) {
+			current.append(',').append(value);
+		} else {
+			current.append('|').append(entity.getCode()).append(':').append(value);
+		}
+		return current;
+	}
+
+	/**
+	 * Decodifica un payload de encode. Un segmento con ids ilegibles se toma
+	 * como comodín de su tipo; si no se reconoce ni el tipo lanza
+	 * IllegalArgumentException.
+	 */
+	public static InvalidationBatch decode(String payload) {
+		String[] segments = payload.split("\\|");
+		InvalidationBatch batch = new InvalidationBatch(segments[0]);
+		for (int i = 1; i < segments.length; i++) {
+			String segment = segments[i];
+			if (segment.isEmpty()) {
+				throw new IllegalArgumentException("Segmento de invalidación vacío: " + payload);
+			}
+			CacheEntity entity = CacheEntity.fromCode(segment.charAt(0));
+			try {
+				for (String value : segment.substring(2).split(",")) {
+					if ("*".equals(value)) {
+						batch.addAll(entity);
+					} else {
+						batch.add(entity, Long.valueOf(value));
+					}
+				}
+			} catch (RuntimeException e) {
+				batch.addAll(entity);
+			}
+		}
+		return batch;
+	}
+}
@@ -0,0 +1,79 @@
+package com.josemiguelhyb.unitasks.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Configuración de la caché de segundo nivel de Hibernate (JCache + Caffeine).
+ * Las regiones se crean aquí con límites explícitos de tamaño y TTL para que la
+ * memoria usada por la caché esté acotada.
+ */
+@Configuration
+public class CacheConfig {
+
+    // Regiones declaradas en las entidades con @Cache / @NaturalIdCache
+    public static final String USERS_REGION = "users";
+    public static final String USERS_EMAIL_REGION = "users-email";
+    public static final String TASKS_REGION = "tasks";
+    // Colección Task.labels: se cachea aparte de la entidad, con sus mismos límites
+    public static final String TASK_LABELS_REGION = "task-labels";
+
+    @Value("${unitasks.cache.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${unitasks.cache.users.ttl:10m}")
+    private Duration usersTtl;
+
+    @Value("${unitasks.cache.tasks.max-size:50000}")
+    private long tasksMaxSize;
+
+    @Value("${unitasks.cache.tasks.ttl:5m}")
+    private Duration tasksTtl;
+
+    // Un CacheManager propio por contexto (URI única): al cerrarse el contexto se
+    // cierran solo sus regiones
+    @Bean
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("unitasks:hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, USERS_REGION, usersMaxSize, usersTtl);
+        createRegion(cacheManager, USERS_EMAIL_REGION, usersMaxSize, usersTtl);
+        createRegion(cacheManager, TASKS_REGION, tasksMaxSize, tasksTtl);
+        createRegion(cacheManager, TASK_LABELS_REGION, tasksMaxSize, tasksTtl);
+        return cacheManager;
+    }
+
+    // Hibernate usa este CacheManager y falla al arrancar si alguna región no
+    // existe, así ninguna entidad queda cacheada con la configuración por defecto
+    // (sin límites)
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,62 @@
+package com.josemiguelhyb.unitasks.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.josemiguelhyb.unitasks.dto.FieldSelection;
+import com.josemiguelhyb.unitasks.dto.UserSummary;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.User;
+
+/**
+ * Búferes de Jackson. Por defecto cada hilo que serializa conserva los suyos
+ * (ThreadLocal) mientras vive; con unitasks.jackson.recycler-pool-size > 0 se
+ * comparte un pool acotado entre todos los hilos (perfil small).
+ *
+ * También los filtros de la selección de campos (?fields=, ver
+ * FieldSelection): Task, User y UserSummary los llevan por mix-in, no en la
+ * clase, para que otros ObjectMapper (benchmarks, tests) no tengan que
+ * conocerlos.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Value("${unitasks.jackson.recycler-pool-size:0}")
+    private int recyclerPoolSize;
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer recyclerPoolCustomizer() {
+        return builder -> {
+            if (recyclerPoolSize > 0) {
+                builder.factory(JsonFactory.builder()
+                        .recyclerPool(JsonRecyclerPools.newBoundedPool(recyclerPoolSize))
+                        .build());
+            }
+        };
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionCustomizer() {
+        return builder -> builder
+                .mixIn(Task.class, TaskFieldsMixIn.class)
+                .mixIn(User.class, UserFieldsMixIn.class)
+                .mixIn(UserSummary.class, UserFieldsMixIn.class)
+                // Sin fields, todos los campos
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @JsonFilter(FieldSelection.TASK_FILTER)
+    private abstract static class TaskFieldsMixIn {
+    }
+
+    @JsonFilter(FieldSelection.USER_FILTER)
+    private abstract static class UserFieldsMixIn {
+    }
+}
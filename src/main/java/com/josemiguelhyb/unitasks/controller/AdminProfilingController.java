@@ -0,0 +1,87 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.josemiguelhyb.unitasks.dto.ProfilingStatus;
+import com.josemiguelhyb.unitasks.service.ProfilingService;
+
+/**
+ * Controlador REST de perfilado bajo demanda con JDK Flight Recorder.
+ * Solo accesible con ROLE_ADMIN (emails de unitasks.admin.emails).
+ */
+@RestController
+@RequestMapping("/api/admin/profiling")
+public class AdminProfilingController {
+
+    private final ProfilingService profilingService;
+
+    public AdminProfilingController(ProfilingService profilingService) {
+        this.profilingService = profilingService;
+    }
+
+    /**
+     * Estado de la grabación.
+     * GET /api/admin/profiling
+     *
+     * @return 200 OK con el estado
+     */
+    @GetMapping
+    public ResponseEntity<ProfilingStatus> getStatus() {
+        return ResponseEntity.ok(profilingService.getStatus());
+    }
+
+    /**
+     * Inicia una grabación JFR acotada.
+     * POST /api/admin/profiling/start?duration=PT60S
+     *
+     * @param duration Duración ISO-8601 (opcional, se limita al máximo configurado)
+     * @return 200 OK con el estado, o 409 si ya hay una grabación en curso
+     */
+    @PostMapping("/start")
+    public ResponseEntity<ProfilingStatus> start(@RequestParam(required = false) Duration duration) {
+        if (!profilingService.start(duration)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(profilingService.getStatus());
+        }
+        return ResponseEntity.ok(profilingService.getStatus());
+    }
+
+    /**
+     * Detiene la grabación y descarga el fichero .jfr (se borra del disco al
+     * terminar de enviarlo).
+     * POST /api/admin/profiling/stop
+     *
+     * @return 200 OK con el fichero, o 409 si no hay grabación
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<Resource> stop() throws IOException {
+        Optional<Path> file = profilingService.stop();
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Path path = file.get();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(path))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(path.getFileName().toString()).build().toString())
+                .body(new InputStreamResource(Files.newInputStream(path, StandardOpenOption.DELETE_ON_CLOSE)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.josemiguelhyb.unitasks.dto.ImportResult;
+import com.josemiguelhyb.unitasks.importer.ImportFormat;
+import com.josemiguelhyb.unitasks.importer.UserImporter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Controlador REST de importación masiva de usuarios (altas de cada
+ * cuatrimestre). Solo accesible con ROLE_ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/users/import")
+public class AdminUserImportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final UserImporter userImporter;
+
+    public AdminUserImportController(UserImporter userImporter) {
+        this.userImporter = userImporter;
+    }
+
+    /**
+     * Importa usuarios desde un CSV (cabecera name,lastname,email,password y
+     * opcionalmente active) o NDJSON (un objeto por línea con esos campos). El
+     * cuerpo se procesa en streaming.
+     * POST /api/admin/users/import
+     *
+     * @param request Petición con el fichero (text/csv o application/x-ndjson)
+     * @return 200 OK con el resumen, o 400 si la cabecera del CSV no es válida
+     */
+    @PostMapping(consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<ImportResult> importUsers(HttpServletRequest request) throws IOException {
+        ImportFormat format = ImportFormat.of(MediaType.parseMediaType(request.getContentType()));
+        try {
+            return ResponseEntity.ok(userImporter.importUsers(request.getInputStream(), format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Descarga el informe de errores (CSV: line,email,error) de una importación.
+     * GET /api/admin/users/import/{id}/report
+     *
+     * @param id Identificador devuelto por la importación
+     * @return 200 OK con el CSV, o 404 si no existe (o ya se descartó)
+     */
+    @GetMapping("/{id}/report")
+    public ResponseEntity<Resource> getReport(@PathVariable String id) throws IOException {
+        Optional<Path> report = userImporter.getReport(id);
+        if (report.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Path path = report.get();
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .contentLength(Files.size(path))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("import-" + id + "-errors.csv").build().toString())
+                .body(new FileSystemResource(path));
+    }
+}
@@ -0,0 +1,68 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.josemiguelhyb.unitasks.dto.FieldSelection;
+import com.josemiguelhyb.unitasks.exception.UnknownFieldException;
+
+/**
+ * Recorta las respuestas de lectura de TaskController y UserController a los
+ * campos de ?fields=: las tareas en TaskController y los usuarios en
+ * UserController (también los de UserPage.items). El controlador lee
+ * ?fields= una sola vez con select, que valida los campos con TaskField o
+ * UserField y los deja en la petición; las tareas pueden llegar a medio leer
+ * (solo las columnas pedidas) y aquí se quita el resto.
+ */
+@RestControllerAdvice(assignableTypes = { TaskController.class, UserController.class })
+public class FieldSelectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    private static final String SELECTED = FieldSelectionAdvice.class.getName() + ".selected";
+
+    /**
+     * Campos pedidos (vacío = todos), que además recortarán la respuesta.
+     * 
+     * @throws UnknownFieldException si alguno no es un campo de type
+     */
+    static <F extends Enum<F> & FieldSelection.Field> Set<F> select(Class<F> type, Collection<String> names) {
+        Set<F> fields = FieldSelection.parse(type, names);
+        if (!fields.isEmpty()) {
+            Set<String> properties = fields.stream().map(FieldSelection.Field::property).collect(Collectors.toSet());
+            RequestContextHolder.currentRequestAttributes().setAttribute(SELECTED, properties,
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+        return fields;
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+            MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(servletRequest.getServletRequest().getAttribute(SELECTED) instanceof Set<?> selection)) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> fields = (Set<String>) selection;
+        // El usuario dentro de una tarea (fields=user) sale entero, y al revés
+        boolean tasks = TaskController.class.isAssignableFrom(returnType.getContainingClass());
+        SimpleBeanPropertyFilter selected = SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        SimpleBeanPropertyFilter all = SimpleBeanPropertyFilter.serializeAll();
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(FieldSelection.TASK_FILTER, tasks ? selected : all)
+                .addFilter(FieldSelection.USER_FILTER, tasks ? all : selected));
+    }
+}
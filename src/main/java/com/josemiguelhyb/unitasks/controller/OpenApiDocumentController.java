@@ -0,0 +1,118 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+/**
+ * Documento OpenAPI generado en el build (src/main/resources/openapi) y
+ * servido tal cual, sin escanear los controladores en tiempo de ejecución.
+ * La versión gzip se comprime al empaquetar; ETag fuerte por codificación.
+ */
+@Hidden
+@RestController
+public class OpenApiDocumentController {
+
+    public static final String PATH = "/openapi.json";
+
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String jsonEtag;
+    private final String gzipEtag;
+
+    public OpenApiDocumentController(@Value("classpath:openapi/openapi.json") Resource json,
+            @Value("classpath:openapi/openapi.json.gz") Resource gzip) throws IOException {
+        this.json = json.getContentAsByteArray();
+        // Sin el .gz (p. ej. al arrancar desde el IDE sin pasar por Maven) se comprime una vez aquí
+        this.gzip = gzip.exists() ? gzip.getContentAsByteArray() : compress(this.json);
+        String hash = sha256(this.json);
+        this.jsonEtag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + "-gzip\"";
+    }
+
+    /**
+     * GET /openapi.json - Especificación OpenAPI de la API
+     * Responde 304 si el If-None-Match coincide con el ETag de la variante pedida
+     */
+    @GetMapping(value = PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getOpenApiDocument(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean gzipped = acceptsGzip(acceptEncoding);
+        String etag = gzipped ? gzipEtag : jsonEtag;
+        boolean notModified = matches(ifNoneMatch, etag);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (notModified) {
+            return builder.build();
+        }
+        if (gzipped) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(gzipped ? gzip : json);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.josemiguelhyb.unitasks.controller;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,7 +18,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import com.josemiguelhyb.unitasks.dto.TaskField;
+import com.josemiguelhyb.unitasks.index.TaskFilter;
 import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
 import com.josemiguelhyb.unitasks.model.TaskStatus;
 import com.josemiguelhyb.unitasks.model.User;
 import com.josemiguelhyb.unitasks.service.AuthService;
@@ -41,15 +46,83 @@ public class TaskController {
 
     /**
      * Obtiene todas las tareas DEL USUARIO AUTENTICADO.
-     * GET /api/tasks
+     * GET /api/tasks?fields=id,title,status,dueDate
      * 
-     * @param auth Objeto de autenticación con el email del usuario
+     * Con fields solo se leen y se devuelven esos campos de cada tarea (ver
+     * TaskField); un campo desconocido es un 400. Lo mismo en search, filter
+     * y {id}.
+     * 
+     * @param auth   Objeto de autenticación con el email del usuario
+     * @param fields Campos de cada tarea en la respuesta (por defecto todos)
      * @return 200 OK con lista de tareas del usuario
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getMyTasks(Authentication auth) {
+    public ResponseEntity<List<Task>> getMyTasks(Authentication auth,
+            @RequestParam(required = false) Set<String> fields) {
+        Set<TaskField> selected = FieldSelectionAdvice.select(TaskField.class, fields);
+        User user = authService.getCurrentUser(auth.getName());
+        List<Task> tasks = taskService.getTasksByUserId(user.getId(), selected);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Busca en el título y la descripción de las tareas DEL USUARIO AUTENTICADO.
+     * GET /api/tasks/search?q=examen alg&limit=20
+     * 
+     * Cada palabra de q debe aparecer en la tarea (también como comienzo de
+     * palabra), sin distinguir mayúsculas ni tildes. Las más relevantes
+     * primero: coincidencias en el título antes que en la descripción.
+     * 
+     * @param auth   Objeto de autenticación
+     * @param q      Palabras a buscar
+     * @param limit  Número máximo de resultados (máximo
+     *               unitasks.task-search.max-limit)
+     * @param fields Campos de cada tarea en la respuesta (por defecto todos)
+     * @return 200 OK con las tareas encontradas (vacía si q está en blanco)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchMyTasks(Authentication auth, @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Set<String> fields) {
+        Set<TaskField> selected = FieldSelectionAdvice.select(TaskField.class, fields);
+        User user = authService.getCurrentUser(auth.getName());
+        List<Task> tasks = taskService.searchTasks(user.getId(), q, limit, selected);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Filtra las tareas DEL USUARIO AUTENTICADO por etiquetas, estado y
+     * prioridad.
+     * GET /api/tasks/filter?labels=examen,grupo&excludeLabels=hecho&status=PENDING,IN_PROGRESS
+     * 
+     * Los criterios se combinan con AND; los valores de status y priority, con
+     * OR. Sin criterios devuelve las más nuevas.
+     * 
+     * @param auth          Objeto de autenticación
+     * @param labels        Etiquetas que debe tener la tarea (todas)
+     * @param anyLabels     Etiquetas de las que debe tener al menos una
+     * @param excludeLabels Etiquetas que no debe tener
+     * @param status        Estados admitidos
+     * @param priority      Prioridades admitidas
+     * @param limit         Número máximo de resultados (máximo
+     *                      unitasks.task-filter.max-limit)
+     * @param fields        Campos de cada tarea en la respuesta (por defecto
+     *                      todos)
+     * @return 200 OK con las tareas, la más nueva primero
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<List<Task>> filterMyTasks(Authentication auth,
+            @RequestParam(required = false) Set<String> labels,
+            @RequestParam(required = false) Set<String> anyLabels,
+            @RequestParam(required = false) Set<String> excludeLabels,
+            @RequestParam(required = false) Set<TaskStatus> status,
+            @RequestParam(required = false) Set<TaskPriority> priority,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Set<String> fields) {
+        Set<TaskField> selected = FieldSelectionAdvice.select(TaskField.class, fields);
         User user = authService.getCurrentUser(auth.getName());
-        List<Task> tasks = taskService.getTasksByUserId(user.getId());
+        TaskFilter filter = new TaskFilter(labels, anyLabels, excludeLabels, status, priority);
+        List<Task> tasks = taskService.filterTasks(user.getId(), filter, limit, selected);
         return ResponseEntity.ok(tasks);
     }
 
@@ -68,6 +141,28 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Crea varias tareas para EL USUARIO AUTENTICADO en una sola transacción.
+     * POST /api/tasks/batch
+     * 
+     * El cuerpo es un array de tareas en JSON, CBOR (application/cbor) o Smile
+     * (application/x-jackson-smile), según el Content-Type; la respuesta, en
+     * el formato del Accept.
+     * 
+     * @param auth  Objeto de autenticación
+     * @param tasks Datos de las tareas (entre 1 y TaskService.MAX_BATCH)
+     * @return 201 Created con las tareas creadas, en el mismo orden; 400 Bad
+     *         Request, sin crear ninguna, si alguna no es válida o el lote
+     *         está vacío o es demasiado largo
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<Task>> createTasks(Authentication auth,
+            @RequestBody @Size(min = 1, max = TaskService.MAX_BATCH) List<@Valid Task> tasks) {
+        User user = authService.getCurrentUser(auth.getName());
+        List<Task> created = taskService.createTasks(user.getId(), tasks);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
     /**
      * Cuenta el total de tareas del usuario autenticado.
      * GET /api/tasks/count
@@ -86,12 +181,16 @@ public class TaskController {
      * Obtiene una tarea por su ID (solo si pertenece al usuario autenticado).
      * GET /api/tasks/{id}
      * 
-     * @param id   ID de la tarea
-     * @param auth Objeto de autenticación
+     * @param id     ID de la tarea
+     * @param auth   Objeto de autenticación
+     * @param fields Campos de la tarea en la respuesta (por defecto todos;
+     *               la tarea sale de la caché y solo se recorta la respuesta)
      * @return 200 OK con la tarea, o 404/403 si no existe o no es del usuario
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id, Authentication auth) {
+    public ResponseEntity<Task> getTaskById(@PathVariable Long id, Authentication auth,
+            @RequestParam(required = false) Set<String> fields) {
+        FieldSelectionAdvice.select(TaskField.class, fields);
         User user = authService.getCurrentUser(auth.getName());
         return taskService.getTaskById(id)
                 .filter(task -> task.getUser().getId().equals(user.getId()))
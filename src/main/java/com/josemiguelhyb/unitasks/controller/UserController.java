@@ -1,7 +1,9 @@
 package com.josemiguelhyb.unitasks.controller;
 
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,7 +19,11 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 import com.josemiguelhyb.unitasks.dto.LeaderboardEntry;
+import com.josemiguelhyb.unitasks.dto.UserField;
+import com.josemiguelhyb.unitasks.dto.UserPage;
+import com.josemiguelhyb.unitasks.dto.UserSummary;
 import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.service.UserDeletionService;
 import com.josemiguelhyb.unitasks.service.UserService;
 
 /**
@@ -29,9 +35,14 @@ import com.josemiguelhyb.unitasks.service.UserService;
 public class UserController {
 
     private final UserService userService;
+    private final UserDeletionService userDeletionService;
+    private final boolean legacyList;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserDeletionService userDeletionService,
+            @Value("${unitasks.users.legacy-list:true}") boolean legacyList) {
         this.userService = userService;
+        this.userDeletionService = userDeletionService;
+        this.legacyList = legacyList;
     }
 
     /**
@@ -48,14 +59,61 @@ public class UserController {
     }
 
     /**
-     * Obtiene todos los usuarios.
-     * GET /api/users
+     * Lista los usuarios.
+     * GET /api/users?after=120&size=50&active=true&name=an
      * 
-     * @return 200 OK con lista de usuarios
+     * Con alguno de los parámetros devuelve una página (UserPage) paginada por
+     * clave: se pide la siguiente con after=nextCursor. Sin parámetros y con
+     * unitasks.users.legacy-list=true (modo compatible) devuelve, como antes, el
+     * array con todos los usuarios; si no, la primera página.
+     * 
+     * Con fields=id,email cada usuario solo lleva esos campos (ver UserField;
+     * un campo desconocido es un 400); nextCursor se mantiene. Lo mismo en
+     * search, {id} y email.
+     * 
+     * @param after  id del último usuario de la página anterior
+     * @param size   tamaño de página (máximo unitasks.users.page.max-size)
+     * @param active filtra por usuarios activos o inactivos
+     * @param name   filtra por prefijo del nombre, sin distinguir mayúsculas
+     * @param fields campos de cada usuario en la respuesta (por defecto todos)
+     * @return 200 OK con la página, o con la lista completa en modo compatible
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Set<String> fields) {
+        FieldSelectionAdvice.select(UserField.class, fields);
+        if (legacyList && after == null && size == null && active == null && name == null) {
+            List<UserSummary> users = userService.getAllUsers();
+            return ResponseEntity.ok(users);
+        }
+        UserPage page = userService.getUserPage(after, size, active, name);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Búsqueda de usuarios mientras se escribe (autocompletado).
+     * GET /api/users/search?q=jose gar&limit=10
+     * 
+     * Cada palabra de q debe ser el comienzo del nombre, de un apellido o del
+     * email, sin distinguir mayúsculas ni tildes.
+     * 
+     * @param q      texto escrito hasta ahora
+     * @param limit  número máximo de resultados (máximo
+     *               unitasks.user-search.max-limit)
+     * @param fields campos de cada usuario en la respuesta (por defecto todos)
+     * @return 200 OK con los usuarios encontrados (vacía si q está en blanco)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<UserSummary>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Set<String> fields) {
+        FieldSelectionAdvice.select(UserField.class, fields);
+        List<UserSummary> users = userService.searchUsers(q, limit);
         return ResponseEntity.ok(users);
     }
 
@@ -63,11 +121,14 @@ public class UserController {
      * Obtiene un usuario por su ID.
      * GET /api/users/{id}
      * 
-     * @param id ID del usuario
+     * @param id     ID del usuario
+     * @param fields campos del usuario en la respuesta (por defecto todos)
      * @return 200 OK con el usuario, o 404 Not Found si no existe
      */
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<User> getUserById(@PathVariable Long id,
+            @RequestParam(required = false) Set<String> fields) {
+        FieldSelectionAdvice.select(UserField.class, fields);
         return userService.getUserById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -77,11 +138,14 @@ public class UserController {
      * Busca un usuario por email.
      * GET /api/users/email?email=xxx
      * 
-     * @param email Email del usuario
+     * @param email  Email del usuario
+     * @param fields campos del usuario en la respuesta (por defecto todos)
      * @return 200 OK con el usuario, o 404 Not Found si no existe
      */
     @GetMapping("/email")
-    public ResponseEntity<User> getUserByEmail(@RequestParam String email) {
+    public ResponseEntity<User> getUserByEmail(@RequestParam String email,
+            @RequestParam(required = false) Set<String> fields) {
+        FieldSelectionAdvice.select(UserField.class, fields);
         return userService.getUserByEmail(email)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -146,14 +210,24 @@ public class UserController {
     }
 
     /**
-     * Elimina un usuario.
-     * DELETE /api/users/{id}
+     * Elimina un usuario y sus tareas.
+     * DELETE /api/users/{id}?async=true
      * 
-     * @param id ID del usuario
-     * @return 204 No Content si se elimina correctamente
+     * Con async=true (usuarios con muchas tareas) el usuario se desactiva y se
+     * elimina en segundo plano, borrando sus tareas por tramos.
+     * 
+     * @param id    ID del usuario
+     * @param async Eliminar en segundo plano (por defecto false)
+     * @return 204 No Content si se elimina correctamente, o 202 Accepted si se
+     *         programa en segundo plano
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            userDeletionService.deleteUserAsync(id);
+            return ResponseEntity.accepted().build();
+        }
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
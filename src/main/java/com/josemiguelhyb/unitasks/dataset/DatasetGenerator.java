@@ -0,0 +1,239 @@
+package com.josemiguelhyb.unitasks.dataset;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.josemiguelhyb.unitasks.model.EmailNormalizer;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Genera un dataset sintético para pruebas de carga (perfil "seed"):
+ * N usuarios y M tareas repartidas con una distribución de Zipf (pocos
+ * usuarios con muchas tareas), mezcla realista de estados y prioridades y
+ * fechas de los últimos meses.
+ *
+ * Escribe directamente por JDBC, sin pasar por Hibernate: COPY en PostgreSQL
+ * y inserciones por lotes en el resto. Todos los usuarios comparten la misma
+ * contraseña (unitasks.seed.password) y se cifra una sola vez. Es
+ * reproducible con la misma semilla y no hace nada si ya existen usuarios con
+ * el prefijo de email configurado.
+ */
+@Component
+@Profile("seed")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DatasetGenerator implements ApplicationRunner {
+	private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+	private static final int CHUNK_SIZE = 50_000;
+	private static final int BATCH_SIZE = 1_000;
+
+	private static final String[] NAMES = { "Ana", "Luis", "María", "Carlos", "Lucía", "Javier", "Elena", "Pablo",
+			"Sara", "Miguel", "Laura", "David", "Paula", "Jorge", "Marta", "Sergio" };
+	private static final String[] LASTNAMES = { "García", "Fernández", "González", "Rodríguez", "López", "Martínez",
+			"Sánchez", "Pérez", "Gómez", "Martín", "Jiménez", "Ruiz", "Hernández", "Díaz" };
+	private static final String[] VERBS = { "Estudiar", "Entregar", "Repasar", "Preparar", "Leer", "Terminar",
+			"Revisar", "Resumir" };
+	private static final String[] SUBJECTS = { "Cálculo", "Álgebra", "Física", "Programación", "Bases de datos",
+			"Redes", "Estadística", "Sistemas operativos", "Inglés", "TFG" };
+
+	// Pesos de cada estado y prioridad (mismo orden que los enums)
+	private static final double[] STATUS_WEIGHTS = { 0.35, 0.20, 0.35, 0.10 };
+	private static final double[] PRIORITY_WEIGHTS = { 0.30, 0.50, 0.20 };
+
+	private final JdbcTemplate jdbcTemplate;
+	private final PasswordEncoder passwordEncoder;
+	private final EntityManagerFactory entityManagerFactory;
+	private final int users;
+	private final int tasks;
+	private final double zipfExponent;
+	private final long randomSeed;
+	private final String emailPrefix;
+	private final String password;
+
+	public DatasetGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+			EntityManagerFactory entityManagerFactory,
+			@Value("${unitasks.seed.users:1000}") int users,
+			@Value("${unitasks.seed.tasks:20000}") int tasks,
+			@Value("${unitasks.seed.zipf-exponent:1.0}") double zipfExponent,
+			@Value("${unitasks.seed.random-seed:42}") long randomSeed,
+			@Value("${unitasks.seed.email-prefix:loadtest}") String emailPrefix,
+			@Value("${unitasks.seed.password:password123}") String password) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.passwordEncoder = passwordEncoder;
+		this.entityManagerFactory = entityManagerFactory;
+		this.users = users;
+		this.tasks = tasks;
+		this.zipfExponent = zipfExponent;
+		this.randomSeed = randomSeed;
+		// users.email solo admite la forma normalizada (migración V3)
+		this.emailPrefix = EmailNormalizer.normalize(emailPrefix);
+		this.password = password;
+	}
+
+	/**
+	 * Email del usuario i-ésimo del dataset (lo usan también las pruebas de carga).
+	 */
+	public static String email(String prefix, int index) {
+		return prefix + index + "@unitasks.local";
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE ?",
+				Integer.class, emailPrefix + "%@unitasks.local");
+		if (existing != null && existing > 0) {
+			log.info("Dataset '{}' ya presente ({} usuarios): no se genera de nuevo", emailPrefix, existing);
+			return;
+		}
+
+		long start = System.nanoTime();
+		Random random = new Random(randomSeed);
+		boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) c -> c.isWrapperFor(PGConnection.class));
+
+		insertUsers(random, postgres);
+		List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? ORDER BY id",
+				Long.class, emailPrefix + "%@unitasks.local");
+		ZipfDistribution owners = new ZipfDistribution(userIds.size(), zipfExponent);
+		insertTasks(random, postgres, userIds, owners);
+
+		if (postgres) {
+			jdbcTemplate.execute("ANALYZE users");
+			jdbcTemplate.execute("ANALYZE tasks");
+		}
+		entityManagerFactory.getCache().evictAll();
+
+		int top = Math.max(1, users / 100);
+		log.info("Dataset generado en {} ms: {} usuarios, {} tareas ({}). El 1% de usuarios tiene ~{}% de las tareas",
+				(System.nanoTime() - start) / 1_000_000, users, tasks, postgres ? "COPY" : "lotes JDBC",
+				Math.round(owners.headShare(top) * 100));
+	}
+
+	private void insertUsers(Random random, boolean postgres) throws SQLException, IOException {
+		String hash = passwordEncoder.encode(password);
+		List<Object[]> rows = new ArrayList<>(users);
+		for (int i = 0; i < users; i++) {
+			rows.add(new Object[] { pick(NAMES, random), pick(LASTNAMES, random), email(emailPrefix, i), hash,
+					random.nextDouble() < 0.95 });
+		}
+		write("users (name, lastname, email, password, active)", rows, postgres);
+	}
+
+	private void insertTasks(Random random, boolean postgres, List<Long> userIds, ZipfDistribution owners)
+			throws SQLException, IOException {
+		LocalDateTime now = LocalDateTime.now().withNano(0);
+		TaskStatus[] statuses = TaskStatus.values();
+		TaskPriority[] priorities = TaskPriority.values();
+		List<Object[]> rows = new ArrayList<>(Math.min(tasks, CHUNK_SIZE));
+		for (int i = 0; i < tasks; i++) {
+			TaskStatus status = statuses[weighted(STATUS_WEIGHTS, random)];
+			LocalDateTime createdAt = now.minusMinutes(random.nextInt(180 * 24 * 60));
+			LocalDateTime updatedAt = createdAt.plusMinutes(
+					(long) (random.nextDouble() * Duration.between(createdAt, now).toMinutes()));
+			LocalDateTime dueDate = null;
+			if (status == TaskStatus.EXPIRED) {
+				dueDate = now.minusDays(1 + random.nextInt(30));
+			} else if (random.nextDouble() < 0.8) {
+				dueDate = createdAt.plusDays(1 + random.nextInt(60));
+			}
+			rows.add(new Object[] { pick(VERBS, random) + " " + pick(SUBJECTS, random),
+					random.nextBoolean() ? "Tarea generada " + i : null, status.name(),
+					priorities[weighted(PRIORITY_WEIGHTS, random)].name(), Timestamp.valueOf(createdAt),
+					Timestamp.valueOf(updatedAt), dueDate != null ? Timestamp.valueOf(dueDate) : null,
+					userIds.get(owners.sample(random)) });
+			if (rows.size() == CHUNK_SIZE) {
+				write("tasks (title, description, status, priority, created_at, updated_at, due_date, user_id)", rows,
+						postgres);
+				rows.clear();
+			}
+		}
+		if (!rows.isEmpty()) {
+			write("tasks (title, description, status, priority, created_at, updated_at, due_date, user_id)", rows,
+					postgres);
+		}
+	}
+
+	private void write(String table, List<Object[]> rows, boolean postgres) throws SQLException, IOException {
+		if (postgres) {
+			copy(table, rows);
+			return;
+		}
+		int columns = rows.get(0).length;
+		String placeholders = String.join(", ", Collections.nCopies(columns, "?"));
+		String sql = "INSERT INTO " + table + " VALUES (" + placeholders + ")";
+		for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+			jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+		}
+	}
+
+	private void copy(String table, List<Object[]> rows) {
+		StringBuilder csv = new StringBuilder(rows.size() * 96);
+		for (Object[] row : rows) {
+			for (int c = 0; c < row.length; c++) {
+				if (c > 0) {
+					csv.append(',');
+				}
+				appendCsv(csv, row[c]);
+			}
+			csv.append('\n');
+		}
+		jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copyIn(connection, table, csv.toString()));
+	}
+
+	private static long copyIn(Connection connection, String table, String csv) throws SQLException {
+		try {
+			return connection.unwrap(PGConnection.class).getCopyAPI()
+					.copyIn("COPY " + table + " FROM STDIN WITH (FORMAT csv)", new StringReader(csv));
+		} catch (IOException e) {
+			throw new SQLException("Error en COPY " + table, e);
+		}
+	}
+
+	// NULL es un campo vacío sin comillas; el resto va siempre entre comillas
+	private static void appendCsv(StringBuilder csv, Object value) {
+		if (value == null) {
+			return;
+		}
+		csv.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+	}
+
+	private static String pick(String[] values, Random random) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static int weighted(double[] weights, Random random) {
+		double r = random.nextDouble();
+		for (int i = 0; i < weights.length - 1; i++) {
+			r -= weights[i];
+			if (r < 0) {
+				return i;
+			}
+		}
+		return weights.length - 1;
+	}
+}
@@ -0,0 +1,40 @@
+package com.josemiguelhyb.unitasks.dataset;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distribución de Zipf sobre los rangos 0..n-1: el rango k sale con
+ * probabilidad proporcional a 1/(k+1)^s. Con s ~ 1 unos pocos usuarios
+ * acumulan la mayoría de las tareas, como en los datos reales.
+ */
+public class ZipfDistribution {
+
+	private final double[] cumulative;
+
+	public ZipfDistribution(int n, double exponent) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("n debe ser positivo: " + n);
+		}
+		cumulative = new double[n];
+		double sum = 0;
+		for (int k = 0; k < n; k++) {
+			sum += 1.0 / Math.pow(k + 1, exponent);
+			cumulative[k] = sum;
+		}
+		for (int k = 0; k < n; k++) {
+			cumulative[k] /= sum;
+		}
+	}
+
+	public int sample(Random random) {
+		int index = Arrays.binarySearch(cumulative, random.nextDouble());
+		int rank = index >= 0 ? index : -index - 1;
+		return Math.min(rank, cumulative.length - 1);
+	}
+
+	// Fracción de la probabilidad total que acumulan los primeros 'top' rangos
+	public double headShare(int top) {
+		return top <= 0 ? 0 : cumulative[Math.min(top, cumulative.length) - 1];
+	}
+}
@@ -0,0 +1,22 @@
+package com.josemiguelhyb.unitasks.deadline;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class DeadlineConfig {
+
+	// Sustituye al JpaTransactionManager de Spring Boot (se registra solo si no hay
+	// otro) con la misma inicialización: EntityManagerFactory del contexto y
+	// personalizaciones spring.transaction.*
+	@Bean
+	public PlatformTransactionManager transactionManager(
+			ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+		DeadlineJpaTransactionManager transactionManager = new DeadlineJpaTransactionManager();
+		transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+		return transactionManager;
+	}
+}
@@ -0,0 +1,166 @@
+package com.josemiguelhyb.unitasks.deadline;
+
+import java.io.IOException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Abre el plazo (RequestDeadline) de cada petición con el presupuesto de su
+ * ruta: unitasks.deadline.routes ("MÉTODO /patrón=duración", la primera que
+ * encaje) o unitasks.deadline.default. El cliente puede acortarlo con la
+ * cabecera X-Request-Timeout (milisegundos) pero no alargarlo.
+ *
+ * Si el trabajo se cancela por el plazo (timeout de la consulta o de la
+ * transacción) responde 504 en vez del 500 genérico. Va dentro de los filtros
+ * de métricas y antes de la cadena de Spring Security, así el plazo cubre
+ * también la autenticación.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 4)
+public class DeadlineFilter extends OncePerRequestFilter {
+	private static final Logger log = LoggerFactory.getLogger(DeadlineFilter.class);
+
+	public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+	private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+	private final boolean enabled;
+	private final Duration defaultBudget;
+	private final List<RouteBudget> routes = new ArrayList<>();
+	private final MeterRegistry meterRegistry;
+
+	public DeadlineFilter(MeterRegistry meterRegistry,
+			@Value("${unitasks.deadline.enabled:true}") boolean enabled,
+			@Value("${unitasks.deadline.default:10s}") Duration defaultBudget,
+			@Value("${unitasks.deadline.routes:}") List<String> routes) {
+		this.meterRegistry = meterRegistry;
+		this.enabled = enabled;
+		this.defaultBudget = defaultBudget;
+		for (String route : routes) {
+			if (!route.isBlank()) {
+				this.routes.add(RouteBudget.parse(route.trim()));
+			}
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled || request.getRequestURI().startsWith("/actuator");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		RequestDeadline deadline = RequestDeadline.start(budgetFor(request));
+		try {
+			filterChain.doFilter(request, response);
+		} catch (ServletException | RuntimeException e) {
+			if (!isTimeout(e) || response.isCommitted()) {
+				throw e;
+			}
+			Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			log.warn("Plazo de {} ms agotado en {} {}: {}", deadline.getBudget().toMillis(), request.getMethod(),
+					request.getRequestURI(), rootMessage(e));
+			Counter.builder("unitasks.deadline.exceeded")
+					.description("Peticiones cortadas por su plazo (timeout de consulta o transacción)")
+					.tag("method", request.getMethod())
+					.tag("uri", route != null ? route.toString() : "UNKNOWN")
+					.register(meterRegistry)
+					.increment();
+			response.resetBuffer();
+			response.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+		} finally {
+			deadline.finish();
+		}
+	}
+
+	Duration budgetFor(HttpServletRequest request) {
+		Duration budget = defaultBudget;
+		for (RouteBudget route : routes) {
+			if (route.matches(request.getMethod(), request.getRequestURI())) {
+				budget = route.budget;
+				break;
+			}
+		}
+		String header = request.getHeader(TIMEOUT_HEADER);
+		if (header != null) {
+			try {
+				Duration requested = Duration.ofMillis(Long.parseLong(header.trim()));
+				if (!requested.isNegative() && requested.compareTo(budget) < 0) {
+					budget = requested;
+				}
+			} catch (NumberFormatException e) {
+				// Cabecera mal formada: se usa el presupuesto de la ruta
+			}
+		}
+		return budget;
+	}
+
+	static boolean isTimeout(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof QueryTimeoutException || cause instanceof TransactionTimedOutException
+					|| cause instanceof jakarta.persistence.QueryTimeoutException
+					|| cause instanceof SQLTimeoutException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String rootMessage(Throwable e) {
+		Throwable root = e;
+		while (root.getCause() != null) {
+			root = root.getCause();
+		}
+		return root.getMessage();
+	}
+
+	private static final class RouteBudget {
+		private final String method;
+		private final String pattern;
+		private final Duration budget;
+
+		private RouteBudget(String method, String pattern, Duration budget) {
+			this.method = method;
+			this.pattern = pattern;
+			this.budget = budget;
+		}
+
+		// "GET /api/users/leaderboard=3s"; método * para cualquiera
+		static RouteBudget parse(String value) {
+			int equals = value.lastIndexOf('=');
+			int space = value.indexOf(' ');
+			if (equals < 0 || space < 0 || space > equals) {
+				throw new IllegalArgumentException("Presupuesto de ruta no válido (MÉTODO /patrón=duración): " + value);
+			}
+			return new RouteBudget(value.substring(0, space), value.substring(space + 1, equals).trim(),
+					DurationStyle.detectAndParse(value.substring(equals + 1).trim()));
+		}
+
+		boolean matches(String requestMethod, String path) {
+			return ("*".equals(method) || method.equalsIgnoreCase(requestMethod)) && PATHS.match(pattern, path);
+		}
+	}
+}
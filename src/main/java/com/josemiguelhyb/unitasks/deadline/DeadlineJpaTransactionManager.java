@@ -0,0 +1,33 @@
+package com.josemiguelhyb.unitasks.deadline;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * JpaTransactionManager que limita el timeout de cada transacción nueva al
+ * tiempo que le queda a la petición. Hibernate aplica ese timeout a cada
+ * sentencia (Statement.setQueryTimeout con lo que queda de transacción), así
+ * que la base de datos cancela la consulta cuando el cliente ya no espera la
+ * respuesta y la conexión vuelve al pool.
+ */
+public class DeadlineJpaTransactionManager extends JpaTransactionManager {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	protected int determineTimeout(TransactionDefinition definition) {
+		int timeout = super.determineTimeout(definition);
+		RequestDeadline deadline = RequestDeadline.current();
+		if (deadline == null) {
+			return timeout;
+		}
+		// Sin plazo no se llega a pedir conexión al pool
+		if (deadline.isExpired()) {
+			throw new TransactionTimedOutException("Plazo de la petición (" + deadline.getBudget().toMillis()
+					+ " ms) agotado antes de empezar la transacción");
+		}
+		int remaining = deadline.remainingSeconds();
+		return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remaining : Math.min(timeout, remaining);
+	}
+}
@@ -0,0 +1,21 @@
+package com.josemiguelhyb.unitasks.deadline;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+/**
+ * Hikari da por rota la conexión ante cualquier SQLTimeoutException y la
+ * cierra, así que el rollback posterior falla y el pool tiene que abrir otra.
+ * Una consulta cancelada por su timeout deja la conexión en buen estado: se
+ * devuelve al pool. El resto de errores siguen la regla de Hikari.
+ * (spring.datasource.hikari.exception-override-class-name)
+ */
+public class QueryTimeoutExceptionOverride implements SQLExceptionOverride {
+
+	@java.lang.Override
+	public Override adjudicate(SQLException sqlException) {
+		return sqlException instanceof SQLTimeoutException ? Override.DO_NOT_EVICT : Override.CONTINUE_EVICT;
+	}
+}
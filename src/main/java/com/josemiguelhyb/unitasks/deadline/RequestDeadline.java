@@ -0,0 +1,55 @@
+package com.josemiguelhyb.unitasks.deadline;
+
+import java.time.Duration;
+
+/**
+ * Plazo de la petición HTTP en curso. DeadlineFilter lo abre con el
+ * presupuesto de la ruta y DeadlineJpaTransactionManager lo convierte en el
+ * timeout de cada transacción (y de sus sentencias JDBC). Se guarda en un
+ * ThreadLocal como RequestStats: cada petición se atiende en un único hilo.
+ */
+public final class RequestDeadline {
+
+	private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+	private final Duration budget;
+	private final long deadlineNanos;
+
+	private RequestDeadline(Duration budget) {
+		this.budget = budget;
+		this.deadlineNanos = System.nanoTime() + budget.toNanos();
+	}
+
+	public static RequestDeadline start(Duration budget) {
+		RequestDeadline deadline = new RequestDeadline(budget);
+		CURRENT.set(deadline);
+		return deadline;
+	}
+
+	// null si el hilo no está atendiendo una petición (arranque, tareas, tests)
+	public static RequestDeadline current() {
+		return CURRENT.get();
+	}
+
+	public void finish() {
+		CURRENT.remove();
+	}
+
+	public Duration getBudget() {
+		return budget;
+	}
+
+	public long remainingNanos() {
+		return deadlineNanos - System.nanoTime();
+	}
+
+	public boolean isExpired() {
+		return remainingNanos() <= 0;
+	}
+
+	// Los timeouts de JDBC y de las transacciones van en segundos: se redondea hacia arriba
+	public int remainingSeconds() {
+		long remaining = remainingNanos();
+		return remaining <= 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, (remaining + 999_999_999L) / 1_000_000_000L);
+	}
+}
@@ -0,0 +1,79 @@
+package com.josemiguelhyb.unitasks.dto;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.josemiguelhyb.unitasks.exception.UnknownFieldException;
+
+/**
+ * Selección de campos de las respuestas (?fields=id,title,status). Las tareas
+ * y los usuarios se serializan con un filtro de Jackson por tipo (ver
+ * JacksonConfig) que por defecto deja todos los campos; FieldSelectionAdvice
+ * lo restringe a los pedidos. TaskField y UserField son los campos que se
+ * pueden pedir de cada uno.
+ */
+public final class FieldSelection {
+
+    // Ids de los filtros de Jackson de Task y de User/UserSummary
+    public static final String TASK_FILTER = "taskFields";
+    public static final String USER_FILTER = "userFields";
+
+    /**
+     * Campo que se puede pedir: su nombre en el JSON.
+     */
+    public interface Field {
+        String property();
+    }
+
+    private FieldSelection() {
+    }
+
+    /**
+     * Campos pedidos, o vacío si no se pide ninguno (la respuesta completa).
+     * 
+     * @throws UnknownFieldException si alguno no es un campo de type
+     */
+    public static <F extends Enum<F> & Field> Set<F> parse(Class<F> type, Collection<String> names) {
+        Set<F> fields = EnumSet.noneOf(type);
+        for (String name : names(names)) {
+            F field = find(type, name);
+            if (field == null) {
+                throw new UnknownFieldException("Campo desconocido: " + name + " (válidos: "
+                        + EnumSet.allOf(type).stream().map(Field::property).collect(Collectors.joining(", ")) + ")");
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    /**
+     * Nombres de los campos tal como llegan: separados por comas, en uno o
+     * varios parámetros, sin vacíos.
+     */
+    public static Set<String> names(Collection<String> values) {
+        Set<String> names = new LinkedHashSet<>();
+        if (values == null) {
+            return names;
+        }
+        for (String value : values) {
+            for (String name : value.split(",")) {
+                if (!name.isBlank()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static <F extends Enum<F> & Field> F find(Class<F> type, String name) {
+        for (F field : type.getEnumConstants()) {
+            if (field.property().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
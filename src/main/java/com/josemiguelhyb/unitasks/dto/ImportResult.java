@@ -0,0 +1,100 @@
+package com.josemiguelhyb.unitasks.dto;
+
+/**
+ * Resultado de una importación masiva de usuarios. duplicates son los emails
+ * repetidos en el fichero o ya registrados; invalid, las filas que no pasan la
+ * validación. Si hay alguno de los dos, reportUrl apunta al informe de errores
+ * (CSV con línea, email y motivo); si no, es null.
+ */
+public class ImportResult {
+
+    private String id;
+    private long rows;
+    private long imported;
+    private long duplicates;
+    private long invalid;
+    private long durationMs;
+    private double usersPerSecond;
+    private String reportUrl;
+
+    // Constructores
+    public ImportResult() {
+    }
+
+    public ImportResult(String id, long rows, long imported, long duplicates, long invalid, long durationMs,
+            double usersPerSecond, String reportUrl) {
+        this.id = id;
+        this.rows = rows;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.invalid = invalid;
+        this.durationMs = durationMs;
+        this.usersPerSecond = usersPerSecond;
+        this.reportUrl = reportUrl;
+    }
+
+    // Getters y Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(long invalid) {
+        this.invalid = invalid;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public double getUsersPerSecond() {
+        return usersPerSecond;
+    }
+
+    public void setUsersPerSecond(double usersPerSecond) {
+        this.usersPerSecond = usersPerSecond;
+    }
+
+    public String getReportUrl() {
+        return reportUrl;
+    }
+
+    public void setReportUrl(String reportUrl) {
+        this.reportUrl = reportUrl;
+    }
+}
@@ -0,0 +1,57 @@
+package com.josemiguelhyb.unitasks.dto;
+
+import java.time.Instant;
+
+/**
+ * DTO con el estado de la grabación JFR bajo demanda.
+ */
+public class ProfilingStatus {
+
+    private boolean active;
+    private Instant startedAt;
+    private Long durationSeconds;
+    private long maxSizeBytes;
+
+    public ProfilingStatus() {
+    }
+
+    public ProfilingStatus(boolean active, Instant startedAt, Long durationSeconds, long maxSizeBytes) {
+        this.active = active;
+        this.startedAt = startedAt;
+        this.durationSeconds = durationSeconds;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    // Getters y Setters
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(Long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    public void setMaxSizeBytes(long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+    }
+}
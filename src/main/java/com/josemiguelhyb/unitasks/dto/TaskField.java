@@ -0,0 +1,52 @@
+package com.josemiguelhyb.unitasks.dto;
+
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+
+/**
+ * Campos de Task que se pueden pedir con ?fields=. Los que son columnas de
+ * tasks se leen solo si se piden (TaskRepository.findFieldsByUserId); las
+ * etiquetas, con una consulta aparte. Pedir user obliga a cargar la tarea
+ * entera.
+ */
+public enum TaskField implements FieldSelection.Field {
+
+    ID("id", "t.id", (task, value) -> task.setId((Long) value)),
+    TITLE("title", "t.title", (task, value) -> task.setTitle((String) value)),
+    DESCRIPTION("description", "t.description", (task, value) -> task.setDescription((String) value)),
+    STATUS("status", "t.status", (task, value) -> task.setStatus((TaskStatus) value)),
+    PRIORITY("priority", "t.priority", (task, value) -> task.setPriority((TaskPriority) value)),
+    CREATED_AT("createdAt", "t.createdAt", (task, value) -> task.setCreatedAt((LocalDateTime) value)),
+    UPDATED_AT("updatedAt", "t.updatedAt", (task, value) -> task.setUpdatedAt((LocalDateTime) value)),
+    DUE_DATE("dueDate", "t.dueDate", (task, value) -> task.setDueDate((LocalDateTime) value)),
+    LABELS("labels", null, null),
+    USER("user", null, null);
+
+    private final String property;
+    private final String path;
+    private final BiConsumer<Task, Object> setter;
+
+    TaskField(String property, String path, BiConsumer<Task, Object> setter) {
+        this.property = property;
+        this.path = path;
+        this.setter = setter;
+    }
+
+    @Override
+    public String property() {
+        return property;
+    }
+
+    // Expresión JPQL de la columna, o null si no es una columna de tasks
+    public String path() {
+        return path;
+    }
+
+    public void set(Task task, Object value) {
+        setter.accept(task, value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.josemiguelhyb.unitasks.dto;
+
+/**
+ * Campos de User y UserSummary que se pueden pedir con ?fields=. Los listados
+ * ya se leen como UserSummary (sin la contraseña) y los usuarios sueltos de
+ * la caché de segundo nivel, así que solo se recorta la respuesta.
+ */
+public enum UserField implements FieldSelection.Field {
+
+    ID("id"),
+    NAME("name"),
+    LASTNAME("lastname"),
+    EMAIL("email"),
+    ACTIVE("active");
+
+    private final String property;
+
+    UserField(String property) {
+        this.property = property;
+    }
+
+    @Override
+    public String property() {
+        return property;
+    }
+}
@@ -0,0 +1,40 @@
+package com.josemiguelhyb.unitasks.dto;
+
+import java.util.List;
+
+/**
+ * Página del listado de usuarios con paginación por clave (keyset).
+ * nextCursor es el id del último usuario de la página: se pasa como
+ * parámetro after para pedir la siguiente. Es null en la última página.
+ */
+public class UserPage {
+
+    private List<UserSummary> items;
+    private Long nextCursor;
+
+    // Constructores
+    public UserPage() {
+    }
+
+    public UserPage(List<UserSummary> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters y Setters
+    public List<UserSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UserSummary> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,68 @@
+package com.josemiguelhyb.unitasks.dto;
+
+/**
+ * DTO con los datos públicos de un usuario para el listado de /api/users.
+ * Se construye en la propia consulta (SELECT new ...), así que no carga la
+ * entidad User, su hash de contraseña ni la llena el contexto de persistencia.
+ */
+public class UserSummary {
+
+    private Long id;
+    private String name;
+    private String lastname;
+    private String email;
+    private boolean active;
+
+    // Constructores
+    public UserSummary() {
+    }
+
+    public UserSummary(Long id, String name, String lastname, String email, boolean active) {
+        this.id = id;
+        this.name = name;
+        this.lastname = lastname;
+        this.email = email;
+        this.active = active;
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLastname() {
+        return lastname;
+    }
+
+    public void setLastname(String lastname) {
+        this.lastname = lastname;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
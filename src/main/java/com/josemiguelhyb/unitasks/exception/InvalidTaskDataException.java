@@ -1,8 +1,13 @@
 package com.josemiguelhyb.unitasks.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
 /**
- * Excepción lanzada cuando los datos de una tarea son inválidos o incompletos.
+ * Excepción lanzada cuando los datos de una tarea son inválidos o incompletos
+ * (400 Bad Request).
  */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class InvalidTaskDataException extends RuntimeException {
     /**
 	 * 
@@ -0,0 +1,20 @@
+package com.josemiguelhyb.unitasks.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Excepción lanzada cuando el parámetro fields pide un campo que la respuesta
+ * no tiene (400 Bad Request).
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownFieldException extends RuntimeException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public UnknownFieldException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.josemiguelhyb.unitasks.importer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos admitidos por la importación de usuarios, según el Content-Type.
+ */
+public enum ImportFormat {
+
+	/** Cabecera name,lastname,email,password[,active] y una fila por usuario */
+	CSV("text/csv"),
+	/** Un objeto JSON por línea con los mismos campos */
+	NDJSON("application/x-ndjson");
+
+	private final MediaType mediaType;
+
+	ImportFormat(String mediaType) {
+		this.mediaType = MediaType.parseMediaType(mediaType);
+	}
+
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	public static ImportFormat of(MediaType contentType) {
+		for (ImportFormat format : values()) {
+			if (format.mediaType.isCompatibleWith(contentType)) {
+				return format;
+			}
+		}
+		throw new IllegalArgumentException("Formato de importación no soportado: " + contentType);
+	}
+}
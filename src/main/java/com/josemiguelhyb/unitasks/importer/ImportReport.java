@@ -0,0 +1,56 @@
+package com.josemiguelhyb.unitasks.importer;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Informe de errores de una importación: un CSV (line,email,error) en un
+ * fichero temporal, escrito según se procesan las filas. Se descarga con
+ * GET /api/admin/users/import/{id}/report.
+ */
+class ImportReport implements Closeable {
+
+	private final Path file;
+	private final BufferedWriter writer;
+	private long errors;
+
+	ImportReport(Path file) throws IOException {
+		this.file = file;
+		this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+		writer.write("line,email,error\n");
+	}
+
+	void add(ImportRow row, String error) throws IOException {
+		writer.write(Long.toString(row.line));
+		writer.write(',');
+		writer.write(quote(row.email));
+		writer.write(',');
+		writer.write(quote(error));
+		writer.write('\n');
+		errors++;
+	}
+
+	long getErrors() {
+		return errors;
+	}
+
+	Path getFile() {
+		return file;
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	private static String quote(String value) {
+		if (value == null) {
+			return "";
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
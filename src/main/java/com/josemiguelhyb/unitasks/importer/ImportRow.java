@@ -0,0 +1,34 @@
+package com.josemiguelhyb.unitasks.importer;
+
+/**
+ * Fila del fichero de importación. Si no se pudo leer, error explica por qué
+ * y el resto de campos pueden faltar.
+ */
+class ImportRow {
+
+	final long line;
+	final String name;
+	final String lastname;
+	// Se normaliza al validar la fila
+	String email;
+	final String password;
+	final boolean active;
+	String error;
+	// Lo rellena el pool de cifrado antes del INSERT
+	String passwordHash;
+
+	ImportRow(long line, String name, String lastname, String email, String password, boolean active) {
+		this.line = line;
+		this.name = name;
+		this.lastname = lastname;
+		this.email = email;
+		this.password = password;
+		this.active = active;
+	}
+
+	static ImportRow invalid(long line, String email, String error) {
+		ImportRow row = new ImportRow(line, null, null, email, null, true);
+		row.error = error;
+		return row;
+	}
+}
@@ -0,0 +1,220 @@
+package com.josemiguelhyb.unitasks.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lee el fichero de importación fila a fila sin cargarlo entero en memoria.
+ * Una fila mal formada se devuelve con su error para el informe y la lectura
+ * continúa; solo una cabecera CSV sin las columnas obligatorias aborta la
+ * importación.
+ */
+abstract class ImportRowReader {
+
+	static final String NAME = "name";
+	static final String LASTNAME = "lastname";
+	static final String EMAIL = "email";
+	static final String PASSWORD = "password";
+	static final String ACTIVE = "active";
+
+	private static final List<String> REQUIRED = List.of(NAME, LASTNAME, EMAIL, PASSWORD);
+
+	protected final BufferedReader reader;
+	protected long line;
+
+	protected ImportRowReader(BufferedReader reader) {
+		this.reader = reader;
+	}
+
+	static ImportRowReader of(ImportFormat format, BufferedReader reader, ObjectMapper objectMapper)
+			throws IOException {
+		return format == ImportFormat.CSV ? new Csv(reader) : new Ndjson(reader, objectMapper);
+	}
+
+	/**
+	 * Siguiente fila, o null al terminar el fichero.
+	 */
+	abstract ImportRow next() throws IOException;
+
+	protected ImportRow row(long rowLine, String name, String lastname, String email, String password,
+			String active) {
+		Boolean isActive = parseActive(active);
+		if (isActive == null) {
+			return ImportRow.invalid(rowLine, email, "Valor de active no válido: " + active);
+		}
+		return new ImportRow(rowLine, name, lastname, email, password, isActive);
+	}
+
+	// Vacío = activo, como en el alta normal
+	private static Boolean parseActive(String value) {
+		if (value == null || value.isBlank()) {
+			return Boolean.TRUE;
+		}
+		switch (value.trim().toLowerCase(Locale.ROOT)) {
+			case "true", "1":
+				return Boolean.TRUE;
+			case "false", "0":
+				return Boolean.FALSE;
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * CSV (RFC 4180): separador coma, campos entre comillas dobles con "" como
+	 * escape y saltos de línea dentro de las comillas. Las columnas se buscan
+	 * por nombre en la cabecera, en cualquier orden.
+	 */
+	static final class Csv extends ImportRowReader {
+
+		private final Map<String, Integer> columns = new HashMap<>();
+
+		Csv(BufferedReader reader) throws IOException {
+			super(reader);
+			List<String> header = record();
+			if (header == null) {
+				throw new IllegalArgumentException("El CSV está vacío");
+			}
+			for (int i = 0; i < header.size(); i++) {
+				String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+				// Excel añade la marca de orden de bytes al principio del fichero
+				columns.put(i == 0 ? column.replace("\uFEFF", "") : column, i);
+			}
+			for (String column : REQUIRED) {
+				if (!columns.containsKey(column)) {
+					throw new IllegalArgumentException("Falta la columna '" + column + "' en la cabecera del CSV");
+				}
+			}
+		}
+
+		@Override
+		ImportRow next() throws IOException {
+			List<String> fields;
+			long start;
+			do {
+				start = line + 1;
+				fields = record();
+				if (fields == null) {
+					return null;
+				}
+			} while (fields.size() == 1 && fields.get(0).isBlank());
+
+			if (fields.size() < columns.size()) {
+				return ImportRow.invalid(start, field(fields, EMAIL), "Faltan columnas: " + fields.size() + " de "
+						+ columns.size());
+			}
+			return row(start, field(fields, NAME), field(fields, LASTNAME), field(fields, EMAIL),
+					field(fields, PASSWORD), field(fields, ACTIVE));
+		}
+
+		private String field(List<String> fields, String column) {
+			Integer index = columns.get(column);
+			return index != null && index < fields.size() ? fields.get(index) : null;
+		}
+
+		// Un registro completo (puede ocupar varias líneas si hay comillas abiertas)
+		private List<String> record() throws IOException {
+			int c = reader.read();
+			if (c < 0) {
+				return null;
+			}
+			List<String> fields = new ArrayList<>();
+			StringBuilder field = new StringBuilder();
+			boolean quoted = false;
+			while (true) {
+				if (c < 0) {
+					fields.add(field.toString());
+					line++;
+					return fields;
+				}
+				char ch = (char) c;
+				if (quoted) {
+					if (ch == '"') {
+						reader.mark(1);
+						int following = reader.read();
+						if (following == '"') {
+							field.append('"');
+						} else {
+							quoted = false;
+							reader.reset();
+						}
+					} else {
+						if (ch == '\n') {
+							line++;
+						}
+						field.append(ch);
+					}
+				} else if (ch == '"') {
+					quoted = true;
+				} else if (ch == ',') {
+					fields.add(field.toString());
+					field.setLength(0);
+				} else if (ch == '\n' || ch == '\r') {
+					if (ch == '\r') {
+						reader.mark(1);
+						if (reader.read() != '\n') {
+							reader.reset();
+						}
+					}
+					fields.add(field.toString());
+					line++;
+					return fields;
+				} else {
+					field.append(ch);
+				}
+				c = reader.read();
+			}
+		}
+	}
+
+	/**
+	 * NDJSON: un objeto JSON por línea. Las líneas en blanco se ignoran.
+	 */
+	static final class Ndjson extends ImportRowReader {
+
+		private final ObjectMapper objectMapper;
+
+		Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+			super(reader);
+			this.objectMapper = objectMapper;
+		}
+
+		@Override
+		ImportRow next() throws IOException {
+			String text;
+			do {
+				text = reader.readLine();
+				if (text == null) {
+					return null;
+				}
+				line++;
+			} while (text.isBlank());
+
+			JsonNode node;
+			try {
+				node = objectMapper.readTree(text);
+			} catch (JsonProcessingException e) {
+				return ImportRow.invalid(line, null, "JSON no válido: " + e.getOriginalMessage());
+			}
+			if (!node.isObject()) {
+				return ImportRow.invalid(line, null, "Se esperaba un objeto JSON");
+			}
+			return row(line, text(node, NAME), text(node, LASTNAME), text(node, EMAIL), text(node, PASSWORD),
+					text(node, ACTIVE));
+		}
+
+		private static String text(JsonNode node, String field) {
+			JsonNode value = node.get(field);
+			return value == null || value.isNull() ? null : value.asText();
+		}
+	}
+}
@@ -0,0 +1,387 @@
+package com.josemiguelhyb.unitasks.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.cache.CacheInvalidationPublisher;
+import com.josemiguelhyb.unitasks.dto.ImportResult;
+import com.josemiguelhyb.unitasks.dto.RegisterRequest;
+import com.josemiguelhyb.unitasks.index.EmailExistenceFilter;
+import com.josemiguelhyb.unitasks.index.UserSearchIndex;
+import com.josemiguelhyb.unitasks.model.EmailNormalizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Importación masiva de usuarios (CSV o NDJSON) para administradores. El
+ * fichero se procesa en streaming, en bloques de unitasks.import.batch-size
+ * filas:
+ *
+ * 1. Se valida cada fila con las mismas reglas que el registro y se descartan
+ *    los emails repetidos dentro del fichero.
+ * 2. Los emails que el filtro de Bloom da como posibles se comprueban contra
+ *    la base de datos con un solo SELECT ... IN por bloque.
+ * 3. Las contraseñas se cifran con BCrypt en paralelo en un ForkJoinPool
+ *    propio y acotado (unitasks.import.hash-parallelism), mientras el hilo de
+ *    la petición inserta el bloque anterior.
+ * 4. Cada bloque se inserta con un lote JDBC en su propia transacción. Si un
+ *    alta simultánea provoca un email duplicado, ese bloque se repite fila a
+ *    fila.
+ *
+ * Las filas rechazadas van al informe de errores de la importación (CSV).
+ */
+@Component
+public class UserImporter implements DisposableBean {
+	private static final Logger log = LoggerFactory.getLogger(UserImporter.class);
+
+	private static final String INSERT_SQL = "INSERT INTO users (name, lastname, email, password, active)"
+			+ " VALUES (?, ?, ?, ?, ?)";
+	private static final int MAX_EMAIL_LENGTH = 150;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final PasswordEncoder passwordEncoder;
+	private final Validator validator;
+	private final ObjectMapper objectMapper;
+	private final EmailExistenceFilter emailFilter;
+	private final UserSearchIndex userSearchIndex;
+	private final CacheInvalidationPublisher cacheInvalidationPublisher;
+	private final ForkJoinPool hashingPool;
+	private final int batchSize;
+	private final int maxReports;
+
+	private final Counter importedRows;
+	private final Counter duplicateRows;
+	private final Counter invalidRows;
+
+	// Informes de las últimas importaciones (id -> fichero); al superar
+	// maxReports se borra el más antiguo
+	private final Map<String, Path> reports = new LinkedHashMap<>();
+
+	public UserImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			PasswordEncoder passwordEncoder, Validator validator, ObjectMapper objectMapper,
+			EmailExistenceFilter emailFilter, UserSearchIndex userSearchIndex,
+			CacheInvalidationPublisher cacheInvalidationPublisher, MeterRegistry meterRegistry,
+			@Value("${unitasks.import.batch-size:500}") int batchSize,
+			@Value("${unitasks.import.hash-parallelism:0}") int hashParallelism,
+			@Value("${unitasks.import.max-reports:20}") int maxReports) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.passwordEncoder = passwordEncoder;
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.emailFilter = emailFilter;
+		this.userSearchIndex = userSearchIndex;
+		this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+		// 0 = todos los núcleos menos uno, para que la API siga respondiendo durante la importación
+		this.hashingPool = new ForkJoinPool(hashParallelism > 0 ? hashParallelism
+				: Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+		this.batchSize = batchSize;
+		this.maxReports = maxReports;
+		this.importedRows = rows(meterRegistry, "imported");
+		this.duplicateRows = rows(meterRegistry, "duplicate");
+		this.invalidRows = rows(meterRegistry, "invalid");
+	}
+
+	/**
+	 * Importa los usuarios del fichero. Lee el cuerpo según llega: la memoria
+	 * depende del tamaño de bloque, no del fichero.
+	 *
+	 * @throws IllegalArgumentException si el fichero no tiene el formato esperado
+	 *                                  (cabecera CSV sin las columnas obligatorias)
+	 */
+	public ImportResult importUsers(InputStream body, ImportFormat format) throws IOException {
+		long start = System.nanoTime();
+		String id = UUID.randomUUID().toString();
+		Path reportFile = Files.createTempFile("unitasks-import-", ".csv");
+		Run run;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+				ImportReport report = new ImportReport(reportFile)) {
+			run = new Run(report);
+			ImportRowReader rows = ImportRowReader.of(format, reader, objectMapper);
+			List<ImportRow> chunk = new ArrayList<>(batchSize);
+			ImportRow row;
+			while ((row = rows.next()) != null) {
+				chunk.add(row);
+				if (chunk.size() == batchSize) {
+					run.process(chunk);
+					chunk = new ArrayList<>(batchSize);
+				}
+			}
+			run.process(chunk);
+			run.finish();
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(reportFile);
+			throw e;
+		}
+
+		long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+		String reportUrl = null;
+		if (run.report.getErrors() > 0) {
+			keepReport(id, reportFile);
+			reportUrl = "/api/admin/users/import/" + id + "/report";
+		} else {
+			Files.deleteIfExists(reportFile);
+		}
+		log.info("Importación {} ({}): {} filas, {} usuarios creados, {} duplicados, {} no válidos en {} ms", id,
+				format, run.total, run.imported, run.duplicates, run.invalid, elapsedMs);
+		return new ImportResult(id, run.total, run.imported, run.duplicates, run.invalid, elapsedMs,
+				run.imported * 1000.0 / elapsedMs, reportUrl);
+	}
+
+	/**
+	 * Informe de errores de una importación reciente.
+	 */
+	public synchronized Optional<Path> getReport(String id) {
+		return Optional.ofNullable(reports.get(id)).filter(Files::exists);
+	}
+
+	@Override
+	public synchronized void destroy() throws IOException {
+		hashingPool.shutdownNow();
+		for (Path file : reports.values()) {
+			Files.deleteIfExists(file);
+		}
+		reports.clear();
+	}
+
+	private synchronized void keepReport(String id, Path file) throws IOException {
+		reports.put(id, file);
+		if (reports.size() > maxReports) {
+			String oldest = reports.keySet().iterator().next();
+			Files.deleteIfExists(reports.remove(oldest));
+		}
+	}
+
+	/**
+	 * Estado de una importación. El cifrado de un bloque se solapa con la
+	 * inserción del anterior: process() deja el bloque cifrándose y escribe el
+	 * que estaba pendiente.
+	 */
+	private final class Run {
+		private final ImportReport report;
+		private final Set<String> seen = new HashSet<>();
+		private List<ImportRow> pending = List.of();
+		private CompletableFuture<Void> pendingHashes = CompletableFuture.completedFuture(null);
+		private long total;
+		private long imported;
+		private long duplicates;
+		private long invalid;
+
+		Run(ImportReport report) {
+			this.report = report;
+		}
+
+		void process(List<ImportRow> chunk) throws IOException {
+			total += chunk.size();
+			List<ImportRow> valid = new ArrayList<>(chunk.size());
+			for (ImportRow row : chunk) {
+				String error = validate(row);
+				if (error != null) {
+					reject(row, error, false);
+				} else if (!seen.add(row.email)) {
+					reject(row, "Email repetido en el fichero", true);
+				} else {
+					valid.add(row);
+				}
+			}
+			valid = withoutRegistered(valid);
+
+			List<ImportRow> toHash = valid;
+			CompletableFuture<Void> hashes = CompletableFuture.runAsync(() -> toHash.parallelStream()
+					.forEach(row -> row.passwordHash = passwordEncoder.encode(row.password)), hashingPool);
+			insertPending();
+			pending = toHash;
+			pendingHashes = hashes;
+		}
+
+		void finish() throws IOException {
+			insertPending();
+		}
+
+		private void insertPending() throws IOException {
+			if (pending.isEmpty()) {
+				return;
+			}
+			try {
+				pendingHashes.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException cause ? cause : e;
+			}
+			insert(pending);
+			pending = List.of();
+		}
+
+		// Mismas reglas que POST /api/auth/register, sobre el email ya normalizado
+		private String validate(ImportRow row) {
+			if (row.error != null) {
+				return row.error;
+			}
+			row.email = EmailNormalizer.normalize(row.email);
+			Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(new RegisterRequest(
+					row.name == null ? null : row.name.trim(), row.lastname == null ? null : row.lastname.trim(),
+					row.email, row.password));
+			if (!violations.isEmpty()) {
+				return violations.stream().map(ConstraintViolation::getMessage).sorted()
+						.collect(Collectors.joining("; "));
+			}
+			if (row.email.length() > MAX_EMAIL_LENGTH) {
+				return "El email no puede superar " + MAX_EMAIL_LENGTH + " caracteres";
+			}
+			return null;
+		}
+
+		// Un SELECT por bloque, solo con los emails que el filtro de Bloom no descarta
+		private List<ImportRow> withoutRegistered(List<ImportRow> rows) throws IOException {
+			List<String> candidates = rows.stream().map(row -> row.email).filter(emailFilter::mightExist).toList();
+			if (candidates.isEmpty()) {
+				return rows;
+			}
+			Set<String> registered = new HashSet<>(namedJdbcTemplate.queryForList(
+					"SELECT email FROM users WHERE email IN (:emails)", Map.of("emails", candidates), String.class));
+			if (registered.isEmpty()) {
+				return rows;
+			}
+			List<ImportRow> remaining = new ArrayList<>(rows.size());
+			for (ImportRow row : rows) {
+				if (registered.contains(row.email)) {
+					reject(row, "El email ya está registrado", true);
+				} else {
+					remaining.add(row);
+				}
+			}
+			return remaining;
+		}
+
+		private void insert(List<ImportRow> rows) throws IOException {
+			try {
+				transactionTemplate.executeWithoutResult(status -> {
+					KeyHolder keys = new GeneratedKeyHolder();
+					jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] { "id" }),
+							new BatchPreparedStatementSetter() {
+								@Override
+								public void setValues(PreparedStatement statement, int i) throws SQLException {
+									bind(statement, rows.get(i));
+								}
+
+								@Override
+								public int getBatchSize() {
+									return rows.size();
+								}
+							}, keys);
+					published(keys, rows);
+				});
+			} catch (DuplicateKeyException e) {
+				// Alguien se registró con uno de estos emails después de la comprobación
+				insertOneByOne(rows);
+				return;
+			}
+			rows.forEach(row -> emailFilter.add(row.email));
+			imported += rows.size();
+			importedRows.increment(rows.size());
+		}
+
+		private void insertOneByOne(List<ImportRow> rows) throws IOException {
+			for (ImportRow row : rows) {
+				try {
+					transactionTemplate.executeWithoutResult(status -> {
+						KeyHolder keys = new GeneratedKeyHolder();
+						jdbcTemplate.update(connection -> {
+							PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[] { "id" });
+							bind(statement, row);
+							return statement;
+						}, keys);
+						published(keys, List.of(row));
+					});
+				} catch (DataIntegrityViolationException e) {
+					reject(row, e instanceof DuplicateKeyException ? "El email ya está registrado"
+							: "Rechazado por la base de datos: " + e.getMostSpecificCause().getMessage(),
+							e instanceof DuplicateKeyException);
+					continue;
+				}
+				emailFilter.add(row.email);
+				imported++;
+				importedRows.increment();
+			}
+		}
+
+		private void bind(PreparedStatement statement, ImportRow row) throws SQLException {
+			statement.setString(1, row.name.trim());
+			statement.setString(2, row.lastname.trim());
+			statement.setString(3, row.email);
+			statement.setString(4, row.passwordHash);
+			statement.setBoolean(5, row.active);
+		}
+
+		// Las otras instancias añaden los emails nuevos a su filtro al recibir el
+		// aviso. Las claves generadas vienen en el orden de las filas del lote
+		private void published(KeyHolder keys, List<ImportRow> rows) {
+			List<Map<String, Object>> keyList = keys.getKeyList();
+			for (int i = 0; i < keyList.size(); i++) {
+				long id = ((Number) keyList.get(i).values().iterator().next()).longValue();
+				ImportRow row = rows.get(i);
+				userSearchIndex.saved(id, row.name.trim(), row.lastname.trim(), row.email);
+				cacheInvalidationPublisher.userChanged(id);
+			}
+		}
+
+		private void reject(ImportRow row, String error, boolean duplicate) throws IOException {
+			report.add(row, error);
+			if (duplicate) {
+				duplicates++;
+				duplicateRows.increment();
+			} else {
+				invalid++;
+				invalidRows.increment();
+			}
+		}
+	}
+
+	private static Counter rows(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("unitasks.import.rows")
+				.description("Filas procesadas por la importación masiva de usuarios")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+}
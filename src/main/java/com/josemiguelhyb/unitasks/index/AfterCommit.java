@@ -0,0 +1,28 @@
+package com.josemiguelhyb.unitasks.index;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Aplica un cambio a un índice en memoria tras el commit de la transacción
+ * actual, para que una transacción deshecha no deje rastro; sin transacción
+ * (JDBC directo, tests) se aplica al momento.
+ */
+final class AfterCommit {
+
+	private AfterCommit() {
+	}
+
+	static void run(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
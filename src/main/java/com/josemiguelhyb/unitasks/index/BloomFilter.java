@@ -0,0 +1,107 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de capacidad fija sobre cadenas. Para n elementos y una tasa
+ * de falsos positivos p usa m = -n ln p / (ln 2)^2 bits y k = m/n ln 2
+ * funciones hash, obtenidas de dos hashes de 64 bits (h1 + i h2, Kirsch y
+ * Mitzenmacher).
+ *
+ * Admite inserciones y consultas concurrentes sin bloqueos: los bits están en
+ * un AtomicLongArray y solo se encienden.
+ */
+class BloomFilter {
+
+	private static final double LN2 = Math.log(2);
+
+	private final AtomicLongArray words;
+	private final long bits;
+	private final int hashes;
+	private final int capacity;
+	private final AtomicInteger count = new AtomicInteger();
+
+	BloomFilter(int capacity, double falsePositiveRate) {
+		if (capacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException(
+					"Filtro no válido: capacidad " + capacity + ", falsos positivos " + falsePositiveRate);
+		}
+		long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+		this.words = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+		this.bits = words.length() * 64L;
+		this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+		this.capacity = capacity;
+	}
+
+	// true si ha encendido algún bit: solo entonces se cuenta como un elemento más
+	boolean put(String value) {
+		long h1 = hash(value, 0x9E3779B97F4A7C15L);
+		long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+		boolean changed = false;
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bits);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current = words.get(word);
+			while ((current & mask) == 0) {
+				if (words.compareAndSet(word, current, current | mask)) {
+					changed = true;
+					break;
+				}
+				current = words.get(word);
+			}
+		}
+		if (changed) {
+			count.incrementAndGet();
+		}
+		return changed;
+	}
+
+	boolean mightContain(String value) {
+		long h1 = hash(value, 0x9E3779B97F4A7C15L);
+		long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bits);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	boolean isFull() {
+		return count.get() >= capacity;
+	}
+
+	int count() {
+		return count.get();
+	}
+
+	int capacity() {
+		return capacity;
+	}
+
+	long sizeInBytes() {
+		return words.length() * 8L;
+	}
+
+	int hashes() {
+		return hashes;
+	}
+
+	// FNV-1a sobre los char (sin pasar a bytes) con la mezcla final de MurmurHash3
+	private static long hash(String value, long seed) {
+		long h = seed ^ 0xCBF29CE484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			h ^= value.charAt(i);
+			h *= 0x100000001B3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
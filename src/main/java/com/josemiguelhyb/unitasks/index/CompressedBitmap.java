@@ -0,0 +1,523 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Conjunto de ids (long >= 0) comprimido al estilo Roaring: los ids se
+ * reparten en bloques de 65536 según sus bits altos y cada bloque guarda los
+ * 16 bits bajos en un array ordenado (hasta ARRAY_MAX valores, 2 bytes cada
+ * uno) o, si tiene más, en un mapa de bits de 8 KB. Las tareas de un usuario
+ * son pocas y están repartidas entre las de todos, así que casi todos los
+ * bloques son arrays de unas decenas de valores; las de un usuario importado
+ * en bloque (ids seguidos) acaban en mapas de bits.
+ *
+ * and, or y andNot trabajan bloque a bloque y devuelven un conjunto nuevo sin
+ * tocar los operandos; add y remove modifican este. No es thread-safe.
+ */
+final class CompressedBitmap {
+
+	// A partir de aquí un bloque ocupa menos como mapa de bits (4096 * 2 bytes = 8 KB)
+	static final int ARRAY_MAX = 4096;
+
+	// Hasta aquí se mezclan dos arrays ordenados; por encima se opera con mapas de bits
+	private static final int MERGE_MAX = 64;
+
+	private long[] keys;
+	private Container[] containers;
+	private int size;
+
+	CompressedBitmap() {
+		this(4);
+	}
+
+	private CompressedBitmap(int capacity) {
+		keys = new long[Math.max(1, capacity)];
+		containers = new Container[keys.length];
+	}
+
+	void add(long value) {
+		long key = value >>> 16;
+		int i = Arrays.binarySearch(keys, 0, size, key);
+		if (i >= 0) {
+			containers[i] = containers[i].add((char) value);
+			return;
+		}
+		i = -i - 1;
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			containers = Arrays.copyOf(containers, size * 2);
+		}
+		System.arraycopy(keys, i, keys, i + 1, size - i);
+		System.arraycopy(containers, i, containers, i + 1, size - i);
+		keys[i] = key;
+		containers[i] = new ArrayContainer(new char[] { (char) value }, 1);
+		size++;
+	}
+
+	void remove(long value) {
+		int i = Arrays.binarySearch(keys, 0, size, value >>> 16);
+		if (i < 0) {
+			return;
+		}
+		Container container = containers[i].remove((char) value);
+		if (container.cardinality() > 0) {
+			containers[i] = container;
+			return;
+		}
+		System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+		System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+		containers[--size] = null;
+	}
+
+	boolean contains(long value) {
+		int i = Arrays.binarySearch(keys, 0, size, value >>> 16);
+		return i >= 0 && containers[i].contains((char) value);
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	long cardinality() {
+		long cardinality = 0;
+		for (int i = 0; i < size; i++) {
+			cardinality += containers[i].cardinality();
+		}
+		return cardinality;
+	}
+
+	CompressedBitmap and(CompressedBitmap other) {
+		CompressedBitmap result = new CompressedBitmap(Math.min(size, other.size));
+		int i = 0;
+		int j = 0;
+		while (i < size && j < other.size) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			} else if (keys[i] > other.keys[j]) {
+				j++;
+			} else {
+				result.append(keys[i], containers[i++].and(other.containers[j++]));
+			}
+		}
+		return result;
+	}
+
+	CompressedBitmap or(CompressedBitmap other) {
+		CompressedBitmap result = new CompressedBitmap(size + other.size);
+		int i = 0;
+		int j = 0;
+		while (i < size || j < other.size) {
+			if (j == other.size || i < size && keys[i] < other.keys[j]) {
+				result.append(keys[i], containers[i++].copy());
+			} else if (i == size || keys[i] > other.keys[j]) {
+				result.append(other.keys[j], other.containers[j++].copy());
+			} else {
+				result.append(keys[i], containers[i++].or(other.containers[j++]));
+			}
+		}
+		return result;
+	}
+
+	CompressedBitmap andNot(CompressedBitmap other) {
+		CompressedBitmap result = new CompressedBitmap(size);
+		int j = 0;
+		for (int i = 0; i < size; i++) {
+			while (j < other.size && other.keys[j] < keys[i]) {
+				j++;
+			}
+			boolean shared = j < other.size && other.keys[j] == keys[i];
+			result.append(keys[i], shared ? containers[i].andNot(other.containers[j]) : containers[i].copy());
+		}
+		return result;
+	}
+
+	/**
+	 * Recorre los valores de mayor a menor hasta que action devuelve false.
+	 */
+	void forEachDescending(LongPredicate action) {
+		for (int i = size - 1; i >= 0; i--) {
+			if (!containers[i].forEachDescending(keys[i] << 16, action)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Memoria estimada en bytes (JVM de 64 bits con punteros comprimidos).
+	 */
+	long sizeInBytes() {
+		long bytes = 16 + 16 + 8L * keys.length + 16 + 4L * containers.length;
+		for (int i = 0; i < size; i++) {
+			bytes += containers[i].sizeInBytes();
+		}
+		return bytes;
+	}
+
+	// Las operaciones generan las claves en orden: se añaden al final
+	private void append(long key, Container container) {
+		if (container == null) {
+			return;
+		}
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			containers = Arrays.copyOf(containers, size * 2);
+		}
+		keys[size] = key;
+		containers[size++] = container;
+	}
+
+	// ===== Bloques =====
+
+	// Las operaciones devuelven null si el resultado queda vacío. add y remove
+	// pueden devolver el bloque convertido al otro tipo
+	private abstract static class Container {
+		abstract int cardinality();
+
+		abstract boolean contains(char value);
+
+		abstract Container add(char value);
+
+		abstract Container remove(char value);
+
+		abstract Container and(Container other);
+
+		abstract Container or(Container other);
+
+		abstract Container andNot(Container other);
+
+		abstract Container copy();
+
+		abstract boolean forEachDescending(long high, LongPredicate action);
+
+		abstract long sizeInBytes();
+	}
+
+	private static final class ArrayContainer extends Container {
+		char[] values;
+		int cardinality;
+
+		ArrayContainer(char[] values, int cardinality) {
+			this.values = values;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+		}
+
+		@Override
+		Container add(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				return this;
+			}
+			if (cardinality == ARRAY_MAX) {
+				return BitmapContainer.of(this).add(value);
+			}
+			i = -i - 1;
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+			}
+			System.arraycopy(values, i, values, i + 1, cardinality - i);
+			values[i] = value;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+				cardinality--;
+				// Se encoge como crece, para no quedarse con el array de 8 KB que
+				// deja un bitmap al vaciarse
+				if (values.length > 16 && cardinality <= values.length / 4) {
+					values = Arrays.copyOf(values, values.length / 2);
+				}
+			}
+			return this;
+		}
+
+		@Override
+		Container and(Container other) {
+			if (other instanceof ArrayContainer array && merges(array)) {
+				char[] result = new char[Math.min(cardinality, array.cardinality)];
+				int count = 0;
+				int i = 0;
+				int j = 0;
+				while (i < cardinality && j < array.cardinality) {
+					if (values[i] < array.values[j]) {
+						i++;
+					} else if (values[i] > array.values[j]) {
+						j++;
+					} else {
+						result[count++] = values[i++];
+						j++;
+					}
+				}
+				return count == 0 ? null : new ArrayContainer(result, count);
+			}
+			// Se escribe siempre y solo avanza si está: sin saltos que predecir
+			long[] words = words(other);
+			char[] result = new char[cardinality];
+			int count = 0;
+			for (int i = 0; i < cardinality; i++) {
+				char value = values[i];
+				result[count] = value;
+				count += (int) (words[value >>> 6] >>> value) & 1;
+			}
+			return count == 0 ? null : new ArrayContainer(result, count);
+		}
+
+		@Override
+		Container or(Container other) {
+			if (!(other instanceof ArrayContainer array)) {
+				return other.or(this);
+			}
+			if (cardinality + array.cardinality > ARRAY_MAX) {
+				return BitmapContainer.of(this).or(array);
+			}
+			char[] result = new char[cardinality + array.cardinality];
+			int count = 0;
+			int i = 0;
+			int j = 0;
+			while (i < cardinality || j < array.cardinality) {
+				if (j == array.cardinality || i < cardinality && values[i] < array.values[j]) {
+					result[count++] = values[i++];
+				} else if (i == cardinality || values[i] > array.values[j]) {
+					result[count++] = array.values[j++];
+				} else {
+					result[count++] = values[i++];
+					j++;
+				}
+			}
+			return new ArrayContainer(result, count);
+		}
+
+		@Override
+		Container andNot(Container other) {
+			char[] result = new char[cardinality];
+			int count = 0;
+			if (other instanceof ArrayContainer array && merges(array)) {
+				int j = 0;
+				for (int i = 0; i < cardinality; i++) {
+					while (j < array.cardinality && array.values[j] < values[i]) {
+						j++;
+					}
+					if (j == array.cardinality || array.values[j] != values[i]) {
+						result[count++] = values[i];
+					}
+				}
+				return count == 0 ? null : new ArrayContainer(result, count);
+			}
+			long[] words = words(other);
+			for (int i = 0; i < cardinality; i++) {
+				char value = values[i];
+				result[count] = value;
+				count += (int) (~words[value >>> 6] >>> value) & 1;
+			}
+			return count == 0 ? null : new ArrayContainer(result, count);
+		}
+
+		// Mezclar dos arrays ordenados solo compensa si uno es pequeño: con dos
+		// grandes, cada comparación es un salto impredecible y sale más barato
+		// pasar uno a mapa de bits y buscar en él los valores del otro
+		private boolean merges(ArrayContainer other) {
+			return Math.min(cardinality, other.cardinality) <= MERGE_MAX;
+		}
+
+		private static long[] words(Container other) {
+			return other instanceof BitmapContainer bitmap ? bitmap.words
+					: BitmapContainer.of((ArrayContainer) other).words;
+		}
+
+		@Override
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+		}
+
+		@Override
+		boolean forEachDescending(long high, LongPredicate action) {
+			for (int i = cardinality - 1; i >= 0; i--) {
+				if (!action.test(high | values[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		long sizeInBytes() {
+			return 16 + 16 + 2L * values.length;
+		}
+	}
+
+	private static final class BitmapContainer extends Container {
+		final long[] words;
+		int cardinality;
+
+		BitmapContainer(long[] words, int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		static BitmapContainer of(ArrayContainer array) {
+			long[] words = new long[1024];
+			for (int i = 0; i < array.cardinality; i++) {
+				char value = array.values[i];
+				words[value >>> 6] |= 1L << value;
+			}
+			return new BitmapContainer(words, array.cardinality);
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return (words[value >>> 6] & 1L << value) != 0;
+		}
+
+		@Override
+		Container add(char value) {
+			long word = words[value >>> 6];
+			long updated = word | 1L << value;
+			if (updated != word) {
+				words[value >>> 6] = updated;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			long word = words[value >>> 6];
+			long updated = word & ~(1L << value);
+			if (updated == word) {
+				return this;
+			}
+			words[value >>> 6] = updated;
+			cardinality--;
+			return cardinality <= ARRAY_MAX ? toArray() : this;
+		}
+
+		@Override
+		Container and(Container other) {
+			if (other instanceof ArrayContainer) {
+				return other.and(this);
+			}
+			long[] otherWords = ((BitmapContainer) other).words;
+			long[] result = new long[1024];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = words[i] & otherWords[i];
+			}
+			return normalized(result);
+		}
+
+		@Override
+		Container or(Container other) {
+			long[] result = words.clone();
+			if (other instanceof ArrayContainer array) {
+				int count = cardinality;
+				for (int i = 0; i < array.cardinality; i++) {
+					char value = array.values[i];
+					long word = result[value >>> 6];
+					long updated = word | 1L << value;
+					if (updated != word) {
+						result[value >>> 6] = updated;
+						count++;
+					}
+				}
+				// Desde ArrayContainer.or puede quedar en pocos valores
+				return new BitmapContainer(result, count).compact();
+			}
+			long[] otherWords = ((BitmapContainer) other).words;
+			for (int i = 0; i < result.length; i++) {
+				result[i] |= otherWords[i];
+			}
+			return normalized(result);
+		}
+
+		@Override
+		Container andNot(Container other) {
+			long[] result = words.clone();
+			if (other instanceof ArrayContainer array) {
+				for (int i = 0; i < array.cardinality; i++) {
+					char value = array.values[i];
+					result[value >>> 6] &= ~(1L << value);
+				}
+			} else {
+				long[] otherWords = ((BitmapContainer) other).words;
+				for (int i = 0; i < result.length; i++) {
+					result[i] &= ~otherWords[i];
+				}
+			}
+			return normalized(result);
+		}
+
+		@Override
+		Container copy() {
+			return new BitmapContainer(words.clone(), cardinality);
+		}
+
+		@Override
+		boolean forEachDescending(long high, LongPredicate action) {
+			for (int i = words.length - 1; i >= 0; i--) {
+				long word = words[i];
+				while (word != 0) {
+					int bit = 63 - Long.numberOfLeadingZeros(word);
+					if (!action.test(high | (long) i << 6 | bit)) {
+						return false;
+					}
+					word &= ~(1L << bit);
+				}
+			}
+			return true;
+		}
+
+		@Override
+		long sizeInBytes() {
+			return 16 + 16 + 8L * words.length;
+		}
+
+		private ArrayContainer toArray() {
+			char[] values = new char[cardinality];
+			int count = 0;
+			for (int i = 0; i < words.length; i++) {
+				long word = words[i];
+				while (word != 0) {
+					values[count++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, count);
+		}
+
+		Container compact() {
+			return cardinality <= ARRAY_MAX ? toArray() : this;
+		}
+
+		// Vacío -> null; pocos valores -> array
+		private static Container normalized(long[] words) {
+			int cardinality = 0;
+			for (long word : words) {
+				cardinality += Long.bitCount(word);
+			}
+			if (cardinality == 0) {
+				return null;
+			}
+			BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+			return cardinality <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+		}
+	}
+}
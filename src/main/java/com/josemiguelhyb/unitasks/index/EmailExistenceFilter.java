@@ -0,0 +1,281 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.josemiguelhyb.unitasks.cache.CacheEntity;
+import com.josemiguelhyb.unitasks.cache.CacheInvalidationHandler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Filtro de Bloom escalable con los emails (normalizados) de todos los
+ * usuarios, delante de UserRepository.findByEmailUnlessAbsent (GET
+ * /api/users/email) y de la comprobación de duplicados de la importación: si
+ * dice que el email no existe no se consulta la base de datos. Un "quizá" sí
+ * va a la base de datos (unitasks.email-filter.false-positive-rate de las
+ * veces sin que el email exista).
+ *
+ * Un "no existe" puede ser falso durante un momento: las altas de otras
+ * instancias llegan por el bus de invalidación y las escritas por JDBC sin
+ * avisar no llegan hasta la siguiente reconstrucción. Por eso la
+ * autenticación (login, JWT, usuario actual) no lo consulta.
+ *
+ * Se construye al arrancar, antes del calentamiento y la readiness, leyendo
+ * los emails por JDBC en streaming; hasta entonces todo va a la base de
+ * datos. Las altas entran por EmailFilterEntityListener, los cambios de
+ * email por emailChanged y, los de otras instancias, por el bus de
+ * invalidación (evict de USER). Un
+ * filtro de Bloom no admite borrados: los emails borrados o sustituidos se
+ * cuentan y, cuando superan rebuild-stale-ratio del total, se reconstruye en
+ * segundo plano.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class EmailExistenceFilter implements ApplicationRunner, CacheInvalidationHandler {
+	private static final Logger log = LoggerFactory.getLogger(EmailExistenceFilter.class);
+
+	// Holgura sobre los usuarios actuales para que las altas no obliguen a crecer enseguida
+	private static final double HEADROOM = 1.25;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+	private final boolean enabled;
+	private final double falsePositiveRate;
+	private final int initialCapacity;
+	private final double rebuildStaleRatio;
+	private final int fetchSize;
+
+	private final Counter absent;
+	private final Counter maybe;
+	private final Counter falsePositives;
+	private final AtomicLong stale = new AtomicLong();
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+	// null hasta que se construye (o tras perder avisos de otras instancias): todo a la base de datos
+	private volatile ScalableBloomFilter filter;
+	// Filtro en construcción: recibe también las altas mientras se recorre la tabla
+	private volatile ScalableBloomFilter pending;
+
+	public EmailExistenceFilter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+			@Value("${unitasks.email-filter.enabled:true}") boolean enabled,
+			@Value("${unitasks.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+			@Value("${unitasks.email-filter.initial-capacity:10000}") int initialCapacity,
+			@Value("${unitasks.email-filter.rebuild-stale-ratio:0.2}") double rebuildStaleRatio,
+			@Value("${unitasks.email-filter.fetch-size:10000}") int fetchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.enabled = enabled;
+		this.falsePositiveRate = falsePositiveRate;
+		this.initialCapacity = initialCapacity;
+		this.rebuildStaleRatio = rebuildStaleRatio;
+		this.fetchSize = fetchSize;
+		this.absent = checks(meterRegistry, "absent");
+		this.maybe = checks(meterRegistry, "maybe");
+		this.falsePositives = Counter.builder("unitasks.email.filter.false.positives")
+				.description("Emails que el filtro daba como posibles y no existían")
+				.register(meterRegistry);
+		Gauge.builder("unitasks.email.filter.emails", this, f -> f.current() == null ? 0 : f.current().count())
+				.description("Emails añadidos al filtro de Bloom")
+				.register(meterRegistry);
+		Gauge.builder("unitasks.email.filter.size", this, f -> f.current() == null ? 0 : f.current().sizeInBytes())
+				.description("Memoria de los bits del filtro de Bloom")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+		Gauge.builder("unitasks.email.filter.stale", stale, AtomicLong::get)
+				.description("Emails borrados o sustituidos que siguen en el filtro")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!enabled) {
+			return;
+		}
+		try {
+			rebuild();
+		} catch (RuntimeException e) {
+			// Como el calentamiento, nunca impide arrancar: sin filtro todo va a la base de datos
+			log.warn("No se pudo construir el filtro de emails: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * false si el email seguro que no existe; true si puede existir (o el
+	 * filtro no está disponible) y hay que preguntar a la base de datos.
+	 */
+	public boolean mightExist(String email) {
+		ScalableBloomFilter current = filter;
+		if (current == null || email == null) {
+			return true;
+		}
+		if (current.mightContain(email)) {
+			maybe.increment();
+			return true;
+		}
+		absent.increment();
+		return false;
+	}
+
+	// La base de datos no encontró un email que el filtro daba como posible
+	public void falsePositive() {
+		falsePositives.increment();
+	}
+
+	public void add(String email) {
+		if (email == null) {
+			return;
+		}
+		// Primero el filtro en construcción: si ya no hay, rebuild ha publicado
+		// antes el nuevo en filter y se lee a continuación
+		ScalableBloomFilter building = pending;
+		if (building != null) {
+			building.put(email);
+		}
+		ScalableBloomFilter current = filter;
+		if (current != null) {
+			current.put(email);
+		}
+	}
+
+	// Un usuario cambió de email: tras el commit entra el nuevo y el anterior pasa a obsoleto
+	public void emailChanged(String newEmail) {
+		AfterCommit.run(() -> {
+			add(newEmail);
+			removed();
+		});
+	}
+
+	// Un email dejó de existir (usuario borrado o email cambiado)
+	public void removed() {
+		ScalableBloomFilter current = filter;
+		if (current != null && stale.incrementAndGet() > current.count() * rebuildStaleRatio) {
+			rebuildAsync();
+		}
+	}
+
+	/**
+	 * Reconstruye el filtro recorriendo la tabla de usuarios. El filtro anterior
+	 * sigue respondiendo mientras tanto.
+	 *
+	 * El nuevo se registra en pending antes de leer la tabla y sigue ahí hasta
+	 * publicarlo, así que un alta confirmada después de la lectura (add tras el
+	 * commit) entra en uno u otro. De los emails obsoletos solo se descuentan
+	 * los contados antes de la lectura; los de después siguen en el nuevo.
+	 */
+	public synchronized void rebuild() {
+		long start = System.nanoTime();
+		long users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+		int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(initialCapacity, (long) (users * HEADROOM)));
+		ScalableBloomFilter fresh = new ScalableBloomFilter(capacity, falsePositiveRate);
+		pending = fresh;
+		try {
+			long staleBefore = stale.get();
+			jdbcTemplate.execute((Connection connection) -> {
+				streamEmails(connection, fresh);
+				return null;
+			});
+			filter = fresh;
+			stale.addAndGet(-staleBefore);
+		} finally {
+			pending = null;
+		}
+		log.info("Filtro de emails construido: {} emails, {} KB, {} filtro(s) en {} ms", fresh.count(),
+				fresh.sizeInBytes() / 1024, fresh.filterCount(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	// Sin autocommit: si no, el driver de PostgreSQL ignora fetchSize y carga
+	// todas las filas de golpe. No se usa el gestor de transacciones de JPA
+	// porque el filtro se crea antes que él (lo necesita EmailFilterEntityListener)
+	private void streamEmails(Connection connection, ScalableBloomFilter target) throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		try (PreparedStatement statement = connection.prepareStatement("SELECT email FROM users",
+				ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+			statement.setFetchSize(fetchSize);
+			try (ResultSet rows = statement.executeQuery()) {
+				while (rows.next()) {
+					target.put(rows.getString(1));
+				}
+			}
+			connection.commit();
+		} catch (SQLException e) {
+			connection.rollback();
+			throw e;
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	public void rebuildAsync() {
+		if (!rebuilding.compareAndSet(false, true)) {
+			return;
+		}
+		Thread thread = new Thread(() -> {
+			try {
+				rebuild();
+			} catch (RuntimeException e) {
+				log.warn("No se pudo reconstruir el filtro de emails: {}", e.getMessage());
+			} finally {
+				rebuilding.set(false);
+			}
+		}, "email-filter-rebuild");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	// ===== Cambios en otras instancias (bus de invalidación) =====
+
+	@Override
+	public void evict(CacheEntity entity, Set<Long> ids) {
+		if (entity == CacheEntity.USER && filter != null) {
+			// Alta o cambio en otra instancia: se añade su email actual. Los que ya
+			// estaban (cambios de nombre o contraseña) no cuentan otra vez
+			namedJdbcTemplate.query("SELECT email FROM users WHERE id IN (:ids)", Map.of("ids", ids),
+					row -> {
+						add(row.getString(1));
+					});
+		} else if (entity == CacheEntity.USER_EMAIL) {
+			removed();
+		}
+	}
+
+	@Override
+	public void evictAll(CacheEntity entity) {
+		if (entity == CacheEntity.USER && filter != null) {
+			// Se han podido perder altas (reconexión): a la base de datos hasta reconstruir
+			filter = null;
+			rebuildAsync();
+		}
+	}
+
+	ScalableBloomFilter current() {
+		return filter;
+	}
+
+	private static Counter checks(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("unitasks.email.filter.checks")
+				.description("Consultas al filtro de emails; absent = consulta a la base de datos evitada")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,41 @@
+package com.josemiguelhyb.unitasks.index;
+
+import org.springframework.stereotype.Component;
+
+import com.josemiguelhyb.unitasks.model.User;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+
+/**
+ * Mantiene EmailExistenceFilter al día con cualquier escritura de User por JPA
+ * (servicios, repositorios y tests). Hibernate lo obtiene del contexto de
+ * Spring (SpringBeanContainer), así que admite inyección por constructor.
+ *
+ * Las altas se añaden tras el commit: una transacción deshecha no deja su
+ * email en el filtro y una reconstrucción que leyó la tabla antes del commit
+ * lo recibe entonces (sigue registrada en pending hasta publicar el nuevo).
+ * Los cambios de email no pasan por aquí: los avisa UserService.updateUser,
+ * que es quien sabe si el email ha cambiado.
+ */
+@Component
+public class EmailFilterEntityListener {
+
+	private final EmailExistenceFilter emailFilter;
+
+	public EmailFilterEntityListener(EmailExistenceFilter emailFilter) {
+		this.emailFilter = emailFilter;
+	}
+
+	@PostPersist
+	void saved(User user) {
+		String email = user.getEmail();
+		AfterCommit.run(() -> emailFilter.add(email));
+	}
+
+	// Tras el commit: una reconstrucción lanzada antes aún vería el usuario borrado
+	@PostRemove
+	void removed(User user) {
+		AfterCommit.run(emailFilter::removed);
+	}
+}
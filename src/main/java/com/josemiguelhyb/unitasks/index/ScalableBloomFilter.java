@@ -0,0 +1,90 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.util.Arrays;
+
+/**
+ * Filtro de Bloom escalable (Almeida et al., 2007): una serie de filtros de
+ * capacidad fija. Cuando el último se llena se añade otro del doble de
+ * capacidad y con la mitad de tasa de falsos positivos, así la tasa total
+ * queda acotada por la configurada aunque el número de elementos no se
+ * conozca de antemano: p0 (1 + 1/2 + 1/4 + ...) = 2 p0 = p.
+ */
+class ScalableBloomFilter {
+
+	private static final int GROWTH = 2;
+	private static final double TIGHTENING = 0.5;
+
+	private final double falsePositiveRate;
+	private volatile BloomFilter[] filters;
+
+	ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+		this.falsePositiveRate = falsePositiveRate;
+		this.filters = new BloomFilter[] {
+				new BloomFilter(initialCapacity, falsePositiveRate * (1 - TIGHTENING)) };
+	}
+
+	// Un valor que ya parece estar no se añade: no llenaría el último filtro ni
+	// contaría dos veces (también pasa con los falsos positivos, que no cuestan nada)
+	void put(String value) {
+		if (mightContain(value)) {
+			return;
+		}
+		BloomFilter[] current = filters;
+		BloomFilter last = current[current.length - 1];
+		if (last.isFull()) {
+			last = grow(current);
+		}
+		last.put(value);
+	}
+
+	boolean mightContain(String value) {
+		// Los filtros más recientes reciben las altas nuevas: se consultan primero
+		BloomFilter[] current = filters;
+		for (int i = current.length - 1; i >= 0; i--) {
+			if (current[i].mightContain(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	long count() {
+		long count = 0;
+		for (BloomFilter filter : filters) {
+			count += filter.count();
+		}
+		return count;
+	}
+
+	long sizeInBytes() {
+		long bytes = 0;
+		for (BloomFilter filter : filters) {
+			bytes += filter.sizeInBytes();
+		}
+		return bytes;
+	}
+
+	int filterCount() {
+		return filters.length;
+	}
+
+	double getFalsePositiveRate() {
+		return falsePositiveRate;
+	}
+
+	private synchronized BloomFilter grow(BloomFilter[] seen) {
+		BloomFilter[] current = filters;
+		if (current != seen) {
+			// Otro hilo ya ha añadido el siguiente filtro
+			return current[current.length - 1];
+		}
+		BloomFilter last = current[current.length - 1];
+		int capacity = (int) Math.min(Integer.MAX_VALUE, (long) last.capacity() * GROWTH);
+		double rate = falsePositiveRate * (1 - TIGHTENING) * Math.pow(TIGHTENING, current.length);
+		BloomFilter next = new BloomFilter(capacity, rate);
+		BloomFilter[] grown = Arrays.copyOf(current, current.length + 1);
+		grown[current.length] = next;
+		filters = grown;
+		return next;
+	}
+}
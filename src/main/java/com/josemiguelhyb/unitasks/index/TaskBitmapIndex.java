@@ -0,0 +1,191 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+
+/**
+ * Índice en memoria de las tareas de un usuario para GET /api/tasks/filter:
+ * un CompressedBitmap de ids por etiqueta, por estado y por prioridad, más
+ * uno con todas. Un filtro (TaskFilter) se resuelve con operaciones entre
+ * bitmaps y devuelve ids; las tareas se leen después por clave primaria.
+ *
+ * Los bitmaps se ordenan por id, así que las tareas más nuevas salen primero
+ * sin ordenar nada. Un usuario tiene pocas etiquetas distintas: al cambiar una
+ * tarea se recorren todas en lugar de guardar las de cada tarea. Todos los
+ * métodos se sincronizan sobre el índice.
+ */
+public final class TaskBitmapIndex {
+
+	private final CompressedBitmap all = new CompressedBitmap();
+	private final Map<TaskStatus, CompressedBitmap> statuses = new EnumMap<>(TaskStatus.class);
+	private final Map<TaskPriority, CompressedBitmap> priorities = new EnumMap<>(TaskPriority.class);
+	private final Map<String, CompressedBitmap> labels = new HashMap<>();
+
+	public TaskBitmapIndex() {
+		for (TaskStatus status : TaskStatus.values()) {
+			statuses.put(status, new CompressedBitmap());
+		}
+		for (TaskPriority priority : TaskPriority.values()) {
+			priorities.put(priority, new CompressedBitmap());
+		}
+	}
+
+	/**
+	 * Añade una tarea o sustituye su estado, prioridad y etiquetas.
+	 */
+	public synchronized void put(long taskId, TaskStatus status, TaskPriority priority,
+			Collection<String> taskLabels) {
+		all.add(taskId);
+		statuses.forEach((value, bitmap) -> set(bitmap, taskId, value == status));
+		priorities.forEach((value, bitmap) -> set(bitmap, taskId, value == priority));
+		Iterator<Map.Entry<String, CompressedBitmap>> entries = labels.entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<String, CompressedBitmap> entry = entries.next();
+			if (!taskLabels.contains(entry.getKey())) {
+				entry.getValue().remove(taskId);
+				if (entry.getValue().isEmpty()) {
+					entries.remove();
+				}
+			}
+		}
+		for (String label : taskLabels) {
+			labels.computeIfAbsent(label, key -> new CompressedBitmap()).add(taskId);
+		}
+	}
+
+	public synchronized void remove(long taskId) {
+		if (!all.contains(taskId)) {
+			return;
+		}
+		all.remove(taskId);
+		statuses.values().forEach(bitmap -> bitmap.remove(taskId));
+		priorities.values().forEach(bitmap -> bitmap.remove(taskId));
+		labels.values().removeIf(bitmap -> {
+			bitmap.remove(taskId);
+			return bitmap.isEmpty();
+		});
+	}
+
+	/**
+	 * Ids de las limit tareas más nuevas que cumplen el filtro.
+	 */
+	public synchronized List<Long> filter(TaskFilter filter, int limit) {
+		CompressedBitmap matching = matching(filter);
+		List<Long> ids = new ArrayList<>((int) Math.min(limit, matching.cardinality()));
+		matching.forEachDescending(id -> {
+			ids.add(id);
+			return ids.size() < limit;
+		});
+		return ids;
+	}
+
+	public synchronized int size() {
+		return (int) all.cardinality();
+	}
+
+	public synchronized int labels() {
+		return labels.size();
+	}
+
+	/**
+	 * Memoria estimada del índice en bytes.
+	 */
+	public synchronized long sizeInBytes() {
+		long bytes = 64 + all.sizeInBytes();
+		for (CompressedBitmap bitmap : statuses.values()) {
+			bytes += bitmap.sizeInBytes();
+		}
+		for (CompressedBitmap bitmap : priorities.values()) {
+			bytes += bitmap.sizeInBytes();
+		}
+		for (Map.Entry<String, CompressedBitmap> entry : labels.entrySet()) {
+			// Entrada del HashMap y String de la etiqueta
+			bytes += 32 + 56 + entry.getKey().length() + entry.getValue().sizeInBytes();
+		}
+		return bytes;
+	}
+
+	// Los criterios se aplican del más selectivo al menos, para que el
+	// resultado intermedio se quede pequeño. Los de varios valores (alguna
+	// etiqueta, estados, prioridades) se cruzan valor a valor con lo que queda
+	// en lugar de unir antes sus bitmaps, que suelen ser grandes (R ∩ (A ∪ B)
+	// = (R ∩ A) ∪ (R ∩ B)). Sin criterios que restrinjan se parte de todas
+	private CompressedBitmap matching(TaskFilter filter) {
+		List<CompressedBitmap> required = new ArrayList<>();
+		for (String label : filter.allLabels()) {
+			required.add(labels.getOrDefault(label, new CompressedBitmap()));
+		}
+		required.sort(Comparator.comparingLong(CompressedBitmap::cardinality));
+
+		List<List<CompressedBitmap>> anyOf = new ArrayList<>();
+		if (!filter.anyLabels().isEmpty()) {
+			anyOf.add(bitmaps(filter.anyLabels(), labels));
+		}
+		if (!filter.statuses().isEmpty()) {
+			anyOf.add(bitmaps(filter.statuses(), statuses));
+		}
+		if (!filter.priorities().isEmpty()) {
+			anyOf.add(bitmaps(filter.priorities(), priorities));
+		}
+		anyOf.sort(Comparator.comparingLong(TaskBitmapIndex::cardinality));
+
+		CompressedBitmap result = null;
+		for (CompressedBitmap bitmap : required) {
+			result = result == null ? bitmap : result.and(bitmap);
+		}
+		for (List<CompressedBitmap> bitmaps : anyOf) {
+			CompressedBitmap union = new CompressedBitmap();
+			for (CompressedBitmap bitmap : bitmaps) {
+				union = union.or(result == null ? bitmap : result.and(bitmap));
+			}
+			result = union;
+		}
+		if (result == null) {
+			result = all;
+		}
+		for (String label : filter.excludedLabels()) {
+			CompressedBitmap excluded = labels.get(label);
+			if (excluded != null && !result.isEmpty()) {
+				result = result.andNot(excluded);
+			}
+		}
+		return result;
+	}
+
+	// Bitmaps de los valores que existen
+	private static <K> List<CompressedBitmap> bitmaps(Collection<K> keys, Map<K, CompressedBitmap> bitmaps) {
+		List<CompressedBitmap> found = new ArrayList<>(keys.size());
+		for (K key : keys) {
+			CompressedBitmap bitmap = bitmaps.get(key);
+			if (bitmap != null) {
+				found.add(bitmap);
+			}
+		}
+		return found;
+	}
+
+	private static long cardinality(List<CompressedBitmap> bitmaps) {
+		long cardinality = 0;
+		for (CompressedBitmap bitmap : bitmaps) {
+			cardinality += bitmap.cardinality();
+		}
+		return cardinality;
+	}
+
+	private static void set(CompressedBitmap bitmap, long taskId, boolean present) {
+		if (present) {
+			bitmap.add(taskId);
+		} else {
+			bitmap.remove(taskId);
+		}
+	}
+}
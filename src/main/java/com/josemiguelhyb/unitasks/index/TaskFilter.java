@@ -0,0 +1,29 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.util.Collection;
+import java.util.Set;
+
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+
+/**
+ * Filtro de GET /api/tasks/filter: la tarea tiene todas las etiquetas de
+ * allLabels (AND), alguna de anyLabels (OR), ninguna de excludedLabels (NOT),
+ * uno de los estados y una de las prioridades. Un criterio vacío no filtra.
+ * Las etiquetas llegan ya normalizadas (LabelNormalizer).
+ */
+public record TaskFilter(Set<String> allLabels, Set<String> anyLabels, Set<String> excludedLabels,
+		Set<TaskStatus> statuses, Set<TaskPriority> priorities) {
+
+	public TaskFilter {
+		allLabels = copy(allLabels);
+		anyLabels = copy(anyLabels);
+		excludedLabels = copy(excludedLabels);
+		statuses = copy(statuses);
+		priorities = copy(priorities);
+	}
+
+	private static <T> Set<T> copy(Collection<T> values) {
+		return values == null ? Set.of() : Set.copyOf(values);
+	}
+}
@@ -0,0 +1,40 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.josemiguelhyb.unitasks.model.Task;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Mantiene TaskFilterIndex al día con las escrituras de Task por JPA. Un
+ * cambio solo de etiquetas no dispara @PostUpdate (no cambia la fila de
+ * tasks): TaskService actualiza también updatedAt. Los DELETE en bloque de las
+ * tareas de un usuario no pasan por aquí: UserService avisa al índice.
+ */
+@Component
+public class TaskFilterEntityListener {
+
+	private final TaskFilterIndex taskFilterIndex;
+
+	public TaskFilterEntityListener(TaskFilterIndex taskFilterIndex) {
+		this.taskFilterIndex = taskFilterIndex;
+	}
+
+	// Copia de las etiquetas: el índice las aplica tras el commit
+	@PostPersist
+	@PostUpdate
+	void saved(Task task) {
+		List<String> labels = task.getLabels() == null ? List.of() : List.copyOf(task.getLabels());
+		taskFilterIndex.saved(task.getUser().getId(), task.getId(), task.getStatus(), task.getPriority(), labels);
+	}
+
+	@PostRemove
+	void removed(Task task) {
+		taskFilterIndex.removed(task.getUser().getId(), task.getId());
+	}
+}
@@ -0,0 +1,194 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.josemiguelhyb.unitasks.cache.CacheEntity;
+import com.josemiguelhyb.unitasks.cache.CacheInvalidationHandler;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Filtro de las tareas de cada usuario por etiquetas, estado y prioridad (GET
+ * /api/tasks/filter) sobre un TaskBitmapIndex en memoria por usuario, en lugar
+ * de un JOIN con task_labels por cada criterio.
+ *
+ * Como TaskSearchIndex: el índice de un usuario se carga con una consulta la
+ * primera vez que filtra y se guarda en una caché acotada por el total de
+ * tareas indexadas (max-tasks). Las altas, cambios y borrados entran por
+ * TaskFilterEntityListener tras el commit, los borrados de usuarios por
+ * UserService y los de otras instancias por el bus de invalidación.
+ */
+@Component
+public class TaskFilterIndex implements CacheInvalidationHandler {
+
+	private static final String TASK_ROWS = "SELECT t.id, t.user_id, t.status, t.priority, l.label FROM tasks t"
+			+ " LEFT JOIN task_labels l ON l.task_id = t.id";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+	private final boolean enabled;
+	private final Cache<Long, TaskBitmapIndex> indexes;
+	private final Timer filterTimer;
+	private final Timer loadTimer;
+
+	public TaskFilterIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+			@Value("${unitasks.task-filter.enabled:true}") boolean enabled,
+			@Value("${unitasks.task-filter.max-tasks:2000000}") long maxTasks) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.enabled = enabled;
+		// El peso se calcula al cargar: las tareas creadas después no cuentan
+		// hasta la siguiente carga
+		this.indexes = Caffeine.newBuilder()
+				.maximumWeight(maxTasks)
+				.<Long, TaskBitmapIndex>weigher((userId, index) -> Math.max(1, index.size()))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, indexes, "task-filter");
+		this.filterTimer = Timer.builder("unitasks.task.filter")
+				.description("Filtros sobre el índice de etiquetas, estado y prioridad de un usuario")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		this.loadTimer = Timer.builder("unitasks.task.filter.load")
+				.description("Carga del índice de etiquetas, estado y prioridad de un usuario")
+				.register(meterRegistry);
+		Gauge.builder("unitasks.task.filter.size", indexes, TaskFilterIndex::sizeInBytes)
+				.description("Memoria estimada de los índices de filtro de tareas cargados")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Ids de las limit tareas más nuevas del usuario que cumplen el filtro, o
+	 * vacío si el filtro en memoria está desactivado.
+	 */
+	public Optional<List<Long>> filter(long userId, TaskFilter filter, int limit) {
+		if (!enabled) {
+			return Optional.empty();
+		}
+		TaskBitmapIndex index = indexes.get(userId, this::load);
+		return Optional.of(filterTimer.record(() -> index.filter(filter, limit)));
+	}
+
+	// Alta o cambio de una tarea, aplicado tras el commit
+	public void saved(long userId, long taskId, TaskStatus status, TaskPriority priority,
+			Collection<String> labels) {
+		AfterCommit.run(() -> update(userId, index -> index.put(taskId, status, priority, labels)));
+	}
+
+	public void removed(long userId, long taskId) {
+		AfterCommit.run(() -> update(userId, index -> index.remove(taskId)));
+	}
+
+	// Borrado en bloque de las tareas de un usuario
+	public void userRemoved(long userId) {
+		AfterCommit.run(() -> indexes.invalidate(userId));
+	}
+
+	// Con compute sobre la entrada: si el índice se está cargando, espera a que
+	// termine y se aplica encima (put y remove se pueden repetir sin efecto)
+	private void update(long userId, Consumer<TaskBitmapIndex> change) {
+		indexes.asMap().computeIfPresent(userId, (id, index) -> {
+			change.accept(index);
+			return index;
+		});
+	}
+
+	private TaskBitmapIndex load(long userId) {
+		return loadTimer.record(() -> {
+			TaskBitmapIndex index = new TaskBitmapIndex();
+			TaskRows rows = new TaskRows();
+			jdbcTemplate.query(TASK_ROWS + " WHERE t.user_id = ?", rows::add, userId);
+			rows.tasks.forEach((taskId, task) -> index.put(taskId, task.status, task.priority, task.labels));
+			return index;
+		});
+	}
+
+	private static double sizeInBytes(Cache<Long, TaskBitmapIndex> indexes) {
+		long bytes = 0;
+		for (TaskBitmapIndex index : indexes.asMap().values()) {
+			bytes += index.sizeInBytes();
+		}
+		return bytes;
+	}
+
+	// Una fila por etiqueta (o una sin etiqueta) de cada tarea
+	private static final class TaskRows {
+		final Map<Long, TaskRow> tasks = new LinkedHashMap<>();
+
+		void add(ResultSet row) throws SQLException {
+			TaskRow task = tasks.get(row.getLong(1));
+			if (task == null) {
+				task = new TaskRow(row.getLong(2), TaskStatus.valueOf(row.getString(3)),
+						TaskPriority.valueOf(row.getString(4)));
+				tasks.put(row.getLong(1), task);
+			}
+			String label = row.getString(5);
+			if (label != null) {
+				task.labels.add(label);
+			}
+		}
+	}
+
+	private static final class TaskRow {
+		final long userId;
+		final TaskStatus status;
+		final TaskPriority priority;
+		final List<String> labels = new ArrayList<>(2);
+
+		TaskRow(long userId, TaskStatus status, TaskPriority priority) {
+			this.userId = userId;
+			this.status = status;
+			this.priority = priority;
+		}
+	}
+
+	// ===== Cambios en otras instancias (bus de invalidación) =====
+
+	@Override
+	public void evict(CacheEntity entity, Set<Long> ids) {
+		if (entity != CacheEntity.TASK || indexes.estimatedSize() == 0) {
+			return;
+		}
+		// Se relee cada tarea: las que ya no existen se han borrado
+		TaskRows rows = new TaskRows();
+		namedJdbcTemplate.query(TASK_ROWS + " WHERE t.id IN (:ids)", Map.of("ids", ids), rows::add);
+		rows.tasks.forEach((taskId, task) -> update(task.userId,
+				index -> index.put(taskId, task.status, task.priority, task.labels)));
+		// Sin la tarea no se sabe de quién era: se quita de todos los cargados
+		Set<Long> missing = new HashSet<>(ids);
+		missing.removeAll(rows.tasks.keySet());
+		for (TaskBitmapIndex index : indexes.asMap().values()) {
+			missing.forEach(index::remove);
+		}
+	}
+
+	@Override
+	public void evictAll(CacheEntity entity) {
+		if (entity == CacheEntity.TASK) {
+			indexes.invalidateAll();
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package com.josemiguelhyb.unitasks.index;
+
+import org.springframework.stereotype.Component;
+
+import com.josemiguelhyb.unitasks.model.Task;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Mantiene TaskSearchIndex al día con las escrituras de Task por JPA (las de
+ * TaskService y las de los repositorios). El índice las aplica tras el
+ * commit. Los DELETE en bloque de las tareas de un usuario no pasan por aquí:
+ * UserService avisa al índice directamente.
+ */
+@Component
+public class TaskSearchEntityListener {
+
+	private final TaskSearchIndex taskSearchIndex;
+
+	public TaskSearchEntityListener(TaskSearchIndex taskSearchIndex) {
+		this.taskSearchIndex = taskSearchIndex;
+	}
+
+	// El id del dueño no inicializa el proxy del usuario
+	@PostPersist
+	@PostUpdate
+	void saved(Task task) {
+		taskSearchIndex.saved(task.getUser().getId(), task.getId(), task.getTitle(), task.getDescription());
+	}
+
+	@PostRemove
+	void removed(Task task) {
+		taskSearchIndex.removed(task.getUser().getId(), task.getId());
+	}
+}
@@ -0,0 +1,160 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.josemiguelhyb.unitasks.cache.CacheEntity;
+import com.josemiguelhyb.unitasks.cache.CacheInvalidationHandler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Búsqueda de texto en las tareas de cada usuario (GET /api/tasks/search)
+ * sobre un TaskTextIndex en memoria por usuario, en lugar de LIKE '%x%' sobre
+ * tasks en cada tecla.
+ *
+ * Solo se busca en las tareas propias, así que no hace falta un índice de
+ * todas: el de un usuario se carga con una consulta la primera vez que busca
+ * y se guarda en una caché acotada por el total de tareas indexadas
+ * (max-tasks), que descarta los de los usuarios que llevan más tiempo sin
+ * buscar.
+ *
+ * Las altas, cambios y borrados de tareas entran por TaskSearchEntityListener
+ * tras el commit, los borrados de usuarios por UserService y los de otras
+ * instancias por el bus de invalidación. Solo se aplican a los índices
+ * cargados; los demás se leerán ya actualizados.
+ */
+@Component
+public class TaskSearchIndex implements CacheInvalidationHandler {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+	private final boolean enabled;
+	private final Cache<Long, TaskTextIndex> indexes;
+	private final Timer searchTimer;
+	private final Timer loadTimer;
+
+	public TaskSearchIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+			@Value("${unitasks.task-search.enabled:true}") boolean enabled,
+			@Value("${unitasks.task-search.max-tasks:500000}") long maxTasks) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.enabled = enabled;
+		// El peso se calcula al cargar: las tareas creadas después no cuentan
+		// hasta la siguiente carga
+		this.indexes = Caffeine.newBuilder()
+				.maximumWeight(maxTasks)
+				.<Long, TaskTextIndex>weigher((userId, index) -> Math.max(1, index.size()))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, indexes, "task-search");
+		this.searchTimer = Timer.builder("unitasks.task.search")
+				.description("Búsquedas en el índice de texto de las tareas de un usuario")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		this.loadTimer = Timer.builder("unitasks.task.search.load")
+				.description("Carga del índice de texto de las tareas de un usuario")
+				.register(meterRegistry);
+		Gauge.builder("unitasks.task.search.size", indexes, TaskSearchIndex::sizeInBytes)
+				.description("Memoria estimada de los índices de texto de tareas cargados")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Ids de las limit tareas del usuario más relevantes para la consulta, o
+	 * vacío si la búsqueda en memoria está desactivada.
+	 */
+	public Optional<List<Long>> search(long userId, String query, int limit) {
+		if (!enabled) {
+			return Optional.empty();
+		}
+		TaskTextIndex index = indexes.get(userId, this::load);
+		return Optional.of(searchTimer.record(() -> index.search(query, limit)));
+	}
+
+	// Alta o cambio de una tarea, aplicado tras el commit
+	public void saved(long userId, long taskId, String title, String description) {
+		AfterCommit.run(() -> update(userId, index -> index.put(taskId, title, description)));
+	}
+
+	public void removed(long userId, long taskId) {
+		AfterCommit.run(() -> update(userId, index -> index.remove(taskId)));
+	}
+
+	// Borrado en bloque de las tareas de un usuario
+	public void userRemoved(long userId) {
+		AfterCommit.run(() -> indexes.invalidate(userId));
+	}
+
+	// Con compute sobre la entrada: si el índice se está cargando, espera a que
+	// termine y se aplica encima (put y remove se pueden repetir sin efecto)
+	private void update(long userId, Consumer<TaskTextIndex> change) {
+		indexes.asMap().computeIfPresent(userId, (id, index) -> {
+			change.accept(index);
+			return index;
+		});
+	}
+
+	private TaskTextIndex load(long userId) {
+		return loadTimer.record(() -> {
+			TaskTextIndex index = new TaskTextIndex();
+			RowCallbackHandler indexRow = row -> index.put(row.getLong(1), row.getString(2), row.getString(3));
+			jdbcTemplate.query("SELECT id, title, description FROM tasks WHERE user_id = ?", indexRow, userId);
+			return index;
+		});
+	}
+
+	private static double sizeInBytes(Cache<Long, TaskTextIndex> indexes) {
+		long bytes = 0;
+		for (TaskTextIndex index : indexes.asMap().values()) {
+			bytes += index.sizeInBytes();
+		}
+		return bytes;
+	}
+
+	// ===== Cambios en otras instancias (bus de invalidación) =====
+
+	@Override
+	public void evict(CacheEntity entity, Set<Long> ids) {
+		if (entity != CacheEntity.TASK || indexes.estimatedSize() == 0) {
+			return;
+		}
+		// Se relee cada tarea: las que ya no existen se han borrado
+		Set<Long> missing = new HashSet<>(ids);
+		namedJdbcTemplate.query("SELECT id, user_id, title, description FROM tasks WHERE id IN (:ids)",
+				Map.of("ids", ids), row -> {
+					long taskId = row.getLong(1);
+					missing.remove(taskId);
+					String title = row.getString(3);
+					String description = row.getString(4);
+					update(row.getLong(2), index -> index.put(taskId, title, description));
+				});
+		// Sin la tarea no se sabe de quién era: se quita de todos los cargados
+		for (TaskTextIndex index : indexes.asMap().values()) {
+			missing.forEach(index::remove);
+		}
+	}
+
+	@Override
+	public void evictAll(CacheEntity entity) {
+		if (entity == CacheEntity.TASK) {
+			indexes.invalidateAll();
+		}
+	}
+}
@@ -0,0 +1,420 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido en memoria de las tareas de un usuario (título y
+ * descripción) para la búsqueda de texto de GET /api/tasks/search. Devuelve
+ * ids; las tareas se leen después por clave primaria.
+ *
+ * Las palabras se normalizan como en UserPrefixIndex (minúsculas, sin tildes)
+ * y se descartan las vacías más frecuentes del español y del inglés. No se
+ * lematiza: como cada palabra de la consulta se busca como prefijo, "examen"
+ * ya encuentra "exámenes".
+ *
+ * Una tarea debe contener todas las palabras de la consulta. Se ordenan por
+ * BM25 sobre título y descripción, con el título pesando TITLE_WEIGHT veces
+ * más; una palabra que solo empieza por la de la consulta puntúa
+ * PREFIX_FACTOR de la coincidencia exacta. A igual puntuación, las tareas más
+ * nuevas primero.
+ *
+ * Un usuario tiene como mucho unos miles de tareas: los términos van en un
+ * TreeMap (un prefijo es un subMap) y cada término guarda en arrays ordenados
+ * las posiciones (slots) de sus tareas. Las puntuaciones se acumulan en arrays
+ * indexados por slot, sin mapas ni objetos por tarea. Todos los métodos se
+ * sincronizan sobre el índice.
+ */
+public final class TaskTextIndex {
+
+	static final int TITLE_WEIGHT = 3;
+	static final double PREFIX_FACTOR = 0.7;
+	// Parámetros habituales de BM25
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	// Mayor que cualquier carácter de un término: cierra el rango de un prefijo
+	private static final char MAX_CHAR = Character.MAX_VALUE;
+
+	// Palabras vacías (ya sin tildes) que no se indexan
+	private static final Set<String> STOPWORDS = Set.of(
+			"a", "al", "como", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "mas", "o", "para",
+			"pero", "por", "que", "se", "sin", "su", "sus", "un", "una", "uno", "unos", "unas", "y",
+			"an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or", "the",
+			"to", "with");
+
+	private final TreeMap<String, Postings> terms = new TreeMap<>();
+	private final Map<Long, Integer> slots = new HashMap<>();
+
+	// Por slot: id de la tarea, términos y longitud ponderada. Los slots de las
+	// tareas borradas se reutilizan
+	private long[] ids = new long[16];
+	private Document[] documents = new Document[16];
+	private int slotCount;
+	private int[] freeSlots = new int[4];
+	private int freeCount;
+	// Suma de las longitudes ponderadas, para la longitud media de BM25
+	private long totalLength;
+
+	// Memoria de trabajo de search(): seen[slot] dice qué palabra de la
+	// consulta encontró la tarea por última vez (marcas que no se repiten
+	// entre búsquedas, así que no hace falta limpiarla)
+	private int[] seen = new int[16];
+	private double[] total = new double[16];
+	private double[] current = new double[16];
+	private int[] touched = new int[16];
+	private int[] previous = new int[16];
+	private int stamp;
+
+	/**
+	 * Añade una tarea o sustituye sus términos.
+	 */
+	public synchronized void put(long taskId, String title, String description) {
+		Document document = Document.of(title, description);
+		Integer existing = slots.get(taskId);
+		if (existing == null) {
+			int slot = allocate(taskId);
+			documents[slot] = document;
+			for (int i = 0; i < document.terms.length; i++) {
+				document.terms[i] = postingsOf(document.terms[i]).add(slot, document.frequencies[i]);
+			}
+			totalLength += document.length;
+			return;
+		}
+
+		int slot = existing;
+		Document old = documents[slot];
+		// Un cambio de estado o prioridad no cambia el texto
+		if (old.sameAs(document)) {
+			return;
+		}
+		// Solo se tocan los términos que desaparecen; el resto se actualiza en su sitio
+		Set<String> kept = Set.of(document.terms);
+		for (String term : old.terms) {
+			if (!kept.contains(term)) {
+				removeFromPostings(term, slot);
+			}
+		}
+		for (int i = 0; i < document.terms.length; i++) {
+			document.terms[i] = postingsOf(document.terms[i]).add(slot, document.frequencies[i]);
+		}
+		documents[slot] = document;
+		totalLength += document.length - old.length;
+	}
+
+	public synchronized void remove(long taskId) {
+		Integer slot = slots.remove(taskId);
+		if (slot == null) {
+			return;
+		}
+		Document old = documents[slot];
+		for (String term : old.terms) {
+			removeFromPostings(term, slot);
+		}
+		totalLength -= old.length;
+		documents[slot] = null;
+		if (freeCount == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+		}
+		freeSlots[freeCount++] = slot;
+	}
+
+	/**
+	 * Las limit tareas con más puntuación que contienen todas las palabras de
+	 * la consulta (como palabra o como comienzo de palabra).
+	 */
+	public synchronized List<Long> search(String query, int limit) {
+		String[] tokens = queryTokens(query);
+		int count = slots.size();
+		if (tokens.length == 0 || count == 0 || limit <= 0) {
+			return List.of();
+		}
+		double averageLength = Math.max(1, (double) totalLength / count);
+		if (stamp > Integer.MAX_VALUE - tokens.length - 1) {
+			Arrays.fill(seen, 0);
+			stamp = 0;
+		}
+		int base = stamp + 1;
+		stamp += tokens.length;
+
+		// La palabra más larga suele ser la más selectiva: da los candidatos y
+		// las demás solo puntúan los que siguen en juego
+		int candidates = 0;
+		for (int k = 0; k < tokens.length; k++) {
+			candidates = score(tokens[k], base + k, k == 0 ? 0 : base + k - 1, count, averageLength);
+			if (candidates == 0) {
+				return List.of();
+			}
+		}
+		return top(candidates, limit);
+	}
+
+	public synchronized int size() {
+		return slots.size();
+	}
+
+	public synchronized int terms() {
+		return terms.size();
+	}
+
+	/**
+	 * Memoria estimada del índice en bytes (JVM de 64 bits con punteros
+	 * comprimidos).
+	 */
+	public synchronized long sizeInBytes() {
+		// Arrays por slot (incluida la memoria de trabajo) y mapa id -> slot
+		long bytes = 128 + (long) ids.length * (8 + 4 + 4 + 8 + 8 + 4 + 4) + slots.size() * 64L;
+		for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+			// Entrada del TreeMap, String con su array y Postings con los suyos
+			bytes += 40 + 56 + entry.getKey().length() + 24 + 32 + 8L * entry.getValue().slots.length;
+		}
+		for (int slot = 0; slot < slotCount; slot++) {
+			Document document = documents[slot];
+			if (document != null) {
+				// Document y sus arrays; los términos son las claves del TreeMap
+				bytes += 24 + 32 + 8L * document.terms.length;
+			}
+		}
+		return bytes;
+	}
+
+	// ===== Puntuación =====
+
+	// Puntúa la palabra en las tareas que encontraron la anterior (required; 0
+	// = todas) y las marca con mark. Devuelve cuántas hay en touched. Una tarea
+	// se queda con su mejor término del rango. El idf es el de la palabra de la
+	// consulta (todas las tareas del rango), no el de cada término: si no, un
+	// término raro que solo empieza por ella superaría a la coincidencia exacta
+	private int score(String token, int mark, int required, int count, double averageLength) {
+		Map<String, Postings> range = terms.subMap(token, true, token + MAX_CHAR, false);
+		// Cota superior de las tareas del rango, sin calcular la unión
+		long matching = 0;
+		for (Postings postings : range.values()) {
+			matching += postings.size;
+		}
+		matching = Math.min(matching, count);
+		double idf = Math.log(1 + (count - matching + 0.5) / (matching + 0.5));
+
+		int[] candidates = touched;
+		touched = previous;
+		previous = candidates;
+		int found = 0;
+		for (Map.Entry<String, Postings> entry : range.entrySet()) {
+			Postings postings = entry.getValue();
+			double factor = entry.getKey().length() == token.length() ? idf : idf * PREFIX_FACTOR;
+			for (int i = 0; i < postings.size; i++) {
+				int slot = postings.slots[i];
+				int state = seen[slot];
+				if (state != mark && required != 0 && state != required) {
+					continue;
+				}
+				double frequency = postings.frequencies[i];
+				double norm = K1 * (1 - B + B * documents[slot].length / averageLength);
+				double score = factor * frequency * (K1 + 1) / (frequency + norm);
+				if (state == mark) {
+					current[slot] = Math.max(current[slot], score);
+				} else {
+					seen[slot] = mark;
+					current[slot] = score;
+					if (required == 0) {
+						total[slot] = 0;
+					}
+					touched[found++] = slot;
+				}
+			}
+		}
+		for (int i = 0; i < found; i++) {
+			total[touched[i]] += current[touched[i]];
+		}
+		return found;
+	}
+
+	// Las limit mejores de touched, con inserción ordenada (limit es pequeño)
+	private List<Long> top(int candidates, int limit) {
+		int[] best = new int[Math.min(limit, candidates)];
+		int size = 0;
+		for (int i = 0; i < candidates; i++) {
+			int slot = touched[i];
+			if (size == best.length && !better(slot, best[size - 1])) {
+				continue;
+			}
+			int j = size < best.length ? size++ : size - 1;
+			while (j > 0 && better(slot, best[j - 1])) {
+				best[j] = best[j - 1];
+				j--;
+			}
+			best[j] = slot;
+		}
+		List<Long> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(ids[best[i]]);
+		}
+		return result;
+	}
+
+	private boolean better(int slot, int other) {
+		int byScore = Double.compare(total[slot], total[other]);
+		return byScore > 0 || byScore == 0 && ids[slot] > ids[other];
+	}
+
+	// ===== Términos y slots =====
+
+	private Postings postingsOf(String term) {
+		Postings postings = terms.get(term);
+		if (postings == null) {
+			postings = new Postings(term);
+			terms.put(term, postings);
+		}
+		return postings;
+	}
+
+	private void removeFromPostings(String term, int slot) {
+		Postings postings = terms.get(term);
+		if (postings != null && postings.remove(slot) && postings.size == 0) {
+			terms.remove(term);
+		}
+	}
+
+	private int allocate(long taskId) {
+		int slot;
+		if (freeCount > 0) {
+			slot = freeSlots[--freeCount];
+		} else {
+			slot = slotCount++;
+			if (slot == ids.length) {
+				int capacity = slot * 2;
+				ids = Arrays.copyOf(ids, capacity);
+				documents = Arrays.copyOf(documents, capacity);
+				seen = Arrays.copyOf(seen, capacity);
+				total = Arrays.copyOf(total, capacity);
+				current = Arrays.copyOf(current, capacity);
+				touched = Arrays.copyOf(touched, capacity);
+				previous = Arrays.copyOf(previous, capacity);
+			}
+		}
+		ids[slot] = taskId;
+		slots.put(taskId, slot);
+		return slot;
+	}
+
+	// Palabras de la consulta sin repetir, la más larga primero. Las vacías se
+	// ignoran salvo la última, que puede ser el comienzo de otra ("de" ->
+	// "deberes") mientras se escribe
+	static String[] queryTokens(String query) {
+		if (query == null) {
+			return new String[0];
+		}
+		List<String> words = new ArrayList<>();
+		TextNormalizer.forEachWord(query, words::add);
+		List<String> tokens = new ArrayList<>(words.size());
+		for (int i = 0; i < words.size(); i++) {
+			String word = words.get(i);
+			if ((i == words.size() - 1 || !STOPWORDS.contains(word)) && !tokens.contains(word)) {
+				tokens.add(word);
+			}
+		}
+		tokens.sort(Comparator.comparingInt(String::length).reversed());
+		return tokens.toArray(String[]::new);
+	}
+
+	// ===== Estructuras =====
+
+	/**
+	 * Términos distintos de una tarea con su frecuencia ponderada (cada
+	 * aparición en el título cuenta TITLE_WEIGHT) y la longitud ponderada.
+	 */
+	private static final class Document {
+		final String[] terms;
+		final int[] frequencies;
+		final int length;
+
+		private Document(String[] terms, int[] frequencies, int length) {
+			this.terms = terms;
+			this.frequencies = frequencies;
+			this.length = length;
+		}
+
+		static Document of(String title, String description) {
+			Map<String, Integer> counts = new LinkedHashMap<>();
+			int[] length = new int[1];
+			TextNormalizer.forEachWord(title, word -> {
+				if (!STOPWORDS.contains(word)) {
+					counts.merge(word, TITLE_WEIGHT, Integer::sum);
+					length[0] += TITLE_WEIGHT;
+				}
+			});
+			TextNormalizer.forEachWord(description, word -> {
+				if (!STOPWORDS.contains(word)) {
+					counts.merge(word, 1, Integer::sum);
+					length[0]++;
+				}
+			});
+			String[] terms = new String[counts.size()];
+			int[] frequencies = new int[counts.size()];
+			int i = 0;
+			for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+				terms[i] = entry.getKey();
+				frequencies[i++] = entry.getValue();
+			}
+			return new Document(terms, frequencies, length[0]);
+		}
+
+		boolean sameAs(Document other) {
+			return length == other.length && Arrays.equals(terms, other.terms)
+					&& Arrays.equals(frequencies, other.frequencies);
+		}
+	}
+
+	/**
+	 * Slots de las tareas de un término, ordenados, con su frecuencia. Al
+	 * cargar, los slots se asignan en orden, así que añadir suele ser escribir
+	 * al final.
+	 */
+	private static final class Postings {
+		// La clave del TreeMap: los documentos apuntan a esta copia
+		final String term;
+		int[] slots = new int[2];
+		int[] frequencies = new int[2];
+		int size;
+
+		Postings(String term) {
+			this.term = term;
+		}
+
+		String add(int slot, int frequency) {
+			int i = Arrays.binarySearch(slots, 0, size, slot);
+			if (i >= 0) {
+				frequencies[i] = frequency;
+				return term;
+			}
+			i = -i - 1;
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size * 2);
+				frequencies = Arrays.copyOf(frequencies, size * 2);
+			}
+			System.arraycopy(slots, i, slots, i + 1, size - i);
+			System.arraycopy(frequencies, i, frequencies, i + 1, size - i);
+			slots[i] = slot;
+			frequencies[i] = frequency;
+			size++;
+			return term;
+		}
+
+		boolean remove(int slot) {
+			int i = Arrays.binarySearch(slots, 0, size, slot);
+			if (i < 0) {
+				return false;
+			}
+			System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+			System.arraycopy(frequencies, i + 1, frequencies, i, size - i - 1);
+			size--;
+			return true;
+		}
+	}
+}
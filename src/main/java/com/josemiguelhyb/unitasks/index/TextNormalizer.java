@@ -0,0 +1,94 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto común a los índices de búsqueda: minúsculas y sin
+ * tildes ("García" -> "garcia", "Ñandú" -> "nandu"), y partición en palabras
+ * (secuencias de letras y dígitos).
+ */
+final class TextNormalizer {
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final char[] LATIN1_FOLDED = latin1Folded();
+
+	private TextNormalizer() {
+	}
+
+	// Textos en español o inglés son casi siempre Latin-1: se pliegan con la
+	// tabla, carácter a carácter. El resto pasa por Normalizer
+	static String fold(String text) {
+		StringBuilder folded = null;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= LATIN1_FOLDED.length) {
+				return foldWithNormalizer(text);
+			}
+			char f = LATIN1_FOLDED[c];
+			if (f != c && folded == null) {
+				folded = new StringBuilder(text.length()).append(text, 0, i);
+			}
+			if (folded != null) {
+				folded.append(f);
+			}
+		}
+		return folded == null ? text : folded.toString();
+	}
+
+	// Palabras del texto ya normalizadas, en orden y con repeticiones. Se
+	// recorre a mano: al indexar miles de tareas, split con una expresión
+	// regular era la mitad del coste
+	static void forEachWord(String text, Consumer<String> action) {
+		if (text == null) {
+			return;
+		}
+		String folded = fold(text);
+		int start = -1;
+		for (int i = 0; i < folded.length();) {
+			int c = folded.codePointAt(i);
+			if (isWordChar(c)) {
+				if (start < 0) {
+					start = i;
+				}
+			} else if (start >= 0) {
+				action.accept(folded.substring(start, i));
+				start = -1;
+			}
+			i += Character.charCount(c);
+		}
+		if (start >= 0) {
+			action.accept(start == 0 ? folded : folded.substring(start));
+		}
+	}
+
+	// Letras y números (\p{L} y \p{N})
+	private static boolean isWordChar(int c) {
+		if (c < 128) {
+			return c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c >= 'A' && c <= 'Z';
+		}
+		if (Character.isLetter(c)) {
+			return true;
+		}
+		int type = Character.getType(c);
+		return type == Character.DECIMAL_DIGIT_NUMBER || type == Character.LETTER_NUMBER
+				|| type == Character.OTHER_NUMBER;
+	}
+
+	private static String foldWithNormalizer(String text) {
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	// Minúscula sin tilde de cada carácter Latin-1 (ß y similares se dejan igual)
+	private static char[] latin1Folded() {
+		char[] table = new char[256];
+		for (char c = 0; c < table.length; c++) {
+			String folded = foldWithNormalizer(String.valueOf(c));
+			table[c] = folded.length() == 1 ? folded.charAt(0) : c;
+		}
+		return table;
+	}
+}
@@ -0,0 +1,456 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de prefijos en memoria de los usuarios (nombre, apellidos y email)
+ * para buscar mientras se escribe. Devuelve ids; los datos se leen después por
+ * clave primaria.
+ *
+ * Los términos se normalizan en minúsculas y sin tildes ("García" -> "garcia"):
+ * nombre y apellidos se parten en palabras y el email se indexa entero. Cada
+ * palabra de la consulta debe ser prefijo de algún término del usuario. Se
+ * recorren los usuarios de la palabra más selectiva (la de menos usuarios) y
+ * se comprueban las demás; los resultados salen ordenados por el término que
+ * coincide con esa palabra (la coincidencia exacta primero) y después por id.
+ *
+ * La mayor parte está en una instantánea inmutable de arrays ordenados (un
+ * prefijo es un rango que se localiza con búsqueda binaria) y los cambios
+ * posteriores en un delta: un mapa ordenado con los términos de los usuarios
+ * creados o modificados y el conjunto de ids cuya entrada de la instantánea ya
+ * no vale. El delta crece hasta que se reconstruye la instantánea entera.
+ *
+ * Las búsquedas no bloquean; los cambios y las reconstrucciones se
+ * sincronizan entre sí.
+ */
+public final class UserPrefixIndex {
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	// Mayor que cualquier carácter de un término: cierra el rango de un prefijo
+	private static final char MAX_CHAR = Character.MAX_VALUE;
+
+	private static final Comparator<Match> BY_TERM_AND_ID = Comparator.comparing(Match::term)
+			.thenComparingLong(Match::id);
+
+	// Instantánea y delta se publican juntos: una búsqueda nunca mezcla el delta
+	// nuevo con la instantánea anterior
+	private volatile State state = new State(Snapshot.build(new long[0], new String[0][], 0), new Delta());
+	// Cambios mientras se reconstruye: serán el delta de la nueva instantánea
+	private Delta rebuilding;
+
+	/**
+	 * Los limit primeros usuarios que coinciden con la consulta, o una lista
+	 * vacía si la consulta no tiene palabras.
+	 */
+	public List<Long> search(String query, int limit) {
+		String[] tokens = queryTokens(query);
+		if (tokens.length == 0 || limit <= 0) {
+			return List.of();
+		}
+		State current = state;
+		Snapshot snapshot = current.snapshot();
+		Delta changes = current.delta();
+		snapshot.moveMostSelectiveFirst(tokens);
+		List<Match> matches = new ArrayList<>();
+		snapshot.collect(tokens, limit, changes, matches);
+		changes.collect(tokens, limit, matches);
+		// Cada parte ya viene ordenada: solo hay que mezclarlas
+		matches.sort(BY_TERM_AND_ID);
+		List<Long> ids = new ArrayList<>(Math.min(limit, matches.size()));
+		for (int i = 0; i < matches.size() && ids.size() < limit; i++) {
+			ids.add(matches.get(i).id());
+		}
+		return ids;
+	}
+
+	/**
+	 * Añade un usuario o sustituye sus términos.
+	 */
+	public synchronized void put(long id, String name, String lastname, String email) {
+		String[] terms = terms(name, lastname, email);
+		state.delta().put(id, terms);
+		if (rebuilding != null) {
+			rebuilding.put(id, terms);
+		}
+	}
+
+	public synchronized void remove(long id) {
+		state.delta().remove(id);
+		if (rebuilding != null) {
+			rebuilding.remove(id);
+		}
+	}
+
+	/**
+	 * Empieza una reconstrucción: los cambios desde ahora se guardan aparte
+	 * para aplicarlos sobre la instantánea nueva, que puede no verlos.
+	 */
+	public synchronized Builder startRebuild() {
+		rebuilding = new Delta();
+		return new Builder();
+	}
+
+	public synchronized void finishRebuild(Builder builder) {
+		Snapshot fresh = builder.build();
+		Delta changes = rebuilding != null ? rebuilding : new Delta();
+		rebuilding = null;
+		state = new State(fresh, changes);
+	}
+
+	public synchronized void abortRebuild() {
+		rebuilding = null;
+	}
+
+	// Usuarios en la instantánea (incluidos los que el delta ya invalida)
+	public int snapshotUsers() {
+		return state.snapshot().ids.length;
+	}
+
+	// Usuarios creados, modificados o borrados desde la última instantánea
+	public int pendingChanges() {
+		return state.delta().overridden.size();
+	}
+
+	public int terms() {
+		return state.snapshot().terms.length;
+	}
+
+	/**
+	 * Memoria estimada del índice en bytes (JVM de 64 bits con punteros
+	 * comprimidos): arrays y términos de la instantánea más el delta.
+	 */
+	public long sizeInBytes() {
+		State current = state;
+		return current.snapshot().sizeInBytes() + current.delta().sizeInBytes();
+	}
+
+	// ===== Términos =====
+
+	static String[] terms(String name, String lastname, String email) {
+		Set<String> terms = new LinkedHashSet<>();
+		addWords(terms, name);
+		addWords(terms, lastname);
+		if (email != null && !email.isBlank()) {
+			terms.add(TextNormalizer.fold(email.trim()));
+		}
+		return terms.toArray(String[]::new);
+	}
+
+	private static void addWords(Set<String> terms, String text) {
+		TextNormalizer.forEachWord(text, terms::add);
+	}
+
+	// Palabras de la consulta sin repetir, la más larga primero
+	static String[] queryTokens(String query) {
+		if (query == null) {
+			return new String[0];
+		}
+		return Arrays.stream(WHITESPACE.split(TextNormalizer.fold(query).trim()))
+				.filter(token -> !token.isEmpty())
+				.distinct()
+				.sorted(Comparator.comparingInt(String::length).reversed())
+				.toArray(String[]::new);
+	}
+
+	// ===== Estructuras =====
+
+	private record State(Snapshot snapshot, Delta delta) {
+	}
+
+	private record Match(String term, long id) {
+	}
+
+	/**
+	 * Recoge los usuarios de una reconstrucción, en cualquier orden.
+	 */
+	public static final class Builder {
+		private long[] ids = new long[1024];
+		private String[][] terms = new String[1024][];
+		private int size;
+
+		private Builder() {
+		}
+
+		public void add(long id, String name, String lastname, String email) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				terms = Arrays.copyOf(terms, size * 2);
+			}
+			ids[size] = id;
+			terms[size] = UserPrefixIndex.terms(name, lastname, email);
+			size++;
+		}
+
+		private Snapshot build() {
+			return Snapshot.build(ids, terms, size);
+		}
+	}
+
+	/**
+	 * Instantánea inmutable en arrays:
+	 * - terms: términos distintos ordenados
+	 * - termOffsets/postings: para cada término, los usuarios que lo tienen
+	 *   (posiciones en ids, en orden de id)
+	 * - ids: ids de los usuarios ordenados
+	 * - userOffsets/userTerms: para cada usuario, las posiciones de sus términos
+	 *   (para comprobar el resto de palabras de la consulta)
+	 */
+	private static final class Snapshot {
+		final String[] terms;
+		final int[] termOffsets;
+		final int[] postings;
+		final long[] ids;
+		final int[] userOffsets;
+		final int[] userTerms;
+
+		private Snapshot(String[] terms, int[] termOffsets, int[] postings, long[] ids, int[] userOffsets,
+				int[] userTerms) {
+			this.terms = terms;
+			this.termOffsets = termOffsets;
+			this.postings = postings;
+			this.ids = ids;
+			this.userOffsets = userOffsets;
+			this.userTerms = userTerms;
+		}
+
+		static Snapshot build(long[] rawIds, String[][] rawTerms, int size) {
+			// Usuarios por id
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, Comparator.comparingLong(i -> rawIds[i]));
+			long[] ids = new long[size];
+			int[] userOffsets = new int[size + 1];
+			for (int u = 0; u < size; u++) {
+				ids[u] = rawIds[order[u]];
+				userOffsets[u + 1] = userOffsets[u] + rawTerms[order[u]].length;
+			}
+
+			// Términos distintos: se numeran según aparecen y luego se ordenan
+			Map<String, Integer> termIds = new HashMap<>();
+			int[] userTerms = new int[userOffsets[size]];
+			for (int u = 0; u < size; u++) {
+				String[] terms = rawTerms[order[u]];
+				for (int t = 0; t < terms.length; t++) {
+					userTerms[userOffsets[u] + t] = termIds.computeIfAbsent(terms[t], k -> termIds.size());
+				}
+			}
+			String[] terms = new String[termIds.size()];
+			termIds.forEach((term, id) -> terms[id] = term);
+			Integer[] byTerm = new Integer[terms.length];
+			for (int i = 0; i < byTerm.length; i++) {
+				byTerm[i] = i;
+			}
+			Arrays.sort(byTerm, Comparator.comparing(i -> terms[i]));
+			String[] sortedTerms = new String[terms.length];
+			int[] rank = new int[terms.length];
+			for (int r = 0; r < byTerm.length; r++) {
+				sortedTerms[r] = terms[byTerm[r]];
+				rank[byTerm[r]] = r;
+			}
+
+			// Listas de usuarios por término, recorriendo los usuarios por id
+			int[] termOffsets = new int[sortedTerms.length + 1];
+			for (int i = 0; i < userTerms.length; i++) {
+				userTerms[i] = rank[userTerms[i]];
+				termOffsets[userTerms[i] + 1]++;
+			}
+			for (int t = 0; t < sortedTerms.length; t++) {
+				termOffsets[t + 1] += termOffsets[t];
+			}
+			int[] postings = new int[userTerms.length];
+			int[] next = Arrays.copyOf(termOffsets, sortedTerms.length);
+			for (int u = 0; u < size; u++) {
+				for (int i = userOffsets[u]; i < userOffsets[u + 1]; i++) {
+					postings[next[userTerms[i]]++] = u;
+				}
+			}
+			return new Snapshot(sortedTerms, termOffsets, postings, ids, userOffsets, userTerms);
+		}
+
+		// Pone primero la palabra con menos usuarios: es la que se recorre
+		void moveMostSelectiveFirst(String[] tokens) {
+			int best = 0;
+			int bestUsers = Integer.MAX_VALUE;
+			for (int k = 0; k < tokens.length && tokens.length > 1; k++) {
+				int users = termOffsets[lowerBound(tokens[k] + MAX_CHAR)] - termOffsets[lowerBound(tokens[k])];
+				if (users < bestUsers) {
+					best = k;
+					bestUsers = users;
+				}
+			}
+			String first = tokens[best];
+			tokens[best] = tokens[0];
+			tokens[0] = first;
+		}
+
+		void collect(String[] tokens, int limit, Delta changes, List<Match> matches) {
+			int first = lowerBound(tokens[0]);
+			int end = lowerBound(tokens[0] + MAX_CHAR);
+			if (first == end) {
+				return;
+			}
+			// Rango de términos de cada una de las otras palabras
+			int[] from = new int[tokens.length];
+			int[] to = new int[tokens.length];
+			for (int k = 1; k < tokens.length; k++) {
+				from[k] = lowerBound(tokens[k]);
+				to[k] = lowerBound(tokens[k] + MAX_CHAR);
+				if (from[k] == to[k]) {
+					return;
+				}
+			}
+			Set<Long> seen = new HashSet<>();
+			int found = 0;
+			for (int t = first; t < end; t++) {
+				for (int p = termOffsets[t]; p < termOffsets[t + 1]; p++) {
+					int user = postings[p];
+					long id = ids[user];
+					if (changes.overrides(id) || !matchesRest(user, from, to) || !seen.add(id)) {
+						continue;
+					}
+					matches.add(new Match(terms[t], id));
+					if (++found == limit) {
+						return;
+					}
+				}
+			}
+		}
+
+		private boolean matchesRest(int user, int[] from, int[] to) {
+			for (int k = 1; k < from.length; k++) {
+				boolean any = false;
+				for (int i = userOffsets[user]; i < userOffsets[user + 1] && !any; i++) {
+					any = userTerms[i] >= from[k] && userTerms[i] < to[k];
+				}
+				if (!any) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		// Primer término >= key
+		private int lowerBound(String key) {
+			int low = 0;
+			int high = terms.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (terms[mid].compareTo(key) < 0) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		long sizeInBytes() {
+			long bytes = array(terms.length, 4) + array(termOffsets.length, 4) + array(postings.length, 4)
+					+ array(ids.length, 8) + array(userOffsets.length, 4) + array(userTerms.length, 4);
+			for (String term : terms) {
+				bytes += string(term);
+			}
+			return bytes;
+		}
+	}
+
+	/**
+	 * Cambios posteriores a la instantánea. La clave del mapa es término + '\0'
+	 * + id, así que también se recorre por prefijo y queda ordenado por término.
+	 */
+	private static final class Delta {
+		final ConcurrentSkipListMap<String, Long> postings = new ConcurrentSkipListMap<>();
+		final Map<Long, String[]> users = new ConcurrentHashMap<>();
+		// Ids cuya entrada en la instantánea ya no vale (modificados o borrados)
+		final Set<Long> overridden = ConcurrentHashMap.newKeySet();
+
+		void put(long id, String[] terms) {
+			remove(id);
+			users.put(id, terms);
+			for (String term : terms) {
+				postings.put(term + '\0' + id, id);
+			}
+		}
+
+		void remove(long id) {
+			overridden.add(id);
+			String[] previous = users.remove(id);
+			if (previous != null) {
+				for (String term : previous) {
+					postings.remove(term + '\0' + id);
+				}
+			}
+		}
+
+		boolean overrides(long id) {
+			return overridden.contains(id);
+		}
+
+		void collect(String[] tokens, int limit, List<Match> matches) {
+			if (postings.isEmpty()) {
+				return;
+			}
+			Set<Long> seen = new HashSet<>();
+			int found = 0;
+			for (Map.Entry<String, Long> entry : postings.subMap(tokens[0], tokens[0] + MAX_CHAR).entrySet()) {
+				long id = entry.getValue();
+				String[] terms = users.get(id);
+				if (terms == null || !matchesRest(terms, tokens) || !seen.add(id)) {
+					continue;
+				}
+				String key = entry.getKey();
+				matches.add(new Match(key.substring(0, key.lastIndexOf('\0')), id));
+				if (++found == limit) {
+					return;
+				}
+			}
+		}
+
+		private static boolean matchesRest(String[] terms, String[] tokens) {
+			for (int k = 1; k < tokens.length; k++) {
+				boolean any = false;
+				for (int i = 0; i < terms.length && !any; i++) {
+					any = terms[i].startsWith(tokens[k]);
+				}
+				if (!any) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		// Aproximado: nodo del skip list y su clave por término, entrada del mapa
+		// de usuarios y del conjunto de ids
+		long sizeInBytes() {
+			long bytes = 0;
+			for (String key : postings.keySet()) {
+				bytes += 48 + string(key);
+			}
+			return bytes + overridden.size() * 96L + users.size() * 64L;
+		}
+	}
+
+	// Cabecera de 16 bytes y alineación a 8
+	private static long array(int length, int elementBytes) {
+		return (16 + (long) length * elementBytes + 7) & ~7L;
+	}
+
+	// String (24) y su byte[]; los términos normalizados suelen ser Latin-1 (1 byte por carácter)
+	private static long string(String value) {
+		boolean latin1 = value.chars().allMatch(c -> c < 256);
+		return 24 + array(value.length(), latin1 ? 1 : 2);
+	}
+}
@@ -0,0 +1,33 @@
+package com.josemiguelhyb.unitasks.index;
+
+import org.springframework.stereotype.Component;
+
+import com.josemiguelhyb.unitasks.model.User;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Mantiene UserSearchIndex al día con las altas y cambios de User por JPA,
+ * igual que EmailFilterEntityListener con el filtro de emails. El índice los
+ * aplica tras el commit, así que una transacción deshecha no deja rastro.
+ *
+ * Los borrados no pasan por aquí: UserService los hace con un DELETE en bloque
+ * y avisa al índice directamente.
+ */
+@Component
+public class UserSearchEntityListener {
+
+	private final UserSearchIndex userSearchIndex;
+
+	public UserSearchEntityListener(UserSearchIndex userSearchIndex) {
+		this.userSearchIndex = userSearchIndex;
+	}
+
+	// Cambiar el nombre o el email cambia los términos: se reemplazan los del usuario
+	@PostPersist
+	@PostUpdate
+	void saved(User user) {
+		userSearchIndex.saved(user.getId(), user.getName(), user.getLastname(), user.getEmail());
+	}
+}
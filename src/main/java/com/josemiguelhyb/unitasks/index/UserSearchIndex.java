@@ -0,0 +1,223 @@
+package com.josemiguelhyb.unitasks.index;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.josemiguelhyb.unitasks.cache.CacheEntity;
+import com.josemiguelhyb.unitasks.cache.CacheInvalidationHandler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Búsqueda de usuarios mientras se escribe (GET /api/users/search) sobre un
+ * UserPrefixIndex en memoria, sin LIKE '%x%' sobre users en cada tecla.
+ *
+ * Como EmailExistenceFilter, se construye al arrancar leyendo los usuarios
+ * por JDBC en streaming y hasta entonces search() devuelve vacío (el servicio
+ * busca en la base de datos). Las altas y cambios entran por
+ * UserSearchEntityListener, los borrados por UserService y la importación
+ * masiva, y los de otras instancias por el bus de invalidación; todos se
+ * aplican tras el commit. Cuando los cambios acumulados superan
+ * rebuild-delta-ratio de la instantánea se reconstruye en segundo plano.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class UserSearchIndex implements ApplicationRunner, CacheInvalidationHandler {
+	private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+	// Con pocos usuarios no compensa reconstruir por cada puñado de cambios
+	private static final int MIN_CHANGES_TO_REBUILD = 1000;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+	private final boolean enabled;
+	private final double rebuildDeltaRatio;
+	private final int fetchSize;
+	private final Timer searchTimer;
+
+	private final UserPrefixIndex index = new UserPrefixIndex();
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+	private volatile boolean ready;
+
+	public UserSearchIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+			@Value("${unitasks.user-search.enabled:true}") boolean enabled,
+			@Value("${unitasks.user-search.rebuild-delta-ratio:0.1}") double rebuildDeltaRatio,
+			@Value("${unitasks.user-search.fetch-size:10000}") int fetchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.enabled = enabled;
+		this.rebuildDeltaRatio = rebuildDeltaRatio;
+		this.fetchSize = fetchSize;
+		this.searchTimer = Timer.builder("unitasks.user.search")
+				.description("Búsquedas en el índice de prefijos de usuarios")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		Gauge.builder("unitasks.user.search.users", index, UserPrefixIndex::snapshotUsers)
+				.description("Usuarios en la instantánea del índice de búsqueda")
+				.register(meterRegistry);
+		Gauge.builder("unitasks.user.search.pending", index, UserPrefixIndex::pendingChanges)
+				.description("Usuarios cambiados desde la última reconstrucción del índice")
+				.register(meterRegistry);
+		Gauge.builder("unitasks.user.search.size", index, UserPrefixIndex::sizeInBytes)
+				.description("Memoria estimada del índice de búsqueda de usuarios")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!enabled) {
+			return;
+		}
+		try {
+			rebuild();
+		} catch (RuntimeException e) {
+			// Nunca impide arrancar: sin índice se busca en la base de datos
+			log.warn("No se pudo construir el índice de búsqueda de usuarios: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Ids de los limit primeros usuarios que coinciden con la consulta, o vacío
+	 * si el índice aún no está disponible.
+	 */
+	public Optional<List<Long>> search(String query, int limit) {
+		if (!ready) {
+			return Optional.empty();
+		}
+		return Optional.of(searchTimer.record(() -> index.search(query, limit)));
+	}
+
+	// Alta o cambio de un usuario, aplicado tras el commit
+	public void saved(long id, String name, String lastname, String email) {
+		AfterCommit.run(() -> {
+			index.put(id, name, lastname, email);
+			rebuildIfStale();
+		});
+	}
+
+	public void removed(long id) {
+		AfterCommit.run(() -> {
+			index.remove(id);
+			rebuildIfStale();
+		});
+	}
+
+	/**
+	 * Reconstruye el índice recorriendo la tabla de usuarios. El anterior sigue
+	 * respondiendo mientras tanto y los cambios de ese intervalo no se pierden.
+	 */
+	public synchronized void rebuild() {
+		long start = System.nanoTime();
+		UserPrefixIndex.Builder builder = index.startRebuild();
+		try {
+			jdbcTemplate.execute((Connection connection) -> {
+				streamUsers(connection, builder);
+				return null;
+			});
+		} catch (RuntimeException e) {
+			index.abortRebuild();
+			throw e;
+		}
+		index.finishRebuild(builder);
+		ready = true;
+		log.info("Índice de búsqueda de usuarios construido: {} usuarios, {} términos, {} KB en {} ms",
+				index.snapshotUsers(), index.terms(), index.sizeInBytes() / 1024,
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	// Sin autocommit para que el driver de PostgreSQL respete fetchSize (ver
+	// EmailExistenceFilter)
+	private void streamUsers(Connection connection, UserPrefixIndex.Builder builder) throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		try (PreparedStatement statement = connection.prepareStatement(
+				"SELECT id, name, lastname, email FROM users", ResultSet.TYPE_FORWARD_ONLY,
+				ResultSet.CONCUR_READ_ONLY)) {
+			statement.setFetchSize(fetchSize);
+			try (ResultSet rows = statement.executeQuery()) {
+				while (rows.next()) {
+					builder.add(rows.getLong(1), rows.getString(2), rows.getString(3), rows.getString(4));
+				}
+			}
+			connection.commit();
+		} catch (SQLException e) {
+			connection.rollback();
+			throw e;
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	public void rebuildAsync() {
+		if (!enabled || !rebuilding.compareAndSet(false, true)) {
+			return;
+		}
+		Thread thread = new Thread(() -> {
+			try {
+				rebuild();
+			} catch (RuntimeException e) {
+				log.warn("No se pudo reconstruir el índice de búsqueda de usuarios: {}", e.getMessage());
+			} finally {
+				rebuilding.set(false);
+			}
+		}, "user-search-rebuild");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void rebuildIfStale() {
+		if (ready && index.pendingChanges() > Math.max(MIN_CHANGES_TO_REBUILD,
+				index.snapshotUsers() * rebuildDeltaRatio)) {
+			rebuildAsync();
+		}
+	}
+
+	// ===== Cambios en otras instancias (bus de invalidación) =====
+
+	@Override
+	public void evict(CacheEntity entity, Set<Long> ids) {
+		if (entity != CacheEntity.USER || !ready) {
+			return;
+		}
+		// Se relee cada usuario: los que ya no existen se han borrado
+		Set<Long> missing = new HashSet<>(ids);
+		namedJdbcTemplate.query("SELECT id, name, lastname, email FROM users WHERE id IN (:ids)",
+				Map.of("ids", ids), row -> {
+					long id = row.getLong(1);
+					missing.remove(id);
+					index.put(id, row.getString(2), row.getString(3), row.getString(4));
+				});
+		missing.forEach(index::remove);
+		rebuildIfStale();
+	}
+
+	@Override
+	public void evictAll(CacheEntity entity) {
+		if (entity == CacheEntity.USER && ready) {
+			// Se han podido perder avisos (reconexión): el índice puede estar desfasado
+			rebuildAsync();
+		}
+	}
+}
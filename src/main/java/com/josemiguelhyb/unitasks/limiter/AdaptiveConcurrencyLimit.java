@@ -0,0 +1,110 @@
+package com.josemiguelhyb.unitasks.limiter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de peticiones simultáneas que se ajusta con la latencia observada
+ * (AIMD): sube de uno en uno por cada "límite" peticiones completadas sin
+ * congestión y se multiplica por backoffRatio con cada petición congestionada.
+ *
+ * Una petición está congestionada si falla, si supera maxLatency o si tarda más
+ * de tolerance veces la latencia sin carga de su ruta. La referencia es por
+ * ruta porque un login con BCrypt tarda por diseño mucho más que un recuento.
+ *
+ * La latencia sin carga es un mínimo de larga duración: baja en cuanto llega
+ * una muestra menor y, al cerrar cada ventana de muestras, sube como mucho
+ * BASELINE_DRIFT hacia el mínimo de esa ventana. Una ralentización de muchas
+ * ventanas sigue contando como congestión; un cambio permanente (una ruta que
+ * de verdad se ha vuelto más lenta) acaba siendo la nueva referencia.
+ */
+public class AdaptiveConcurrencyLimit {
+
+	// Muestras por ventana para renovar la latencia sin carga de cada ruta
+	static final int BASELINE_WINDOW = 100;
+	// Subida máxima de la latencia sin carga por ventana: x5 tras unas 160 ventanas
+	static final double BASELINE_DRIFT = 0.01;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final double tolerance;
+	private final long maxLatencyNanos;
+
+	private final AtomicInteger inflight = new AtomicInteger();
+	private final Map<String, RttBaseline> baselines = new ConcurrentHashMap<>();
+	private volatile double limit;
+
+	public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+			double tolerance, long maxLatencyNanos) {
+		if (minLimit < 1 || minLimit > maxLimit) {
+			throw new IllegalArgumentException("Límites no válidos: min " + minLimit + ", max " + maxLimit);
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+		this.tolerance = tolerance;
+		this.maxLatencyNanos = maxLatencyNanos;
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+	}
+
+	/**
+	 * Reserva un hueco si la clase de prioridad no ha llenado su parte del
+	 * límite. Si devuelve true hay que llamar después a onComplete.
+	 */
+	public boolean tryAcquire(RequestPriority priority) {
+		int allowed = Math.max(1, (int) (limit * priority.getShare()));
+		while (true) {
+			int current = inflight.get();
+			if (current >= allowed) {
+				return false;
+			}
+			if (inflight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Libera el hueco y ajusta el límite con la latencia de la petición.
+	 */
+	public void onComplete(String route, long rttNanos, boolean failed) {
+		inflight.decrementAndGet();
+		RttBaseline baseline = baselines.computeIfAbsent(route, key -> new RttBaseline());
+		long noLoadRtt = baseline.update(rttNanos);
+		boolean congested = failed || rttNanos > maxLatencyNanos || rttNanos > noLoadRtt * tolerance;
+		synchronized (this) {
+			double current = limit;
+			limit = congested
+					? Math.max(minLimit, current * backoffRatio)
+					: Math.min(maxLimit, current + 1.0 / current);
+		}
+	}
+
+	public double getLimit() {
+		return limit;
+	}
+
+	public int getInflight() {
+		return inflight.get();
+	}
+
+	// Mínimo de larga duración que solo sube BASELINE_DRIFT por ventana
+	private static final class RttBaseline {
+		private long noLoad = Long.MAX_VALUE;
+		private long windowMin = Long.MAX_VALUE;
+		private int samples;
+
+		synchronized long update(long rttNanos) {
+			noLoad = Math.min(noLoad, rttNanos);
+			windowMin = Math.min(windowMin, rttNanos);
+			if (++samples >= BASELINE_WINDOW) {
+				noLoad = Math.min(windowMin, Math.max(noLoad + 1, (long) (noLoad * (1 + BASELINE_DRIFT))));
+				windowMin = Long.MAX_VALUE;
+				samples = 0;
+			}
+			return noLoad;
+		}
+	}
+}
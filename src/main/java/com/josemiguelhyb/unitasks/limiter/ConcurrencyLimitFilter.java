@@ -0,0 +1,105 @@
+package com.josemiguelhyb.unitasks.limiter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limita las peticiones simultáneas con AdaptiveConcurrencyLimit y rechaza el
+ * exceso con un 503 inmediato (Retry-After) en vez de dejarlo esperando en
+ * Tomcat hasta que todo expire a la vez cuando la base de datos va lenta.
+ *
+ * Es el primer filtro propio: va antes de las métricas y de la cadena de Spring
+ * Security, así una petición rechazada no valida el JWT ni abre contadores, y
+ * la latencia medida incluye la autenticación. Las rutas de Actuator (sondas,
+ * métricas) no se limitan.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private final boolean enabled;
+	private final AdaptiveConcurrencyLimit limit;
+	private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+	public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+			@Value("${unitasks.concurrency.enabled:true}") boolean enabled,
+			@Value("${unitasks.concurrency.initial-limit:20}") int initialLimit,
+			@Value("${unitasks.concurrency.min-limit:4}") int minLimit,
+			@Value("${unitasks.concurrency.max-limit:200}") int maxLimit,
+			@Value("${unitasks.concurrency.backoff-ratio:0.9}") double backoffRatio,
+			@Value("${unitasks.concurrency.tolerance:2.0}") double tolerance,
+			@Value("${unitasks.concurrency.max-latency:5s}") Duration maxLatency) {
+		this.enabled = enabled;
+		this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, backoffRatio, tolerance,
+				maxLatency.toNanos());
+		Gauge.builder("unitasks.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+				.description("Peticiones simultáneas permitidas")
+				.register(meterRegistry);
+		Gauge.builder("unitasks.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInflight)
+				.description("Peticiones en curso dentro del límite")
+				.register(meterRegistry);
+		for (RequestPriority priority : RequestPriority.values()) {
+			rejected.put(priority, Counter.builder("unitasks.concurrency.rejected")
+					.description("Peticiones rechazadas con 503 por el limitador")
+					.tag("priority", priority.name().toLowerCase())
+					.register(meterRegistry));
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		// La importación masiva dura minutos: ocuparía un hueco todo ese tiempo y su
+		// latencia se tomaría como congestión. Su CPU la acota el pool de UserImporter
+		return !enabled || request.getRequestURI().startsWith("/actuator")
+				|| request.getRequestURI().startsWith("/api/admin/users/import");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		RequestPriority priority = RequestPriority.of(request.getMethod(), request.getRequestURI());
+		if (!limit.tryAcquire(priority)) {
+			rejected.get(priority).increment();
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			return;
+		}
+
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			filterChain.doFilter(request, response);
+			failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+		} finally {
+			limit.onComplete(route(request), System.nanoTime() - start, failed);
+		}
+	}
+
+	public AdaptiveConcurrencyLimit getLimit() {
+		return limit;
+	}
+
+	// Plantilla de la ruta (baja cardinalidad); sin handler (401, 404) se agrupan por método
+	private static String route(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+	}
+}
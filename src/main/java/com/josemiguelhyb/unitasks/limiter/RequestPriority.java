@@ -0,0 +1,40 @@
+package com.josemiguelhyb.unitasks.limiter;
+
+/**
+ * Clases de prioridad del limitador de concurrencia. Cada clase solo puede
+ * ocupar una fracción del límite: al saturarse se rechazan primero las
+ * lecturas agregadas (ranking, recuentos) y lo último el login y la escritura
+ * de tareas.
+ */
+public enum RequestPriority {
+
+	/** Login, registro y escritura de tareas */
+	CRITICAL(1.0),
+	/** Resto de la API */
+	NORMAL(0.8),
+	/** Lecturas agregadas que el cliente puede reintentar: ranking y recuentos */
+	LOW(0.5);
+
+	private final double share;
+
+	RequestPriority(double share) {
+		this.share = share;
+	}
+
+	public double getShare() {
+		return share;
+	}
+
+	public static RequestPriority of(String method, String path) {
+		if (path.startsWith("/api/auth/")) {
+			return CRITICAL;
+		}
+		if (path.startsWith("/api/tasks") && !"GET".equals(method)) {
+			return CRITICAL;
+		}
+		if ("GET".equals(method) && (path.equals("/api/users/leaderboard") || path.endsWith("/count"))) {
+			return LOW;
+		}
+		return NORMAL;
+	}
+}
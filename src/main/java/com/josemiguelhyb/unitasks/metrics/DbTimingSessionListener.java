@@ -0,0 +1,44 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mide el tiempo de ejecución de las sentencias JDBC de cada sesión de
+ * Hibernate y lo suma a la petición en curso. Hibernate crea una instancia por
+ * sesión (hibernate.session.events.auto), así que el inicio no se comparte
+ * entre hilos.
+ */
+public class DbTimingSessionListener implements SessionEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	private long executeStart;
+	private long batchStart;
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		executeStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		addToCurrentRequest(System.nanoTime() - executeStart);
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		batchStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		addToCurrentRequest(System.nanoTime() - batchStart);
+	}
+
+	private static void addToCurrentRequest(long nanos) {
+		RequestStats stats = RequestStats.current();
+		if (stats != null) {
+			stats.addDbNanos(nanos);
+		}
+	}
+}
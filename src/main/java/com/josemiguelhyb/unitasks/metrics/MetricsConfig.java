@@ -0,0 +1,69 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Engancha los contadores por petición (RequestStats) a Hibernate: sentencias
+ * preparadas vía StatementInspector, entidades cargadas vía POST_LOAD y tiempo
+ * de ejecución JDBC vía DbTimingSessionListener. También sustituye los
+ * conversores JSON, CBOR y Smile por otros que miden la serialización.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, DbTimingSessionListener.class.getName());
+        };
+    }
+
+    // Spring Boot no registra su conversor Jackson si ya hay uno definido
+    @Bean
+    public TimedJacksonHttpMessageConverter timedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonHttpMessageConverter(objectMapper);
+    }
+
+    // Los de Spring MVC usan un ObjectMapper propio; estos, el builder de Spring
+    // Boot (fechas ISO-8601, filtros de ?fields=) con otro formato. Con Accept
+    // */* sigue respondiendo el conversor JSON, que va antes en la lista
+    @Bean
+    public TimedCborHttpMessageConverter timedCborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new TimedCborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public TimedSmileHttpMessageConverter timedSmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new TimedSmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public SmartInitializingSingleton entityLoadCounter(EntityManagerFactory entityManagerFactory) {
+        PostLoadEventListener listener = event -> {
+            RequestStats stats = RequestStats.current();
+            if (stats != null) {
+                stats.entityLoaded();
+            }
+        };
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, listener);
+    }
+}
@@ -0,0 +1,97 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.josemiguelhyb.unitasks.warmup.FirstRequestLatencies;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Registra por ruta cuántas sentencias SQL y cargas de entidades hace cada
+ * petición. Va antes de la cadena de Spring Security para incluir también las
+ * consultas de JwtAuthenticationFilter.
+ *
+ * Las etiquetas son el método y la plantilla de la ruta (/api/tasks/{id}),
+ * nunca la URL real, para mantener baja la cardinalidad.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlBudgetGuard sqlBudgetGuard;
+    private final FirstRequestLatencies firstRequests;
+    private final Map<String, RouteMeters> metersByRoute = new ConcurrentHashMap<>();
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, SqlBudgetGuard sqlBudgetGuard,
+            FirstRequestLatencies firstRequests) {
+        this.meterRegistry = meterRegistry;
+        this.sqlBudgetGuard = sqlBudgetGuard;
+        this.firstRequests = firstRequests;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStats stats = RequestStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats.finish();
+            String route = route(request, response);
+            RouteMeters meters = metersFor(request.getMethod(), route);
+            meters.statements.record(stats.getStatements());
+            meters.entityLoads.record(stats.getEntityLoads());
+            sqlBudgetGuard.checkRequest(request.getMethod() + " " + route, stats.getSql());
+            if (!route.startsWith("/actuator")) {
+                // Las sondas de health no cuentan como tráfico de usuarios
+                firstRequests.record(stats.getElapsedNanos());
+            }
+        }
+    }
+
+    private static String route(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        return response.getStatus() == HttpServletResponse.SC_NOT_FOUND ? "NOT_FOUND" : "UNKNOWN";
+    }
+
+    private RouteMeters metersFor(String method, String uri) {
+        return metersByRoute.computeIfAbsent(method + " " + uri, key -> new RouteMeters(
+                summary("unitasks.request.sql.statements", "Sentencias SQL por petición", method, uri),
+                summary("unitasks.request.entity.loads", "Entidades cargadas por petición", method, uri)));
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags("method", method, "uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry);
+    }
+
+    private static final class RouteMeters {
+        private final DistributionSummary statements;
+        private final DistributionSummary entityLoads;
+
+        RouteMeters(DistributionSummary statements, DistributionSummary entityLoads) {
+            this.statements = statements;
+            this.entityLoads = entityLoads;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+/**
+ * Contadores de la petición HTTP en curso (sentencias SQL, entidades cargadas
+ * y tiempos por fase). Se guardan en un ThreadLocal: RequestMetricsFilter los
+ * abre y cierra, y los hooks de Hibernate, seguridad y Jackson los incrementan
+ * sin sincronización porque cada petición se atiende en un único hilo.
+ */
+public final class RequestStats {
+
+	private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+
+	private final long startNanos = System.nanoTime();
+	private long userId = -1;
+	private final SqlScope sql = SqlScope.open();
+	private int entityLoads;
+
+	// Tiempos por fase en nanosegundos (cabecera Server-Timing y log de lentas)
+	private long authNanos;
+	private long dbNanos;
+	private long serviceNanos;
+	private long serializationNanos;
+	private int serviceDepth;
+	private long serviceStart;
+
+	private RequestStats() {
+	}
+
+	public static RequestStats start() {
+		RequestStats stats = new RequestStats();
+		CURRENT.set(stats);
+		return stats;
+	}
+
+	// null si el hilo no está atendiendo una petición (arranque, tareas, tests)
+	public static RequestStats current() {
+		return CURRENT.get();
+	}
+
+	public void finish() {
+		sql.close();
+		CURRENT.remove();
+	}
+
+	void entityLoaded() {
+		entityLoads++;
+	}
+
+	public static void addAuthNanos(long nanos) {
+		RequestStats stats = CURRENT.get();
+		if (stats != null) {
+			stats.authNanos += nanos;
+		}
+	}
+
+	// Usuario autenticado por JwtAuthenticationFilter (eventos JFR)
+	public static void setUserId(long userId) {
+		RequestStats stats = CURRENT.get();
+		if (stats != null) {
+			stats.userId = userId;
+		}
+	}
+
+	// -1 fuera de una petición o si no hay usuario autenticado
+	public static long currentUserId() {
+		RequestStats stats = CURRENT.get();
+		return stats != null ? stats.userId : -1;
+	}
+
+	void addDbNanos(long nanos) {
+		dbNanos += nanos;
+	}
+
+	void addSerializationNanos(long nanos) {
+		serializationNanos += nanos;
+	}
+
+	// Solo cuenta la llamada más externa: un servicio que llama a otro no suma dos veces
+	void serviceEntered() {
+		if (serviceDepth++ == 0) {
+			serviceStart = System.nanoTime();
+		}
+	}
+
+	void serviceExited() {
+		if (--serviceDepth == 0) {
+			serviceNanos += System.nanoTime() - serviceStart;
+		}
+	}
+
+	public SqlScope getSql() {
+		return sql;
+	}
+
+	public int getStatements() {
+		return sql.getStatements();
+	}
+
+	public int getEntityLoads() {
+		return entityLoads;
+	}
+
+	public long getElapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	public long getAuthNanos() {
+		return authNanos;
+	}
+
+	public long getDbNanos() {
+		return dbNanos;
+	}
+
+	public long getServiceNanos() {
+		return serviceNanos;
+	}
+
+	public long getSerializationNanos() {
+		return serializationNanos;
+	}
+}
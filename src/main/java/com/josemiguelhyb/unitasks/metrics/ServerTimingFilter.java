@@ -0,0 +1,99 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Desglosa el tiempo de cada petición en autenticación (JWT), base de datos,
+ * servicios y serialización JSON a partir de los tiempos de RequestStats.
+ *
+ * - Cabecera Server-Timing: para todas las peticiones si
+ *   unitasks.server-timing.enabled=true, o solo para las que envían la
+ *   cabecera X-Server-Timing. La respuesta se guarda en memoria para poder
+ *   añadir la cabecera después de serializar, así que solo se hace en esas
+ *   peticiones.
+ * - Log de peticiones lentas: por encima de unitasks.slow-request.threshold
+ *   se registra el mismo desglose con el SQL parametrizado ejecutado.
+ *
+ * Va justo dentro de RequestMetricsFilter para ver los contadores abiertos.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    public static final String OPT_IN_HEADER = "X-Server-Timing";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final boolean enabled;
+    private final boolean headerOptIn;
+    private final long slowThresholdNanos;
+
+    public ServerTimingFilter(@Value("${unitasks.server-timing.enabled:false}") boolean enabled,
+            @Value("${unitasks.server-timing.header-opt-in:true}") boolean headerOptIn,
+            @Value("${unitasks.slow-request.threshold:1s}") Duration slowThreshold) {
+        this.enabled = enabled;
+        this.headerOptIn = headerOptIn;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean timed = enabled || (headerOptIn && request.getHeader(OPT_IN_HEADER) != null);
+        ContentCachingResponseWrapper buffered = timed ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            RequestStats stats = RequestStats.current();
+            if (stats != null) {
+                long elapsed = stats.getElapsedNanos();
+                if (buffered != null) {
+                    buffered.setHeader(SERVER_TIMING_HEADER, serverTiming(stats, elapsed));
+                }
+                if (slowThresholdNanos > 0 && elapsed >= slowThresholdNanos) {
+                    logSlowRequest(request, stats, elapsed);
+                }
+            }
+            if (buffered != null) {
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    static String serverTiming(RequestStats stats, long elapsedNanos) {
+        return "auth;dur=" + millis(stats.getAuthNanos())
+                + ", db;dur=" + millis(stats.getDbNanos()) + ";desc=\"" + stats.getStatements() + " sentencias\""
+                + ", service;dur=" + millis(stats.getServiceNanos())
+                + ", serialization;dur=" + millis(stats.getSerializationNanos())
+                + ", total;dur=" + millis(elapsedNanos);
+    }
+
+    private static void logSlowRequest(HttpServletRequest request, RequestStats stats, long elapsedNanos) {
+        StringBuilder sql = new StringBuilder();
+        stats.getSql().getShapes().forEach((shape, count) -> sql.append("\n  ").append(count).append("x ").append(shape));
+        log.warn("Petición lenta {} {}: {} ms (auth {} ms, db {} ms en {} sentencias, servicio {} ms, serialización {} ms){}",
+                request.getMethod(), request.getRequestURI(), millis(elapsedNanos), millis(stats.getAuthNanos()),
+                millis(stats.getDbNanos()), stats.getStatements(), millis(stats.getServiceNanos()),
+                millis(stats.getSerializationNanos()), sql);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,29 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mide el tiempo pasado en la capa de servicios durante una petición HTTP.
+ * Fuera de una petición (arranque, tareas) no hace nada.
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+
+	@Around("within(com.josemiguelhyb.unitasks.service..*) && execution(public * *(..))")
+	public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+		RequestStats stats = RequestStats.current();
+		if (stats == null) {
+			return joinPoint.proceed();
+		}
+		stats.serviceEntered();
+		try {
+			return joinPoint.proceed();
+		} finally {
+			stats.serviceExited();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Comprueba el presupuesto de sentencias SQL de cada petición y de cada
+ * llamada @Transactional. Cuando se supera, o cuando una misma sentencia se
+ * repite demasiadas veces (patrón N+1), deja un aviso en el log con la forma
+ * del SQL culpable y suma en la métrica unitasks.sql.budget.exceeded.
+ *
+ * Pensado para tests y staging (unitasks.sql-budget.enabled=true).
+ */
+@Component
+public class SqlBudgetGuard {
+	private static final Logger log = LoggerFactory.getLogger(SqlBudgetGuard.class);
+
+	private final boolean enabled;
+	private final int maxPerRequest;
+	private final int maxPerTransaction;
+	private final int repeatThreshold;
+	private final Counter requestExceeded;
+	private final Counter transactionExceeded;
+
+	public SqlBudgetGuard(MeterRegistry meterRegistry,
+			@Value("${unitasks.sql-budget.enabled:false}") boolean enabled,
+			@Value("${unitasks.sql-budget.max-per-request:30}") int maxPerRequest,
+			@Value("${unitasks.sql-budget.max-per-transaction:15}") int maxPerTransaction,
+			@Value("${unitasks.sql-budget.repeat-threshold:5}") int repeatThreshold) {
+		this.enabled = enabled;
+		this.maxPerRequest = maxPerRequest;
+		this.maxPerTransaction = maxPerTransaction;
+		this.repeatThreshold = repeatThreshold;
+		this.requestExceeded = exceededCounter(meterRegistry, "request");
+		this.transactionExceeded = exceededCounter(meterRegistry, "transaction");
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void checkRequest(String route, SqlScope scope) {
+		check("petición " + route, scope, maxPerRequest, requestExceeded);
+	}
+
+	public void checkTransaction(String method, SqlScope scope) {
+		check("transacción " + method, scope, maxPerTransaction, transactionExceeded);
+	}
+
+	private void check(String where, SqlScope scope, int budget, Counter exceeded) {
+		if (!enabled) {
+			return;
+		}
+		Map.Entry<String, Integer> repeated = scope.mostRepeatedShape().orElse(null);
+		if (scope.getStatements() > budget) {
+			exceeded.increment();
+			log.warn("Presupuesto SQL superado en {}: {} sentencias (máximo {}). Más repetida ({}x): {}",
+					where, scope.getStatements(), budget,
+					repeated != null ? repeated.getValue() : 0, repeated != null ? repeated.getKey() : "-");
+		} else if (repeated != null && repeated.getValue() >= repeatThreshold) {
+			log.warn("Posible N+1 en {}: la misma sentencia se ejecutó {} veces: {}",
+					where, repeated.getValue(), repeated.getKey());
+		}
+	}
+
+	private static Counter exceededCounter(MeterRegistry meterRegistry, String scope) {
+		return Counter.builder("unitasks.sql.budget.exceeded")
+				.description("Veces que se superó el presupuesto de sentencias SQL")
+				.tag("scope", scope)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,85 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Ámbito en el que se cuentan sentencias SQL: una petición HTTP, una llamada
+ * a un servicio @Transactional o un test anotado con @SqlBudget. Los ámbitos se
+ * anidan por hilo y cada sentencia se suma a todos los abiertos.
+ *
+ * Además del total guarda cuántas veces aparece cada "forma" de SQL (la
+ * sentencia parametrizada), que es lo que delata un N+1. Se guarda el SQL tal
+ * cual y solo se normaliza al consultarlo, para no penalizar cada sentencia.
+ */
+public final class SqlScope {
+
+	private static final ThreadLocal<ArrayDeque<SqlScope>> ACTIVE = ThreadLocal.withInitial(ArrayDeque::new);
+
+	// Límite de formas distintas guardadas por ámbito para acotar memoria
+	private static final int MAX_SHAPES = 64;
+	private static final String OTHER_SHAPES = "<otras sentencias>";
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final Pattern IN_LIST = Pattern.compile("\\(\\?(\\s*,\\s*\\?)+\\)");
+
+	private int statements;
+	private final Map<String, Integer> sqlCounts = new LinkedHashMap<>();
+
+	private SqlScope() {
+	}
+
+	public static SqlScope open() {
+		SqlScope scope = new SqlScope();
+		ACTIVE.get().push(scope);
+		return scope;
+	}
+
+	public void close() {
+		ACTIVE.get().remove(this);
+	}
+
+	// Llamado por SqlStatementInspector con cada sentencia preparada
+	static void record(String sql) {
+		ArrayDeque<SqlScope> scopes = ACTIVE.get();
+		if (scopes.isEmpty()) {
+			return;
+		}
+		for (SqlScope scope : scopes) {
+			scope.add(sql);
+		}
+	}
+
+	private void add(String sql) {
+		statements++;
+		if (sqlCounts.size() >= MAX_SHAPES && !sqlCounts.containsKey(sql)) {
+			sql = OTHER_SHAPES;
+		}
+		sqlCounts.merge(sql, 1, Integer::sum);
+	}
+
+	static String shapeOf(String sql) {
+		String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+		return IN_LIST.matcher(shape).replaceAll("(?, ...)");
+	}
+
+	public int getStatements() {
+		return statements;
+	}
+
+	// Veces que se ejecutó cada forma de SQL (listas IN de distinto tamaño se agrupan)
+	public Map<String, Integer> getShapes() {
+		Map<String, Integer> shapes = new LinkedHashMap<>();
+		sqlCounts.forEach((sql, count) -> shapes.merge(shapeOf(sql), count, Integer::sum));
+		return shapes;
+	}
+
+	// La forma de SQL que más se ha repetido en este ámbito
+	public Optional<Map.Entry<String, Integer>> mostRepeatedShape() {
+		return getShapes().entrySet().stream().max(Comparator.comparingInt(Map.Entry::getValue));
+	}
+}
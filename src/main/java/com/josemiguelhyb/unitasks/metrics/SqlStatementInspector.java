@@ -0,0 +1,18 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hook de Hibernate que ve cada sentencia SQL antes de prepararla. Solo cuenta
+ * (en los SqlScope abiertos en el hilo): devuelve el SQL sin modificar.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public String inspect(String sql) {
+		SqlScope.record(sql);
+		return sql;
+	}
+}
@@ -0,0 +1,48 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Conversor JSON de Spring MVC que suma a la petición en curso el tiempo de
+ * serialización con Jackson. Sustituye al conversor por defecto de Spring
+ * Boot (ver MetricsConfig).
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+	public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+		super(objectMapper);
+	}
+
+	@Override
+	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		timed(() -> super.writeInternal(object, type, outputMessage));
+	}
+
+	// También lo usan los conversores CBOR y Smile
+	static void timed(Serialization serialization) throws IOException {
+		RequestStats stats = RequestStats.current();
+		if (stats == null) {
+			serialization.write();
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			serialization.write();
+		} finally {
+			stats.addSerializationNanos(System.nanoTime() - start);
+		}
+	}
+
+	@FunctionalInterface
+	interface Serialization {
+		void write() throws IOException;
+	}
+}
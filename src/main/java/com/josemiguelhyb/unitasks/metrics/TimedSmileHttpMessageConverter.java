@@ -0,0 +1,28 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Conversor Smile (application/x-jackson-smile) que mide la serialización
+ * como TimedJacksonHttpMessageConverter. Sustituye al de Spring MVC (ver
+ * MetricsConfig).
+ */
+public class TimedSmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+	public TimedSmileHttpMessageConverter(ObjectMapper objectMapper) {
+		super(objectMapper);
+	}
+
+	@Override
+	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		TimedJacksonHttpMessageConverter.timed(() -> super.writeInternal(object, type, outputMessage));
+	}
+}
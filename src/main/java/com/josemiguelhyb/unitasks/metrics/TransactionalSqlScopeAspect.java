@@ -0,0 +1,37 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Abre un SqlScope alrededor de cada método @Transactional de los servicios
+ * para comprobar su presupuesto de sentencias con SqlBudgetGuard.
+ */
+@Aspect
+@Component
+public class TransactionalSqlScopeAspect {
+
+	private final SqlBudgetGuard sqlBudgetGuard;
+
+	public TransactionalSqlScopeAspect(SqlBudgetGuard sqlBudgetGuard) {
+		this.sqlBudgetGuard = sqlBudgetGuard;
+	}
+
+	@Around("within(com.josemiguelhyb.unitasks.service..*) && "
+			+ "(@within(org.springframework.transaction.annotation.Transactional) || "
+			+ "@annotation(org.springframework.transaction.annotation.Transactional))")
+	public Object countStatements(ProceedingJoinPoint joinPoint) throws Throwable {
+		if (!sqlBudgetGuard.isEnabled()) {
+			return joinPoint.proceed();
+		}
+		SqlScope scope = SqlScope.open();
+		try {
+			return joinPoint.proceed();
+		} finally {
+			scope.close();
+			sqlBudgetGuard.checkTransaction(joinPoint.getSignature().toShortString(), scope);
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package com.josemiguelhyb.unitasks.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Forma canónica de los emails: sin espacios alrededor, en NFC y en
+ * minúsculas (Locale.ROOT, así no depende del idioma de la JVM). Es la que se
+ * guarda en users.email y la que se usa para buscar (registro, login, JWT,
+ * búsqueda por email). La migración V3 obliga a que la columna esté en
+ * minúsculas, así que el índice único de email ya no distingue mayúsculas.
+ */
+public final class EmailNormalizer {
+
+	private EmailNormalizer() {
+	}
+
+	public static String normalize(String email) {
+		if (email == null) {
+			return null;
+		}
+		return Normalizer.normalize(email.trim(), Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,26 @@
+package com.josemiguelhyb.unitasks.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Forma canónica de las etiquetas de las tareas: sin espacios alrededor, en
+ * NFC y en minúsculas (Locale.ROOT), como EmailNormalizer. Es la que se guarda
+ * en task_labels y la que se usa al filtrar, así "Examen" y "examen " son la
+ * misma etiqueta.
+ */
+public final class LabelNormalizer {
+
+	// Las etiquetas de un filtro van separadas por comas en la URL
+	public static final char SEPARATOR = ',';
+
+	private LabelNormalizer() {
+	}
+
+	public static String normalize(String label) {
+		if (label == null) {
+			return null;
+		}
+		return Normalizer.normalize(label.trim(), Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+	}
+}
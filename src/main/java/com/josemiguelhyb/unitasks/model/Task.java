@@ -1,14 +1,26 @@
 package com.josemiguelhyb.unitasks.model;
 
 import java.time.LocalDateTime;
+import java.util.SortedSet;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SortNatural;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.josemiguelhyb.unitasks.index.TaskFilterEntityListener;
+import com.josemiguelhyb.unitasks.index.TaskSearchEntityListener;
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -23,6 +35,8 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "tasks")
+@EntityListeners({ TaskSearchEntityListener.class, TaskFilterEntityListener.class })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tasks")
 public class Task {
 
 	@Id
@@ -64,6 +78,21 @@ public class Task {
 	@JoinColumn(name = "user_id", nullable = false)
 	private User user;
 
+	// Etiquetas ("examen", "grupo"...) normalizadas con LabelNormalizer, en
+	// task_labels. Se cargan con la tarea (un JOIN en find, EntityGraph en las
+	// consultas de TaskRepository) y se cachean con ella; la base de datos las
+	// borra en cascada con la tarea, también en los DELETE en bloque. Sin valor
+	// inicial: en el cuerpo de un PUT, null es "no cambiar las etiquetas"
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name = "task_labels", joinColumns = @JoinColumn(name = "task_id"))
+	@Column(name = "label", nullable = false, length = 50)
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	@SortNatural
+	@BatchSize(size = 100)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "task-labels")
+	@Size(max = 20)
+	private SortedSet<String> labels;
+
 	public Task() {
 	}
 
@@ -146,10 +175,18 @@ public class Task {
 		this.user = user;
 	}
 
+	public SortedSet<String> getLabels() {
+		return labels;
+	}
+
+	public void setLabels(SortedSet<String> labels) {
+		this.labels = labels;
+	}
+
 	@Override
 	public String toString() {
 		return "Task [id=" + id + ", title=" + title + ", description=" + description + ", status=" + status
 				+ ", priority=" + priority + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt
-				+ ", dueDate=" + dueDate + ", userId=" + (user != null ? user.getId() : null) + "]";
+				+ ", dueDate=" + dueDate + ", labels=" + labels + ", userId=" + (user != null ? user.getId() : null) + "]";
 	}
 }
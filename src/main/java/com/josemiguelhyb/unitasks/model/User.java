@@ -3,13 +3,20 @@ package com.josemiguelhyb.unitasks.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.josemiguelhyb.unitasks.index.EmailFilterEntityListener;
+import com.josemiguelhyb.unitasks.index.UserSearchEntityListener;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -21,6 +28,11 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "users")
+@EntityListeners({ EmailFilterEntityListener.class, UserSearchEntityListener.class })
+// Caché de segundo nivel: la región "users" y la del email (natural id) están
+// acotadas en tamaño y TTL en CacheConfig
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-email")
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class User {
 
@@ -40,6 +52,7 @@ public class User {
 
 	@NotBlank(message = "El email no puede estar vacío")
 	@Email(message = "Formato de email inválido")
+	@NaturalId(mutable = true) // el email se puede cambiar en updateUser
 	@Column(nullable = false, length = 150, unique = true)
 	private String email;
 
@@ -55,8 +68,10 @@ public class User {
 
 	// Un usuario va a tener una lista de tareas
 	// @JsonIgnore para evitar recursión infinita en la serialización JSON
+	// Sin cascade: al borrar el usuario sus tareas se eliminan con un solo DELETE
+	// (UserService.deleteUser), no cargándolas y borrándolas una a una
 	@JsonIgnore
-	@OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+	@OneToMany(mappedBy = "user")
 	private List<Task> tasks = new ArrayList<>();
 
 	// Constructor sin argumentos es obligatorio para JPA
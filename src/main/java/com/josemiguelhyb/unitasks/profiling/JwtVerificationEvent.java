@@ -0,0 +1,32 @@
+package com.josemiguelhyb.unitasks.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de la verificación de un JWT (firma y búsqueda del usuario).
+ */
+@Name("com.josemiguelhyb.unitasks.JwtVerification")
+@Label("Verificación JWT")
+@Category({ "UniTasks", "Seguridad" })
+@StackTrace(false)
+public class JwtVerificationEvent extends Event {
+
+	@Label("Válido")
+	boolean valid;
+
+	@Label("Usuario")
+	long userId;
+
+	public void commit(boolean valid, long userId) {
+		end();
+		if (shouldCommit()) {
+			this.valid = valid;
+			this.userId = userId;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.josemiguelhyb.unitasks.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de cada operación de BCrypt (encode o matches).
+ */
+@Name("com.josemiguelhyb.unitasks.PasswordHash")
+@Label("BCrypt")
+@Category({ "UniTasks", "Seguridad" })
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+	@Label("Operación")
+	String operation;
+
+	@Label("Usuario")
+	long userId;
+
+	public void commit(String operation, long userId) {
+		end();
+		if (shouldCommit()) {
+			this.operation = operation;
+			this.userId = userId;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package com.josemiguelhyb.unitasks.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR por cada llamada pública a un servicio (TaskService, UserService,
+ * AuthService). Lo emite ServiceCallEventAspect.
+ */
+@Name("com.josemiguelhyb.unitasks.ServiceCall")
+@Label("Llamada a servicio")
+@Category({ "UniTasks", "Servicios" })
+@Description("Llamada a un método público de la capa de servicios")
+@StackTrace(false)
+public class ServiceCallEvent extends Event {
+
+	@Label("Servicio")
+	String service;
+
+	@Label("Método")
+	String method;
+
+	@Label("Usuario autenticado")
+	@Description("ID del usuario de la petición, o -1 fuera de una petición autenticada")
+	long userId;
+
+	@Label("Filas")
+	@Description("Elementos devueltos (colecciones), 1 para una entidad, 0 si no devuelve nada")
+	int rows;
+
+	@Label("Error")
+	boolean failed;
+}
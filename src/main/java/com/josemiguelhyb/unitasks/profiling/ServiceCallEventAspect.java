@@ -0,0 +1,57 @@
+package com.josemiguelhyb.unitasks.profiling;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import com.josemiguelhyb.unitasks.metrics.RequestStats;
+
+/**
+ * Emite un ServiceCallEvent por cada llamada pública a los servicios. Sin
+ * grabación JFR activa isEnabled() devuelve false y la llamada pasa directa:
+ * el coste es crear un objeto que el JIT elimina (ver JfrOverheadBenchmarkTest).
+ */
+@Aspect
+@Component
+public class ServiceCallEventAspect {
+
+	@Around("within(com.josemiguelhyb.unitasks.service..*) && execution(public * *(..))")
+	public Object recordServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+		ServiceCallEvent event = new ServiceCallEvent();
+		if (!event.isEnabled()) {
+			return joinPoint.proceed();
+		}
+		event.begin();
+		Object result = null;
+		boolean failed = true;
+		try {
+			result = joinPoint.proceed();
+			failed = false;
+			return result;
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+				event.method = joinPoint.getSignature().getName();
+				event.userId = RequestStats.currentUserId();
+				event.rows = rows(result);
+				event.failed = failed;
+				event.commit();
+			}
+		}
+	}
+
+	private static int rows(Object result) {
+		if (result instanceof Collection<?> collection) {
+			return collection.size();
+		}
+		if (result instanceof Optional<?> optional) {
+			return optional.isPresent() ? 1 : 0;
+		}
+		return result != null ? 1 : 0;
+	}
+}
@@ -2,12 +2,16 @@ package com.josemiguelhyb.unitasks.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.josemiguelhyb.unitasks.model.Task;
 import com.josemiguelhyb.unitasks.model.TaskStatus;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
     // Por heredar de JpaRepository<Task, Long> ya tienes implementados:
     // - save(entity): inserta/actualiza
@@ -17,15 +21,43 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     // Además soporta paginación, ordenación y consultas derivadas por nombre.
     // Solo declaras firmas adicionales y Spring Data genera las queries (JPQL/SQL)
 
+    // Las consultas que devuelven tareas traen sus etiquetas en el mismo SELECT
+    // (LEFT JOIN task_labels); sin EntityGraph serían un SELECT más por cada
+    // 100 tareas (@BatchSize)
+
     // Obtener todas las tareas de un usuario
+    @EntityGraph(attributePaths = "labels")
     List<Task> findByUserId(Long userId);
 
     // Obtener tareas de un usuario filtradas por estado
+    @EntityGraph(attributePaths = "labels")
     List<Task> findByUserIdAndStatus(Long userId, TaskStatus status);
 
+    // Tareas por id (búsqueda y filtro): los ids salen de los índices en memoria
+    @Override
+    @EntityGraph(attributePaths = "labels")
+    List<Task> findAllById(Iterable<Long> ids);
+
+    // Búsqueda de texto sin el índice en memoria (unitasks.task-search.enabled=false):
+    // recorre las tareas del usuario, las más nuevas primero
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId"
+            + " AND (LOWER(t.title) LIKE :pattern ESCAPE '\\' OR LOWER(t.description) LIKE :pattern ESCAPE '\\')"
+            + " ORDER BY t.id DESC")
+    List<Task> searchByText(@Param("userId") Long userId, @Param("pattern") String pattern, Pageable pageable);
+
+    // Lo mismo, solo los ids: con ?fields= las columnas se leen después (findFieldsByIds)
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId"
+            + " AND (LOWER(t.title) LIKE :pattern ESCAPE '\\' OR LOWER(t.description) LIKE :pattern ESCAPE '\\')"
+            + " ORDER BY t.id DESC")
+    List<Long> searchIdsByText(@Param("userId") Long userId, @Param("pattern") String pattern, Pageable pageable);
+
     // Contar tareas de un usuario
     long countByUserId(Long userId);
 
     // Contar tareas de un usuario por estado
     long countByUserIdAndStatus(Long userId, TaskStatus status);
+
+    // Ids de las primeras tareas de un usuario, para borrarlas por tramos
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId ORDER BY t.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
 }
@@ -0,0 +1,37 @@
+package com.josemiguelhyb.unitasks.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.josemiguelhyb.unitasks.dto.TaskField;
+import com.josemiguelhyb.unitasks.index.TaskFilter;
+import com.josemiguelhyb.unitasks.model.Task;
+
+/**
+ * Consultas de tareas implementadas a mano (fragmento de Spring Data).
+ * Se combinan con las derivadas de TaskRepository.
+ */
+public interface TaskRepositoryCustom {
+
+	// Ids de las limit tareas más nuevas de un usuario que cumplen el filtro,
+	// con un JOIN sobre task_labels por cada criterio de etiquetas. Es lo que
+	// resuelve TaskFilterIndex en memoria; se usa con el índice desactivado
+	List<Long> findIdsByFilter(Long userId, TaskFilter filter, int limit);
+
+	// Tareas de un usuario (en orden de id) o por id con solo los campos pedidos
+	// (?fields=), leídos en un SELECT de esas columnas. Son tareas sin gestionar
+	// y con el resto de campos a null; no pasan por la caché de segundo nivel.
+	// Los campos no pueden incluir TaskField.USER
+	List<Task> findFieldsByUserId(Long userId, Set<TaskField> fields);
+
+	List<Task> findFieldsByIds(Collection<Long> ids, Set<TaskField> fields);
+
+	// Borran tareas con un solo DELETE sobre tasks, sin cargarlas: un usuario
+	// entero o un tramo de ids. Las etiquetas las borra la base de datos (ON
+	// DELETE CASCADE). Vacían antes el contexto de persistencia y Hibernate
+	// invalida las regiones de tareas y etiquetas de la caché de segundo nivel
+	int deleteAllByUserId(Long userId);
+
+	int deleteAllByIdIn(List<Long> ids);
+}
@@ -0,0 +1,149 @@
+package com.josemiguelhyb.unitasks.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.hibernate.query.NativeQuery;
+
+import com.josemiguelhyb.unitasks.dto.TaskField;
+import com.josemiguelhyb.unitasks.index.TaskFilter;
+import com.josemiguelhyb.unitasks.model.Task;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	// Como findSummaries, la consulta se arma solo con los criterios presentes.
+	// Todas las etiquetas: las filas de task_labels de la tarea que están en la
+	// lista tienen que ser tantas como la lista (la clave primaria impide
+	// repetidas). Alguna y ninguna: EXISTS y NOT EXISTS
+	@Override
+	public List<Long> findIdsByFilter(Long userId, TaskFilter filter, int limit) {
+		StringBuilder jpql = new StringBuilder("SELECT t.id FROM Task t WHERE t.user.id = :userId");
+		if (!filter.statuses().isEmpty()) {
+			jpql.append(" AND t.status IN :statuses");
+		}
+		if (!filter.priorities().isEmpty()) {
+			jpql.append(" AND t.priority IN :priorities");
+		}
+		if (!filter.allLabels().isEmpty()) {
+			jpql.append(" AND t.id IN (SELECT x.id FROM Task x JOIN x.labels l"
+					+ " WHERE x.user.id = :userId AND l IN :allLabels GROUP BY x.id HAVING COUNT(*) = :allCount)");
+		}
+		if (!filter.anyLabels().isEmpty()) {
+			jpql.append(" AND EXISTS (SELECT 1 FROM Task x JOIN x.labels l WHERE x = t AND l IN :anyLabels)");
+		}
+		if (!filter.excludedLabels().isEmpty()) {
+			jpql.append(" AND NOT EXISTS (SELECT 1 FROM Task x JOIN x.labels l WHERE x = t AND l IN :excludedLabels)");
+		}
+		jpql.append(" ORDER BY t.id DESC");
+
+		TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class)
+				.setParameter("userId", userId)
+				.setMaxResults(limit);
+		if (!filter.statuses().isEmpty()) {
+			query.setParameter("statuses", filter.statuses());
+		}
+		if (!filter.priorities().isEmpty()) {
+			query.setParameter("priorities", filter.priorities());
+		}
+		if (!filter.allLabels().isEmpty()) {
+			query.setParameter("allLabels", filter.allLabels());
+			query.setParameter("allCount", (long) filter.allLabels().size());
+		}
+		if (!filter.anyLabels().isEmpty()) {
+			query.setParameter("anyLabels", filter.anyLabels());
+		}
+		if (!filter.excludedLabels().isEmpty()) {
+			query.setParameter("excludedLabels", filter.excludedLabels());
+		}
+		return query.getResultList();
+	}
+
+	@Override
+	public List<Task> findFieldsByUserId(Long userId, Set<TaskField> fields) {
+		return findFields("t.user.id = :value", userId, fields);
+	}
+
+	@Override
+	public List<Task> findFieldsByIds(Collection<Long> ids, Set<TaskField> fields) {
+		return findFields("t.id IN :value", ids, fields);
+	}
+
+	@Override
+	public int deleteAllByUserId(Long userId) {
+		return delete("DELETE FROM tasks WHERE user_id = :value", userId);
+	}
+
+	@Override
+	public int deleteAllByIdIn(List<Long> ids) {
+		return delete("DELETE FROM tasks WHERE id IN (:value)", ids);
+	}
+
+	// En SQL y no en JPQL: con @OnDelete Hibernate 6 sigue borrando antes las
+	// filas de task_labels de la colección con un DELETE más. Los espacios
+	// sincronizados limitan la invalidación de la caché a tareas y etiquetas
+	// (una consulta nativa sin ellos vaciaría todas las regiones)
+	private int delete(String sql, Object value) {
+		entityManager.flush();
+		int deleted = entityManager.createNativeQuery(sql)
+				.setParameter("value", value)
+				.unwrap(NativeQuery.class)
+				.addSynchronizedEntityClass(Task.class)
+				.addSynchronizedQuerySpace("task_labels")
+				.executeUpdate();
+		entityManager.clear();
+		return deleted;
+	}
+
+	// Siempre se lee el id, para ordenar y para casar las etiquetas; las
+	// etiquetas, si se piden, con una segunda consulta con el mismo WHERE (no
+	// un JOIN, que repetiría cada fila por cada etiqueta)
+	private List<Task> findFields(String where, Object value, Set<TaskField> fields) {
+		List<TaskField> columns = new ArrayList<>();
+		StringBuilder jpql = new StringBuilder("SELECT t.id");
+		for (TaskField field : fields) {
+			if (field.path() != null && field != TaskField.ID) {
+				columns.add(field);
+				jpql.append(", ").append(field.path());
+			}
+		}
+		jpql.append(" FROM Task t WHERE ").append(where).append(" ORDER BY t.id");
+
+		Map<Long, Task> tasks = new LinkedHashMap<>();
+		for (Object[] row : entityManager.createQuery(jpql.toString(), Object[].class)
+				.setParameter("value", value)
+				.getResultList()) {
+			Task task = new Task();
+			task.setId((Long) row[0]);
+			for (int i = 0; i < columns.size(); i++) {
+				columns.get(i).set(task, row[i + 1]);
+			}
+			tasks.put(task.getId(), task);
+		}
+
+		if (fields.contains(TaskField.LABELS) && !tasks.isEmpty()) {
+			tasks.values().forEach(task -> task.setLabels(new TreeSet<>()));
+			for (Object[] row : entityManager
+					.createQuery("SELECT t.id, l FROM Task t JOIN t.labels l WHERE " + where, Object[].class)
+					.setParameter("value", value)
+					.getResultList()) {
+				Task task = tasks.get((Long) row[0]);
+				if (task != null) {
+					task.getLabels().add((String) row[1]);
+				}
+			}
+		}
+		return new ArrayList<>(tasks.values());
+	}
+}
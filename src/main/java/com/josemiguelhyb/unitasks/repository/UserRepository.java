@@ -1,12 +1,18 @@
 package com.josemiguelhyb.unitasks.repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.josemiguelhyb.unitasks.dto.LeaderboardEntry;
+import com.josemiguelhyb.unitasks.dto.UserSummary;
 import com.josemiguelhyb.unitasks.model.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
 	// Por heredar de JpaRepository<User, Long> ya tienes implementados:
 	// - save(entity): inserta/actualiza
@@ -18,8 +24,38 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	// (JPQL/SQL) automáticamente.
 	// Ejemplo: findByEmail o existsByEmail se traducen a SELECT ... WHERE email = ?
 	// sin escribir SQL.
+	// findByEmail se implementa en UserRepositoryCustomImpl (natural id + caché).
 
-	Optional<User> findByEmail(String email);	
+	// Listado completo del modo compatible de GET /api/users: la misma proyección
+	// que findSummaries, sin paginar
+	@Query("SELECT new com.josemiguelhyb.unitasks.dto.UserSummary(u.id, u.name, u.lastname, u.email, u.active) FROM User u ORDER BY u.id")
+	List<UserSummary> findAllSummaries();
 
-	boolean existsByEmail(String email);
+	// Resultados de GET /api/users/search: el índice en memoria da los ids y se
+	// cargan en una sola consulta por clave primaria (el orden lo pone el servicio)
+	@Query("SELECT new com.josemiguelhyb.unitasks.dto.UserSummary(u.id, u.name, u.lastname, u.email, u.active) FROM User u WHERE u.id IN :ids")
+	List<UserSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+	// Tabla de clasificación en una sola consulta agregada (antes eran 5 COUNT
+	// por usuario). Solo usuarios activos, ordenados por tareas DONE.
+	@Query("""
+			SELECT new com.josemiguelhyb.unitasks.dto.LeaderboardEntry(
+				u.id, u.name, u.lastname, u.email,
+				COUNT(t),
+				SUM(CASE WHEN t.status = com.josemiguelhyb.unitasks.model.TaskStatus.PENDING THEN 1L ELSE 0L END),
+				SUM(CASE WHEN t.status = com.josemiguelhyb.unitasks.model.TaskStatus.IN_PROGRESS THEN 1L ELSE 0L END),
+				SUM(CASE WHEN t.status = com.josemiguelhyb.unitasks.model.TaskStatus.DONE THEN 1L ELSE 0L END),
+				SUM(CASE WHEN t.status = com.josemiguelhyb.unitasks.model.TaskStatus.EXPIRED THEN 1L ELSE 0L END))
+			FROM User u LEFT JOIN u.tasks t
+			WHERE u.active = true
+			GROUP BY u.id, u.name, u.lastname, u.email
+			ORDER BY SUM(CASE WHEN t.status = com.josemiguelhyb.unitasks.model.TaskStatus.DONE THEN 1L ELSE 0L END) DESC, u.id
+			""")
+	List<LeaderboardEntry> findLeaderboard();
+
+	// DELETE directo, sin cargar el usuario ni sus tareas (van antes: clave
+	// foránea). Devuelve 0 si no existía. No pasa por EmailFilterEntityListener
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM User u WHERE u.id = :id")
+	int deleteInBulkById(@Param("id") Long id);
 }
@@ -0,0 +1,29 @@
+package com.josemiguelhyb.unitasks.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.josemiguelhyb.unitasks.dto.UserSummary;
+import com.josemiguelhyb.unitasks.model.User;
+
+/**
+ * Consultas de usuarios implementadas a mano (fragmento de Spring Data).
+ * Se combinan con las derivadas de UserRepository.
+ */
+public interface UserRepositoryCustom {
+
+	// Búsqueda por email usando el natural id de Hibernate: pasa por la caché de
+	// segundo nivel ("users-email" + "users") en lugar de lanzar siempre un SELECT.
+	// Es la de la autenticación (login, JwtAuthenticationFilter, usuario actual)
+	Optional<User> findByEmail(String email);
+
+	// Como findByEmail, pero si EmailExistenceFilter dice que el email no existe
+	// no consulta la base de datos. El filtro puede tardar en ver un alta de
+	// otra instancia o hecha por JDBC, así que nunca se usa para autenticar
+	Optional<User> findByEmailUnlessAbsent(String email);
+
+	// Página del directorio de usuarios por clave: los limit siguientes a afterId
+	// (null = desde el principio) en orden de id, con filtros opcionales por
+	// estado y por prefijo del nombre (sin distinguir mayúsculas)
+	List<UserSummary> findSummaries(Long afterId, Boolean active, String namePrefix, int limit);
+}
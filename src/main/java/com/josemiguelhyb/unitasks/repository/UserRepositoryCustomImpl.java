@@ -0,0 +1,96 @@
+package com.josemiguelhyb.unitasks.repository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.josemiguelhyb.unitasks.dto.UserSummary;
+import com.josemiguelhyb.unitasks.index.EmailExistenceFilter;
+import com.josemiguelhyb.unitasks.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final EmailExistenceFilter emailFilter;
+	private final TransactionTemplate readOnly;
+
+	UserRepositoryCustomImpl(EmailExistenceFilter emailFilter, PlatformTransactionManager transactionManager) {
+		this.emailFilter = emailFilter;
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+	}
+
+	// La transacción evita que la Session se cierre antes de devolver el usuario
+	// cuando se llama fuera de un servicio (p. ej. desde JwtAuthenticationFilter)
+	@Override
+	public Optional<User> findByEmail(String email) {
+		return readOnly.execute(status -> entityManager.unwrap(Session.class)
+				.bySimpleNaturalId(User.class)
+				.loadOptional(email));
+	}
+
+	// El filtro de emails se consulta antes de abrir la transacción: un email que
+	// seguro que no existe no llega a pedir conexión al pool
+	@Override
+	public Optional<User> findByEmailUnlessAbsent(String email) {
+		if (!emailFilter.mightExist(email)) {
+			return Optional.empty();
+		}
+		Optional<User> user = findByEmail(email);
+		if (user.isEmpty()) {
+			emailFilter.falsePositive();
+		}
+		return user;
+	}
+
+	// La consulta se arma solo con los filtros presentes: un "(:p IS NULL OR ...)"
+	// impediría al planificador usar la clave primaria para el rango de ids
+	@Override
+	public List<UserSummary> findSummaries(Long afterId, Boolean active, String namePrefix, int limit) {
+		StringBuilder jpql = new StringBuilder(
+				"SELECT new com.josemiguelhyb.unitasks.dto.UserSummary(u.id, u.name, u.lastname, u.email, u.active)"
+						+ " FROM User u WHERE 1 = 1");
+		if (afterId != null) {
+			jpql.append(" AND u.id > :afterId");
+		}
+		if (active != null) {
+			jpql.append(" AND u.active = :active");
+		}
+		if (namePrefix != null) {
+			jpql.append(" AND LOWER(u.name) LIKE :namePrefix ESCAPE '\\'");
+		}
+		jpql.append(" ORDER BY u.id");
+
+		TypedQuery<UserSummary> query = entityManager.createQuery(jpql.toString(), UserSummary.class)
+				.setMaxResults(limit);
+		if (afterId != null) {
+			query.setParameter("afterId", afterId);
+		}
+		if (active != null) {
+			query.setParameter("active", active);
+		}
+		if (namePrefix != null) {
+			query.setParameter("namePrefix", likePrefix(namePrefix));
+		}
+		return query.getResultList();
+	}
+
+	// Escapa los comodines de LIKE para que el prefijo se compare literalmente
+	private static String likePrefix(String prefix) {
+		String escaped = prefix.toLowerCase(Locale.ROOT)
+				.replace("\\", "\\\\")
+				.replace("%", "\\%")
+				.replace("_", "\\_");
+		return escaped + "%";
+	}
+}
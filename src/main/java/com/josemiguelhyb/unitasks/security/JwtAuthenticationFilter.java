@@ -1,11 +1,15 @@
 package com.josemiguelhyb.unitasks.security;
 
+import com.josemiguelhyb.unitasks.metrics.RequestStats;
+import com.josemiguelhyb.unitasks.model.EmailNormalizer;
 import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.profiling.JwtVerificationEvent;
 import com.josemiguelhyb.unitasks.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -13,18 +17,39 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+    private final Set<String> adminEmails;
+
+    private static final List<SimpleGrantedAuthority> USER_AUTHORITIES = Collections
+            .singletonList(new SimpleGrantedAuthority("ROLE_USER"));
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${unitasks.admin.emails:}") List<String> adminEmails) {
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+        this.adminEmails = adminEmails.stream()
+                .map(EmailNormalizer::normalize)
+                .filter(adminEmail -> !adminEmail.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.validTokenTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = verificationTimer(meterRegistry, "invalid");
     }
 
     @Override
@@ -43,9 +68,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extraer el token (quitar "Bearer ")
         final String token = authHeader.substring(7);
 
+        // Tiempo de verificación del JWT (firma + búsqueda del usuario)
+        Timer.Sample sample = Timer.start(meterRegistry);
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        boolean authenticated = false;
+        long userId = -1;
         try {
-            // Extraer email del token
-            final String email = jwtUtil.extractEmail(token);
+            // Extraer email del token (los tokens anteriores a la normalización
+            // pueden traerlo con mayúsculas: se busca por la forma canónica)
+            final String tokenEmail = jwtUtil.extractEmail(token);
+            final String email = EmailNormalizer.normalize(tokenEmail);
 
             // Si hay email y no hay autenticación previa en el contexto
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -54,25 +87,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 User user = userRepository.findByEmail(email).orElse(null);
 
                 // Validar token
-                if (user != null && jwtUtil.validateToken(token, email)) {
+                if (user != null && jwtUtil.validateToken(token, tokenEmail)) {
 
                     // Crear autenticación
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             email,
                             null,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+                            authorities(email));
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     // Establecer autenticación en el contexto de seguridad
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    authenticated = true;
+                    userId = user.getId();
+                    RequestStats.setUserId(userId);
                 }
             }
         } catch (Exception e) {
             // Token inválido - continuar sin autenticar
             logger.error("Error validando JWT: " + e.getMessage());
+        } finally {
+            RequestStats.addAuthNanos(sample.stop(authenticated ? validTokenTimer : invalidTokenTimer));
+            event.commit(authenticated, userId);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    // ROLE_ADMIN para los emails de unitasks.admin.emails
+    private List<SimpleGrantedAuthority> authorities(String email) {
+        if (adminEmails.contains(email)) {
+            return List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
+        return USER_AUTHORITIES;
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("unitasks.jwt.verification")
+                .description("Tiempo de verificación del JWT")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,62 @@
+package com.josemiguelhyb.unitasks.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.josemiguelhyb.unitasks.metrics.RequestStats;
+import com.josemiguelhyb.unitasks.profiling.PasswordHashEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * PasswordEncoder que mide cuánto tarda BCrypt en cifrar y comprobar
+ * contraseñas (métrica unitasks.bcrypt, etiqueta operation=encode|matches) y
+ * emite un PasswordHashEvent de JFR por operación.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try {
+            return encodeTimer.record(() -> delegate.encode(rawPassword));
+        } finally {
+            event.commit("encode", RequestStats.currentUserId());
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try {
+            return matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        } finally {
+            event.commit("matches", RequestStats.currentUserId());
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("unitasks.bcrypt")
+                .description("Tiempo de BCrypt")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
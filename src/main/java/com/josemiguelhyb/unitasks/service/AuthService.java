@@ -3,44 +3,49 @@ package com.josemiguelhyb.unitasks.service;
 import com.josemiguelhyb.unitasks.dto.AuthResponse;
 import com.josemiguelhyb.unitasks.dto.LoginRequest;
 import com.josemiguelhyb.unitasks.dto.RegisterRequest;
+import com.josemiguelhyb.unitasks.exception.EmailAlreadyExistsException;
+import com.josemiguelhyb.unitasks.model.EmailNormalizer;
 import com.josemiguelhyb.unitasks.model.User;
 import com.josemiguelhyb.unitasks.repository.UserRepository;
 import com.josemiguelhyb.unitasks.security.JwtUtil;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthService(UserRepository userRepository, UserService userService, PasswordEncoder passwordEncoder,
+            JwtUtil jwtUtil) {
         this.userRepository = userRepository;
+        this.userService = userService;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
     }
 
     /**
-     * Registra un nuevo usuario en el sistema
+     * Registra un nuevo usuario en el sistema. El alta es la de
+     * UserService.createUser: email normalizado y un solo INSERT.
+     * 
+     * @throws EmailAlreadyExistsException si el email ya está registrado
      */
+    @Transactional
     public AuthResponse register(RegisterRequest request) {
-        // Verificar si el email ya existe
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("El email ya está registrado");
-        }
-
         // Crear nuevo usuario
         User user = new User();
         user.setName(request.getName());
         user.setLastname(request.getLastname());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(request.getPassword());
         user.setActive(true);
 
-        // Guardar en base de datos
-        userRepository.save(user);
+        // Guardar en base de datos (cifra la contraseña e invalida cachés)
+        userService.createUser(user);
 
         // Generar token JWT
         String token = jwtUtil.generateToken(user.getEmail());
@@ -54,7 +59,7 @@ public class AuthService {
      */
     public AuthResponse login(LoginRequest request) {
         // Buscar usuario por email
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userRepository.findByEmail(EmailNormalizer.normalize(request.getEmail()))
                 .orElseThrow(() -> new RuntimeException("Credenciales inválidas"));
 
         // Verificar contraseña
@@ -78,7 +83,7 @@ public class AuthService {
      * Obtiene el usuario actual a partir del email del token
      */
     public User getCurrentUser(String email) {
-        return userRepository.findByEmail(email)
+        return userRepository.findByEmail(EmailNormalizer.normalize(email))
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
     }
 }
@@ -0,0 +1,114 @@
+package com.josemiguelhyb.unitasks.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.josemiguelhyb.unitasks.dto.ProfilingStatus;
+import com.josemiguelhyb.unitasks.profiling.JwtVerificationEvent;
+import com.josemiguelhyb.unitasks.profiling.PasswordHashEvent;
+import com.josemiguelhyb.unitasks.profiling.ServiceCallEvent;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Grabaciones JFR bajo demanda (endpoint de administración). Solo puede haber
+ * una a la vez y siempre está acotada en duración y tamaño: si nadie la
+ * detiene, JFR la para sola al cumplir unitasks.profiling.max-duration.
+ */
+@Service
+public class ProfilingService {
+    private static final Logger log = LoggerFactory.getLogger(ProfilingService.class);
+
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+
+    private Recording recording;
+    private Instant startedAt;
+    private Duration duration;
+
+    public ProfilingService(@Value("${unitasks.profiling.max-duration:5m}") Duration maxDuration,
+            @Value("${unitasks.profiling.max-size:100MB}") DataSize maxSize) {
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Inicia una grabación con la configuración "profile" de JFR más los
+     * eventos propios de UniTasks.
+     *
+     * @param requested Duración pedida; se limita a unitasks.profiling.max-duration
+     * @return false si ya había una grabación en curso
+     */
+    public synchronized boolean start(Duration requested) {
+        if (recording != null) {
+            return false;
+        }
+        duration = requested == null || requested.isNegative() || requested.isZero()
+                || requested.compareTo(maxDuration) > 0 ? maxDuration : requested;
+
+        Recording newRecording;
+        try {
+            newRecording = new Recording(Configuration.getConfiguration("profile"));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("No se pudo cargar la configuración JFR 'profile'", e);
+        }
+        newRecording.setName("unitasks-profiling");
+        newRecording.enable(ServiceCallEvent.class);
+        newRecording.enable(JwtVerificationEvent.class);
+        newRecording.enable(PasswordHashEvent.class);
+        newRecording.setDuration(duration);
+        newRecording.setMaxSize(maxSize.toBytes());
+        newRecording.setToDisk(true);
+        newRecording.start();
+
+        recording = newRecording;
+        startedAt = Instant.now();
+        log.info("Grabación JFR iniciada ({} s, máximo {})", duration.toSeconds(), maxSize);
+        return true;
+    }
+
+    /**
+     * Detiene la grabación (si JFR no la paró ya) y la vuelca a un fichero
+     * temporal que el llamante debe borrar.
+     *
+     * @return El fichero .jfr, o vacío si no había grabación
+     */
+    public synchronized Optional<Path> stop() throws IOException {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile("unitasks-", ".jfr");
+            recording.dump(file);
+            log.info("Grabación JFR detenida ({} bytes)", Files.size(file));
+            return Optional.of(file);
+        } finally {
+            recording.close();
+            recording = null;
+            startedAt = null;
+            duration = null;
+        }
+    }
+
+    public synchronized ProfilingStatus getStatus() {
+        boolean active = recording != null && recording.getState() == RecordingState.RUNNING;
+        return new ProfilingStatus(active, startedAt, duration != null ? duration.toSeconds() : null,
+                maxSize.toBytes());
+    }
+}
@@ -1,16 +1,34 @@
 package com.josemiguelhyb.unitasks.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.josemiguelhyb.unitasks.cache.CacheInvalidationPublisher;
+import com.josemiguelhyb.unitasks.dto.TaskField;
 import com.josemiguelhyb.unitasks.exception.InvalidTaskDataException;
 import com.josemiguelhyb.unitasks.exception.TaskNotFoundException;
 import com.josemiguelhyb.unitasks.exception.UserNotFoundException;
+import com.josemiguelhyb.unitasks.index.TaskFilter;
+import com.josemiguelhyb.unitasks.index.TaskFilterIndex;
+import com.josemiguelhyb.unitasks.index.TaskSearchIndex;
+import com.josemiguelhyb.unitasks.model.LabelNormalizer;
 import com.josemiguelhyb.unitasks.model.Task;
 import com.josemiguelhyb.unitasks.model.TaskPriority;
 import com.josemiguelhyb.unitasks.model.TaskStatus;
@@ -22,12 +40,39 @@ import com.josemiguelhyb.unitasks.repository.UserRepository;
 public class TaskService {
     private static final Logger log = LoggerFactory.getLogger(TaskService.class);
 
+    // Límites de las etiquetas de una tarea (columna task_labels.label)
+    private static final int MAX_LABELS = 20;
+    private static final int MAX_LABEL_LENGTH = 50;
+
+    // Tareas por petición en POST /api/tasks/batch
+    public static final int MAX_BATCH = 500;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskFilterIndex taskFilterIndex;
+    private final int defaultSearchLimit;
+    private final int maxSearchLimit;
+    private final int defaultFilterLimit;
+    private final int maxFilterLimit;
 
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository) {
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository,
+            CacheInvalidationPublisher cacheInvalidationPublisher, TaskSearchIndex taskSearchIndex,
+            TaskFilterIndex taskFilterIndex,
+            @Value("${unitasks.task-search.default-limit:20}") int defaultSearchLimit,
+            @Value("${unitasks.task-search.max-limit:100}") int maxSearchLimit,
+            @Value("${unitasks.task-filter.default-limit:50}") int defaultFilterLimit,
+            @Value("${unitasks.task-filter.max-limit:200}") int maxFilterLimit) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskFilterIndex = taskFilterIndex;
+        this.defaultSearchLimit = defaultSearchLimit;
+        this.maxSearchLimit = maxSearchLimit;
+        this.defaultFilterLimit = defaultFilterLimit;
+        this.maxFilterLimit = maxFilterLimit;
     }
 
     /**
@@ -36,10 +81,11 @@ public class TaskService {
      * 
      * @param userId El ID del usuario dueño de la tarea
      * @param task   El objeto Task con los datos de la nueva tarea (title,
-     *               description, status, priority, dueDate)
+     *               description, status, priority, dueDate, labels)
      * @return La tarea creada con su ID asignado automáticamente
      * @throws UserNotFoundException    si el usuario no existe
-     * @throws InvalidTaskDataException si el título está vacío
+     * @throws InvalidTaskDataException si el título está vacío o alguna
+     *                                  etiqueta no es válida
      */
     @Transactional
     public Task createTask(Long userId, Task task) {
@@ -50,7 +96,50 @@ public class TaskService {
         User owner = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
 
-        // Normalizar y defaults
+        prepareNewTask(task, owner);
+
+        // Persistir
+        Task saved = taskRepository.save(task);
+        cacheInvalidationPublisher.taskChanged(saved.getId());
+        log.info("Tarea creada exitosamente id={}, userId={}", saved.getId(), userId);
+        return saved;
+    }
+
+    /**
+     * Crea varias tareas para un usuario en una sola transacción: o se crean
+     * todas o ninguna. Cada tarea se valida y normaliza como en createTask.
+     * 
+     * @param userId El ID del usuario dueño de las tareas
+     * @param tasks  Las tareas a crear (como mucho MAX_BATCH)
+     * @return Las tareas creadas, en el mismo orden
+     * @throws UserNotFoundException    si el usuario no existe
+     * @throws InvalidTaskDataException si la lista está vacía o es demasiado
+     *                                  larga, o si alguna tarea no es válida
+     */
+    @Transactional
+    public List<Task> createTasks(Long userId, List<Task> tasks) {
+        if (tasks == null || tasks.isEmpty()) {
+            throw new InvalidTaskDataException("La lista de tareas está vacía");
+        }
+        if (tasks.size() > MAX_BATCH) {
+            throw new InvalidTaskDataException("Como mucho " + MAX_BATCH + " tareas por petición");
+        }
+        log.info("Creando {} tareas para userId={}", tasks.size(), userId);
+
+        User owner = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+        for (Task task : tasks) {
+            prepareNewTask(task, owner);
+        }
+
+        List<Task> saved = taskRepository.saveAll(tasks);
+        saved.forEach(task -> cacheInvalidationPublisher.taskChanged(task.getId()));
+        log.info("{} tareas creadas para userId={}", saved.size(), userId);
+        return saved;
+    }
+
+    // Normalizar, valores por defecto y el dueño gestionado por JPA
+    private static void prepareNewTask(Task task, User owner) {
         if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
             throw new InvalidTaskDataException("El título de la tarea es obligatorio");
         }
@@ -62,14 +151,8 @@ public class TaskService {
         if (task.getPriority() == null) {
             task.setPriority(TaskPriority.MEDIUM);
         }
-
-        // Asignar el dueño gestionado por JPA
+        task.setLabels(normalizeLabels(task.getLabels()));
         task.setUser(owner);
-
-        // Persistir
-        Task saved = taskRepository.save(task);
-        log.info("Tarea creada exitosamente id={}, userId={}", saved.getId(), userId);
-        return saved;
     }
 
     /**
@@ -98,7 +181,8 @@ public class TaskService {
 
     /**
      * Actualiza los datos de una tarea existente (title, description, status,
-     * priority, dueDate).
+     * priority, dueDate, labels). Las etiquetas, si vienen, sustituyen a las
+     * que tenía.
      * No cambia el usuario dueño.
      * 
      * @param taskId      El ID de la tarea a actualizar
@@ -133,10 +217,21 @@ public class TaskService {
         if (updatedTask.getDueDate() != null) {
             existingTask.setDueDate(updatedTask.getDueDate());
         }
+        if (updatedTask.getLabels() != null) {
+            SortedSet<String> labels = normalizeLabels(updatedTask.getLabels());
+            if (!labels.equals(existingTask.getLabels())) {
+                existingTask.getLabels().clear();
+                existingTask.getLabels().addAll(labels);
+                // Cambiar solo la colección no toca la fila de tasks: sin esto no
+                // habría UPDATE ni @PostUpdate para TaskFilterIndex
+                existingTask.setUpdatedAt(LocalDateTime.now());
+            }
+        }
 
         // NO cambiar el usuario dueño en una actualización normal
 
         Task saved = taskRepository.save(existingTask);
+        cacheInvalidationPublisher.taskChanged(taskId);
         log.info("Tarea actualizada exitosamente con ID: {}", saved.getId());
         return saved;
     }
@@ -157,6 +252,7 @@ public class TaskService {
         }
 
         taskRepository.deleteById(taskId);
+        cacheInvalidationPublisher.taskChanged(taskId);
         log.info("Tarea eliminada exitosamente con ID: {}", taskId);
     }
 
@@ -168,10 +264,178 @@ public class TaskService {
      */
     @Transactional(readOnly = true)
     public List<Task> getTasksByUserId(Long userId) {
+        return getTasksByUserId(userId, Set.of());
+    }
+
+    /**
+     * Obtiene las tareas de un usuario leyendo solo los campos indicados
+     * (?fields=). Las tareas devueltas no están gestionadas y tienen a null
+     * los campos no pedidos; sin campos, o si se pide user, se cargan enteras.
+     * 
+     * @param userId El ID del usuario
+     * @param fields Campos a leer (vacío = todos)
+     * @return Lista de tareas del usuario
+     */
+    @Transactional(readOnly = true)
+    public List<Task> getTasksByUserId(Long userId, Set<TaskField> fields) {
         log.info("Obteniendo tareas del usuario con ID: {}", userId);
+        if (projects(fields)) {
+            return taskRepository.findFieldsByUserId(userId, fields);
+        }
         return taskRepository.findByUserId(userId);
     }
 
+    /**
+     * Busca en el título y la descripción de las tareas de un usuario. Cada
+     * palabra de la consulta debe aparecer (o ser el comienzo de una palabra),
+     * sin distinguir mayúsculas ni tildes; las más relevantes primero (ver
+     * TaskTextIndex). Los ids salen del índice en memoria del usuario y las
+     * tareas de una sola consulta por clave primaria. Con el índice
+     * desactivado se busca la primera palabra con LIKE.
+     * 
+     * @param userId El ID del usuario
+     * @param query  Palabras a buscar
+     * @param limit  Número máximo de resultados (null = por defecto; se acota a
+     *               unitasks.task-search.max-limit)
+     * @return Las tareas encontradas, la más relevante primero
+     */
+    @Transactional(readOnly = true)
+    public List<Task> searchTasks(Long userId, String query, Integer limit) {
+        return searchTasks(userId, query, limit, Set.of());
+    }
+
+    /**
+     * Como searchTasks(userId, query, limit), leyendo de las tareas encontradas
+     * solo los campos indicados (ver getTasksByUserId(Long, Set)), también sin
+     * el índice en memoria.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> searchTasks(Long userId, String query, Integer limit, Set<TaskField> fields) {
+        int max = limit == null ? defaultSearchLimit : Math.max(1, Math.min(limit, maxSearchLimit));
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        log.info("Buscando tareas del usuario {} con '{}'", userId, query);
+
+        Optional<List<Long>> ids = taskSearchIndex.search(userId, query, max);
+        if (ids.isEmpty()) {
+            String pattern = containsPattern(query.trim().split("\\s+")[0]);
+            if (projects(fields)) {
+                // Primero los ids y después solo las columnas pedidas
+                return findAllInOrder(taskRepository.searchIdsByText(userId, pattern, PageRequest.of(0, max)), fields);
+            }
+            return taskRepository.searchByText(userId, pattern, PageRequest.of(0, max));
+        }
+        // IN no conserva el orden: se devuelve el de relevancia
+        return findAllInOrder(ids.get(), fields);
+    }
+
+    /**
+     * Filtra las tareas de un usuario por etiquetas (todas, alguna, ninguna),
+     * estados y prioridades. Los ids salen del índice de bitmaps en memoria del
+     * usuario (TaskFilterIndex) y las tareas de una sola consulta por clave
+     * primaria. Con el índice desactivado se filtra en SQL con task_labels.
+     * 
+     * @param userId El ID del usuario
+     * @param filter Criterios; las etiquetas se normalizan y las vacías se
+     *               ignoran
+     * @param limit  Número máximo de resultados (null = por defecto; se acota a
+     *               unitasks.task-filter.max-limit)
+     * @return Las tareas que cumplen el filtro, la más nueva primero
+     */
+    @Transactional(readOnly = true)
+    public List<Task> filterTasks(Long userId, TaskFilter filter, Integer limit) {
+        return filterTasks(userId, filter, limit, Set.of());
+    }
+
+    /**
+     * Como filterTasks(userId, filter, limit), leyendo de las tareas que
+     * cumplen el filtro solo los campos indicados (ver
+     * getTasksByUserId(Long, Set)).
+     */
+    @Transactional(readOnly = true)
+    public List<Task> filterTasks(Long userId, TaskFilter filter, Integer limit, Set<TaskField> fields) {
+        int max = limit == null ? defaultFilterLimit : Math.max(1, Math.min(limit, maxFilterLimit));
+        TaskFilter normalized = new TaskFilter(filterLabels(filter.allLabels()), filterLabels(filter.anyLabels()),
+                filterLabels(filter.excludedLabels()), filter.statuses(), filter.priorities());
+        log.info("Filtrando tareas del usuario {} con {}", userId, normalized);
+
+        List<Long> ids = taskFilterIndex.filter(userId, normalized, max)
+                .orElseGet(() -> taskRepository.findIdsByFilter(userId, normalized, max));
+        return findAllInOrder(ids, fields);
+    }
+
+    // Las tareas de los ids en una consulta, en el orden de los ids. Una tarea
+    // borrada justo ahora puede no estar, y simplemente no aparece
+    private List<Task> findAllInOrder(List<Long> ids, Set<TaskField> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Task> found = projects(fields)
+                ? taskRepository.findFieldsByIds(ids, fields)
+                : taskRepository.findAllById(ids);
+        Map<Long, Task> byId = found.stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> tasks = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            Task task = byId.get(id);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    // Solo se leen las columnas pedidas si no hace falta la tarea entera: el
+    // usuario dueño sale de la entidad gestionada
+    private static boolean projects(Set<TaskField> fields) {
+        return !fields.isEmpty() && !fields.contains(TaskField.USER);
+    }
+
+    // Etiquetas de una tarea en su forma canónica, sin repetir
+    private static SortedSet<String> normalizeLabels(Collection<String> labels) {
+        SortedSet<String> normalized = new TreeSet<>();
+        if (labels == null) {
+            return normalized;
+        }
+        for (String label : labels) {
+            String value = LabelNormalizer.normalize(label);
+            if (value == null || value.isEmpty()) {
+                throw new InvalidTaskDataException("Las etiquetas no pueden estar vacías");
+            }
+            if (value.length() > MAX_LABEL_LENGTH || value.indexOf(LabelNormalizer.SEPARATOR) >= 0) {
+                throw new InvalidTaskDataException("Etiqueta no válida (máximo " + MAX_LABEL_LENGTH
+                        + " caracteres, sin comas): " + label);
+            }
+            normalized.add(value);
+        }
+        if (normalized.size() > MAX_LABELS) {
+            throw new InvalidTaskDataException("Una tarea admite como mucho " + MAX_LABELS + " etiquetas");
+        }
+        return normalized;
+    }
+
+    // Etiquetas de un filtro: las vacías (p. ej. "exam,") no cuentan
+    private static Set<String> filterLabels(Collection<String> labels) {
+        Set<String> normalized = new TreeSet<>();
+        for (String label : labels) {
+            String value = LabelNormalizer.normalize(label);
+            if (value != null && !value.isEmpty()) {
+                normalized.add(value);
+            }
+        }
+        return normalized;
+    }
+
+    // Escapa los comodines de LIKE para que la palabra se compare literalmente
+    private static String containsPattern(String word) {
+        String escaped = word.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
     /**
      * Obtiene tareas de un usuario filtradas por estado.
      * 
@@ -206,6 +470,7 @@ public class TaskService {
 
         task.setStatus(newStatus);
         Task saved = taskRepository.save(task);
+        cacheInvalidationPublisher.taskChanged(taskId);
         log.info("Estado de tarea {} actualizado a {}", taskId, newStatus);
         return saved;
     }
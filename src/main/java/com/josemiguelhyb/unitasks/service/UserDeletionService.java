@@ -0,0 +1,115 @@
+package com.josemiguelhyb.unitasks.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.josemiguelhyb.unitasks.exception.UserNotFoundException;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+
+/**
+ * Borrado en segundo plano de usuarios con muchas tareas. Un solo DELETE de
+ * decenas de miles de filas bloquea la tabla de tareas durante segundos; aquí
+ * se borran en tramos de unitasks.users.delete.chunk-size tareas, cada uno en
+ * su propia transacción corta, y al final UserService.deleteUser elimina las
+ * que queden y el usuario.
+ *
+ * Las eliminaciones se hacen de una en una en un único hilo, para no competir
+ * con las peticiones por la base de datos.
+ */
+@Service
+public class UserDeletionService implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(UserDeletionService.class);
+
+    private final TaskRepository taskRepository;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Usuarios con un borrado pendiente o en curso
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    public UserDeletionService(TaskRepository taskRepository, UserService userService,
+            PlatformTransactionManager transactionManager,
+            @Value("${unitasks.users.delete.chunk-size:1000}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.userService = userService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Desactiva el usuario (deja de poder iniciar sesión) y programa su
+     * eliminación. Si ya había una pendiente no se programa otra.
+     *
+     * @param id El ID del usuario a eliminar
+     * @throws UserNotFoundException si el usuario no existe
+     */
+    public void deleteUserAsync(Long id) {
+        userService.deactivateUser(id);
+        if (!pending.add(id)) {
+            log.info("El usuario con ID {} ya tiene una eliminación en curso", id);
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                purge(id);
+            } finally {
+                pending.remove(id);
+            }
+        });
+        log.info("Eliminación en segundo plano programada para el usuario con ID: {}", id);
+    }
+
+    /**
+     * Indica si el usuario tiene una eliminación pendiente o en curso.
+     */
+    public boolean isPending(Long id) {
+        return pending.contains(id);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void purge(Long id) {
+        long start = System.nanoTime();
+        long deletedTasks = 0;
+        try {
+            while (true) {
+                Integer deleted = transactionTemplate.execute(status -> {
+                    List<Long> chunk = taskRepository.findIdsByUserId(id, PageRequest.of(0, chunkSize));
+                    return chunk.isEmpty() ? 0 : taskRepository.deleteAllByIdIn(chunk);
+                });
+                if (deleted == null || deleted == 0) {
+                    break;
+                }
+                deletedTasks += deleted;
+            }
+            // Las tareas creadas mientras tanto y el usuario, en una transacción
+            userService.deleteUser(id);
+            log.info("Usuario con ID {} eliminado en segundo plano: {} tareas en tramos de {} en {} ms", id,
+                    deletedTasks, chunkSize, (System.nanoTime() - start) / 1_000_000);
+        } catch (UserNotFoundException e) {
+            log.info("El usuario con ID {} ya se había eliminado ({} tareas borradas)", id, deletedTasks);
+        } catch (RuntimeException e) {
+            log.error("No se pudo eliminar el usuario con ID {} ({} tareas borradas)", id, deletedTasks, e);
+        }
+    }
+}
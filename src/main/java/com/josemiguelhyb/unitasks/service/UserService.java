@@ -1,42 +1,91 @@
 package com.josemiguelhyb.unitasks.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.josemiguelhyb.unitasks.cache.CacheInvalidationPublisher;
 import com.josemiguelhyb.unitasks.dto.LeaderboardEntry;
+import com.josemiguelhyb.unitasks.dto.UserPage;
+import com.josemiguelhyb.unitasks.dto.UserSummary;
 import com.josemiguelhyb.unitasks.exception.EmailAlreadyExistsException;
 import com.josemiguelhyb.unitasks.exception.InvalidPasswordException;
 import com.josemiguelhyb.unitasks.exception.UserNotFoundException;
-import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.index.EmailExistenceFilter;
+import com.josemiguelhyb.unitasks.index.TaskFilterIndex;
+import com.josemiguelhyb.unitasks.index.TaskSearchIndex;
+import com.josemiguelhyb.unitasks.index.UserSearchIndex;
+import com.josemiguelhyb.unitasks.model.EmailNormalizer;
 import com.josemiguelhyb.unitasks.model.User;
 import com.josemiguelhyb.unitasks.repository.TaskRepository;
 import com.josemiguelhyb.unitasks.repository.UserRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class UserService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final UserSearchIndex userSearchIndex;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskFilterIndex taskFilterIndex;
+    private final Timer leaderboardTimer;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int defaultSearchLimit;
+    private final int maxSearchLimit;
 
     public UserService(UserRepository userRepository, TaskRepository taskRepository,
-            BCryptPasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder, CacheInvalidationPublisher cacheInvalidationPublisher,
+            EmailExistenceFilter emailExistenceFilter, UserSearchIndex userSearchIndex,
+            TaskSearchIndex taskSearchIndex, TaskFilterIndex taskFilterIndex, MeterRegistry meterRegistry,
+            @Value("${unitasks.users.page.default-size:50}") int defaultPageSize,
+            @Value("${unitasks.users.page.max-size:500}") int maxPageSize,
+            @Value("${unitasks.user-search.default-limit:10}") int defaultSearchLimit,
+            @Value("${unitasks.user-search.max-limit:50}") int maxSearchLimit) {
         this.userRepository = userRepository;
         this.taskRepository = taskRepository;
         this.passwordEncoder = passwordEncoder;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.emailExistenceFilter = emailExistenceFilter;
+        this.userSearchIndex = userSearchIndex;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskFilterIndex = taskFilterIndex;
+        this.leaderboardTimer = Timer.builder("unitasks.leaderboard.compute")
+                .description("Tiempo de cálculo de la tabla de clasificación")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.defaultSearchLimit = defaultSearchLimit;
+        this.maxSearchLimit = maxSearchLimit;
     }
 
     /**
      * Crea y registra un nuevo usuario en el sistema.
-     * Valida que el email sea único, normaliza los datos y encripta la contraseña.
+     * Normaliza el email y encripta la contraseña. La unicidad del email la
+     * garantiza el índice único: un solo INSERT, sin consultar antes si existe
+     * (dos viajes a la base de datos y una ventana en la que dos altas
+     * simultáneas pasaban la comprobación).
      * 
      * @param user El objeto User con los datos del nuevo usuario (name, lastname,
      *             email, password)
@@ -46,31 +95,97 @@ public class UserService {
     @Transactional
     public User createUser(User user) {
         log.info("Creating user with email: {}", user.getEmail());
-        String normalizedEmail = user.getEmail().trim().toLowerCase();
-
-        // Si existe ese User con este email normalizado
-        if (userRepository.existsByEmail(normalizedEmail)) {
-            log.warn("Intento de registro con email duplicado: {}", normalizedEmail);
-            throw new EmailAlreadyExistsException(normalizedEmail);
-        }
+        String normalizedEmail = EmailNormalizer.normalize(user.getEmail());
 
-        // El usuario no existe por tanto creamos el objeto User
         user.setEmail(normalizedEmail);
         user.setPassword(passwordEncoder.encode(user.getPassword())); // Encriptamos password con BCrypt
-        User savedUser = userRepository.save(user);
+        User savedUser = saveCheckingEmail(user);
+        cacheInvalidationPublisher.userChanged(savedUser.getId());
         log.info("Usuario registrado exitosamente con ID: {}", savedUser.getId());
         return savedUser;
     }
 
     /**
-     * Obtiene la lista completa de todos los usuarios registrados.
+     * Obtiene la lista completa de todos los usuarios registrados (modo
+     * compatible de GET /api/users). Devuelve la proyección UserSummary, sin
+     * entidades ni hash de contraseña, pero sin paginar: para directorios grandes
+     * usar getUserPage.
      * 
-     * @return Lista de todos los usuarios
+     * @return Lista de todos los usuarios ordenada por id
      */
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
+    public List<UserSummary> getAllUsers() {
         log.info("Obteniendo todos los usuarios");
-        return userRepository.findAll();
+        return userRepository.findAllSummaries();
+    }
+
+    /**
+     * Obtiene una página del directorio de usuarios con paginación por clave:
+     * los usuarios con id mayor que after, en orden de id. El coste no crece con
+     * la posición de la página, al contrario que con OFFSET.
+     * 
+     * @param after      id del último usuario de la página anterior (null = primera)
+     * @param size       tamaño de página (null = por defecto; se acota a
+     *                   unitasks.users.page.max-size)
+     * @param active     filtra por estado (null = todos)
+     * @param namePrefix filtra por prefijo del nombre, sin distinguir mayúsculas
+     *                   (null o vacío = sin filtro)
+     * @return La página con el cursor de la siguiente, o null si es la última
+     */
+    @Transactional(readOnly = true)
+    public UserPage getUserPage(Long after, Integer size, Boolean active, String namePrefix) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        String prefix = namePrefix == null || namePrefix.isBlank() ? null : namePrefix.trim();
+        log.info("Obteniendo página de usuarios after={} size={} active={} name={}", after, pageSize, active, prefix);
+
+        // Se pide uno más para saber si hay página siguiente sin un COUNT aparte
+        List<UserSummary> users = userRepository.findSummaries(after, active, prefix, pageSize + 1);
+        if (users.size() <= pageSize) {
+            return new UserPage(users, null);
+        }
+        List<UserSummary> page = users.subList(0, pageSize);
+        return new UserPage(page, page.get(pageSize - 1).getId());
+    }
+
+    /**
+     * Búsqueda mientras se escribe: usuarios cuyo nombre, apellidos o email
+     * empiezan por cada palabra de la consulta, sin distinguir mayúsculas ni
+     * tildes ("jose gar" encuentra a José García). Los ids salen del índice en
+     * memoria (UserSearchIndex) y los datos de una sola consulta por clave
+     * primaria. Mientras el índice se construye al arrancar se busca por
+     * prefijo del nombre en la base de datos.
+     * 
+     * @param query palabras (o comienzos de palabra) a buscar
+     * @param limit número máximo de resultados (null = por defecto; se acota a
+     *              unitasks.user-search.max-limit)
+     * @return Los usuarios encontrados, ordenados por el término que coincide
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummary> searchUsers(String query, Integer limit) {
+        int max = limit == null ? defaultSearchLimit : Math.max(1, Math.min(limit, maxSearchLimit));
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        Optional<List<Long>> ids = userSearchIndex.search(query, max);
+        if (ids.isEmpty()) {
+            return userRepository.findSummaries(null, null, query.trim().split("\\s+")[0], max);
+        }
+        if (ids.get().isEmpty()) {
+            return List.of();
+        }
+
+        // IN no conserva el orden: se devuelve el del índice. Un usuario borrado
+        // justo ahora puede no estar, y simplemente no aparece
+        Map<Long, UserSummary> byId = userRepository.findSummariesByIds(ids.get()).stream()
+                .collect(Collectors.toMap(UserSummary::getId, Function.identity()));
+        List<UserSummary> users = new ArrayList<>(byId.size());
+        for (Long id : ids.get()) {
+            UserSummary user = byId.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
     }
 
     /**
@@ -108,20 +223,21 @@ public class UserService {
         existingUser.setName(updatedUser.getName().trim());
         existingUser.setLastname(updatedUser.getLastname().trim());
 
-        // Si el email cambió, validar que no exista otro usuario con ese email
-        String normalizedEmail = updatedUser.getEmail().trim().toLowerCase();
-        if (!existingUser.getEmail().equals(normalizedEmail)) {
-            if (userRepository.existsByEmail(normalizedEmail)) {
-                log.warn("Intento de actualizar a email duplicado: {}", normalizedEmail);
-                throw new EmailAlreadyExistsException(normalizedEmail);
-            }
-            existingUser.setEmail(normalizedEmail);
-        }
+        // Si el email cambió, el índice único rechaza el de otro usuario
+        String normalizedEmail = EmailNormalizer.normalize(updatedUser.getEmail());
+        boolean emailChanged = !existingUser.getEmail().equals(normalizedEmail);
+        existingUser.setEmail(normalizedEmail);
 
         // NO actualizar password aquí - usar changePassword() por separado para mayor
         // seguridad
 
-        User savedUser = userRepository.save(existingUser);
+        User savedUser = saveCheckingEmail(existingUser);
+        if (emailChanged) {
+            // El email anterior sigue en el filtro de Bloom hasta la próxima reconstrucción
+            emailExistenceFilter.emailChanged(normalizedEmail);
+            cacheInvalidationPublisher.userEmailsChanged();
+        }
+        cacheInvalidationPublisher.userChanged(id);
         log.info("Usuario actualizado exitosamente con ID: {}", savedUser.getId());
         return savedUser;
     }
@@ -153,13 +269,15 @@ public class UserService {
         // Encriptar y guardar la nueva contraseña
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        cacheInvalidationPublisher.userChanged(id);
         log.info("Contraseña actualizada exitosamente para usuario con ID: {}", id);
     }
 
     /**
      * Elimina un usuario del sistema junto con todas sus tareas asociadas.
-     * La eliminación es en cascada gracias a la configuración de la relación
-     * User-Task.
+     * Dos sentencias sea cual sea el número de tareas: un DELETE de sus tareas
+     * y otro del usuario, sin cargar ninguna entidad. Para usuarios con muchas
+     * tareas, UserDeletionService lo hace en segundo plano y por tramos.
      * 
      * @param id El ID del usuario a eliminar
      * @throws UserNotFoundException si el usuario no existe
@@ -168,29 +286,38 @@ public class UserService {
     public void deleteUser(Long id) {
         log.info("Eliminando usuario con ID: {}", id);
 
-        // Verificar que el usuario existe antes de eliminar
-        if (!userRepository.existsById(id)) {
+        // Las tareas primero por la clave foránea. Si el usuario no existe no
+        // hay tareas que borrar y la transacción se deshace igualmente
+        int deletedTasks = taskRepository.deleteAllByUserId(id);
+        if (userRepository.deleteInBulkById(id) == 0) {
             log.warn("Intento de eliminar usuario inexistente con ID: {}", id);
             throw new UserNotFoundException(id);
         }
 
-        // El usuario existe, eliminar (también eliminará sus tareas por cascade)
-        userRepository.deleteById(id);
-        log.info("Usuario eliminado exitosamente con ID: {} (incluidas sus tareas)", id);
+        // El DELETE en bloque no pasa por los listeners de la entidad
+        emailExistenceFilter.removed();
+        userSearchIndex.removed(id);
+        taskSearchIndex.userRemoved(id);
+        taskFilterIndex.userRemoved(id);
+        cacheInvalidationPublisher.userChanged(id);
+        cacheInvalidationPublisher.userEmailsChanged();
+        cacheInvalidationPublisher.allTasksChanged();
+        log.info("Usuario eliminado exitosamente con ID: {} (incluidas sus {} tareas)", id, deletedTasks);
     }
 
     /**
-     * Busca un usuario por su email de forma segura.
-     * Útil para procesos de login y validación de emails únicos.
+     * Busca un usuario por su email de forma segura (GET /api/users/email).
+     * Los emails que el filtro de Bloom descarta no llegan a la base de datos;
+     * la autenticación no pasa por aquí sino por UserRepository.findByEmail.
      * 
      * @param email El email a buscar
      * @return Optional con el usuario si existe, Optional.empty() si no existe
      */
     @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
-        String normalizedEmail = email.trim().toLowerCase();
+        String normalizedEmail = EmailNormalizer.normalize(email);
         log.info("Buscando usuario con email: {}", normalizedEmail);
-        return userRepository.findByEmail(normalizedEmail);
+        return userRepository.findByEmailUnlessAbsent(normalizedEmail);
     }
 
     /**
@@ -209,6 +336,7 @@ public class UserService {
 
         user.setActive(true);
         User savedUser = userRepository.save(user);
+        cacheInvalidationPublisher.userChanged(id);
         log.info("Usuario activado exitosamente con ID: {}", id);
         return savedUser;
     }
@@ -229,6 +357,7 @@ public class UserService {
 
         user.setActive(false);
         User savedUser = userRepository.save(user);
+        cacheInvalidationPublisher.userChanged(id);
         log.info("Usuario desactivado exitosamente con ID: {}", id);
         return savedUser;
     }
@@ -259,34 +388,43 @@ public class UserService {
     @Transactional(readOnly = true)
     public List<LeaderboardEntry> getLeaderboard() {
         log.info("Obteniendo tabla de clasificación de usuarios activos");
-        List<User> users = userRepository.findAll();
-
-        return users.stream()
-                .filter(User::isActive) // Solo usuarios activos
-                .map(user -> {
-                    Long userId = user.getId();
-                    long totalTasks = taskRepository.countByUserId(userId);
-                    long pendingTasks = taskRepository.countByUserIdAndStatus(userId, TaskStatus.PENDING);
-                    long inProgressTasks = taskRepository.countByUserIdAndStatus(userId, TaskStatus.IN_PROGRESS);
-                    long doneTasks = taskRepository.countByUserIdAndStatus(userId, TaskStatus.DONE);
-                    long expiredTasks = taskRepository.countByUserIdAndStatus(userId, TaskStatus.EXPIRED);
-
-                    log.debug("Usuario: {} - Tareas: {} - DONE: {} - Puntos: {}",
-                            user.getEmail(), totalTasks, doneTasks, doneTasks);
-
-                    return new LeaderboardEntry(
-                            userId,
-                            user.getName(),
-                            user.getLastname(),
-                            user.getEmail(),
-                            Long.valueOf(totalTasks),
-                            Long.valueOf(pendingTasks),
-                            Long.valueOf(inProgressTasks),
-                            Long.valueOf(doneTasks),
-                            Long.valueOf(expiredTasks));
-                })
-                .sorted((a, b) -> b.getPoints().compareTo(a.getPoints())) // Orden descendente por puntos
-                .collect(Collectors.toList());
+        return leaderboardTimer.record(this::computeLeaderboard);
+    }
+
+    // INSERT/UPDATE inmediato para que la violación del índice único salga aquí y
+    // no al confirmar la transacción, ya fuera del servicio
+    private User saveCheckingEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!isEmailConflict(e)) {
+                throw e;
+            }
+            log.warn("Email duplicado: {}", user.getEmail());
+            throw new EmailAlreadyExistsException(user.getEmail());
+        }
+    }
+
+    // Violación de uk_users_email (el único índice único de users además de la
+    // clave primaria). Si el driver no da el nombre de la restricción se mira el
+    // SQLState de clave duplicada
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName();
+                return constraint != null ? constraint.toLowerCase(Locale.ROOT).contains("email")
+                        : "23505".equals(violation.getSQLState());
+            }
+        }
+        return false;
+    }
+
+    private List<LeaderboardEntry> computeLeaderboard() {
+        // Una sola consulta agregada: usuarios activos con sus conteos por estado,
+        // ya ordenados por puntos
+        List<LeaderboardEntry> leaderboard = userRepository.findLeaderboard();
+        log.debug("Tabla de clasificación calculada con {} usuarios", leaderboard.size());
+        return leaderboard;
     }
 
 }
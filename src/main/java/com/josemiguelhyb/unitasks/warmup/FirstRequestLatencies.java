@@ -0,0 +1,94 @@
+package com.josemiguelhyb.unitasks.warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latencia de las primeras peticiones tras el arranque, que es lo que el
+ * calentamiento pretende mejorar. Se publican en el timer
+ * unitasks.warmup.first.requests (etiqueta warmed = si hubo calentamiento) y,
+ * al completar la muestra, se resumen en el log para comparar despliegues con y
+ * sin calentamiento.
+ */
+@Component
+public class FirstRequestLatencies {
+	private static final Logger log = LoggerFactory.getLogger(FirstRequestLatencies.class);
+
+	private final MeterRegistry meterRegistry;
+	private final long[] latencies;
+	private final AtomicInteger count = new AtomicInteger();
+	private volatile boolean warmed;
+	private volatile long warmupNanos;
+	private volatile Timer timer;
+
+	public FirstRequestLatencies(MeterRegistry meterRegistry,
+			@Value("${unitasks.warmup.report-requests:100}") int sampleSize) {
+		this.meterRegistry = meterRegistry;
+		this.latencies = new long[Math.max(0, sampleSize)];
+	}
+
+	void warmupFinished(long nanos) {
+		this.warmed = true;
+		this.warmupNanos = nanos;
+	}
+
+	/**
+	 * Lo llama RequestMetricsFilter al terminar cada petición; pasada la
+	 * muestra solo cuesta un incremento atómico.
+	 */
+	public void record(long nanos) {
+		if (count.get() >= latencies.length) {
+			return;
+		}
+		int index = count.getAndIncrement();
+		if (index >= latencies.length) {
+			return;
+		}
+		latencies[index] = nanos;
+		timer().record(nanos, TimeUnit.NANOSECONDS);
+		if (index == latencies.length - 1) {
+			report();
+		}
+	}
+
+	private Timer timer() {
+		Timer t = timer;
+		if (t == null) {
+			t = Timer.builder("unitasks.warmup.first.requests")
+					.description("Latencia de las primeras peticiones tras el arranque")
+					.tag("warmed", String.valueOf(warmed))
+					.register(meterRegistry);
+			timer = t;
+		}
+		return t;
+	}
+
+	private void report() {
+		long[] sorted = latencies.clone();
+		Arrays.sort(sorted);
+		int n = sorted.length;
+		int firstTen = Math.min(10, n);
+		long firstTenTotal = 0;
+		for (int i = 0; i < firstTen; i++) {
+			firstTenTotal += latencies[i];
+		}
+		log.info("Primeras {} peticiones ({}): p50 {} ms, p90 {} ms, max {} ms; media de las 10 primeras {} ms",
+				n, warmed ? "con calentamiento de " + TimeUnit.NANOSECONDS.toMillis(warmupNanos) + " ms"
+						: "sin calentamiento",
+				millis(sorted[(n - 1) / 2]), millis(sorted[(int) Math.ceil(n * 0.9) - 1]), millis(sorted[n - 1]),
+				millis(firstTenTotal / firstTen));
+	}
+
+	private static String millis(long nanos) {
+		return String.format("%.1f", nanos / 1e6);
+	}
+}
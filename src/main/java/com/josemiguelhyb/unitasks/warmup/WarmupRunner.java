@@ -0,0 +1,226 @@
+package com.josemiguelhyb.unitasks.warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.dto.LeaderboardEntry;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Calentamiento antes de dar la instancia por lista. Spring Boot solo pasa la
+ * readiness a ACCEPTING_TRAFFIC cuando terminan los ApplicationRunner, así que
+ * mientras esto se ejecuta /actuator/health/readiness responde 503 y el
+ * balanceador no envía tráfico.
+ *
+ * Abre de antemano las conexiones del pool, hace pasar por el JIT la
+ * verificación de JWT y la serialización JSON de Task y LeaderboardEntry, y
+ * lanza las consultas habituales de solo lectura (que además llenan la caché
+ * de segundo nivel). Cada paso registra cuánto tardó la primera iteración
+ * frente a la última y su duración en unitasks.warmup.duration.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+	private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+	private static final String WARMUP_EMAIL = "warmup@unitasks.local";
+
+	private final DataSource dataSource;
+	private final JwtUtil jwtUtil;
+	private final ObjectMapper objectMapper;
+	private final UserRepository userRepository;
+	private final TaskRepository taskRepository;
+	private final TransactionTemplate readOnlyTransaction;
+	private final MeterRegistry meterRegistry;
+	private final FirstRequestLatencies firstRequests;
+	private final boolean enabled;
+	private final int iterations;
+	private final int queryIterations;
+	private final Duration maxDuration;
+
+	public WarmupRunner(DataSource dataSource, JwtUtil jwtUtil, ObjectMapper objectMapper,
+			UserRepository userRepository, TaskRepository taskRepository, TransactionTemplate transactionTemplate,
+			MeterRegistry meterRegistry, FirstRequestLatencies firstRequests,
+			@Value("${unitasks.warmup.enabled:true}") boolean enabled,
+			@Value("${unitasks.warmup.iterations:1000}") int iterations,
+			@Value("${unitasks.warmup.query-iterations:20}") int queryIterations,
+			@Value("${unitasks.warmup.max-duration:20s}") Duration maxDuration) {
+		this.dataSource = dataSource;
+		this.jwtUtil = jwtUtil;
+		this.objectMapper = objectMapper;
+		this.userRepository = userRepository;
+		this.taskRepository = taskRepository;
+		this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		this.readOnlyTransaction.setReadOnly(true);
+		this.meterRegistry = meterRegistry;
+		this.firstRequests = firstRequests;
+		this.enabled = enabled;
+		this.iterations = iterations;
+		this.queryIterations = queryIterations;
+		this.maxDuration = maxDuration;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!enabled) {
+			log.info("Calentamiento desactivado (unitasks.warmup.enabled=false)");
+			return;
+		}
+		long deadline = System.nanoTime() + maxDuration.toNanos();
+		long start = System.nanoTime();
+
+		step("pool", () -> prefillPool());
+		step("jwt", iterations, deadline, this::verifyToken);
+		List<Task> tasks = sampleTasks();
+		List<LeaderboardEntry> leaderboard = sampleLeaderboard();
+		step("json", iterations, deadline, () -> {
+			objectMapper.writeValueAsBytes(tasks);
+			objectMapper.writeValueAsBytes(leaderboard);
+		});
+		User sample = readOnlyTransaction.execute(status -> userRepository.findAll(PageRequest.of(0, 1))
+				.stream().findFirst().orElse(null));
+		step("queries", queryIterations, deadline, () -> readOnlyTransaction.executeWithoutResult(status -> {
+			userRepository.count();
+			userRepository.findLeaderboard();
+			if (sample != null) {
+				userRepository.findById(sample.getId());
+				userRepository.findByEmail(sample.getEmail());
+				taskRepository.findByUserId(sample.getId());
+				taskRepository.countByUserId(sample.getId());
+			}
+		}));
+
+		long total = System.nanoTime() - start;
+		record("total", total);
+		firstRequests.warmupFinished(total);
+		log.info("Calentamiento completado en {} ms{}", TimeUnit.NANOSECONDS.toMillis(total),
+				System.nanoTime() > deadline ? " (cortado por unitasks.warmup.max-duration)" : "");
+	}
+
+	@FunctionalInterface
+	private interface WarmupAction {
+		void run() throws Exception;
+	}
+
+	private void step(String name, WarmupAction action) {
+		step(name, 1, Long.MAX_VALUE, action);
+	}
+
+	// Repite la acción hasta 'times' veces o hasta el límite global
+	private void step(String name, int times, long deadline, WarmupAction action) {
+		long start = System.nanoTime();
+		long first = 0;
+		long last = 0;
+		int done = 0;
+		try {
+			while (done < times && (done == 0 || System.nanoTime() < deadline)) {
+				long t = System.nanoTime();
+				action.run();
+				last = System.nanoTime() - t;
+				if (done++ == 0) {
+					first = last;
+				}
+			}
+		} catch (Exception e) {
+			// El calentamiento nunca impide arrancar: la instancia funciona igual, solo más lenta al principio
+			log.warn("Calentamiento '{}' interrumpido: {}", name, e.getMessage());
+		}
+		long elapsed = System.nanoTime() - start;
+		record(name, elapsed);
+		log.info("Calentamiento '{}': {} iteraciones en {} ms (primera {} us, última {} us)", name, done,
+				TimeUnit.NANOSECONDS.toMillis(elapsed), first / 1000, last / 1000);
+	}
+
+	private void record(String step, long nanos) {
+		double seconds = nanos / 1e9;
+		TimeGauge.builder("unitasks.warmup.duration", () -> seconds, TimeUnit.SECONDS)
+				.description("Duración del calentamiento previo a la readiness")
+				.tag("step", step)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Abre a la vez tantas conexiones como el mínimo de inactivas del pool
+	 * (Hikari las abre de forma perezosa con la primera petición).
+	 */
+	private void prefillPool() throws SQLException {
+		int size = 1;
+		if (dataSource.isWrapperFor(HikariDataSource.class)) {
+			HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+			size = Math.max(1, Math.min(hikari.getMinimumIdle(), hikari.getMaximumPoolSize()));
+		}
+		List<Connection> connections = new ArrayList<>(size);
+		try {
+			for (int i = 0; i < size; i++) {
+				Connection connection = dataSource.getConnection();
+				connections.add(connection);
+				connection.isValid(1);
+			}
+		} finally {
+			for (Connection connection : connections) {
+				connection.close();
+			}
+		}
+	}
+
+	private void verifyToken() {
+		String token = jwtUtil.generateToken(WARMUP_EMAIL);
+		if (!jwtUtil.validateToken(token, jwtUtil.extractEmail(token))) {
+			throw new IllegalStateException("Token de calentamiento no válido");
+		}
+	}
+
+	// Objetos en memoria con la forma de las respuestas reales; no se guardan
+	private static List<Task> sampleTasks() {
+		User user = new User("Calentamiento", "Usuario", WARMUP_EMAIL, "", true);
+		user.setId(0L);
+		TaskStatus[] statuses = TaskStatus.values();
+		TaskPriority[] priorities = TaskPriority.values();
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			Task task = new Task("Tarea " + i, "Descripción de la tarea " + i, user);
+			task.setId((long) i);
+			task.setStatus(statuses[i % statuses.length]);
+			task.setPriority(priorities[i % priorities.length]);
+			tasks.add(task);
+		}
+		return tasks;
+	}
+
+	private static List<LeaderboardEntry> sampleLeaderboard() {
+		List<LeaderboardEntry> entries = new ArrayList<>();
+		for (long i = 0; i < 50; i++) {
+			entries.add(new LeaderboardEntry(i, "Nombre", "Apellido", "user" + i + "@unitasks.local", 20L, 5L, 5L,
+					8L, 2L));
+		}
+		return entries;
+	}
+}
@@ -0,0 +1,31 @@
+-- Esquema inicial, equivalente al que generaba ddl-auto=update a partir de
+-- User y Task. Las bases de datos creadas así no ejecutan este script: Flyway
+-- las marca como versión 1 (spring.flyway.baseline-on-migrate) y aplica solo
+-- las siguientes. SQL común a PostgreSQL y H2 (tests).
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(50) NOT NULL,
+    lastname VARCHAR(50) NOT NULL,
+    email VARCHAR(150) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    active BOOLEAN NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE tasks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title VARCHAR(150) NOT NULL,
+    description VARCHAR(500),
+    status VARCHAR(255) NOT NULL,
+    priority VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    due_date TIMESTAMP(6),
+    user_id BIGINT NOT NULL,
+    CONSTRAINT pk_tasks PRIMARY KEY (id),
+    CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT ck_tasks_status CHECK (status IN ('PENDING', 'IN_PROGRESS', 'DONE', 'EXPIRED')),
+    CONSTRAINT ck_tasks_priority CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH'))
+);
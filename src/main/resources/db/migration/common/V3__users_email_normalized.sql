@@ -0,0 +1,9 @@
+-- Los emails se guardan normalizados (EmailNormalizer: sin espacios y en
+-- minúsculas), así el índice único uk_users_email no distingue mayúsculas y
+-- las búsquedas por igualdad lo siguen usando; un índice sobre lower(email)
+-- obligaría a cambiar todas las consultas (y H2 no los admite).
+-- Si hay dos usuarios que solo se diferencian en mayúsculas el UPDATE falla
+-- por uk_users_email: hay que fusionarlos a mano antes de migrar.
+UPDATE users SET email = LOWER(TRIM(email)) WHERE email <> LOWER(TRIM(email));
+
+ALTER TABLE users ADD CONSTRAINT ck_users_email_lowercase CHECK (email = LOWER(email));
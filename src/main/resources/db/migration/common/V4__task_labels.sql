@@ -0,0 +1,14 @@
+-- Etiquetas de las tareas (Task.labels), normalizadas con LabelNormalizer.
+-- ON DELETE CASCADE: los DELETE de tareas, también los que borran en bloque
+-- las de un usuario, no tienen que borrar antes sus etiquetas.
+-- La clave primaria sirve para leer las etiquetas de una tarea; el índice por
+-- etiqueta, para filtrar por ella sin el índice en memoria.
+
+CREATE TABLE task_labels (
+    task_id BIGINT NOT NULL,
+    label VARCHAR(50) NOT NULL,
+    CONSTRAINT pk_task_labels PRIMARY KEY (task_id, label),
+    CONSTRAINT fk_task_labels_task FOREIGN KEY (task_id) REFERENCES tasks (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_task_labels_label ON task_labels (label, task_id);
@@ -0,0 +1,2 @@
+-- Versión H2 (tests) de la migración de PostgreSQL, sin CONCURRENTLY
+CREATE INDEX IF NOT EXISTS idx_tasks_user_id_status ON tasks (user_id, status);
@@ -0,0 +1,6 @@
+-- Índice para las consultas por usuario (lista de tareas, recuentos por
+-- estado, leaderboard). PostgreSQL no indexa las claves foráneas por sí solo.
+-- CONCURRENTLY no bloquea las escrituras en tasks mientras se construye, pero
+-- no puede ir dentro de una transacción: ver el .conf de al lado. Si se
+-- interrumpe deja un índice INVALID que hay que borrar antes de reintentar.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_id_status ON tasks (user_id, status);
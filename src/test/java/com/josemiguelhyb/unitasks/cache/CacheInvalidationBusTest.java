@@ -0,0 +1,158 @@
+package com.josemiguelhyb.unitasks.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.josemiguelhyb.unitasks.UnitasksApplication;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.service.UserService;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Bus de invalidación: codificación de mensajes, invalidaciones que fallan
+ * y, si hay un PostgreSQL local (variables UNITASKS_TEST_PG_URL,
+ * UNITASKS_TEST_PG_USER y UNITASKS_TEST_PG_PASSWORD), dos contextos de la
+ * aplicación compartiendo la misma base de datos.
+ */
+class CacheInvalidationBusTest {
+
+	@Test
+	void encodesAndDecodesCoalescedBatch() {
+		InvalidationBatch batch = new InvalidationBatch("node1");
+		batch.add(CacheEntity.USER, 1L);
+		batch.add(CacheEntity.USER, 2L);
+		batch.add(CacheEntity.USER, 1L);
+		batch.add(CacheEntity.TASK, 5L);
+		batch.addAll(CacheEntity.USER_EMAIL);
+
+		List<String> payloads = batch.encode();
+
+		assertThat(payloads).containsExactly("node1|E:*|U:1,2|T:5");
+		InvalidationBatch decoded = InvalidationBatch.decode(payloads.get(0));
+		assertThat(decoded.getOrigin()).isEqualTo("node1");
+		assertThat(decoded.getIds().get(CacheEntity.USER)).containsExactly(1L, 2L);
+		assertThat(decoded.getIds().get(CacheEntity.TASK)).containsExactly(5L);
+		assertThat(decoded.getWildcards()).containsExactly(CacheEntity.USER_EMAIL);
+	}
+
+	@Test
+	void wildcardReplacesIndividualIds() {
+		InvalidationBatch batch = new InvalidationBatch("node1");
+		batch.add(CacheEntity.TASK, 5L);
+		batch.addAll(CacheEntity.TASK);
+		batch.add(CacheEntity.TASK, 6L);
+
+		assertThat(batch.encode()).containsExactly("node1|T:*");
+	}
+
+	@Test
+	void splitsPayloadsAboveNotifyLimit() {
+		InvalidationBatch batch = new InvalidationBatch("node1");
+		for (long id = 1_000_000; id < 1_003_000; id++) {
+			batch.add(CacheEntity.TASK, id);
+		}
+
+		List<String> payloads = batch.encode();
+
+		assertThat(payloads).hasSizeGreaterThan(1);
+		assertThat(payloads).allMatch(p -> p.length() <= InvalidationBatch.MAX_PAYLOAD_LENGTH);
+		InvalidationBatch merged = new InvalidationBatch("node1");
+		payloads.forEach(p -> merged.merge(InvalidationBatch.decode(p)));
+		assertThat(merged.size()).isEqualTo(3000);
+	}
+
+	@Test
+	void unreadableIdsBecomeWildcards() {
+		InvalidationBatch decoded = InvalidationBatch.decode("node1|U:1,x|T:5");
+
+		assertThat(decoded.getWildcards()).containsExactly(CacheEntity.USER);
+		assertThat(decoded.getIds().get(CacheEntity.TASK)).containsExactly(5L);
+		assertThatThrownBy(() -> InvalidationBatch.decode("node1|Z:1"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void failingHandlerFallsBackToEvictAll() {
+		List<String> calls = new ArrayList<>();
+		CacheInvalidationHandler failing = new CacheInvalidationHandler() {
+			@Override
+			public void evict(CacheEntity entity, Set<Long> ids) {
+				throw new IllegalStateException("sin conexión");
+			}
+
+			@Override
+			public void evictAll(CacheEntity entity) {
+				calls.add("failing:*" + entity);
+			}
+		};
+		CacheInvalidationHandler working = new CacheInvalidationHandler() {
+			@Override
+			public void evict(CacheEntity entity, Set<Long> ids) {
+				calls.add("working:" + entity + ids);
+			}
+
+			@Override
+			public void evictAll(CacheEntity entity) {
+				calls.add("working:*" + entity);
+			}
+		};
+		CacheInvalidationListener listener = new CacheInvalidationListener(null, null, List.of(failing, working),
+				"unitasks_cache", Duration.ofMillis(50), Duration.ofSeconds(5), 1000);
+		InvalidationBatch batch = new InvalidationBatch("node1");
+		batch.add(CacheEntity.TASK, 5L);
+
+		listener.apply(batch);
+
+		assertThat(calls).containsExactly("failing:*TASK", "working:TASK[5]");
+	}
+
+	@Test
+	void evictsOnOtherInstanceAfterCommit() throws Exception {
+		String url = System.getenv("UNITASKS_TEST_PG_URL");
+		assumeTrue(url != null, "Sin PostgreSQL local (UNITASKS_TEST_PG_URL)");
+
+		try (ConfigurableApplicationContext nodeA = startNode(url);
+				ConfigurableApplicationContext nodeB = startNode(url)) {
+			User user = nodeA.getBean(UserRepository.class)
+					.save(TestData.user("Ana", "García", "bus-" + System.nanoTime() + "@unitasks.local"));
+
+			// El nodo B cachea el usuario
+			nodeB.getBean(UserRepository.class).findById(user.getId());
+			jakarta.persistence.Cache cacheB = nodeB.getBean(EntityManagerFactory.class).getCache();
+			assertThat(cacheB.contains(User.class, user.getId())).isTrue();
+
+			// El nodo A lo modifica: B debe invalidarlo al recibir el NOTIFY
+			nodeA.getBean(UserService.class).deactivateUser(user.getId());
+
+			long deadline = System.currentTimeMillis() + 5000;
+			while (cacheB.contains(User.class, user.getId()) && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+			assertThat(cacheB.contains(User.class, user.getId())).isFalse();
+		}
+	}
+
+	private static ConfigurableApplicationContext startNode(String url) {
+		return new SpringApplicationBuilder(UnitasksApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=" + url,
+						"--spring.datasource.username=" + System.getenv("UNITASKS_TEST_PG_USER"),
+						"--spring.datasource.password=" + System.getenv("UNITASKS_TEST_PG_PASSWORD"),
+						"--spring.jpa.show-sql=false",
+						"--unitasks.cache.invalidation.enabled=true");
+	}
+}
@@ -0,0 +1,56 @@
+package com.josemiguelhyb.unitasks.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Ajustes de arranque del perfil prod. El perfil test va detrás y sustituye
+ * la base de datos por H2; el resto se mantiene. Las migraciones no se
+ * ejecutan al arrancar en prod (son un paso previo con el perfil migrate).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({ "prod", "test" })
+class ProdProfileTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void apiDocsAreNotExposed() throws Exception {
+		mockMvc.perform(get("/v3/api-docs")).andExpect(status().isNotFound());
+		mockMvc.perform(get("/swagger-ui/index.html")).andExpect(status().isNotFound());
+		// La especificación generada en el build sí se sirve
+		mockMvc.perform(get("/openapi.json")).andExpect(status().isOk());
+	}
+
+	@Test
+	void hibernateDoesNotReadJdbcMetadataAtBoot() {
+		assertThat(environment.getProperty("spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access"))
+				.isEqualTo("false");
+		assertThat(environment.getProperty("spring.jpa.show-sql")).isEqualTo("false");
+	}
+
+	@Test
+	void migrationsDoNotRunAtBoot() {
+		assertThat(context.getBeanNamesForType(Flyway.class)).isEmpty();
+		assertThat(environment.getProperty("spring.jpa.hibernate.ddl-auto")).isEqualTo("none");
+	}
+}
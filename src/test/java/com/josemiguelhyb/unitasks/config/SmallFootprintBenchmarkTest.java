@@ -0,0 +1,165 @@
+package com.josemiguelhyb.unitasks.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.UnitasksApplication;
+
+/**
+ * Presupuesto de memoria del perfil small: arranca la aplicación en otra JVM
+ * con las opciones de src/main/jvm/small-footprint.jvmopts, ejecuta una carga
+ * fija y comprueba la memoria residente (RSS) y el heap tras un GC completo.
+ * Se ejecuta con mvn test -Pbenchmark (solo Linux: lee /proc).
+ */
+@Tag("benchmark")
+class SmallFootprintBenchmarkTest {
+
+	private static final Path JVM_OPTIONS = Path.of("src/main/jvm/small-footprint.jvmopts");
+	private static final Path APP_LOG = Path.of("target/small-footprint-app.log");
+
+	// Presupuestos para un contenedor de 512 MB
+	private static final long MAX_RSS_MB = 400;
+	private static final long MAX_HEAP_AFTER_GC_MB = 96;
+
+	// Carga fija: clientes concurrentes y peticiones de cada uno
+	private static final int CLIENTS = 16;
+	private static final int TASKS_PER_CLIENT = 25;
+	private static final int READS_PER_CLIENT = 100;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+	private String base;
+
+	@Test
+	void staysWithinMemoryBudgetUnderFixedWorkload() throws Exception {
+		assumeTrue(Files.isDirectory(Path.of("/proc/self")), "Sin /proc: no se puede medir el RSS");
+
+		int port = freePort();
+		base = "http://localhost:" + port;
+		Files.createDirectories(APP_LOG.getParent());
+		Process app = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+				"@" + JVM_OPTIONS,
+				"-Dspring.devtools.restart.enabled=false",
+				"-cp", System.getProperty("java.class.path"),
+				UnitasksApplication.class.getName(),
+				// test va detrás de prod y small: solo cambia la base de datos (H2) y desactiva el calentamiento
+				"--spring.profiles.active=prod,small,test",
+				// prod no migra al arrancar: aquí el esquema de H2 lo crea Flyway
+				"--spring.flyway.enabled=true",
+				"--server.port=" + port)
+				.redirectErrorStream(true)
+				.redirectOutput(APP_LOG.toFile())
+				.start();
+		try {
+			awaitReady(app);
+			String token = register();
+
+			ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+			List<Future<?>> results = new ArrayList<>();
+			for (int c = 0; c < CLIENTS; c++) {
+				results.add(clients.submit(() -> {
+					for (int i = 0; i < TASKS_PER_CLIENT; i++) {
+						send(token, "POST", "/api/tasks", "{\"title\":\"Tarea " + i + "\",\"description\":\"Carga fija\"}", 201);
+					}
+					for (int i = 0; i < READS_PER_CLIENT; i++) {
+						send(token, "GET", i % 4 == 0 ? "/api/users/leaderboard" : "/api/tasks", null, 200);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+			clients.shutdown();
+
+			long rssMb = rssMb(app.pid());
+			long heapAfterGcMb = heapAfterFullGcMb(app.pid(), token);
+			System.out.printf("Perfil small tras %d peticiones: RSS %d MB (máx. %d), heap tras GC %d MB (máx. %d)%n",
+					CLIENTS * (TASKS_PER_CLIENT + READS_PER_CLIENT), rssMb, MAX_RSS_MB, heapAfterGcMb,
+					MAX_HEAP_AFTER_GC_MB);
+
+			assertThat(rssMb).as("RSS en MB").isLessThanOrEqualTo(MAX_RSS_MB);
+			assertThat(heapAfterGcMb).as("heap tras GC en MB").isLessThanOrEqualTo(MAX_HEAP_AFTER_GC_MB);
+		} finally {
+			app.destroy();
+			app.waitFor();
+		}
+	}
+
+	private void awaitReady(Process app) throws Exception {
+		long deadline = System.currentTimeMillis() + 180_000;
+		while (System.currentTimeMillis() < deadline) {
+			assertThat(app.isAlive()).as("la aplicación terminó al arrancar; log en %s", APP_LOG).isTrue();
+			try {
+				if (http.send(HttpRequest.newBuilder(URI.create(base + "/actuator/health/readiness")).build(),
+						HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+					return;
+				}
+			} catch (IOException e) {
+				// Tomcat aún no escucha
+			}
+			Thread.sleep(200);
+		}
+		throw new AssertionError("La aplicación no estuvo lista en 180 s; log en " + APP_LOG);
+	}
+
+	private String register() throws Exception {
+		String body = "{\"name\":\"Footprint\",\"lastname\":\"Small\",\"email\":\"footprint@unitasks.local\",\"password\":\"password123\"}";
+		return objectMapper.readTree(send(null, "POST", "/api/auth/register", body, 200)).get("token").asText();
+	}
+
+	private String send(String token, String method, String path, String json, int expectedStatus) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+				.method(method, json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json))
+				.header("Content-Type", "application/json");
+		if (token != null) {
+			request.header("Authorization", "Bearer " + token);
+		}
+		HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).as("%s %s", method, path).isEqualTo(expectedStatus);
+		return response.body();
+	}
+
+	private long heapAfterFullGcMb(long pid, String token) throws Exception {
+		Process jcmd = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "jcmd").toString(),
+				Long.toString(pid), "GC.run").redirectErrorStream(true).start();
+		assertThat(jcmd.waitFor()).as("jcmd GC.run").isZero();
+		JsonNode metric = objectMapper.readTree(send(token, "GET", "/actuator/metrics/jvm.memory.used?tag=area:heap", null, 200));
+		return metric.get("measurements").get(0).get("value").asLong() / (1024 * 1024);
+	}
+
+	private static long rssMb(long pid) throws IOException {
+		for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+			if (line.startsWith("VmRSS:")) {
+				return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+			}
+		}
+		throw new IllegalStateException("VmRSS no disponible para el proceso " + pid);
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
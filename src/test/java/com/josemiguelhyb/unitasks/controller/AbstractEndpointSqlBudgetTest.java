@@ -0,0 +1,328 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.support.SqlBudget;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Presupuesto de sentencias SQL de cada endpoint. Las subclases siembran
+ * volúmenes de datos distintos con los mismos presupuestos: si un endpoint
+ * escala con los datos (N+1, cargas perezosas) falla en el dataset grande.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+abstract class AbstractEndpointSqlBudgetTest {
+
+	private static final String PASSWORD = "password123";
+	private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User me;
+	private User other;
+	private User victim;
+	private Task myTask;
+	private String token;
+
+	// Multiplicador del volumen de datos sembrado
+	protected abstract int scale();
+
+	@BeforeEach
+	void seed() {
+		// Emails únicos por test: la caché de natural-id no ve los DELETE por JDBC
+		String prefix = "budget-" + System.nanoTime() + "-";
+		String encodedPassword = passwordEncoder.encode(PASSWORD);
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 3 * scale(); i++) {
+			users.add(new User("Nombre" + i, "Apellido" + i, prefix + i + "@unitasks.local", encodedPassword, true));
+		}
+		users = userRepository.saveAll(users);
+		me = users.get(0);
+		other = users.get(1);
+
+		List<Task> tasks = new ArrayList<>();
+		for (User user : users) {
+			for (int i = 0; i < 4 * scale(); i++) {
+				Task task = new Task("Tarea " + i, "Descripción " + i, user);
+				task.setStatus(STATUSES[i % STATUSES.length]);
+				task.setPriority(TaskPriority.MEDIUM);
+				tasks.add(task);
+			}
+		}
+		tasks = taskRepository.saveAll(tasks);
+		myTask = tasks.get(0);
+
+		// Usuario a eliminar: sus tareas crecen con el dataset, las sentencias no
+		victim = userRepository.save(new User("Víctima", "Borrado", prefix + "victim@unitasks.local", encodedPassword, true));
+		for (int i = 0; i < 4 * scale(); i++) {
+			Task task = new Task("Tarea víctima " + i, null, victim);
+			task.setStatus(TaskStatus.PENDING);
+			task.setPriority(TaskPriority.LOW);
+			taskRepository.save(task);
+		}
+
+		token = TestData.bearer(jwtUtil, me.getEmail());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		TestData.deleteAll(jdbcTemplate, entityManagerFactory);
+	}
+
+	// ===== Públicos =====
+
+	@Test
+	@SqlBudget(max = 1)
+	void hello() throws Exception {
+		mockMvc.perform(get("/api/hello").header("Authorization", token)).andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void register() throws Exception {
+		mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Nuevo\",\"lastname\":\"Usuario\",\"email\":\"nuevo@unitasks.local\",\"password\":\"password123\"}"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 1)
+	void login() throws Exception {
+		mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"email\":\"" + me.getEmail() + "\",\"password\":\"" + PASSWORD + "\"}"))
+				.andExpect(status().isOk());
+	}
+
+	// ===== Tareas =====
+
+	@Test
+	@SqlBudget(max = 2)
+	void getMyTasks() throws Exception {
+		mockMvc.perform(get("/api/tasks").header("Authorization", token)).andExpect(status().isOk());
+	}
+
+	// Solo las columnas pedidas, en la misma consulta; las etiquetas, en otra
+	@Test
+	@SqlBudget(max = 3)
+	void getMyTasksWithFields() throws Exception {
+		mockMvc.perform(get("/api/tasks").param("fields", "id,title,status,labels").header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	// Primera búsqueda: carga el índice del usuario (una consulta sea cual sea
+	// el número de tareas) y lee las encontradas por clave primaria
+	@Test
+	@SqlBudget(max = 3)
+	void searchMyTasks() throws Exception {
+		mockMvc.perform(get("/api/tasks/search").param("q", "tarea descripcion").header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	// Igual que la búsqueda: los bitmaps del usuario se cargan con una consulta
+	// y los criterios no añaden JOINs
+	@Test
+	@SqlBudget(max = 3)
+	void filterMyTasks() throws Exception {
+		mockMvc.perform(get("/api/tasks/filter").param("status", "PENDING,IN_PROGRESS")
+				.param("excludeLabels", "hecho").header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void createTask() throws Exception {
+		mockMvc.perform(post("/api/tasks").header("Authorization", token).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"Nueva tarea\"}"))
+				.andExpect(status().isCreated());
+	}
+
+	// Un INSERT por tarea (ids IDENTITY), el resto como createTask
+	@Test
+	@SqlBudget(max = 4)
+	void createTasks() throws Exception {
+		mockMvc.perform(post("/api/tasks/batch").header("Authorization", token).contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"title\":\"Primera\"},{\"title\":\"Segunda\"},{\"title\":\"Tercera\"}]"))
+				.andExpect(status().isCreated());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void countMyTasks() throws Exception {
+		mockMvc.perform(get("/api/tasks/count").header("Authorization", token)).andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void getTaskById() throws Exception {
+		mockMvc.perform(get("/api/tasks/" + myTask.getId()).header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 3)
+	void updateTask() throws Exception {
+		mockMvc.perform(put("/api/tasks/" + myTask.getId()).header("Authorization", token)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Editada\"}"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 3)
+	void changeTaskStatus() throws Exception {
+		mockMvc.perform(patch("/api/tasks/" + myTask.getId() + "/status").param("status", "IN_PROGRESS")
+				.header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 4)
+	void deleteTask() throws Exception {
+		mockMvc.perform(delete("/api/tasks/" + myTask.getId()).header("Authorization", token))
+				.andExpect(status().isNoContent());
+	}
+
+	// ===== Usuarios =====
+
+	@Test
+	@SqlBudget(max = 3)
+	void createUser() throws Exception {
+		mockMvc.perform(post("/api/users").header("Authorization", token).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Nuevo\",\"lastname\":\"Usuario\",\"email\":\"otro@unitasks.local\",\"password\":\"password123\"}"))
+				.andExpect(status().isCreated());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void getAllUsers() throws Exception {
+		mockMvc.perform(get("/api/users").header("Authorization", token)).andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void getUserPage() throws Exception {
+		mockMvc.perform(get("/api/users").param("size", "2").param("active", "true").header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	// Los ids salen del índice en memoria: solo la consulta por clave primaria
+	@Test
+	@SqlBudget(max = 2)
+	void searchUsers() throws Exception {
+		mockMvc.perform(get("/api/users/search").param("q", "nombre apellido").header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void getUserById() throws Exception {
+		mockMvc.perform(get("/api/users/" + other.getId()).header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void getUserByEmail() throws Exception {
+		mockMvc.perform(get("/api/users/email").param("email", other.getEmail()).header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 5)
+	void updateUser() throws Exception {
+		mockMvc.perform(put("/api/users/" + other.getId()).header("Authorization", token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Cambiado\",\"lastname\":\"Apellido\",\"email\":\"cambiado@unitasks.local\",\"password\":\"password123\"}"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 3)
+	void changePassword() throws Exception {
+		mockMvc.perform(patch("/api/users/" + other.getId() + "/password").header("Authorization", token)
+				.param("oldPassword", PASSWORD).param("newPassword", "otraClave123"))
+				.andExpect(status().isNoContent());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void activateUser() throws Exception {
+		mockMvc.perform(patch("/api/users/" + other.getId() + "/activate").header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 3)
+	void deactivateUser() throws Exception {
+		mockMvc.perform(patch("/api/users/" + other.getId() + "/deactivate").header("Authorization", token))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 3)
+	void deleteUser() throws Exception {
+		mockMvc.perform(delete("/api/users/" + victim.getId()).header("Authorization", token))
+				.andExpect(status().isNoContent());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void countUsers() throws Exception {
+		mockMvc.perform(get("/api/users/count").header("Authorization", token)).andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlBudget(max = 2)
+	void leaderboard() throws Exception {
+		mockMvc.perform(get("/api/users/leaderboard").header("Authorization", token)).andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,100 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Perfilado bajo demanda: solo para administradores y el .jfr descargado
+ * contiene los eventos propios de UniTasks.
+ */
+@SpringBootTest(properties = "unitasks.admin.emails=Admin@UniTasks.local")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminProfilingControllerTest {
+
+	private static final String ADMIN_EMAIL = "admin@unitasks.local";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private String adminToken;
+	private String userToken;
+
+	@BeforeEach
+	void setUp() {
+		if (userRepository.findByEmail(ADMIN_EMAIL).isEmpty()) {
+			userRepository.save(TestData.user("Admin", "UniTasks", ADMIN_EMAIL));
+		}
+		String email = "profiling-" + System.nanoTime() + "@unitasks.local";
+		userRepository.save(TestData.user("Ana", "García", email));
+		adminToken = TestData.bearer(jwtUtil, ADMIN_EMAIL);
+		userToken = TestData.bearer(jwtUtil, email);
+	}
+
+	@Test
+	void rejectsNonAdminUsers() throws Exception {
+		mockMvc.perform(post("/api/admin/profiling/start").header("Authorization", userToken))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void recordsAndStreamsCustomEvents() throws Exception {
+		mockMvc.perform(post("/api/admin/profiling/start").param("duration", "PT30S")
+				.header("Authorization", adminToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.active").value(true))
+				.andExpect(jsonPath("$.durationSeconds").value(30));
+		mockMvc.perform(post("/api/admin/profiling/start").header("Authorization", adminToken))
+				.andExpect(status().isConflict());
+
+		mockMvc.perform(get("/api/tasks").header("Authorization", userToken)).andExpect(status().isOk());
+
+		byte[] jfr = mockMvc.perform(post("/api/admin/profiling/stop").header("Authorization", adminToken))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+
+		Path file = Files.createTempFile("profiling-test-", ".jfr");
+		try {
+			Files.write(file, jfr);
+			List<String> names = RecordingFile.readAllEvents(file).stream()
+					.map(RecordedEvent::getEventType)
+					.map(type -> type.getName())
+					.toList();
+			assertThat(names).contains("com.josemiguelhyb.unitasks.ServiceCall",
+					"com.josemiguelhyb.unitasks.JwtVerification");
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		mockMvc.perform(post("/api/admin/profiling/stop").header("Authorization", adminToken))
+				.andExpect(status().isConflict());
+	}
+}
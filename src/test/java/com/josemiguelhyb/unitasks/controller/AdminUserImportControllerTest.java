@@ -0,0 +1,176 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.dto.LoginRequest;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.service.AuthService;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+/**
+ * Importación masiva de usuarios: altas por lotes, duplicados (en el fichero,
+ * ya registrados o insertados entre la comprobación y el INSERT), filas no
+ * válidas en el informe y acceso solo para administradores. Lotes de 3 filas
+ * para recorrer varios bloques con pocos usuarios.
+ */
+@SpringBootTest(properties = { "unitasks.admin.emails=admin@unitasks.local", "unitasks.import.batch-size=3" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminUserImportControllerTest {
+
+	private static final String ADMIN_EMAIL = "admin@unitasks.local";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private String adminToken;
+	private String prefix;
+
+	@BeforeEach
+	void setUp() {
+		if (userRepository.findByEmail(ADMIN_EMAIL).isEmpty()) {
+			userRepository.save(TestData.user("Admin", "UniTasks", ADMIN_EMAIL));
+		}
+		adminToken = TestData.bearer(jwtUtil, ADMIN_EMAIL);
+		prefix = "import-" + System.nanoTime() + "-";
+	}
+
+	@Test
+	void csvImportCreatesUsersAndReportsRejectedRows() throws Exception {
+		userRepository.save(TestData.user("Ya", "Registrado", prefix + "existing@unitasks.local"));
+		String csv = "name,lastname,email,password,active\n"
+				+ "Ana,García," + prefix + "0@unitasks.local,password123,true\n"
+				+ "Luis,Pérez," + prefix + "1@unitasks.local,password123,false\n"
+				+ "Ana,Otra," + prefix.toUpperCase() + "0@UNITASKS.LOCAL,password123,\n"
+				+ "Marta,Ruiz," + prefix + "existing@unitasks.local,password123,\n"
+				+ "Pablo,Díaz," + prefix + "2@unitasks.local,corta,\n"
+				+ "Sara,Gómez," + prefix + "3@unitasks.local,password123,\n"
+				+ "Elena,Martín," + prefix + "4@unitasks.local,password123,\n";
+
+		JsonNode result = importFile("text/csv", csv);
+
+		assertThat(result.get("rows").asLong()).isEqualTo(7);
+		assertThat(result.get("imported").asLong()).isEqualTo(4);
+		assertThat(result.get("duplicates").asLong()).isEqualTo(2);
+		assertThat(result.get("invalid").asLong()).isEqualTo(1);
+		assertThat(emailsWithPrefix()).containsExactly(prefix + "0@unitasks.local", prefix + "1@unitasks.local",
+				prefix + "3@unitasks.local", prefix + "4@unitasks.local", prefix + "existing@unitasks.local");
+		assertThat(authService.login(new LoginRequest(prefix + "3@unitasks.local", "password123")).getEmail())
+				.isEqualTo(prefix + "3@unitasks.local");
+		assertThat(jdbcTemplate.queryForObject("SELECT active FROM users WHERE email = ?", Boolean.class,
+				prefix + "1@unitasks.local")).isFalse();
+
+		String report = mockMvc.perform(get(result.get("reportUrl").asText()).header("Authorization", adminToken))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(report.lines().findFirst()).hasValue("line,email,error");
+		// Ordenadas por línea: el informe sigue el orden en que se rechazan dentro de cada bloque
+		List<String> lines = report.lines().skip(1).sorted().toList();
+		assertThat(lines).hasSize(3);
+		assertThat(lines.get(0)).startsWith("4,").contains("repetido en el fichero");
+		assertThat(lines.get(1)).startsWith("5,").contains("ya está registrado");
+		assertThat(lines.get(2)).startsWith("6,").contains("al menos 8 caracteres");
+	}
+
+	@Test
+	void ndjsonImportSkipsMalformedLines() throws Exception {
+		String ndjson = json("Ana", prefix + "0@unitasks.local") + "\n"
+				+ "esto no es JSON\n"
+				+ json("Luis", prefix + "1@unitasks.local") + "\n";
+
+		JsonNode result = importFile("application/x-ndjson", ndjson);
+
+		assertThat(result.get("imported").asLong()).isEqualTo(2);
+		assertThat(result.get("invalid").asLong()).isEqualTo(1);
+		assertThat(emailsWithPrefix()).hasSize(2);
+	}
+
+	@Test
+	void emailRegisteredAfterTheCheckIsReportedAndTheRestOfTheBatchImported() throws Exception {
+		// Por JDBC no pasa por el filtro de emails: la importación no lo comprueba
+		// antes y el INSERT del lote choca con el índice único
+		jdbcTemplate.update("INSERT INTO users (name, lastname, email, password, active) VALUES (?, ?, ?, ?, TRUE)",
+				"Carrera", "Simultánea", prefix + "1@unitasks.local", TestData.PASSWORD_HASH);
+		String csv = "name,lastname,email,password\n"
+				+ "Ana,García," + prefix + "0@unitasks.local,password123\n"
+				+ "Luis,Pérez," + prefix + "1@unitasks.local,password123\n"
+				+ "Sara,Gómez," + prefix + "2@unitasks.local,password123\n";
+
+		JsonNode result = importFile("text/csv", csv);
+
+		assertThat(result.get("imported").asLong()).isEqualTo(2);
+		assertThat(result.get("duplicates").asLong()).isEqualTo(1);
+		assertThat(emailsWithPrefix()).hasSize(3);
+	}
+
+	@Test
+	void rejectsCsvWithoutRequiredColumns() throws Exception {
+		mockMvc.perform(post("/api/admin/users/import").contentType("text/csv")
+				.content("name,email\nAna,ana@unitasks.local\n")
+				.header("Authorization", adminToken))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void onlyAdminsCanImport() throws Exception {
+		String email = prefix + "user@unitasks.local";
+		userRepository.save(TestData.user("Ana", "García", email));
+
+		mockMvc.perform(post("/api/admin/users/import").contentType("text/csv")
+				.content("name,lastname,email,password\n")
+				.header("Authorization", TestData.bearer(jwtUtil, email)))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/admin/users/import/desconocido/report").header("Authorization", adminToken))
+				.andExpect(status().isNotFound());
+	}
+
+	private JsonNode importFile(String contentType, String content) throws Exception {
+		String body = mockMvc.perform(post("/api/admin/users/import").contentType(contentType).content(content)
+				.header("Authorization", adminToken))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private List<String> emailsWithPrefix() {
+		return jdbcTemplate.queryForList("SELECT email FROM users WHERE email LIKE ? ORDER BY email", String.class,
+				prefix + "%");
+	}
+
+	private static String json(String name, String email) {
+		return "{\"name\":\"" + name + "\",\"lastname\":\"García\",\"email\":\"" + email
+				+ "\",\"password\":\"password123\"}";
+	}
+}
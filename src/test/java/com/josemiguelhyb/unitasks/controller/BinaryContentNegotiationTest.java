@@ -0,0 +1,202 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.service.TaskService;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Negociación de contenido con CBOR y Smile: las lecturas responden en el
+ * formato del Accept con el mismo contenido que en JSON (también con
+ * ?fields=), el alta en lote acepta los tres formatos (y rechaza entero un
+ * lote con alguna tarea no válida o demasiado largo) y sin Accept binario
+ * todo sigue en JSON.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BinaryContentNegotiationTest {
+
+	private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	// Solo para leer y escribir los cuerpos: sin la configuración de Spring
+	private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
+	private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User me;
+	private String token;
+
+	@BeforeEach
+	void seed() {
+		cleanUp();
+		String prefix = "binary-" + System.nanoTime() + "-";
+		me = userRepository.save(TestData.user("Ana", "García", prefix + "me@unitasks.local"));
+		userRepository.save(TestData.user("Luis", "Pérez", prefix + "other@unitasks.local"));
+		for (int i = 0; i < 5; i++) {
+			Task task = new Task("Tarea " + i, "Descripción " + i, me);
+			task.setStatus(TaskStatus.PENDING);
+			task.setPriority(TaskPriority.MEDIUM);
+			taskRepository.save(task);
+		}
+		token = TestData.bearer(jwtUtil, me.getEmail());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		TestData.deleteAll(jdbcTemplate, entityManagerFactory);
+	}
+
+	@Test
+	void answersReadsInTheAcceptedFormat() throws Exception {
+		for (String path : List.of("/api/tasks", "/api/tasks/count", "/api/users", "/api/users/" + me.getId(),
+				"/api/users/leaderboard")) {
+			JsonNode json = objectMapper.readTree(body(get(path), MediaType.APPLICATION_JSON));
+			assertThat(CBOR_MAPPER.readTree(body(get(path), CBOR))).as(path).isEqualTo(json);
+			assertThat(SMILE_MAPPER.readTree(body(get(path), SMILE))).as(path).isEqualTo(json);
+		}
+	}
+
+	@Test
+	void appliesFieldSelection() throws Exception {
+		JsonNode tasks = CBOR_MAPPER.readTree(body(get("/api/tasks").param("fields", "id,title"), CBOR));
+		assertThat(tasks).hasSize(5);
+		tasks.forEach(task -> assertThat(names(task)).containsExactlyInAnyOrder("id", "title"));
+	}
+
+	@Test
+	void createsBatchesFromEveryFormat() throws Exception {
+		List<Map<String, Object>> batch = List.of(
+				Map.of("title", "Examen de Álgebra", "priority", "HIGH", "labels", List.of("examen")),
+				Map.of("title", "  Comprar apuntes  "));
+
+		JsonNode created = SMILE_MAPPER.readTree(mockMvc.perform(post("/api/tasks/batch")
+				.header("Authorization", token)
+				.contentType(CBOR).content(CBOR_MAPPER.writeValueAsBytes(batch))
+				.accept(SMILE))
+				.andExpect(status().isCreated())
+				.andExpect(content().contentType(SMILE))
+				.andReturn().getResponse().getContentAsByteArray());
+		assertThat(created).hasSize(2);
+		assertThat(created.get(0).get("priority").asText()).isEqualTo("HIGH");
+		assertThat(created.get(0).get("labels").get(0).asText()).isEqualTo("examen");
+		assertThat(created.get(1).get("title").asText()).isEqualTo("Comprar apuntes");
+		assertThat(created.get(1).get("status").asText()).isEqualTo("PENDING");
+
+		mockMvc.perform(post("/api/tasks/batch").header("Authorization", token)
+				.contentType(SMILE).content(SMILE_MAPPER.writeValueAsBytes(batch)))
+				.andExpect(status().isCreated())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+		mockMvc.perform(post("/api/tasks/batch").header("Authorization", token)
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(batch)))
+				.andExpect(status().isCreated());
+
+		assertThat(taskRepository.countByUserId(me.getId())).isEqualTo(11);
+	}
+
+	@Test
+	void rejectsBatchesWithAnInvalidTask() throws Exception {
+		List<Map<String, Object>> batch = List.of(Map.of("title", "Examen de Álgebra"), Map.of("title", "   "));
+
+		mockMvc.perform(post("/api/tasks/batch").header("Authorization", token)
+				.contentType(CBOR).content(CBOR_MAPPER.writeValueAsBytes(batch)))
+				.andExpect(status().isBadRequest());
+
+		// Ni siquiera la válida
+		assertThat(taskRepository.countByUserId(me.getId())).isEqualTo(5);
+	}
+
+	@Test
+	void rejectsBatchesOverTheLimit() throws Exception {
+		List<Map<String, Object>> batch = new ArrayList<>();
+		for (int i = 0; i <= TaskService.MAX_BATCH; i++) {
+			batch.add(Map.of("title", "Tarea en lote " + i));
+		}
+
+		mockMvc.perform(post("/api/tasks/batch").header("Authorization", token)
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(batch)))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/tasks/batch").header("Authorization", token)
+				.contentType(MediaType.APPLICATION_JSON).content("[]"))
+				.andExpect(status().isBadRequest());
+
+		assertThat(taskRepository.countByUserId(me.getId())).isEqualTo(5);
+	}
+
+	@Test
+	void keepsJsonByDefault() throws Exception {
+		mockMvc.perform(get("/api/tasks").header("Authorization", token))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+		mockMvc.perform(get("/api/tasks").header("Authorization", token).accept(MediaType.ALL))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+	}
+
+	private byte[] body(MockHttpServletRequestBuilder request, MediaType accept) throws Exception {
+		return mockMvc.perform(request.header("Authorization", token).accept(accept))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(accept))
+				.andReturn().getResponse().getContentAsByteArray();
+	}
+
+	private static List<String> names(JsonNode node) {
+		List<String> names = new ArrayList<>();
+		node.fieldNames().forEachRemaining(names::add);
+		return names;
+	}
+}
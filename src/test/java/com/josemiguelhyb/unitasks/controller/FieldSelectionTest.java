@@ -0,0 +1,190 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.metrics.SqlScope;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.service.TaskService;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Selección de campos (?fields=) en las lecturas de tareas y usuarios: solo
+ * salen los campos pedidos, en los listados de tareas solo se leen esas
+ * columnas, los campos desconocidos son un 400 y sin fields nada cambia.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FieldSelectionTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User me;
+	private Task exam;
+	private String token;
+
+	@BeforeEach
+	void seed() {
+		cleanUp();
+		String prefix = "fields-" + System.nanoTime() + "-";
+		me = userRepository.save(TestData.user("Ana", "García", prefix + "me@unitasks.local"));
+		userRepository.save(TestData.user("Luis", "Pérez", prefix + "other@unitasks.local"));
+		exam = create("Examen de Álgebra", "Repasar matrices y determinantes", "examen", "álgebra");
+		create("Comprar apuntes", "En la copistería", "compras");
+		create("Práctica de laboratorio", "Informe de la práctica 3");
+		token = TestData.bearer(jwtUtil, me.getEmail());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		TestData.deleteAll(jdbcTemplate, entityManagerFactory);
+	}
+
+	@Test
+	void listsOnlyRequestedTaskFieldsWithoutReadingTheOthers() throws Exception {
+		SqlScope scope = SqlScope.open();
+		JsonNode tasks;
+		try {
+			tasks = read(get("/api/tasks").param("fields", "id,title,status,dueDate"));
+		} finally {
+			scope.close();
+		}
+		assertThat(tasks).hasSize(3);
+		tasks.forEach(task -> assertThat(names(task)).containsExactlyInAnyOrder("id", "title", "status", "dueDate"));
+		assertThat(tasks.get(0).get("title").asText()).isEqualTo("Examen de Álgebra");
+		assertThat(tasks.get(0).get("status").asText()).isEqualTo("PENDING");
+		// Ni la descripción ni las etiquetas llegan a leerse
+		assertThat(scope.getShapes().keySet())
+				.noneMatch(sql -> sql.toLowerCase().contains("description"))
+				.noneMatch(sql -> sql.toLowerCase().contains("task_labels"));
+	}
+
+	@Test
+	void readsLabelsWhenRequested() throws Exception {
+		JsonNode tasks = read(get("/api/tasks").param("fields", "title").param("fields", "labels"));
+		assertThat(names(tasks.get(0))).containsExactlyInAnyOrder("title", "labels");
+		assertThat(tasks.get(0).get("labels").toString()).isEqualTo("[\"examen\",\"álgebra\"]");
+		assertThat(tasks.get(2).get("labels")).isEmpty();
+	}
+
+	@Test
+	void trimsSingleTaskSearchAndFilter() throws Exception {
+		JsonNode task = read(get("/api/tasks/" + exam.getId()).param("fields", "title,user"));
+		assertThat(names(task)).containsExactlyInAnyOrder("title", "user");
+		// El usuario de la tarea sale entero
+		assertThat(task.get("user").get("email").asText()).isEqualTo(me.getEmail());
+
+		JsonNode found = read(get("/api/tasks/search").param("q", "matrices").param("fields", "id"));
+		assertThat(found).hasSize(1);
+		assertThat(names(found.get(0))).containsExactly("id");
+		assertThat(found.get(0).get("id").asLong()).isEqualTo(exam.getId());
+
+		JsonNode filtered = read(get("/api/tasks/filter").param("labels", "examen").param("fields", "title,labels"));
+		assertThat(filtered).hasSize(1);
+		assertThat(names(filtered.get(0))).containsExactlyInAnyOrder("title", "labels");
+	}
+
+	@Test
+	void trimsUsersAndKeepsTheCursor() throws Exception {
+		JsonNode page = read(get("/api/users").param("size", "1").param("fields", "id,email"));
+		assertThat(names(page)).contains("items", "nextCursor");
+		assertThat(names(page.get("items").get(0))).containsExactlyInAnyOrder("id", "email");
+
+		JsonNode user = read(get("/api/users/" + me.getId()).param("fields", "name"));
+		assertThat(names(user)).containsExactly("name");
+
+		JsonNode byEmail = read(get("/api/users/email").param("email", me.getEmail()).param("fields", "active"));
+		assertThat(names(byEmail)).containsExactly("active");
+	}
+
+	@Test
+	void unknownFieldsAreBadRequest() throws Exception {
+		for (String path : List.of("/api/tasks", "/api/tasks/filter", "/api/tasks/" + exam.getId())) {
+			mockMvc.perform(get(path).param("fields", "title,secret").header("Authorization", token))
+					.andExpect(status().isBadRequest());
+		}
+		mockMvc.perform(get("/api/users").param("fields", "password").header("Authorization", token))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/users/" + me.getId()).param("fields", "tasks").header("Authorization", token))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void withoutFieldsNothingChanges() throws Exception {
+		JsonNode task = read(get("/api/tasks/" + exam.getId()));
+		assertThat(names(task)).containsExactlyInAnyOrder("id", "title", "description", "status",
+				"priority", "createdAt", "updatedAt", "dueDate", "user", "labels");
+		assertThat(task.get("description").asText()).isEqualTo("Repasar matrices y determinantes");
+		read(get("/api/tasks")).forEach(each -> assertThat(names(each)).contains("description", "user"));
+
+		// Un fields vacío es lo mismo que no enviarlo
+		assertThat(names(read(get("/api/users/" + me.getId()).param("fields", ""))))
+				.contains("id", "name", "lastname", "email", "active");
+	}
+
+	private Task create(String title, String description, String... labels) {
+		Task task = new Task(title, description, null);
+		task.setStatus(TaskStatus.PENDING);
+		task.setPriority(TaskPriority.MEDIUM);
+		task.setLabels(new TreeSet<>(List.of(labels)));
+		return taskService.createTask(me.getId(), task);
+	}
+
+	private JsonNode read(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request.header("Authorization", token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private static List<String> names(JsonNode node) {
+		List<String> names = new ArrayList<>();
+		node.fieldNames().forEachRemaining(names::add);
+		return names;
+	}
+}
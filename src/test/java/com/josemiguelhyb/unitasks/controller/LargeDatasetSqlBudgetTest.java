@@ -0,0 +1,12 @@
+package com.josemiguelhyb.unitasks.controller;
+
+/**
+ * Presupuestos SQL de los endpoints con el dataset grande (30 usuarios x 40 tareas).
+ */
+class LargeDatasetSqlBudgetTest extends AbstractEndpointSqlBudgetTest {
+
+	@Override
+	protected int scale() {
+		return 10;
+	}
+}
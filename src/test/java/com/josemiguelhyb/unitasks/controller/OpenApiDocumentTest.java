@@ -0,0 +1,104 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Documento OpenAPI del build: debe coincidir con lo que springdoc genera a
+ * partir de los controladores. Si cambia la API se regenera con
+ * mvn test -Dtest=OpenApiDocumentTest -Dopenapi.update=true
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OpenApiDocumentTest {
+
+	private static final Path SNAPSHOT = Path.of("src/main/resources/openapi/openapi.json");
+
+	private static final ObjectMapper MAPPER = JsonMapper.builder()
+			.enable(SerializationFeature.INDENT_OUTPUT)
+			.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+			.build();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void buildDocumentMatchesControllers() throws Exception {
+		String generated = canonical(mockMvc.perform(get("/v3/api-docs")).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+		if (Boolean.getBoolean("openapi.update")) {
+			Files.writeString(SNAPSHOT, generated);
+		}
+
+		assertThat(Files.readString(SNAPSHOT))
+				.as("%s no coincide con los controladores; regenerar con -Dopenapi.update=true", SNAPSHOT)
+				.isEqualTo(generated);
+	}
+
+	@Test
+	void servesPrecompressedDocumentWithEtag() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get(OpenApiDocumentController.PATH)
+				.header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse();
+
+		assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(Files.readString(SNAPSHOT));
+		String etag = response.getHeader(HttpHeaders.ETAG);
+		assertThat(etag).endsWith("-gzip\"");
+
+		mockMvc.perform(get(OpenApiDocumentController.PATH).header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+	}
+
+	@Test
+	void servesPlainDocumentWithoutGzip() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get(OpenApiDocumentController.PATH))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andReturn().getResponse();
+
+		assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(Files.readString(SNAPSHOT));
+		// gzip;q=0 equivale a no aceptarlo: misma variante y mismo ETag
+		mockMvc.perform(get(OpenApiDocumentController.PATH).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0")
+				.header(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG)))
+				.andExpect(status().isNotModified());
+	}
+
+	private static String canonical(String json) throws IOException {
+		return MAPPER.writeValueAsString(MAPPER.readValue(json, Object.class)).replace("\r\n", "\n") + "\n";
+	}
+
+	private static String gunzip(byte[] data) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
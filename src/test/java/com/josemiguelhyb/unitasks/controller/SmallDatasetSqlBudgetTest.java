@@ -0,0 +1,12 @@
+package com.josemiguelhyb.unitasks.controller;
+
+/**
+ * Presupuestos SQL de los endpoints con el dataset pequeño (3 usuarios x 4 tareas).
+ */
+class SmallDatasetSqlBudgetTest extends AbstractEndpointSqlBudgetTest {
+
+	@Override
+	protected int scale() {
+		return 1;
+	}
+}
@@ -0,0 +1,141 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Mide las sentencias SQL por petición en los endpoints de escritura de
+ * TaskController con la caché de segundo nivel fría (vaciada) y caliente.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskControllerSqlCountTest {
+	private static final Logger log = LoggerFactory.getLogger(TaskControllerSqlCountTest.class);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private Statistics statistics;
+	private String token;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		String email = "cache-" + System.nanoTime() + "@unitasks.local";
+		user = userRepository.save(TestData.user("Ana", "García", email));
+		token = TestData.bearer(jwtUtil, email);
+	}
+
+	@Test
+	void createTaskUsesFewerStatementsWithWarmCache() throws Exception {
+		String body = "{\"title\":\"Estudiar\",\"priority\":\"HIGH\"}";
+		assertWarmCacheSavesStatements("POST /api/tasks",
+				post("/api/tasks").header("Authorization", token)
+						.contentType(MediaType.APPLICATION_JSON).content(body),
+				201);
+	}
+
+	@Test
+	void updateTaskUsesFewerStatementsWithWarmCache() throws Exception {
+		Task task = newTask();
+		String body = "{\"title\":\"Repasar\",\"description\":\"Tema 3\"}";
+		assertWarmCacheSavesStatements("PUT /api/tasks/{id}",
+				put("/api/tasks/" + task.getId()).header("Authorization", token)
+						.contentType(MediaType.APPLICATION_JSON).content(body),
+				200);
+	}
+
+	@Test
+	void changeStatusUsesFewerStatementsWithWarmCache() throws Exception {
+		Task task = newTask();
+		assertWarmCacheSavesStatements("PATCH /api/tasks/{id}/status",
+				patch("/api/tasks/" + task.getId() + "/status").param("status", "DONE")
+						.header("Authorization", token),
+				200);
+	}
+
+	@Test
+	void deleteTaskUsesFewerStatementsWithWarmCache() throws Exception {
+		Task cold = newTask();
+		Task warm = newTask();
+		entityManagerFactory.getCache().evictAll();
+		long coldStatements = countStatements(delete("/api/tasks/" + cold.getId()).header("Authorization", token), 204);
+
+		taskRepository.findById(warm.getId()); // calienta la región "tasks"
+		long warmStatements = countStatements(delete("/api/tasks/" + warm.getId()).header("Authorization", token), 204);
+
+		report("DELETE /api/tasks/{id}", coldStatements, warmStatements);
+		assertThat(warmStatements).isLessThan(coldStatements);
+	}
+
+	private void assertWarmCacheSavesStatements(String endpoint, RequestBuilder request, int expectedStatus)
+			throws Exception {
+		entityManagerFactory.getCache().evictAll();
+		long coldStatements = countStatements(request, expectedStatus);
+		long warmStatements = countStatements(request, expectedStatus);
+
+		report(endpoint, coldStatements, warmStatements);
+		assertThat(warmStatements).isLessThan(coldStatements);
+	}
+
+	private long countStatements(RequestBuilder request, int expectedStatus) throws Exception {
+		statistics.clear();
+		mockMvc.perform(request).andExpect(status().is(expectedStatus));
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void report(String endpoint, long coldStatements, long warmStatements) {
+		log.info("{}: {} sentencias SQL con caché fría, {} con caché caliente", endpoint, coldStatements,
+				warmStatements);
+	}
+
+	private Task newTask() {
+		Task task = new Task("Tarea", "Descripción", user);
+		task.setStatus(TaskStatus.PENDING);
+		task.setPriority(TaskPriority.MEDIUM);
+		return taskRepository.save(task);
+	}
+}
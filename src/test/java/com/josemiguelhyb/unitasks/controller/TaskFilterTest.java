@@ -0,0 +1,211 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.exception.InvalidTaskDataException;
+import com.josemiguelhyb.unitasks.index.TaskFilter;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.service.TaskService;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Filtro de las tareas propias por etiquetas, estado y prioridad (GET
+ * /api/tasks/filter): combinaciones AND/OR/NOT, el mismo resultado con los
+ * bitmaps en memoria y con SQL, aislamiento entre usuarios y un índice que
+ * sigue a los cambios de etiquetas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskFilterTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User me;
+	private String token;
+
+	@BeforeEach
+	void seed() {
+		cleanUp();
+		String prefix = "taskfilter-" + System.nanoTime() + "-";
+		me = userRepository.save(TestData.user("Ana", "García", prefix + "me@unitasks.local"));
+		User other = userRepository.save(TestData.user("Luis", "Pérez", prefix + "other@unitasks.local"));
+		create(me, "Examen de Álgebra", TaskStatus.PENDING, TaskPriority.HIGH, "Examen", "álgebra");
+		create(me, "Examen de Física", TaskStatus.DONE, TaskPriority.MEDIUM, "examen", "física", "hecho");
+		create(me, "Práctica de laboratorio", TaskStatus.IN_PROGRESS, TaskPriority.HIGH, " lab ", "física");
+		create(me, "Comprar apuntes", TaskStatus.PENDING, TaskPriority.LOW);
+		create(other, "Examen de Álgebra", TaskStatus.PENDING, TaskPriority.HIGH, "examen", "álgebra");
+		token = TestData.bearer(jwtUtil, me.getEmail());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		TestData.deleteAll(jdbcTemplate, entityManagerFactory);
+	}
+
+	@Test
+	void combinesLabelsStatusAndPriority() throws Exception {
+		assertThat(titles(filter(get("/api/tasks/filter").param("labels", "EXAMEN"))))
+				.containsExactly("Examen de Física", "Examen de Álgebra");
+		assertThat(titles(filter(get("/api/tasks/filter").param("anyLabels", "álgebra,lab"))))
+				.containsExactly("Práctica de laboratorio", "Examen de Álgebra");
+		assertThat(titles(filter(get("/api/tasks/filter").param("labels", "física").param("excludeLabels", "hecho"))))
+				.containsExactly("Práctica de laboratorio");
+		assertThat(titles(filter(get("/api/tasks/filter").param("status", "PENDING,IN_PROGRESS")
+				.param("priority", "HIGH"))))
+				.containsExactly("Práctica de laboratorio", "Examen de Álgebra");
+		// Sin criterios: las más nuevas, solo las propias
+		assertThat(titles(filter(get("/api/tasks/filter").param("limit", "2"))))
+				.containsExactly("Comprar apuntes", "Práctica de laboratorio");
+		assertThat(filter(get("/api/tasks/filter").param("labels", "examen,desconocida"))).isEmpty();
+	}
+
+	@Test
+	void sqlFallbackMatchesBitmaps() {
+		List<TaskFilter> filters = List.of(
+				new TaskFilter(Set.of("examen"), null, null, null, null),
+				new TaskFilter(Set.of("examen", "física"), null, null, null, null),
+				new TaskFilter(null, Set.of("álgebra", "lab"), Set.of("hecho"), null, null),
+				new TaskFilter(null, null, Set.of("física"), Set.of(TaskStatus.PENDING), Set.of(TaskPriority.LOW)),
+				new TaskFilter(null, null, null, null, null));
+		for (TaskFilter filter : filters) {
+			assertThat(taskRepository.findIdsByFilter(me.getId(), filter, 10))
+					.containsExactlyElementsOf(ids(taskService.filterTasks(me.getId(), filter, 10)));
+		}
+	}
+
+	@Test
+	void followsLabelChangesAndDeletes() throws Exception {
+		// El primer filtro carga el índice del usuario
+		assertThat(titles(filter(get("/api/tasks/filter").param("labels", "lab"))))
+				.containsExactly("Práctica de laboratorio");
+
+		Task created = create(me, "Repasar prácticas", TaskStatus.PENDING, TaskPriority.MEDIUM, "lab");
+		assertThat(titles(filter(get("/api/tasks/filter").param("labels", "lab"))))
+				.containsExactly("Repasar prácticas", "Práctica de laboratorio");
+
+		Task changes = new Task();
+		changes.setLabels(new TreeSet<>(Set.of("repaso")));
+		taskService.updateTask(created.getId(), changes);
+		assertThat(titles(filter(get("/api/tasks/filter").param("labels", "lab"))))
+				.containsExactly("Práctica de laboratorio");
+		JsonNode updated = filter(get("/api/tasks/filter").param("labels", "repaso"));
+		assertThat(titles(updated)).containsExactly("Repasar prácticas");
+		assertThat(updated.get(0).get("labels").get(0).asText()).isEqualTo("repaso");
+
+		// Sin etiquetas en el cambio, se quedan como estaban
+		changes = new Task();
+		changes.setTitle("Repasar teoría");
+		taskService.updateTask(created.getId(), changes);
+		assertThat(titles(filter(get("/api/tasks/filter").param("labels", "repaso"))))
+				.containsExactly("Repasar teoría");
+
+		taskService.deleteTask(created.getId());
+		assertThat(filter(get("/api/tasks/filter").param("labels", "repaso"))).isEmpty();
+	}
+
+	@Test
+	void rejectsInvalidLabels() {
+		assertThatThrownBy(() -> create(me, "Sin etiqueta", null, null, " "))
+				.isInstanceOf(InvalidTaskDataException.class);
+		assertThatThrownBy(() -> create(me, "Con coma", null, null, "a,b"))
+				.isInstanceOf(InvalidTaskDataException.class);
+		assertThatThrownBy(() -> create(me, "Larga", null, null, "x".repeat(51)))
+				.isInstanceOf(InvalidTaskDataException.class);
+	}
+
+	@Test
+	void invalidLabelsAreBadRequest() throws Exception {
+		mockMvc.perform(post("/api/tasks").header("Authorization", token).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"Con coma\",\"labels\":[\"a,b\"]}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/tasks").header("Authorization", token).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"Vacía\",\"labels\":[\" \"]}"))
+				.andExpect(status().isBadRequest());
+		assertThat(taskRepository.findByUserId(me.getId())).hasSize(4);
+	}
+
+	@Test
+	void unknownStatusIsBadRequest() throws Exception {
+		mockMvc.perform(get("/api/tasks/filter").param("status", "ARCHIVED").header("Authorization", token))
+				.andExpect(status().isBadRequest());
+	}
+
+	private Task create(User owner, String title, TaskStatus status, TaskPriority priority, String... labels) {
+		Task task = new Task(title, null, null);
+		task.setStatus(status);
+		task.setPriority(priority);
+		task.setLabels(new TreeSet<>(List.of(labels)));
+		return taskService.createTask(owner.getId(), task);
+	}
+
+	private JsonNode filter(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request.header("Authorization", token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private static List<String> titles(JsonNode tasks) {
+		List<String> titles = new ArrayList<>();
+		tasks.forEach(task -> titles.add(task.get("title").asText()));
+		return titles;
+	}
+
+	private static List<Long> ids(List<Task> tasks) {
+		return tasks.stream().map(Task::getId).toList();
+	}
+}
@@ -0,0 +1,151 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.service.TaskService;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Búsqueda de texto en las tareas propias (GET /api/tasks/search): relevancia,
+ * aislamiento entre usuarios y un índice que sigue a las altas, cambios y
+ * borrados una vez cargado.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskSearchTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User me;
+	private String token;
+
+	@BeforeEach
+	void seed() {
+		cleanUp();
+		String prefix = "tasksearch-" + System.nanoTime() + "-";
+		me = userRepository.save(TestData.user("Ana", "García", prefix + "me@unitasks.local"));
+		User other = userRepository.save(TestData.user("Luis", "Pérez", prefix + "other@unitasks.local"));
+		create(me, "Estudiar para el examen", "Álgebra lineal, tema 3");
+		create(me, "Examen de Álgebra", "Aula 2.1");
+		create(me, "Práctica de laboratorio", "Entregar la memoria antes del examen");
+		create(other, "Examen de Álgebra", "Grupo B");
+		token = TestData.bearer(jwtUtil, me.getEmail());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		TestData.deleteAll(jdbcTemplate, entityManagerFactory);
+	}
+
+	@Test
+	void ranksOwnTasksByRelevance() throws Exception {
+		// Las dos palabras en el título primero; la práctica no habla de álgebra
+		assertThat(titles(search("examen alg"))).containsExactly("Examen de Álgebra", "Estudiar para el examen");
+		assertThat(titles(search("EXAMEN"))).containsExactly("Examen de Álgebra", "Estudiar para el examen",
+				"Práctica de laboratorio");
+		assertThat(titles(search("grupo"))).isEmpty();
+	}
+
+	@Test
+	void followsCreatesUpdatesAndDeletes() throws Exception {
+		// La primera búsqueda carga el índice del usuario
+		assertThat(titles(search("practica"))).containsExactly("Práctica de laboratorio");
+
+		Task created = create(me, "Repasar prácticas", null);
+		assertThat(titles(search("practica"))).containsExactly("Práctica de laboratorio", "Repasar prácticas");
+
+		Task changes = new Task();
+		changes.setTitle("Repasar teoría");
+		taskService.updateTask(created.getId(), changes);
+		assertThat(titles(search("practica"))).containsExactly("Práctica de laboratorio");
+		assertThat(titles(search("teoria"))).containsExactly("Repasar teoría");
+
+		taskService.deleteTask(created.getId());
+		assertThat(search("teoria")).isEmpty();
+	}
+
+	@Test
+	void limitAndBlankQuery() throws Exception {
+		String body = mockMvc.perform(get("/api/tasks/search").param("q", "examen").param("limit", "1")
+				.header("Authorization", token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(objectMapper.readTree(body)).hasSize(1);
+		assertThat(search("  ")).isEmpty();
+	}
+
+	@Test
+	void sqlFallbackFindsTheSameIdsWithAndWithoutFields() {
+		// Sin índice, con ?fields= primero se buscan los ids y luego las columnas
+		PageRequest page = PageRequest.of(0, 10);
+		List<Long> ids = taskRepository.searchByText(me.getId(), "%examen%", page).stream().map(Task::getId).toList();
+
+		assertThat(ids).hasSize(3);
+		assertThat(taskRepository.searchIdsByText(me.getId(), "%examen%", page)).isEqualTo(ids);
+	}
+
+	private Task create(User owner, String title, String description) {
+		return taskService.createTask(owner.getId(), new Task(title, description, null));
+	}
+
+	private JsonNode search(String query) throws Exception {
+		String body = mockMvc.perform(get("/api/tasks/search").param("q", query).header("Authorization", token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private static List<String> titles(JsonNode tasks) {
+		List<String> titles = new ArrayList<>();
+		tasks.forEach(task -> titles.add(task.get("title").asText()));
+		return titles;
+	}
+}
@@ -0,0 +1,141 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Directorio de usuarios: paginación por clave, filtros y modo compatible de
+ * GET /api/users.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserDirectoryTest {
+
+	private static final int USERS = 25;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private String token;
+
+	@BeforeEach
+	void seed() {
+		cleanUp();
+		String prefix = "directory-" + System.nanoTime() + "-";
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			// Nombres Ana0..Ana9 y Luis10..; uno de cada cinco inactivo
+			String name = (i < 10 ? "Ana" : "Luis") + i;
+			users.add(TestData.user(name, "Apellido", prefix + i + "@unitasks.local", i % 5 != 0));
+		}
+		users.add(TestData.user("Ana_bis", "Apellido", prefix + "bis@unitasks.local"));
+		userRepository.saveAll(users);
+		token = TestData.bearer(jwtUtil, prefix + "1@unitasks.local");
+	}
+
+	@AfterEach
+	void cleanUp() {
+		TestData.deleteAll(jdbcTemplate, entityManagerFactory);
+	}
+
+	@Test
+	void pagesCoverAllUsersOnceInIdOrder() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		Long cursor = null;
+		int pages = 0;
+		do {
+			MockHttpServletRequestBuilder request = get("/api/users").param("size", "10");
+			if (cursor != null) {
+				request.param("after", cursor.toString());
+			}
+			JsonNode page = json(request);
+			page.get("items").forEach(user -> ids.add(user.get("id").asLong()));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asLong();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(ids).hasSize(USERS + 1).doesNotHaveDuplicates().isSorted();
+	}
+
+	@Test
+	void filtersByStateAndNamePrefix() throws Exception {
+		JsonNode inactive = json(get("/api/users").param("active", "false"));
+		assertThat(inactive.get("items")).hasSize(5);
+		inactive.get("items").forEach(user -> assertThat(user.get("active").asBoolean()).isFalse());
+
+		JsonNode ana = json(get("/api/users").param("name", "ana").param("active", "true"));
+		assertThat(ana.get("items")).hasSize(9);
+
+		// "_" se compara literalmente, no como comodín de LIKE
+		JsonNode underscore = json(get("/api/users").param("name", "Ana_"));
+		assertThat(underscore.get("items")).hasSize(1);
+		assertThat(underscore.get("items").get(0).get("name").asText()).isEqualTo("Ana_bis");
+	}
+
+	@Test
+	void pageSizeIsCapped() throws Exception {
+		JsonNode page = json(get("/api/users").param("size", "100000"));
+		assertThat(page.get("items")).hasSize(USERS + 1);
+		assertThat(page.get("nextCursor").isNull()).isTrue();
+	}
+
+	@Test
+	void legacyModeReturnsPlainArrayWithoutPasswordHash() throws Exception {
+		JsonNode users = json(get("/api/users"));
+
+		assertThat(users.isArray()).isTrue();
+		assertThat(users).hasSize(USERS + 1);
+		users.forEach(user -> {
+			assertThat(user.has("password")).isFalse();
+			assertThat(user.has("email")).isTrue();
+		});
+	}
+
+	private JsonNode json(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request.header("Authorization", token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
@@ -0,0 +1,146 @@
+package com.josemiguelhyb.unitasks.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.index.UserSearchIndex;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.service.UserService;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Búsqueda mientras se escribe (GET /api/users/search): el índice en memoria
+ * sigue a las altas, cambios y borrados, sin distinguir tildes ni mayúsculas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserSearchTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserSearchIndex userSearchIndex;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User jose;
+	private String token;
+
+	@BeforeEach
+	void seed() {
+		cleanUp();
+		String prefix = "search-" + System.nanoTime() + "-";
+		List<User> users = new ArrayList<>();
+		users.add(TestData.user("José", "García López", prefix + "jose@unitasks.local"));
+		users.add(TestData.user("Josefa", "Martínez", prefix + "josefa@unitasks.local"));
+		for (int i = 0; i < 60; i++) {
+			users.add(TestData.user("Ana", "Apellido" + i, prefix + i + "@unitasks.local"));
+		}
+		userRepository.saveAll(users);
+		jose = users.get(0);
+		// Busca uno de los que no se cambian ni se borran en las pruebas
+		token = TestData.bearer(jwtUtil, users.get(users.size() - 1).getEmail());
+	}
+
+	// Los borrados por JDBC no pasan por el índice: se reconstruye
+	@AfterEach
+	void cleanUp() {
+		TestData.deleteAll(jdbcTemplate, entityManagerFactory);
+		userSearchIndex.rebuild();
+	}
+
+	@Test
+	void findsUsersByWordPrefixesWithoutAccents() throws Exception {
+		JsonNode users = search("jose gar");
+
+		assertThat(users).hasSize(1);
+		assertThat(users.get(0).get("id").asLong()).isEqualTo(jose.getId());
+		assertThat(users.get(0).get("name").asText()).isEqualTo("José");
+		assertThat(users.get(0).has("password")).isFalse();
+	}
+
+	@Test
+	void followsCreatesUpdatesAndDeletes() throws Exception {
+		assertThat(names(search("jos"))).containsExactly("José", "Josefa");
+
+		User updated = new User("Pepe", "García López", jose.getEmail(), "unused", true);
+		userService.updateUser(jose.getId(), updated);
+		assertThat(names(search("jos"))).containsExactly("Josefa");
+		assertThat(names(search("pepe garcia"))).containsExactly("Pepe");
+
+		userService.createUser(new User("Jorge", "Sanz", "search-new-" + System.nanoTime() + "@unitasks.local",
+				"password123", true));
+		assertThat(names(search("jo"))).containsExactly("Jorge", "Josefa");
+
+		userService.deleteUser(jose.getId());
+		assertThat(search("pepe")).isEmpty();
+	}
+
+	@Test
+	void limitIsCapped() throws Exception {
+		assertThat(search("ana")).hasSize(10);
+		assertThat(json(get("/api/users/search").param("q", "ana").param("limit", "5"))).hasSize(5);
+		assertThat(json(get("/api/users/search").param("q", "ana").param("limit", "1000"))).hasSize(50);
+	}
+
+	@Test
+	void blankQueryReturnsNothing() throws Exception {
+		assertThat(search(" ")).isEmpty();
+	}
+
+	private JsonNode search(String query) throws Exception {
+		return json(get("/api/users/search").param("q", query));
+	}
+
+	private static List<String> names(JsonNode users) {
+		List<String> names = new ArrayList<>();
+		users.forEach(user -> names.add(user.get("name").asText()));
+		return names;
+	}
+
+	private JsonNode json(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request.header("Authorization", token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
@@ -0,0 +1,73 @@
+package com.josemiguelhyb.unitasks.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Generación del dataset sobre H2 (inserciones por lotes): volúmenes,
+ * mezcla de estados, sesgo de Zipf y que una segunda ejecución no duplica.
+ */
+@SpringBootTest(properties = { "unitasks.seed.users=200", "unitasks.seed.tasks=5000",
+		"unitasks.seed.email-prefix=seedtest" })
+@ActiveProfiles({ "test", "seed" })
+class DatasetGeneratorTest {
+
+	@Autowired
+	private DatasetGenerator generator;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void generatesSkewedDatasetOnlyOnce() throws Exception {
+		// El runner ya se ejecutó al arrancar el contexto: volver a lanzarlo no duplica
+		generator.run(new DefaultApplicationArguments());
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE 'seedtest%'",
+				Integer.class)).isEqualTo(200);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class)).isEqualTo(5000);
+
+		Map<String, Integer> byStatus = new HashMap<>();
+		jdbcTemplate.query("SELECT status, COUNT(*) FROM tasks GROUP BY status",
+				rs -> { byStatus.put(rs.getString(1), rs.getInt(2)); });
+		assertThat(byStatus).containsOnlyKeys("PENDING", "IN_PROGRESS", "DONE", "EXPIRED");
+		assertThat(byStatus.get("PENDING")).isBetween(1500, 2000);
+
+		// Las tareas vencidas tienen la fecha límite en el pasado
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM tasks WHERE status = 'EXPIRED' AND (due_date IS NULL OR due_date > CURRENT_TIMESTAMP)",
+				Integer.class)).isZero();
+
+		// El 10% de usuarios con más tareas acumula bastante más del 10%
+		List<Integer> perUser = jdbcTemplate.queryForList(
+				"SELECT COUNT(*) FROM tasks GROUP BY user_id ORDER BY COUNT(*) DESC", Integer.class);
+		int top = perUser.subList(0, 20).stream().mapToInt(Integer::intValue).sum();
+		assertThat(top).isGreaterThan(5000 / 2);
+	}
+
+	@Test
+	void zipfSamplesFollowRankOrder() {
+		ZipfDistribution zipf = new ZipfDistribution(100, 1.0);
+		Random random = new Random(1);
+		int[] counts = new int[100];
+		for (int i = 0; i < 100_000; i++) {
+			counts[zipf.sample(random)]++;
+		}
+
+		assertThat(counts[0]).isGreaterThan(counts[1]).isGreaterThan(counts[9]);
+		assertThat(counts[0] / 100_000.0).isCloseTo(zipf.headShare(1), offset(0.01));
+		assertThat(zipf.headShare(100)).isCloseTo(1.0, offset(1e-9));
+	}
+}
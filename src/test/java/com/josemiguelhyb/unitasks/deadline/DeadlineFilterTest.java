@@ -0,0 +1,69 @@
+package com.josemiguelhyb.unitasks.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Presupuesto por ruta, cabecera X-Request-Timeout y respuesta 504.
+ */
+class DeadlineFilterTest {
+
+	private final DeadlineFilter filter = new DeadlineFilter(new SimpleMeterRegistry(), true, Duration.ofSeconds(10),
+			List.of("GET /api/users/leaderboard=3s", "GET /api/**/count=2s", "* /api/admin/**=30s"));
+
+	@Test
+	void usesFirstMatchingRouteBudget() {
+		assertThat(budget("GET", "/api/users/leaderboard", null)).isEqualTo(Duration.ofSeconds(3));
+		assertThat(budget("GET", "/api/tasks/count", null)).isEqualTo(Duration.ofSeconds(2));
+		assertThat(budget("POST", "/api/admin/profiling/start", null)).isEqualTo(Duration.ofSeconds(30));
+		assertThat(budget("POST", "/api/tasks", null)).isEqualTo(Duration.ofSeconds(10));
+	}
+
+	@Test
+	void headerCanOnlyShortenBudget() {
+		assertThat(budget("GET", "/api/users/leaderboard", "500")).isEqualTo(Duration.ofMillis(500));
+		assertThat(budget("GET", "/api/users/leaderboard", "60000")).isEqualTo(Duration.ofSeconds(3));
+		assertThat(budget("GET", "/api/users/leaderboard", "pronto")).isEqualTo(Duration.ofSeconds(3));
+	}
+
+	@Test
+	void deadlineIsVisibleDuringRequestOnly() throws Exception {
+		AtomicReference<RequestDeadline> seen = new AtomicReference<>();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/count");
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.set(RequestDeadline.current()));
+
+		assertThat(seen.get().getBudget()).isEqualTo(Duration.ofSeconds(2));
+		assertThat(RequestDeadline.current()).isNull();
+	}
+
+	@Test
+	void timeoutBecomesGatewayTimeout() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/users/leaderboard"), response, (req, res) -> {
+			throw new QueryTimeoutException("cancelada");
+		});
+
+		assertThat(response.getStatus()).isEqualTo(504);
+		assertThat(RequestDeadline.current()).isNull();
+	}
+
+	private Duration budget(String method, String path, String header) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		if (header != null) {
+			request.addHeader(DeadlineFilter.TIMEOUT_HEADER, header);
+		}
+		return filter.budgetFor(request);
+	}
+}
@@ -0,0 +1,128 @@
+package com.josemiguelhyb.unitasks.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.support.TestData;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Plazos de petición sobre H2: una consulta que se pasa del plazo se cancela
+ * en la base de datos, la petición responde 504 y la conexión vuelve al pool
+ * en cuanto se cancela, sin esperar a que la consulta termine.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(DeadlineQueryTimeoutTest.SlowEndpoint.class)
+class DeadlineQueryTimeoutTest {
+
+	// CTE recursiva que en H2 tarda bastante más que los plazos de la prueba
+	static final String SLOW_QUERY = "WITH RECURSIVE r(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM r WHERE n < 50000000) "
+			+ "SELECT COUNT(*) FROM r";
+
+	@RestController
+	static class SlowEndpoint {
+
+		@PersistenceContext
+		private EntityManager entityManager;
+
+		@GetMapping("/api/test/slow")
+		@Transactional(readOnly = true)
+		public Object slow() {
+			return entityManager.createNativeQuery(SLOW_QUERY).getSingleResult();
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private HikariDataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		String email = "deadline-" + System.nanoTime() + "@unitasks.local";
+		userRepository.save(TestData.user("Ana", "García", email));
+		token = TestData.bearer(jwtUtil, email);
+	}
+
+	@Test
+	void slowQueryIsCancelledAtClientDeadline() throws Exception {
+		long start = System.nanoTime();
+		mockMvc.perform(get("/api/test/slow").header("Authorization", token)
+				.header(DeadlineFilter.TIMEOUT_HEADER, "1000"))
+				.andExpect(status().isGatewayTimeout());
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		// Timeout de 1 s (los de JDBC van en segundos) más el margen de cancelación de H2
+		assertThat(elapsed).isLessThan(Duration.ofSeconds(3));
+		assertThat(activeConnectionsAfter(Duration.ofMillis(500))).isZero();
+		// La conexión se reutiliza en vez de cerrarse por el SQLTimeoutException
+		assertThat(dataSource.getHikariPoolMXBean().getIdleConnections()).isPositive();
+	}
+
+	@Test
+	void expiredDeadlineFailsBeforeBorrowingConnection() {
+		RequestDeadline deadline = RequestDeadline.start(Duration.ZERO);
+		try {
+			assertThatThrownBy(() -> new TransactionTemplate(transactionManager).execute(status -> "no debería ejecutarse"))
+					.isInstanceOf(TransactionTimedOutException.class);
+		} finally {
+			deadline.finish();
+		}
+		assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+	}
+
+	@Test
+	void transactionsWithoutDeadlineKeepDefaultTimeout() {
+		assertThat(RequestDeadline.current()).isNull();
+		Object one = new TransactionTemplate(transactionManager).execute(status -> "sin plazo");
+		assertThat(one).isEqualTo("sin plazo");
+	}
+
+	private int activeConnectionsAfter(Duration wait) throws InterruptedException {
+		long deadline = System.nanoTime() + wait.toNanos();
+		int active = dataSource.getHikariPoolMXBean().getActiveConnections();
+		while (active > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			active = dataSource.getHikariPoolMXBean().getActiveConnections();
+		}
+		return active;
+	}
+}
@@ -0,0 +1,91 @@
+package com.josemiguelhyb.unitasks.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lectura de los ficheros de importación: CSV con comillas y columnas en
+ * cualquier orden, NDJSON con líneas erróneas y número de línea de cada fila.
+ */
+class ImportRowReaderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void csvSupportsQuotesReorderedColumnsAndCrlf() throws IOException {
+		String csv = "﻿Email,Password,Name,Lastname,Active\r\n"
+				+ "ana@unitasks.local,password123,Ana,\"García, \"\"Anita\"\"\",false\r\n"
+				+ "\r\n"
+				+ "luis@unitasks.local,password123,\"Luis\nMaría\",Pérez,\r\n";
+
+		List<ImportRow> rows = read(ImportFormat.CSV, csv);
+
+		assertThat(rows).hasSize(2);
+		assertThat(rows.get(0).line).isEqualTo(2);
+		assertThat(rows.get(0).email).isEqualTo("ana@unitasks.local");
+		assertThat(rows.get(0).lastname).isEqualTo("García, \"Anita\"");
+		assertThat(rows.get(0).active).isFalse();
+		assertThat(rows.get(1).line).isEqualTo(4);
+		assertThat(rows.get(1).name).isEqualTo("Luis\nMaría");
+		assertThat(rows.get(1).active).isTrue();
+	}
+
+	@Test
+	void csvRowsWithMissingColumnsOrBadValuesCarryAnError() throws IOException {
+		String csv = "name,lastname,email,password,active\n"
+				+ "Ana,García\n"
+				+ "Luis,Pérez,luis@unitasks.local,password123,quizá\n";
+
+		List<ImportRow> rows = read(ImportFormat.CSV, csv);
+
+		assertThat(rows).extracting(row -> row.error).allSatisfy(error -> assertThat(error).isNotNull());
+		assertThat(rows.get(1).email).isEqualTo("luis@unitasks.local");
+	}
+
+	@Test
+	void csvHeaderMustHaveRequiredColumns() {
+		assertThatThrownBy(() -> read(ImportFormat.CSV, "name,email,password\nAna,ana@unitasks.local,x\n"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("lastname");
+	}
+
+	@Test
+	void ndjsonKeepsReadingAfterMalformedLines() throws IOException {
+		String ndjson = "{\"name\":\"Ana\",\"lastname\":\"García\",\"email\":\"ana@unitasks.local\",\"password\":\"password123\"}\n"
+				+ "{\"name\": \n"
+				+ "\n"
+				+ "[1, 2]\n"
+				+ "{\"name\":\"Luis\",\"lastname\":\"Pérez\",\"email\":\"luis@unitasks.local\",\"password\":\"password123\",\"active\":false}\n";
+
+		List<ImportRow> rows = read(ImportFormat.NDJSON, ndjson);
+
+		assertThat(rows).hasSize(4);
+		assertThat(rows.get(0).error).isNull();
+		assertThat(rows.get(1).error).startsWith("JSON no válido");
+		assertThat(rows.get(2).line).isEqualTo(4);
+		assertThat(rows.get(2).error).isNotNull();
+		assertThat(rows.get(3).line).isEqualTo(5);
+		assertThat(rows.get(3).active).isFalse();
+	}
+
+	private List<ImportRow> read(ImportFormat format, String content) throws IOException {
+		ImportRowReader reader = ImportRowReader.of(format, new BufferedReader(new StringReader(content)),
+				objectMapper);
+		List<ImportRow> rows = new ArrayList<>();
+		ImportRow row;
+		while ((row = reader.next()) != null) {
+			rows.add(row);
+		}
+		return rows;
+	}
+}
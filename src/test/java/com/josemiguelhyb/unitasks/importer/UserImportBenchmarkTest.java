@@ -0,0 +1,64 @@
+package com.josemiguelhyb.unitasks.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.josemiguelhyb.unitasks.dto.ImportResult;
+import com.josemiguelhyb.unitasks.dto.RegisterRequest;
+import com.josemiguelhyb.unitasks.service.AuthService;
+
+/**
+ * Usuarios por segundo de la importación masiva sobre un CSV de 50.000 filas,
+ * frente a altas una a una con AuthService.register (como hacía el script de
+ * cada cuatrimestre con POST /api/users). Se ejecuta con mvn test -Pbenchmark;
+ * -Dimport.rows cambia el tamaño del fichero.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class UserImportBenchmarkTest {
+
+	private static final int ROWS = Integer.getInteger("import.rows", 50_000);
+	// Las altas una a una son lentas: se mide una muestra y se extrapola
+	private static final int SEQUENTIAL_SAMPLE = 200;
+
+	@Autowired
+	private UserImporter userImporter;
+
+	@Autowired
+	private AuthService authService;
+
+	@Test
+	void bulkImportThroughput() throws Exception {
+		String prefix = "bench-" + System.nanoTime() + "-";
+
+		long start = System.nanoTime();
+		for (int i = 0; i < SEQUENTIAL_SAMPLE; i++) {
+			authService.register(new RegisterRequest("Alumno", "Secuencial", prefix + "seq-" + i + "@unitasks.local",
+					"password123"));
+		}
+		double sequentialPerSecond = SEQUENTIAL_SAMPLE * 1e9 / (System.nanoTime() - start);
+
+		StringBuilder csv = new StringBuilder(ROWS * 64).append("name,lastname,email,password\n");
+		for (int i = 0; i < ROWS; i++) {
+			csv.append("Alumno,Importado,").append(prefix).append(i).append("@unitasks.local,password123\n");
+		}
+		ImportResult result = userImporter.importUsers(
+				new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+
+		System.out.printf("Importación de %d filas: %d ms, %.0f usuarios/s (una a una: %.0f usuarios/s, %.1fx)%n",
+				ROWS, result.getDurationMs(), result.getUsersPerSecond(), sequentialPerSecond,
+				result.getUsersPerSecond() / sequentialPerSecond);
+
+		assertThat(result.getImported()).isEqualTo(ROWS);
+		assertThat(result.getReportUrl()).isNull();
+	}
+}
@@ -0,0 +1,111 @@
+package com.josemiguelhyb.unitasks.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conjunto comprimido de ids: contenedores de array y de bitmap, operaciones
+ * entre conjuntos y recorrido de mayor a menor, comparados con un TreeSet.
+ */
+class CompressedBitmapTest {
+
+	@Test
+	void addRemoveAndContainsAcrossContainers() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		bitmap.add(3);
+		bitmap.add(70_000);
+		bitmap.add(Long.MAX_VALUE);
+		bitmap.add(3);
+
+		assertThat(bitmap.cardinality()).isEqualTo(3);
+		assertThat(bitmap.contains(70_000)).isTrue();
+		assertThat(bitmap.contains(4)).isFalse();
+
+		bitmap.remove(70_000);
+		bitmap.remove(5);
+		assertThat(bitmap.contains(70_000)).isFalse();
+		assertThat(descending(bitmap, Integer.MAX_VALUE)).containsExactly(Long.MAX_VALUE, 3L);
+	}
+
+	@Test
+	void denseContainersBecomeBitmapsAndBack() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		for (long id = 0; id < 10_000; id++) {
+			bitmap.add(id);
+		}
+		long dense = bitmap.sizeInBytes();
+		// 10 000 ids en un bitmap de 8 KB en lugar de un array de 20 KB
+		assertThat(dense).isLessThan(10_000 * 2);
+
+		for (long id = 0; id < 9_000; id++) {
+			bitmap.remove(id);
+		}
+		assertThat(bitmap.cardinality()).isEqualTo(1_000);
+		assertThat(bitmap.sizeInBytes()).isLessThan(dense);
+		assertThat(descending(bitmap, 2)).containsExactly(9_999L, 9_998L);
+	}
+
+	@Test
+	void setOperationsMatchTreeSet() {
+		Random random = new Random(42);
+		for (int round = 0; round < 50; round++) {
+			TreeSet<Long> expectedA = new TreeSet<>();
+			TreeSet<Long> expectedB = new TreeSet<>();
+			CompressedBitmap a = fill(random, expectedA);
+			CompressedBitmap b = fill(random, expectedB);
+
+			TreeSet<Long> and = new TreeSet<>(expectedA);
+			and.retainAll(expectedB);
+			TreeSet<Long> or = new TreeSet<>(expectedA);
+			or.addAll(expectedB);
+			TreeSet<Long> andNot = new TreeSet<>(expectedA);
+			andNot.removeAll(expectedB);
+
+			assertThat(descending(a.and(b), Integer.MAX_VALUE)).containsExactlyElementsOf(and.descendingSet());
+			assertThat(descending(a.or(b), Integer.MAX_VALUE)).containsExactlyElementsOf(or.descendingSet());
+			assertThat(descending(a.andNot(b), Integer.MAX_VALUE)).containsExactlyElementsOf(andNot.descendingSet());
+			assertThat(a.and(b).cardinality()).isEqualTo(and.size());
+			// Los operandos no cambian
+			assertThat(a.cardinality()).isEqualTo(expectedA.size());
+			assertThat(b.cardinality()).isEqualTo(expectedB.size());
+		}
+	}
+
+	@Test
+	void descendingWalkStopsWhenAsked() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		for (long id = 1; id <= 100_000; id += 7) {
+			bitmap.add(id);
+		}
+		assertThat(descending(bitmap, 3)).containsExactly(99_996L, 99_989L, 99_982L);
+		assertThat(new CompressedBitmap().isEmpty()).isTrue();
+	}
+
+	// Ids en pocos bloques de 65 536 para que haya contenedores densos y dispersos
+	private static CompressedBitmap fill(Random random, TreeSet<Long> expected) {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		int count = random.nextInt(20_000);
+		int spread = random.nextBoolean() ? 70_000 : 300_000;
+		for (int i = 0; i < count; i++) {
+			long id = random.nextInt(spread);
+			bitmap.add(id);
+			expected.add(id);
+		}
+		return bitmap;
+	}
+
+	private static List<Long> descending(CompressedBitmap bitmap, int limit) {
+		List<Long> ids = new ArrayList<>();
+		bitmap.forEachDescending(id -> {
+			ids.add(id);
+			return ids.size() < limit;
+		});
+		return ids;
+	}
+}
@@ -0,0 +1,153 @@
+package com.josemiguelhyb.unitasks.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.josemiguelhyb.unitasks.dto.LoginRequest;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.service.AuthService;
+import com.josemiguelhyb.unitasks.service.UserService;
+import com.josemiguelhyb.unitasks.support.SqlBudget;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Filtro de emails delante de GET /api/users/email: los emails que no existen
+ * no llegan a la base de datos y las altas se ven al momento. La
+ * autenticación no depende de él.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailExistenceFilterTest {
+
+	@Autowired
+	private EmailExistenceFilter emailFilter;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@AfterEach
+	void cleanUp() {
+		TestData.deleteAll(jdbcTemplate, entityManagerFactory);
+		emailFilter.rebuild();
+	}
+
+	@Test
+	@SqlBudget(max = 0)
+	void unknownEmailsAreRejectedWithoutQueries() {
+		double absentBefore = absentChecks();
+
+		assertThat(userService.getUserByEmail("nadie-" + System.nanoTime() + "@unitasks.local")).isEmpty();
+
+		assertThat(absentChecks()).isEqualTo(absentBefore + 1);
+	}
+
+	@Test
+	void authenticationDoesNotTrustTheFilter() {
+		// Alta por JDBC, como otra instancia o DatasetGenerator: el filtro no se entera
+		String email = "jdbc-" + System.nanoTime() + "@unitasks.local";
+		jdbcTemplate.update("INSERT INTO users (name, lastname, email, password, active) VALUES (?, ?, ?, ?, ?)",
+				"Ana", "García", email, TestData.PASSWORD_HASH, true);
+		assertThat(emailFilter.mightExist(email)).isFalse();
+
+		assertThat(authService.getCurrentUser(email).getEmail()).isEqualTo(email);
+		assertThat(userRepository.findByEmail(email)).isPresent();
+		assertThatThrownBy(() -> authService.login(new LoginRequest(email, "password123")))
+				.hasMessage("Credenciales inválidas");
+	}
+
+	@Test
+	void newUsersAreFoundImmediately() {
+		String email = "bloom-" + System.nanoTime() + "@unitasks.local";
+		userRepository.save(TestData.user("Ana", "García", email));
+
+		assertThat(emailFilter.mightExist(email)).isTrue();
+		assertThat(userService.getUserByEmail(email)).isPresent();
+	}
+
+	@Test
+	void onlyEmailChangesAddToTheFilter() {
+		String email = "update-" + System.nanoTime() + "@unitasks.local";
+		// Más usuarios para que un email obsoleto no supere rebuild-stale-ratio y reconstruya
+		List<User> others = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			others.add(TestData.user("Luis", "Pérez", i + "-" + email));
+		}
+		userRepository.saveAll(others);
+		User user = userRepository.save(TestData.user("Ana", "García", email));
+		double emailsBefore = emailGauge();
+
+		for (int i = 0; i < 5; i++) {
+			userService.updateUser(user.getId(), new User("Ana " + i, "García", email, null, true));
+		}
+		assertThat(emailGauge()).isEqualTo(emailsBefore);
+
+		String newEmail = "changed-" + email;
+		double staleBefore = meterRegistry.get("unitasks.email.filter.stale").gauge().value();
+		userService.updateUser(user.getId(), new User("Ana", "García", newEmail, null, true));
+
+		assertThat(emailGauge()).isEqualTo(emailsBefore + 1);
+		assertThat(meterRegistry.get("unitasks.email.filter.stale").gauge().value()).isEqualTo(staleBefore + 1);
+		assertThat(emailFilter.mightExist(newEmail)).isTrue();
+	}
+
+	@Test
+	void rebuildDropsDeletedEmails() {
+		String prefix = "deleted-" + System.nanoTime() + "-";
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			users.add(TestData.user("Ana", "García", prefix + i + "@unitasks.local"));
+		}
+		userRepository.saveAll(users);
+		// Los borrados superan rebuild-stale-ratio y ya lanzan una reconstrucción
+		// en segundo plano; se reconstruye aquí para no depender de cuándo acaba
+		userRepository.deleteAll(users);
+		emailFilter.rebuild();
+
+		assertThat(meterRegistry.get("unitasks.email.filter.stale").gauge().value()).isZero();
+		int stillMaybe = 0;
+		for (User user : users) {
+			if (emailFilter.mightExist(user.getEmail())) {
+				stillMaybe++;
+			}
+		}
+		// Solo los falsos positivos del filtro nuevo (1 % esperado)
+		assertThat(stillMaybe).isLessThan(10);
+	}
+
+	private double emailGauge() {
+		return meterRegistry.get("unitasks.email.filter.emails").gauge().value();
+	}
+
+	private double absentChecks() {
+		return meterRegistry.get("unitasks.email.filter.checks").tag("result", "absent").counter().count();
+	}
+}
@@ -0,0 +1,85 @@
+package com.josemiguelhyb.unitasks.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Propiedades del filtro de Bloom escalable: sin falsos negativos, tasa de
+ * falsos positivos dentro de la configurada (también tras crecer) y memoria
+ * por email cercana al óptimo teórico (~1,2 bytes al 1 %).
+ */
+class ScalableBloomFilterTest {
+
+	private static final double RATE = 0.01;
+	private static final int PROBES = 200_000;
+
+	@Test
+	void neverReportsAnAddedEmailAsAbsent() {
+		ScalableBloomFilter filter = new ScalableBloomFilter(1_000, RATE);
+		for (int i = 0; i < 50_000; i++) {
+			filter.put(email("user", i));
+		}
+		for (int i = 0; i < 50_000; i++) {
+			assertThat(filter.mightContain(email("user", i))).isTrue();
+		}
+		// Los falsos positivos ya parecen estar y no se cuentan (1 % como mucho)
+		assertThat(filter.count()).isBetween(49_500L, 50_000L);
+	}
+
+	@Test
+	void addingTheSameEmailAgainDoesNotCountIt() {
+		ScalableBloomFilter filter = new ScalableBloomFilter(10, RATE);
+		for (int i = 0; i < 1_000; i++) {
+			filter.put(email("user", 1));
+		}
+
+		assertThat(filter.count()).isEqualTo(1);
+		assertThat(filter.filterCount()).isEqualTo(1);
+	}
+
+	@Test
+	void falsePositiveRateStaysWithinConfiguredRate() {
+		ScalableBloomFilter filter = new ScalableBloomFilter(100_000, RATE);
+		for (int i = 0; i < 100_000; i++) {
+			filter.put(email("user", i));
+		}
+
+		assertThat(filter.filterCount()).isEqualTo(1);
+		assertThat(measuredRate(filter)).isLessThanOrEqualTo(RATE);
+	}
+
+	@Test
+	void growingKeepsFalsePositiveRateBounded() {
+		// 20 veces la capacidad inicial: varios filtros encadenados
+		ScalableBloomFilter filter = new ScalableBloomFilter(5_000, RATE);
+		for (int i = 0; i < 100_000; i++) {
+			filter.put(email("user", i));
+		}
+
+		assertThat(filter.filterCount()).isGreaterThan(3);
+		assertThat(measuredRate(filter)).isLessThanOrEqualTo(RATE);
+	}
+
+	@Test
+	void millionEmailsFitInAboutOneAndAHalfMegabytes() {
+		ScalableBloomFilter filter = new ScalableBloomFilter(1_000_000, RATE);
+
+		// m = -n ln p / (ln 2)^2 bits: 1,14 MB para p/2 (la tasa del primer filtro)
+		assertThat(filter.sizeInBytes()).isLessThan(1_500_000);
+	}
+
+	private static double measuredRate(ScalableBloomFilter filter) {
+		int positives = 0;
+		for (int i = 0; i < PROBES; i++) {
+			if (filter.mightContain(email("absent", i))) {
+				positives++;
+			}
+		}
+		return (double) positives / PROBES;
+	}
+
+	private static String email(String prefix, int i) {
+		return prefix + i + "@unitasks.local";
+	}
+}
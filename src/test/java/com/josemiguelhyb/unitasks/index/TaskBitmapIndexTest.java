@@ -0,0 +1,80 @@
+package com.josemiguelhyb.unitasks.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+
+/**
+ * Filtro de las tareas de un usuario por etiquetas (AND, OR, NOT), estado y
+ * prioridad, con las más nuevas primero y cambios que sustituyen a lo
+ * anterior.
+ */
+class TaskBitmapIndexTest {
+
+	@Test
+	void combinesAllAnyAndExcludedLabels() {
+		TaskBitmapIndex index = index();
+
+		assertThat(index.filter(labels(Set.of("examen"), Set.of(), Set.of()), 10)).containsExactly(4L, 2L, 1L);
+		assertThat(index.filter(labels(Set.of("examen", "algebra"), Set.of(), Set.of()), 10)).containsExactly(2L, 1L);
+		assertThat(index.filter(labels(Set.of(), Set.of("fisica", "lab"), Set.of()), 10)).containsExactly(4L, 3L);
+		assertThat(index.filter(labels(Set.of("examen"), Set.of(), Set.of("hecho")), 10)).containsExactly(4L, 2L);
+		assertThat(index.filter(labels(Set.of("examen", "desconocida"), Set.of(), Set.of()), 10)).isEmpty();
+		assertThat(index.filter(labels(Set.of(), Set.of("desconocida"), Set.of()), 10)).isEmpty();
+	}
+
+	@Test
+	void filtersByStatusAndPriority() {
+		TaskBitmapIndex index = index();
+
+		assertThat(index.filter(new TaskFilter(null, null, null, Set.of(TaskStatus.DONE), null), 10))
+				.containsExactly(1L);
+		assertThat(index.filter(new TaskFilter(Set.of("examen"), null, null,
+				Set.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS), Set.of(TaskPriority.HIGH)), 10))
+				.containsExactly(2L);
+	}
+
+	@Test
+	void emptyFilterReturnsNewestFirstUpToLimit() {
+		TaskBitmapIndex index = index();
+
+		assertThat(index.filter(new TaskFilter(null, null, null, null, null), 10)).containsExactly(4L, 3L, 2L, 1L);
+		assertThat(index.filter(new TaskFilter(null, null, Set.of("examen"), null, null), 10)).containsExactly(3L);
+		assertThat(index.filter(new TaskFilter(null, null, null, null, null), 2)).containsExactly(4L, 3L);
+	}
+
+	@Test
+	void putReplacesAndRemoveDrops() {
+		TaskBitmapIndex index = index();
+
+		index.put(1, TaskStatus.PENDING, TaskPriority.LOW, List.of("repaso"));
+		index.remove(4);
+		index.remove(99);
+
+		assertThat(index.filter(labels(Set.of("examen"), Set.of(), Set.of()), 10)).containsExactly(2L);
+		assertThat(index.filter(labels(Set.of("repaso"), Set.of(), Set.of()), 10)).containsExactly(1L);
+		assertThat(index.filter(new TaskFilter(null, null, null, Set.of(TaskStatus.DONE), null), 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(3);
+		// "hecho" y "fisica" ya no las tiene ninguna tarea
+		assertThat(index.labels()).isEqualTo(4);
+	}
+
+	private static TaskBitmapIndex index() {
+		TaskBitmapIndex index = new TaskBitmapIndex();
+		index.put(1, TaskStatus.DONE, TaskPriority.MEDIUM, List.of("examen", "algebra", "hecho"));
+		index.put(2, TaskStatus.PENDING, TaskPriority.HIGH, List.of("examen", "algebra"));
+		index.put(3, TaskStatus.IN_PROGRESS, TaskPriority.LOW, List.of("lab"));
+		index.put(4, TaskStatus.PENDING, TaskPriority.MEDIUM, List.of("examen", "fisica"));
+		return index;
+	}
+
+	private static TaskFilter labels(Set<String> all, Set<String> any, Set<String> excluded) {
+		return new TaskFilter(all, any, excluded, null, null);
+	}
+}
@@ -0,0 +1,87 @@
+package com.josemiguelhyb.unitasks.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Búsqueda de texto en las tareas de un usuario: palabras sin tildes ni
+ * mayúsculas, prefijos, todas las palabras de la consulta y orden por
+ * relevancia.
+ */
+class TaskTextIndexTest {
+
+	@Test
+	void matchesWordsAndPrefixesIgnoringCaseAndAccents() {
+		TaskTextIndex index = new TaskTextIndex();
+		index.put(1, "Examen de Álgebra", "Repasar matrices y determinantes");
+		index.put(2, "Práctica de laboratorio", "Entregar la memoria en PDF");
+
+		assertThat(index.search("algebra", 10)).containsExactly(1L);
+		assertThat(index.search("ÁLGEB", 10)).containsExactly(1L);
+		assertThat(index.search("practica", 10)).containsExactly(2L);
+		assertThat(index.search("pdf", 10)).containsExactly(2L);
+		assertThat(index.search("física", 10)).isEmpty();
+	}
+
+	@Test
+	void everyQueryWordMustMatch() {
+		TaskTextIndex index = new TaskTextIndex();
+		index.put(1, "Examen de Álgebra", "Tema 3");
+		index.put(2, "Examen de Física", "Tema 5");
+
+		assertThat(index.search("examen fis", 10)).containsExactly(2L);
+		assertThat(index.search("tema algebra", 10)).containsExactly(1L);
+		assertThat(index.search("algebra fisica", 10)).isEmpty();
+	}
+
+	@Test
+	void stopwordsAreIgnoredExceptWhileTyping() {
+		TaskTextIndex index = new TaskTextIndex();
+		index.put(1, "Deberes de inglés", "Write the lab report");
+
+		// "de" y "the" no se indexan ni filtran...
+		assertThat(index.search("deberes de ingles", 10)).containsExactly(1L);
+		assertThat(index.search("the lab report", 10)).containsExactly(1L);
+		// ...pero la última palabra puede ser el comienzo de otra
+		assertThat(index.search("de", 10)).containsExactly(1L);
+	}
+
+	@Test
+	void titleMatchesAndExactWordsRankFirst() {
+		TaskTextIndex index = new TaskTextIndex();
+		index.put(1, "Comprar material", "Después del examen");
+		index.put(2, "Examen final", "Aula 2");
+		index.put(3, "Exámenes finales", "Aula 3");
+
+		assertThat(index.search("examen", 10)).containsExactly(2L, 3L, 1L);
+		assertThat(index.search("examen", 2)).containsExactly(2L, 3L);
+	}
+
+	@Test
+	void newerTasksFirstOnEqualScore() {
+		TaskTextIndex index = new TaskTextIndex();
+		index.put(5, "Leer capítulo", null);
+		index.put(9, "Leer capítulo", null);
+		index.put(7, "Leer capítulo", null);
+
+		assertThat(index.search("capitulo", 10)).containsExactly(9L, 7L, 5L);
+	}
+
+	@Test
+	void updatesReplaceTermsAndRemovalsDropThem() {
+		TaskTextIndex index = new TaskTextIndex();
+		index.put(1, "Examen de Álgebra", null);
+		index.put(2, "Examen de Física", null);
+
+		index.put(1, "Examen de Química", null);
+		index.remove(2);
+
+		assertThat(index.search("algebra", 10)).isEmpty();
+		assertThat(index.search("quimica", 10)).containsExactly(1L);
+		assertThat(index.search("fisica", 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+		// examen y quimica
+		assertThat(index.terms()).isEqualTo(2);
+	}
+}
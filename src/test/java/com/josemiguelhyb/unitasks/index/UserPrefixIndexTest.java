@@ -0,0 +1,100 @@
+package com.josemiguelhyb.unitasks.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Búsqueda por prefijos del índice de usuarios: sin distinguir mayúsculas ni
+ * tildes, todas las palabras de la consulta y los mismos resultados tanto si
+ * el usuario está en la instantánea como en el delta.
+ */
+class UserPrefixIndexTest {
+
+	@Test
+	void matchesWordPrefixesIgnoringCaseAndAccents() {
+		UserPrefixIndex index = built();
+
+		assertThat(index.search("jose", 10)).containsExactly(1L, 2L);
+		assertThat(index.search("JOSÉ", 10)).containsExactly(1L, 2L);
+		assertThat(index.search("muñ", 10)).containsExactly(3L);
+		// Cada palabra del apellido compuesto es un término
+		assertThat(index.search("garcia", 10)).containsExactly(1L);
+		assertThat(index.search("lopez", 10)).containsExactly(1L);
+		// El email completo también, desde su inicio
+		assertThat(index.search("ana.m", 10)).containsExactly(3L);
+		assertThat(index.search("unitasks", 10)).isEmpty();
+	}
+
+	@Test
+	void everyQueryWordMustMatch() {
+		UserPrefixIndex index = built();
+
+		assertThat(index.search("jose gar", 10)).containsExactly(1L);
+		assertThat(index.search("gar jose", 10)).containsExactly(1L);
+		assertThat(index.search("jose mar", 10)).containsExactly(2L);
+		assertThat(index.search("jose muñoz", 10)).isEmpty();
+		assertThat(index.search("   ", 10)).isEmpty();
+	}
+
+	@Test
+	void resultsAreLimitedAndOrderedByMatchingTerm() {
+		UserPrefixIndex index = new UserPrefixIndex();
+		UserPrefixIndex.Builder builder = index.startRebuild();
+		for (int i = 0; i < 100; i++) {
+			builder.add(i, "Usuario", "Número" + (99 - i), "u" + i + "@unitasks.local");
+		}
+		index.finishRebuild(builder);
+
+		assertThat(index.search("usu", 5)).hasSize(5);
+		// numero0 es el usuario 99, numero1 el 98...
+		assertThat(index.search("numero", 3)).containsExactly(99L, 98L, 89L);
+	}
+
+	@Test
+	void changesAfterTheSnapshotAreSearchable() {
+		UserPrefixIndex index = built();
+
+		index.put(4, "Lucía", "Fernández", "lucia@unitasks.local");
+		index.put(1, "Josefa", "García", "josefa@unitasks.local");
+		index.remove(3);
+
+		assertThat(index.search("luc", 10)).containsExactly(4L);
+		// Los términos antiguos del usuario 1 dejan de encontrarlo
+		assertThat(index.search("lopez", 10)).isEmpty();
+		assertThat(index.search("josef", 10)).containsExactly(1L);
+		assertThat(index.search("jose", 10)).containsExactly(2L, 1L);
+		assertThat(index.search("ana", 10)).isEmpty();
+		assertThat(index.pendingChanges()).isEqualTo(3);
+		assertThat(index.snapshotUsers()).isEqualTo(3);
+	}
+
+	@Test
+	void changesDuringARebuildAreKept() {
+		UserPrefixIndex index = built();
+
+		UserPrefixIndex.Builder builder = index.startRebuild();
+		// La lectura de la tabla empezó antes de estos cambios y no los ve
+		builder.add(1, "José", "García López", "jose.garcia@unitasks.local");
+		builder.add(2, "José", "Martínez", "jmartinez@unitasks.local");
+		builder.add(3, "Ana", "Muñoz", "ana.munoz@unitasks.local");
+		index.put(4, "Lucía", "Fernández", "lucia@unitasks.local");
+		index.remove(2);
+		index.finishRebuild(builder);
+
+		assertThat(index.search("luc", 10)).containsExactly(4L);
+		assertThat(index.search("jose", 10)).containsExactly(1L);
+		assertThat(index.pendingChanges()).isEqualTo(2);
+		assertThat(index.sizeInBytes()).isPositive();
+	}
+
+	private static UserPrefixIndex built() {
+		UserPrefixIndex index = new UserPrefixIndex();
+		UserPrefixIndex.Builder builder = index.startRebuild();
+		builder.add(3, "Ana", "Muñoz", "ana.munoz@unitasks.local");
+		builder.add(1, "José", "García López", "jose.garcia@unitasks.local");
+		builder.add(2, "José", "Martínez", "jmartinez@unitasks.local");
+		index.finishRebuild(builder);
+		return index;
+	}
+}
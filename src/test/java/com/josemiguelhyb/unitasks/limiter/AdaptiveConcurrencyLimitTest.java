@@ -0,0 +1,99 @@
+package com.josemiguelhyb.unitasks.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * AdaptiveConcurrencyLimit sin hilos ni relojes: las latencias se pasan a
+ * mano, así el reparto por prioridad y el ajuste AIMD son deterministas. La
+ * simulación con carga real está en ConcurrencyLimitSimulationTest.
+ */
+class AdaptiveConcurrencyLimitTest {
+
+	private static final long MILLI = Duration.ofMillis(1).toNanos();
+	private static final long MAX_LATENCY = Duration.ofSeconds(5).toNanos();
+
+	@Test
+	void admissionFollowsPriorityShares() {
+		// Límite 10: LOW hasta 5 en curso, NORMAL hasta 8 y CRITICAL hasta 10
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 200, 0.9, 2.0, MAX_LATENCY);
+		for (int i = 0; i < 5; i++) {
+			assertThat(limit.tryAcquire(RequestPriority.LOW)).isTrue();
+		}
+		assertThat(limit.tryAcquire(RequestPriority.LOW)).isFalse();
+		for (int i = 5; i < 8; i++) {
+			assertThat(limit.tryAcquire(RequestPriority.NORMAL)).isTrue();
+		}
+		assertThat(limit.tryAcquire(RequestPriority.NORMAL)).isFalse();
+		assertThat(limit.tryAcquire(RequestPriority.CRITICAL)).isTrue();
+		assertThat(limit.tryAcquire(RequestPriority.CRITICAL)).isTrue();
+		assertThat(limit.tryAcquire(RequestPriority.CRITICAL)).isFalse();
+		assertThat(limit.getInflight()).isEqualTo(10);
+	}
+
+	@Test
+	void growsWithoutCongestionAndBacksOffWhenLatencyRises() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 200, 0.9, 2.0, MAX_LATENCY);
+		// Latencia estable: sube (de uno en uno por cada "límite" completadas)
+		complete(limit, "GET /api/tasks", 200, 2 * MILLI);
+		double grown = limit.getLimit();
+		assertThat(grown).isGreaterThan(10);
+
+		// Diez veces la latencia sin carga de la ruta: baja hasta el mínimo
+		complete(limit, "GET /api/tasks", 50, 20 * MILLI);
+		assertThat(limit.getLimit()).isEqualTo(4);
+
+		// Una ruta lenta por diseño no se confunde con congestión
+		AdaptiveConcurrencyLimit other = new AdaptiveConcurrencyLimit(10, 4, 200, 0.9, 2.0, MAX_LATENCY);
+		complete(other, "GET /api/tasks/count", 200, 2 * MILLI);
+		complete(other, "POST /api/auth/login", 200, 100 * MILLI);
+		assertThat(other.getLimit()).isGreaterThan(grown);
+	}
+
+	@Test
+	void longSlowdownKeepsBackingOff() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 200, 0.9, 2.0, MAX_LATENCY);
+		complete(limit, "GET /api/tasks", 200, 2 * MILLI);
+
+		// Diez ventanas lentas: la referencia apenas sube (~10 %) y sigue siendo congestión
+		complete(limit, "GET /api/tasks", 10 * AdaptiveConcurrencyLimit.BASELINE_WINDOW, 20 * MILLI);
+		assertThat(limit.getLimit()).isEqualTo(4);
+
+		// Al recuperarse vuelve a subir
+		complete(limit, "GET /api/tasks", 200, 2 * MILLI);
+		assertThat(limit.getLimit()).isGreaterThan(4);
+	}
+
+	@Test
+	void permanentlySlowerRouteBecomesTheBaseline() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 200, 0.9, 2.0, MAX_LATENCY);
+		complete(limit, "GET /api/tasks", 200, 2 * MILLI);
+
+		// x1,01 por ventana: 20 ms dejan de ser más del doble de la referencia tras ~160 ventanas
+		complete(limit, "GET /api/tasks", 200 * AdaptiveConcurrencyLimit.BASELINE_WINDOW, 20 * MILLI);
+		assertThat(limit.getLimit()).isGreaterThan(10);
+	}
+
+	@Test
+	void failuresAndMaxLatencyAreCongestion() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 4, 200, 0.5, 2.0, MAX_LATENCY);
+		assertThat(limit.tryAcquire(RequestPriority.NORMAL)).isTrue();
+		limit.onComplete("GET /api/tasks", MILLI, true);
+		assertThat(limit.getLimit()).isEqualTo(50);
+
+		assertThat(limit.tryAcquire(RequestPriority.NORMAL)).isTrue();
+		limit.onComplete("GET /api/users", MAX_LATENCY + 1, false);
+		assertThat(limit.getLimit()).isEqualTo(25);
+		assertThat(limit.getInflight()).isZero();
+	}
+
+	private static void complete(AdaptiveConcurrencyLimit limit, String route, int requests, long rttNanos) {
+		for (int i = 0; i < requests; i++) {
+			assertThat(limit.tryAcquire(RequestPriority.CRITICAL)).isTrue();
+			limit.onComplete(route, rttNanos, false);
+		}
+	}
+}
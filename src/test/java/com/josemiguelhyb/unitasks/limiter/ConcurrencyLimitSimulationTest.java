@@ -0,0 +1,196 @@
+package com.josemiguelhyb.unitasks.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Simulación del limitador con una base de datos de mentira: un pool de pocas
+ * conexiones y un tiempo por consulta que pasa de rápido a lento a mitad de la
+ * prueba. Con el limitador, las peticiones admitidas no se quedan esperando
+ * conexión y el exceso se rechaza empezando por las de menor prioridad.
+ * Depende del reloj y de los núcleos disponibles, así que se ejecuta con mvn
+ * test -Pbenchmark; la lógica del límite la cubre AdaptiveConcurrencyLimitTest.
+ */
+@Tag("benchmark")
+class ConcurrencyLimitSimulationTest {
+
+	private static final int CLIENTS = 24;
+	private static final int CONNECTIONS = 4;
+	private static final long FAST_QUERY_MILLIS = 2;
+	private static final long SLOW_QUERY_MILLIS = 25;
+	private static final long FAST_PHASE_MILLIS = 1000;
+	// Se mide la segunda mitad de la fase lenta, cuando el límite ya se ha adaptado
+	private static final long SLOW_PHASE_MILLIS = 3000;
+
+	private static final String[][] REQUESTS = {
+			{ "GET", "/api/users/leaderboard" },
+			{ "GET", "/api/tasks" },
+			{ "POST", "/api/tasks" },
+			{ "POST", "/api/auth/login" },
+			{ "GET", "/api/tasks/count" },
+	};
+
+	@Test
+	void shedsLowPriorityFirstAndBoundsLatencyWhenDatabaseSlowsDown() throws Exception {
+		Result limited = simulate(true);
+		Result unlimited = simulate(false);
+		System.out.printf("Con limitador: límite %.1f, p90 %d ms, rechazo %s%n", limited.finalLimit,
+				limited.p90Millis(), limited.rejectionRates());
+		System.out.printf("Sin limitador: p90 %d ms%n", unlimited.p90Millis());
+
+		// El límite baja al ralentizarse la base de datos
+		assertThat(limited.finalLimit).isLessThan(20);
+		// Lo crítico se sigue admitiendo mientras se rechaza el resto. Con la base de
+		// datos saturada LOW y NORMAL se rechazan casi siempre y su orden exacto es
+		// ruido: lo comprueba AdaptiveConcurrencyLimitTest de forma determinista
+		assertThat(limited.rejectionRate(RequestPriority.CRITICAL))
+				.isLessThan(limited.rejectionRate(RequestPriority.NORMAL) - 0.2)
+				.isLessThan(limited.rejectionRate(RequestPriority.LOW) - 0.2);
+		// Sin limitador todo espera en la cola de conexiones
+		assertThat(unlimited.rejectionRate(RequestPriority.LOW)).isZero();
+		assertThat(limited.p90Millis()).isLessThan(unlimited.p90Millis() / 2);
+	}
+
+	private static Result simulate(boolean enabled) throws Exception {
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new SimpleMeterRegistry(), enabled, 20, 4, 200,
+				0.9, 2.0, Duration.ofSeconds(5));
+		SlowDatabase database = new SlowDatabase(CONNECTIONS, FAST_QUERY_MILLIS);
+		FilterChain application = (request, response) -> {
+			HttpServletRequest http = (HttpServletRequest) request;
+			http.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, http.getRequestURI());
+			database.query();
+		};
+
+		Result result = new Result();
+		long start = System.currentTimeMillis();
+		long slowFrom = start + FAST_PHASE_MILLIS;
+		long measureFrom = slowFrom + SLOW_PHASE_MILLIS / 2;
+		long end = slowFrom + SLOW_PHASE_MILLIS;
+
+		List<Thread> clients = new ArrayList<>();
+		for (int c = 0; c < CLIENTS; c++) {
+			int client = c;
+			Thread thread = new Thread(() -> {
+				int i = client;
+				while (System.currentTimeMillis() < end) {
+					String[] kind = REQUESTS[i++ % REQUESTS.length];
+					MockHttpServletRequest request = new MockHttpServletRequest(kind[0], kind[1]);
+					MockHttpServletResponse response = new MockHttpServletResponse();
+					long sent = System.nanoTime();
+					try {
+						filter.doFilter(request, response, application);
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+					long elapsed = System.nanoTime() - sent;
+					boolean rejected = response.getStatus() == 503;
+					if (System.currentTimeMillis() >= measureFrom) {
+						result.record(RequestPriority.of(kind[0], kind[1]), rejected, elapsed);
+					}
+					if (rejected) {
+						// Un cliente real esperaría el Retry-After (1 s); 50 ms mantienen la presión
+						sleep(50);
+					}
+				}
+			});
+			thread.start();
+			clients.add(thread);
+		}
+
+		Thread.sleep(FAST_PHASE_MILLIS);
+		database.serviceMillis = SLOW_QUERY_MILLIS;
+		for (Thread client : clients) {
+			client.join();
+		}
+		result.finalLimit = filter.getLimit().getLimit();
+		return result;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Pool de conexiones con un tiempo fijo por consulta
+	private static final class SlowDatabase {
+		private final Semaphore connections;
+		private volatile long serviceMillis;
+
+		SlowDatabase(int connections, long serviceMillis) {
+			this.connections = new Semaphore(connections, true);
+			this.serviceMillis = serviceMillis;
+		}
+
+		void query() {
+			connections.acquireUninterruptibly();
+			try {
+				sleep(serviceMillis);
+			} finally {
+				connections.release();
+			}
+		}
+	}
+
+	private static final class Result {
+		private final Map<RequestPriority, AtomicLong> accepted = new EnumMap<>(RequestPriority.class);
+		private final Map<RequestPriority, AtomicLong> rejected = new EnumMap<>(RequestPriority.class);
+		private final List<Long> admittedNanos = Collections.synchronizedList(new ArrayList<>());
+		private double finalLimit;
+
+		Result() {
+			for (RequestPriority priority : RequestPriority.values()) {
+				accepted.put(priority, new AtomicLong());
+				rejected.put(priority, new AtomicLong());
+			}
+		}
+
+		void record(RequestPriority priority, boolean wasRejected, long nanos) {
+			if (wasRejected) {
+				rejected.get(priority).incrementAndGet();
+			} else {
+				accepted.get(priority).incrementAndGet();
+				admittedNanos.add(nanos);
+			}
+		}
+
+		double rejectionRate(RequestPriority priority) {
+			long total = accepted.get(priority).get() + rejected.get(priority).get();
+			return total == 0 ? 0 : rejected.get(priority).get() / (double) total;
+		}
+
+		Map<RequestPriority, String> rejectionRates() {
+			Map<RequestPriority, String> rates = new EnumMap<>(RequestPriority.class);
+			for (RequestPriority priority : RequestPriority.values()) {
+				rates.put(priority, String.format("%.0f%%", rejectionRate(priority) * 100));
+			}
+			return rates;
+		}
+
+		long p90Millis() {
+			List<Long> sorted = new ArrayList<>(admittedNanos);
+			Collections.sort(sorted);
+			return sorted.isEmpty() ? 0 : sorted.get((int) (sorted.size() * 0.9)) / 1_000_000;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguelhyb.unitasks.dto.AuthResponse;
+import com.josemiguelhyb.unitasks.dto.ImportResult;
+import com.josemiguelhyb.unitasks.dto.LeaderboardEntry;
+import com.josemiguelhyb.unitasks.dto.LoginRequest;
+import com.josemiguelhyb.unitasks.dto.ProfilingStatus;
+import com.josemiguelhyb.unitasks.dto.RegisterRequest;
+import com.josemiguelhyb.unitasks.dto.UserPage;
+import com.josemiguelhyb.unitasks.dto.UserSummary;
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+/**
+ * Conversores CBOR y Smile: cada DTO y entidad que entra o sale de la API
+ * vuelve igual tras escribirlo y leerlo (comparado con su JSON), con la
+ * configuración del ObjectMapper de Spring Boot, y ocupa menos que en JSON.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BinaryMessageConvertersTest {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TimedCborHttpMessageConverter cborConverter;
+
+	@Autowired
+	private TimedSmileHttpMessageConverter smileConverter;
+
+	@Test
+	void roundTripsEveryDtoAndEntity() throws Exception {
+		List<Object> values = List.of(
+				task(1),
+				user(1),
+				new UserSummary(3L, "Luis", "Pérez", "luis@unitasks.local", false),
+				new UserPage(List.of(new UserSummary(1L, "Ana", "García", "ana@unitasks.local", true)), 1L),
+				new UserPage(List.of(), null),
+				new LeaderboardEntry(1L, "Ana", "García", "ana@unitasks.local", 10L, 3L, 2L, 5L, 1L),
+				new AuthResponse("eyJhbGciOiJIUzI1NiJ9.e30.firma", "ana@unitasks.local", "Ana", "García"),
+				new LoginRequest("ana@unitasks.local", "password123"),
+				new RegisterRequest("Ana", "García", "ana@unitasks.local", "password123"),
+				new ImportResult("import-1", 1000, 990, 5, 5, 1234, 810.5, "/api/admin/users/import/import-1/report"),
+				new ProfilingStatus(true, Instant.parse("2025-12-19T10:30:00.123Z"), 60L, 100_000_000L));
+
+		for (ObjectMapper binary : List.of(cborConverter.getObjectMapper(), smileConverter.getObjectMapper())) {
+			for (Object value : values) {
+				byte[] bytes = binary.writeValueAsBytes(value);
+				Object back = binary.readValue(bytes, value.getClass());
+				assertThat(objectMapper.valueToTree(back).toString())
+						.as("%s en %s", value.getClass().getSimpleName(), binary.getFactory().getFormatName())
+						.isEqualTo(objectMapper.valueToTree(value).toString());
+			}
+		}
+	}
+
+	@Test
+	void roundTripsTaskListsAndTheyAreSmallerThanJson() throws Exception {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			tasks.add(task(i));
+		}
+		JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, Task.class);
+		int json = objectMapper.writeValueAsBytes(tasks).length;
+
+		for (ObjectMapper binary : List.of(cborConverter.getObjectMapper(), smileConverter.getObjectMapper())) {
+			byte[] bytes = binary.writeValueAsBytes(tasks);
+			List<Task> back = binary.readValue(bytes, type);
+			assertThat(objectMapper.writeValueAsString(back)).isEqualTo(objectMapper.writeValueAsString(tasks));
+			assertThat(bytes.length).as(binary.getFactory().getFormatName()).isLessThan(json);
+		}
+	}
+
+	@Test
+	void writesDatesLikeJson() throws Exception {
+		// Fechas ISO-8601 como en JSON, no marcas de tiempo numéricas
+		ObjectMapper cbor = cborConverter.getObjectMapper();
+		assertThat(cbor.readTree(cbor.writeValueAsBytes(task(1))).get("createdAt").isTextual()).isTrue();
+	}
+
+	private static Task task(int i) {
+		Task task = new Task("Tarea " + i, "Descripción de la tarea " + i, user(i % 3));
+		task.setId((long) i);
+		task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+		task.setPriority(TaskPriority.values()[i % TaskPriority.values().length]);
+		task.setCreatedAt(LocalDateTime.of(2025, 12, 19, 10, 30).plusMinutes(i));
+		task.setUpdatedAt(LocalDateTime.of(2025, 12, 20, 8, 0, 0, 123_456_000));
+		task.setDueDate(i % 2 == 0 ? null : LocalDateTime.of(2026, 1, 15, 9, 0));
+		task.setLabels(new TreeSet<>(i % 2 == 0 ? List.of("examen", "álgebra") : List.of()));
+		return task;
+	}
+
+	private static User user(int i) {
+		User user = TestData.user("Ana" + i, "García", "ana" + i + "@unitasks.local", i % 2 == 0);
+		user.setId((long) i);
+		return user;
+	}
+}
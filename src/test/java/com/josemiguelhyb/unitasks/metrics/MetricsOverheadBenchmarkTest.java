@@ -0,0 +1,85 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.josemiguelhyb.unitasks.warmup.FirstRequestLatencies;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Coste de la instrumentación por petición: RequestMetricsFilter, el
+ * StatementInspector y un timer con histograma, frente a la misma cadena sin
+ * instrumentar. Se ejecuta con mvn test -Pbenchmark.
+ */
+@Tag("benchmark")
+class MetricsOverheadBenchmarkTest {
+
+	private static final int WARMUP = 200_000;
+	private static final int ITERATIONS = 1_000_000;
+	private static final String SQL = "select t1_0.id from tasks t1_0 where t1_0.user_id=?";
+
+	private final SqlStatementInspector inspector = new SqlStatementInspector();
+	private final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+	private final Timer jwtTimer = Timer.builder("unitasks.jwt.verification").publishPercentileHistogram()
+			.register(registry);
+
+	@Test
+	void instrumentationOverheadPerRequestIsNegligible() throws Exception {
+		RequestMetricsFilter filter = new RequestMetricsFilter(registry,
+				new SqlBudgetGuard(new SimpleMeterRegistry(), false, 30, 15, 5),
+				new FirstRequestLatencies(registry, 0));
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/7");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{id}");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Petición simulada: 5 sentencias SQL y la verificación del JWT
+		FilterChain plainChain = (req, res) -> simulatedRequest(false);
+		FilterChain instrumentedChain = (req, res) -> simulatedRequest(true);
+
+		for (int i = 0; i < WARMUP; i++) {
+			plainChain.doFilter(request, response);
+			filter.doFilter(request, response, instrumentedChain);
+			request.removeAttribute(RequestMetricsFilter.class.getName() + ".FILTERED");
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			plainChain.doFilter(request, response);
+		}
+		long plainNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			filter.doFilter(request, response, instrumentedChain);
+			request.removeAttribute(RequestMetricsFilter.class.getName() + ".FILTERED");
+		}
+		long instrumentedNanos = System.nanoTime() - start;
+
+		double overheadPerRequest = (instrumentedNanos - plainNanos) / (double) ITERATIONS;
+		System.out.printf("Instrumentación: %.0f ns/petición (sin: %.0f ns, con: %.0f ns)%n", overheadPerRequest,
+				plainNanos / (double) ITERATIONS, instrumentedNanos / (double) ITERATIONS);
+
+		// Una petición real tarda milisegundos: unos pocos microsegundos son despreciables
+		assertThat(overheadPerRequest).isLessThan(5_000);
+	}
+
+	private void simulatedRequest(boolean instrumented) {
+		Timer.Sample sample = instrumented ? Timer.start(registry) : null;
+		for (int i = 0; i < 5; i++) {
+			inspector.inspect(SQL);
+		}
+		if (sample != null) {
+			sample.stop(jwtTimer);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.josemiguelhyb.unitasks.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.josemiguelhyb.unitasks.model.Task;
+import com.josemiguelhyb.unitasks.model.TaskPriority;
+import com.josemiguelhyb.unitasks.model.TaskStatus;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+/**
+ * Cabecera Server-Timing bajo demanda y log de peticiones lentas (umbral
+ * mínimo para que todas cuenten como lentas).
+ */
+@SpringBootTest(properties = "unitasks.slow-request.threshold=1ns")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class ServerTimingFilterTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		String email = "timing-" + System.nanoTime() + "@unitasks.local";
+		User user = userRepository.save(TestData.user("Ana", "García", email));
+		Task task = new Task("Estudiar", "Tema 3", user);
+		task.setStatus(TaskStatus.PENDING);
+		task.setPriority(TaskPriority.MEDIUM);
+		taskRepository.save(task);
+		token = TestData.bearer(jwtUtil, email);
+	}
+
+	@Test
+	void addsBreakdownWhenRequested() throws Exception {
+		String serverTiming = mockMvc.perform(get("/api/tasks").header("Authorization", token)
+				.header(ServerTimingFilter.OPT_IN_HEADER, "1"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Estudiar")))
+				.andReturn().getResponse().getHeader(ServerTimingFilter.SERVER_TIMING_HEADER);
+
+		assertThat(serverTiming).contains("auth;dur=", "db;dur=", "sentencias\"", "service;dur=",
+				"serialization;dur=", "total;dur=");
+	}
+
+	@Test
+	void omitsHeaderByDefault() throws Exception {
+		mockMvc.perform(get("/api/tasks").header("Authorization", token))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(ServerTimingFilter.SERVER_TIMING_HEADER));
+	}
+
+	@Test
+	void logsSlowRequestWithParameterizedSql(CapturedOutput output) throws Exception {
+		mockMvc.perform(get("/api/tasks").header("Authorization", token)).andExpect(status().isOk());
+
+		assertThat(output).contains("lenta GET /api/tasks").contains("from tasks").contains("=?");
+	}
+}
@@ -0,0 +1,103 @@
+package com.josemiguelhyb.unitasks.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.josemiguelhyb.unitasks.UnitasksApplication;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Las entidades coinciden con el esquema que crean las migraciones: en H2
+ * siempre y, si hay un PostgreSQL local (UNITASKS_TEST_PG_URL,
+ * UNITASKS_TEST_PG_USER, UNITASKS_TEST_PG_PASSWORD), también en un esquema
+ * nuevo de PostgreSQL, donde el índice se crea con CONCURRENTLY.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+	private static final String INDEX = "idx_tasks_user_id_status";
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void entitiesMatchMigratedSchemaOnH2() {
+		assertThat(appliedVersions(flyway)).containsExactly("1", "2", "3", "4");
+		entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().validateMappedObjects();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = ?", Integer.class, INDEX))
+				.isPositive();
+	}
+
+	@Test
+	void entitiesMatchMigratedSchemaOnPostgres() throws Exception {
+		String url = System.getenv("UNITASKS_TEST_PG_URL");
+		assumeTrue(url != null, "Sin PostgreSQL local (UNITASKS_TEST_PG_URL)");
+		String user = System.getenv("UNITASKS_TEST_PG_USER");
+		String password = System.getenv("UNITASKS_TEST_PG_PASSWORD");
+		String schema = "migration_test_" + System.nanoTime();
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UnitasksApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+						"--spring.datasource.username=" + user,
+						"--spring.datasource.password=" + password,
+						"--spring.flyway.schemas=" + schema,
+						"--spring.jpa.show-sql=false",
+						"--unitasks.cache.invalidation.enabled=false",
+						"--unitasks.warmup.enabled=false")) {
+			Flyway pgFlyway = context.getBean(Flyway.class);
+			assertThat(appliedVersions(pgFlyway)).containsExactly("1", "2", "3", "4");
+			context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getSchemaManager()
+					.validateMappedObjects();
+			Boolean valid = context.getBean(JdbcTemplate.class).queryForObject("""
+					SELECT i.indisvalid FROM pg_index i
+					JOIN pg_class c ON c.oid = i.indexrelid
+					JOIN pg_namespace n ON n.oid = c.relnamespace
+					WHERE c.relname = ? AND n.nspname = ?
+					""", Boolean.class, INDEX, schema);
+			assertThat(valid).isTrue();
+		} finally {
+			try (Connection connection = DriverManager.getConnection(url, user, password);
+					Statement statement = connection.createStatement()) {
+				statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+			}
+		}
+	}
+
+	// Sin la fila de creación del esquema, que no tiene versión
+	private static List<String> appliedVersions(Flyway flyway) {
+		return Arrays.stream(flyway.info().applied())
+				.map(MigrationInfo::getVersion)
+				.filter(Objects::nonNull)
+				.map(Object::toString)
+				.toList();
+	}
+}
@@ -0,0 +1,99 @@
+package com.josemiguelhyb.unitasks.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Proxy;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.josemiguelhyb.unitasks.cache.CacheInvalidationPublisher;
+import com.josemiguelhyb.unitasks.index.TaskFilterIndex;
+import com.josemiguelhyb.unitasks.index.TaskSearchIndex;
+import com.josemiguelhyb.unitasks.repository.TaskRepository;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.service.TaskService;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Coste de los eventos JFR sin grabación activa: la misma llamada a un
+ * servicio a través de un aspecto que solo hace proceed() y a través de
+ * ServiceCallEventAspect. El coste del proxy AOP es igual en ambos, así que
+ * la diferencia es lo que añade el evento. Se ejecuta con mvn test -Pbenchmark.
+ */
+@Tag("benchmark")
+class JfrOverheadBenchmarkTest {
+
+	private static final int WARMUP = 500_000;
+	private static final int ITERATIONS = 2_000_000;
+	private static final int ROUNDS = 5;
+
+	@Test
+	void serviceCallEventsAreFreeWithoutRecording() {
+		((Logger) LoggerFactory.getLogger(TaskService.class)).setLevel(Level.WARN);
+		TaskService target = new TaskService(countingRepository(), mock(UserRepository.class),
+				mock(CacheInvalidationPublisher.class), mock(TaskSearchIndex.class), mock(TaskFilterIndex.class),
+				20, 100, 50, 200);
+		TaskService plain = proxy(target, new PassThroughAspect());
+		TaskService instrumented = proxy(target, new ServiceCallEventAspect());
+
+		long sink = 0;
+		for (int i = 0; i < WARMUP; i++) {
+			sink += plain.countTasks() + instrumented.countTasks();
+		}
+
+		// Mejor ronda de cada variante para filtrar pausas de GC y JIT
+		long plainNanos = Long.MAX_VALUE;
+		long instrumentedNanos = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				sink += plain.countTasks();
+			}
+			plainNanos = Math.min(plainNanos, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				sink += instrumented.countTasks();
+			}
+			instrumentedNanos = Math.min(instrumentedNanos, System.nanoTime() - start);
+		}
+
+		double overheadPerCall = (instrumentedNanos - plainNanos) / (double) ITERATIONS;
+		System.out.printf("Eventos JFR sin grabación: %.1f ns/llamada (sin: %.0f ns, con: %.0f ns, %d)%n",
+				overheadPerCall, plainNanos / (double) ITERATIONS, instrumentedNanos / (double) ITERATIONS, sink);
+
+		// isEnabled() es false y el evento no escapa: no debe notarse frente al propio proxy
+		assertThat(overheadPerCall).isLessThan(50);
+	}
+
+	private static TaskService proxy(TaskService target, Object aspect) {
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(aspect);
+		return factory.getProxy();
+	}
+
+	// Repositorio mínimo: count() devuelve una constante sin pasar por Mockito
+	private static TaskRepository countingRepository() {
+		return (TaskRepository) Proxy.newProxyInstance(TaskRepository.class.getClassLoader(),
+				new Class<?>[] { TaskRepository.class }, (proxy, method, args) -> 42L);
+	}
+
+	@Aspect
+	static class PassThroughAspect {
+
+		@Around("within(com.josemiguelhyb.unitasks.service..*) && execution(public * *(..))")
+		public Object proceed(ProceedingJoinPoint joinPoint) throws Throwable {
+			return joinPoint.proceed();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.josemiguelhyb.unitasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.josemiguelhyb.unitasks.dto.AuthResponse;
+import com.josemiguelhyb.unitasks.dto.LoginRequest;
+import com.josemiguelhyb.unitasks.dto.RegisterRequest;
+import com.josemiguelhyb.unitasks.exception.EmailAlreadyExistsException;
+
+/**
+ * Registro con un solo INSERT: el índice único de email decide quién gana
+ * cuando varias altas del mismo email (con mayúsculas distintas) llegan a la
+ * vez, y el resto reciben EmailAlreadyExistsException.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RegistrationConcurrencyTest {
+
+	private static final int ATTEMPTS = 8;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentRegistrationsOfSameEmailHaveExactlyOneWinner() throws Exception {
+		String local = "race-" + System.nanoTime();
+		String[] variants = { local + "@unitasks.local", local.toUpperCase() + "@UniTasks.local",
+				"  " + local + "@UNITASKS.LOCAL  " };
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(ATTEMPTS);
+		List<Future<AuthResponse>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < ATTEMPTS; i++) {
+				String email = variants[i % variants.length];
+				results.add(executor.submit(() -> {
+					start.await();
+					return authService.register(request(email));
+				}));
+			}
+			start.countDown();
+
+			int winners = 0;
+			int duplicates = 0;
+			for (Future<AuthResponse> result : results) {
+				try {
+					assertThat(result.get().getEmail()).isEqualTo(local + "@unitasks.local");
+					winners++;
+				} catch (ExecutionException e) {
+					assertThat(e.getCause()).isInstanceOf(EmailAlreadyExistsException.class);
+					duplicates++;
+				}
+			}
+			assertThat(winners).isEqualTo(1);
+			assertThat(duplicates).isEqualTo(ATTEMPTS - 1);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE LOWER(email) = ?", Integer.class,
+				local + "@unitasks.local")).isEqualTo(1);
+	}
+
+	@Test
+	void loginIgnoresEmailCase() {
+		String email = "login-" + System.nanoTime() + "@unitasks.local";
+		authService.register(request(email));
+
+		LoginRequest login = new LoginRequest("  " + email.toUpperCase() + " ", "password123");
+		assertThat(authService.login(login).getEmail()).isEqualTo(email);
+	}
+
+	@Test
+	void databaseRejectsNonNormalizedEmails() {
+		assertThatThrownBy(() -> jdbcTemplate.update(
+				"INSERT INTO users (name, lastname, email, password, active) VALUES ('Ana', 'García', ?, 'x', TRUE)",
+				"Mayusculas-" + System.nanoTime() + "@unitasks.local"))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	private static RegisterRequest request(String email) {
+		return new RegisterRequest("Ana", "García", email, "password123");
+	}
+}
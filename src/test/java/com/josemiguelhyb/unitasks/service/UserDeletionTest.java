@@ -0,0 +1,123 @@
+package com.josemiguelhyb.unitasks.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.josemiguelhyb.unitasks.exception.UserNotFoundException;
+import com.josemiguelhyb.unitasks.metrics.SqlScope;
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.repository.UserRepository;
+import com.josemiguelhyb.unitasks.support.TestData;
+
+/**
+ * Borrado de usuarios en bloque: el número de sentencias no depende de cuántas
+ * tareas (y etiquetas) tenga el usuario, y el borrado en segundo plano por tramos deja la
+ * base de datos igual que el síncrono. Tramos de 50 tareas para recorrer
+ * varios con pocas filas.
+ */
+@SpringBootTest(properties = "unitasks.users.delete.chunk-size=50")
+@ActiveProfiles("test")
+class UserDeletionTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDeletionService userDeletionService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void statementCountDoesNotGrowWithTasks() {
+		List<Integer> statements = new ArrayList<>();
+		for (int tasks : new int[] { 0, 10, 1_000 }) {
+			User user = userWithTasks(tasks);
+
+			SqlScope scope = SqlScope.open();
+			try {
+				userService.deleteUser(user.getId());
+			} finally {
+				scope.close();
+			}
+
+			statements.add(scope.getStatements());
+			assertThat(userRepository.existsById(user.getId())).isFalse();
+			assertThat(taskCount(user)).isZero();
+			assertThat(orphanLabelCount()).isZero();
+		}
+		// DELETE de las tareas y DELETE del usuario
+		assertThat(statements).containsOnly(2);
+	}
+
+	@Test
+	void deletingUnknownUserFails() {
+		assertThatThrownBy(() -> userService.deleteUser(Long.MAX_VALUE))
+				.isInstanceOf(UserNotFoundException.class);
+	}
+
+	@Test
+	void asyncDeletionRemovesTasksInChunks() throws Exception {
+		User user = userWithTasks(230);
+
+		userDeletionService.deleteUserAsync(user.getId());
+		// Desactivado al volver (o ya borrado si el hilo de fondo fue más rápido)
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ? AND active", Long.class,
+				user.getId())).isZero();
+
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (userDeletionService.isPending(user.getId()) && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertThat(userDeletionService.isPending(user.getId())).isFalse();
+		assertThat(userRepository.existsById(user.getId())).isFalse();
+		assertThat(taskCount(user)).isZero();
+		assertThat(orphanLabelCount()).isZero();
+	}
+
+	@Test
+	void asyncDeletionOfUnknownUserFails() {
+		assertThatThrownBy(() -> userDeletionService.deleteUserAsync(Long.MAX_VALUE))
+				.isInstanceOf(UserNotFoundException.class);
+	}
+
+	// Tareas insertadas por JDBC en un lote: la siembra no cuenta y es rápida
+	private User userWithTasks(int tasks) {
+		User user = userRepository.save(TestData.user("Ana", "García", "delete-" + System.nanoTime() + "@unitasks.local"));
+		Timestamp now = Timestamp.from(Instant.now());
+		List<Object[]> rows = new ArrayList<>(tasks);
+		for (int i = 0; i < tasks; i++) {
+			rows.add(new Object[] { "Tarea " + i, now, now, user.getId() });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tasks (title, status, priority, created_at, updated_at, user_id)"
+				+ " VALUES (?, 'PENDING', 'LOW', ?, ?, ?)", rows);
+		jdbcTemplate.update("INSERT INTO task_labels (task_id, label) SELECT id, 'examen' FROM tasks WHERE user_id = ?",
+				user.getId());
+		assertThat(taskCount(user)).isEqualTo(tasks);
+		return user;
+	}
+
+	// Las etiquetas se van con sus tareas (ON DELETE CASCADE)
+	private long orphanLabelCount() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_labels WHERE task_id NOT IN (SELECT id FROM tasks)",
+				Long.class);
+	}
+
+	private long taskCount(User user) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE user_id = ?", Long.class, user.getId());
+	}
+}
@@ -0,0 +1,20 @@
+package com.josemiguelhyb.unitasks.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * El test falla si su cuerpo ejecuta más de {@code max} sentencias SQL. Lo
+ * preparado en @BeforeEach no cuenta.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+	int max();
+}
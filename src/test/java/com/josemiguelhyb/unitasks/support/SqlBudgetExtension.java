@@ -0,0 +1,38 @@
+package com.josemiguelhyb.unitasks.support;
+
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import com.josemiguelhyb.unitasks.metrics.SqlScope;
+
+/**
+ * Abre un SqlScope alrededor del cuerpo del test (MockMvc atiende la petición
+ * en el mismo hilo) y comprueba el máximo indicado en @SqlBudget.
+ */
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace
+			.create(SqlBudgetExtension.class);
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) {
+		context.getStore(NAMESPACE).put(context.getUniqueId(), SqlScope.open());
+	}
+
+	@Override
+	public void afterTestExecution(ExtensionContext context) {
+		SqlScope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlScope.class);
+		scope.close();
+		int max = context.getRequiredTestMethod().getAnnotation(SqlBudget.class).max();
+		if (scope.getStatements() > max) {
+			String shapes = scope.getShapes().entrySet().stream()
+					.map(e -> "  " + e.getValue() + "x " + e.getKey())
+					.collect(Collectors.joining("\n"));
+			throw new AssertionError(context.getDisplayName() + " ejecutó " + scope.getStatements()
+					+ " sentencias SQL (máximo " + max + "):\n" + shapes);
+		}
+	}
+}
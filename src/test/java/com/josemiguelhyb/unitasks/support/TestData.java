@@ -0,0 +1,41 @@
+package com.josemiguelhyb.unitasks.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.josemiguelhyb.unitasks.model.User;
+import com.josemiguelhyb.unitasks.security.JwtUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Datos comunes de los tests de integración: usuarios guardados sin
+ * contraseña real, la cabecera Authorization de uno de ellos y el borrado de
+ * las tablas (y de la caché de segundo nivel) entre tests.
+ */
+public final class TestData {
+
+	// No es un hash BCrypt válido: los tests se autentican con JWT, nunca con contraseña
+	public static final String PASSWORD_HASH = "$2a$10$hash";
+
+	private TestData() {
+	}
+
+	public static User user(String name, String lastname, String email) {
+		return user(name, lastname, email, true);
+	}
+
+	public static User user(String name, String lastname, String email, boolean active) {
+		return new User(name, lastname, email, PASSWORD_HASH, active);
+	}
+
+	public static String bearer(JwtUtil jwtUtil, String email) {
+		return "Bearer " + jwtUtil.generateToken(email);
+	}
+
+	// Las tareas primero por la clave foránea; sus etiquetas las borra la base de datos
+	public static void deleteAll(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+		jdbcTemplate.update("DELETE FROM tasks");
+		jdbcTemplate.update("DELETE FROM users");
+		entityManagerFactory.getCache().evictAll();
+	}
+}
@@ -0,0 +1,66 @@
+package com.josemiguelhyb.unitasks.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * El calentamiento se ejecuta antes de que la readiness pase a
+ * ACCEPTING_TRAFFIC, publica la duración de cada paso y la latencia de las
+ * primeras peticiones queda resumida en el log.
+ */
+@SpringBootTest(properties = { "unitasks.warmup.enabled=true", "unitasks.warmup.iterations=50",
+		"unitasks.warmup.query-iterations=3", "unitasks.warmup.report-requests=3" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class WarmupRunnerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ApplicationAvailability availability;
+
+	@Test
+	void warmsUpBeforeReadinessAndReportsFirstRequests(CapturedOutput output) throws Exception {
+		assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+		for (String step : new String[] { "pool", "jwt", "json", "queries", "total" }) {
+			assertThat(meterRegistry.find("unitasks.warmup.duration").tag("step", step).timeGauge())
+					.as("paso %s", step).isNotNull();
+		}
+
+		// Las sondas no cuentan; las tres peticiones siguientes completan la muestra
+		mockMvc.perform(get("/actuator/health/readiness")).andExpect(status().isOk());
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+					.content("{\"email\":\"nadie@unitasks.local\",\"password\":\"x\"}"))
+					.andExpect(status().isUnauthorized());
+		}
+
+		Timer firstRequests = meterRegistry.find("unitasks.warmup.first.requests").tag("warmed", "true").timer();
+		assertThat(firstRequests).isNotNull();
+		assertThat(firstRequests.count()).isEqualTo(3);
+		assertThat(output).contains("Primeras 3 peticiones (con calentamiento");
+	}
+}